@@ -0,0 +1,129 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.asset;
+
+import com.google.common.collect.ConcurrentHashMultiset;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Multiset;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.engine.module.ModuleManager;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.testUtil.ModuleManagerFactory;
+import org.terasology.world.block.shapes.BlockShape;
+import org.terasology.world.block.shapes.BlockShapeData;
+import org.terasology.world.block.shapes.BlockShapeImpl;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+
+public class AssetManagerConcurrencyTest {
+
+    private static final int THREADS = 8;
+
+    private AssetManager assetManager;
+    private Multiset<AssetUri> builtShapes = ConcurrentHashMultiset.create();
+    private ExecutorService executor;
+
+    @Before
+    public void setup() throws Exception {
+        ModuleManager moduleManager = ModuleManagerFactory.create();
+        assetManager = new AssetManager(moduleManager.getEnvironment());
+        CoreRegistry.put(ModuleManager.class, moduleManager);
+        CoreRegistry.put(AssetManager.class, assetManager);
+        AssetType.registerAssetTypes(assetManager);
+        assetManager.setAssetFactory(AssetType.SHAPE, new AssetFactory<BlockShapeData, BlockShape>() {
+            @Override
+            public BlockShape buildAsset(AssetUri uri, BlockShapeData data) {
+                builtShapes.add(uri);
+                return new BlockShapeImpl(uri, data);
+            }
+        });
+        executor = Executors.newFixedThreadPool(THREADS);
+    }
+
+    @After
+    public void teardown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void concurrentlyRequestedAssetsAreLoadedOnce() throws Exception {
+        final List<AssetUri> shapeUris = Lists.newArrayList(assetManager.listAssets(AssetType.SHAPE));
+        assertFalse(shapeUris.isEmpty());
+
+        final CountDownLatch start = new CountDownLatch(1);
+        List<Future<List<Asset<?>>>> results = Lists.newArrayList();
+        for (int i = 0; i < THREADS; ++i) {
+            results.add(executor.submit(new Callable<List<Asset<?>>>() {
+                @Override
+                public List<Asset<?>> call() throws Exception {
+                    start.await();
+                    List<Asset<?>> shapes = Lists.newArrayList();
+                    for (AssetUri uri : shapeUris) {
+                        shapes.add(assetManager.loadAsset(uri));
+                    }
+                    return shapes;
+                }
+            }));
+        }
+        start.countDown();
+
+        List<Asset<?>> expected = results.get(0).get(10, TimeUnit.SECONDS);
+        for (Future<List<Asset<?>>> result : results) {
+            List<Asset<?>> shapes = result.get(10, TimeUnit.SECONDS);
+            for (int i = 0; i < shapeUris.size(); ++i) {
+                assertNotNull(shapes.get(i));
+                assertSame(expected.get(i), shapes.get(i));
+            }
+        }
+        for (AssetUri uri : shapeUris) {
+            assertEquals(1, builtShapes.count(uri));
+        }
+    }
+
+    @Test
+    public void asyncLoadProvidesCachedAsset() throws Exception {
+        AssetUri uri = new AssetUri(AssetType.SHAPE, "engine", "cube");
+        Asset<?> asyncShape = assetManager.loadAssetAsync(uri).get(10, TimeUnit.SECONDS);
+
+        assertNotNull(asyncShape);
+        assertSame(asyncShape, assetManager.loadAsset(uri));
+        assertSame(asyncShape, assetManager.loadAssetAsync(uri).get());
+        assertEquals(1, builtShapes.count(uri));
+    }
+
+    @Test
+    public void softlyCachedDataIsReused() {
+        AssetUri uri = new AssetUri(AssetType.SHAPE, "engine", "cube");
+        assetManager.setDataSoftlyCached(AssetType.SHAPE, true);
+
+        AssetData data = assetManager.loadAssetDataInContext(uri);
+        assertNotNull(data);
+        assertSame(data, assetManager.loadAssetDataInContext(uri));
+    }
+}
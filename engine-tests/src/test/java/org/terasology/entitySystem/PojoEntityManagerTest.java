@@ -26,6 +26,7 @@
 import org.terasology.asset.Assets;
 import org.terasology.engine.bootstrap.EntitySystemBuilder;
 import org.terasology.engine.module.ModuleManager;
+import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.internal.PojoEntityManager;
 import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
@@ -327,6 +328,23 @@ public void prefabCopiedCorrectly2() {
         assertFalse(test1.getComponent(StringComponent.class) == (test2.getComponent(StringComponent.class)));
     }
 
+    @Test
+    public void prefabCopyOnWriteSharesUntilRetrieved() {
+        entityManager.setPrefabCopyOnWrite(true);
+        EntityRef entity1 = entityManager.create(prefab);
+        EntityRef entity2 = entityManager.create(prefab);
+        StringComponent comp = entity1.getComponent(StringComponent.class);
+        assertFalse(comp == prefab.getComponent(StringComponent.class));
+        comp.value = "One";
+        entity1.saveComponent(comp);
+        assertEquals("Test", prefab.getComponent(StringComponent.class).value);
+        assertEquals("One", entity1.getComponent(StringComponent.class).value);
+        assertEquals("Test", entity2.getComponent(StringComponent.class).value);
+        for (Component c : entity2.iterateComponents()) {
+            assertFalse(c == prefab.getComponent(StringComponent.class));
+        }
+    }
+
     @Test
     public void prefabPersistedRetainedCorrectly() {
         PrefabData protoPrefab = new PrefabData();
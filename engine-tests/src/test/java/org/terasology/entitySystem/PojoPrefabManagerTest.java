@@ -15,6 +15,7 @@
  */
 package org.terasology.entitySystem;
 
+import com.google.common.collect.Sets;
 import org.junit.Before;
 import org.junit.Test;
 import org.terasology.asset.AssetFactory;
@@ -27,6 +28,7 @@
 import org.terasology.entitySystem.metadata.EntitySystemLibrary;
 import org.terasology.entitySystem.prefab.Prefab;
 import org.terasology.entitySystem.prefab.PrefabData;
+import org.terasology.entitySystem.prefab.PrefabManager;
 import org.terasology.entitySystem.prefab.internal.PojoPrefab;
 import org.terasology.entitySystem.prefab.internal.PojoPrefabManager;
 import org.terasology.entitySystem.stubs.StringComponent;
@@ -67,6 +69,7 @@ public void setup() throws Exception {
         entitySystemLibrary = new EntitySystemLibrary(reflectFactory, copyStrategyLibrary, lib);
         componentLibrary = entitySystemLibrary.getComponentLibrary();
         prefabManager = new PojoPrefabManager();
+        CoreRegistry.put(PrefabManager.class, prefabManager);
         AssetManager assetManager = new AssetManager(moduleManager.getEnvironment());
         assetManager.setAssetFactory(AssetType.PREFAB, new AssetFactory<PrefabData, Prefab>() {
             @Override
@@ -92,5 +95,17 @@ public void retrievePrefab() {
         assertEquals(PREFAB_NAME, ref.getName());
     }
 
+    @Test
+    public void listPrefabsWithComponent() {
+        PrefabData data = new PrefabData();
+        data.addComponent(new StringComponent("Test"));
+        Prefab prefab = Assets.generateAsset(new AssetUri(AssetType.PREFAB, PREFAB_NAME), data, Prefab.class);
+        Assets.generateAsset(new AssetUri(AssetType.PREFAB, "unittest:other"), new PrefabData(), Prefab.class);
+        assertEquals(Sets.newHashSet(prefab), prefabManager.listPrefabs(StringComponent.class));
 
+        PrefabData secondData = new PrefabData();
+        secondData.addComponent(new StringComponent("Second"));
+        Prefab second = Assets.generateAsset(new AssetUri(AssetType.PREFAB, "unittest:second"), secondData, Prefab.class);
+        assertEquals(Sets.newHashSet(prefab, second), prefabManager.listPrefabs(StringComponent.class));
+    }
 }
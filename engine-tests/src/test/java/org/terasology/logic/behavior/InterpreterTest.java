@@ -19,6 +19,8 @@
 import org.junit.Test;
 import org.terasology.logic.behavior.tree.Interpreter;
 import org.terasology.logic.behavior.tree.Node;
+import org.terasology.logic.behavior.tree.RepeatNode;
+import org.terasology.logic.behavior.tree.SequenceNode;
 import org.terasology.logic.behavior.tree.Status;
 import org.terasology.logic.behavior.tree.Task;
 
@@ -149,6 +151,27 @@ public void testTerminate() {
         verify(task).onTerminate(Status.SUCCESS);
     }
 
+    @Test
+    public void testFinishedTasksAreReused() {
+        final int[] created = new int[1];
+        SequenceNode sequence = new SequenceNode() {
+            @Override
+            public SequenceTask createTask() {
+                created[0]++;
+                return super.createTask();
+            }
+        };
+        sequence.children().add(new DebugNode(0));
+        Interpreter interpreter = new Interpreter(null);
+        interpreter.start(new RepeatNode(sequence));
+
+        for (int i = 0; i < 10; i++) {
+            interpreter.tick(0);
+        }
+        // The next run of the sequence is started before the finished one is released, so two tasks alternate
+        Assert.assertEquals(2, created[0]);
+    }
+
     private void create() {
         node = new Node() {
             @Override
@@ -0,0 +1,91 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.protobuf.CodedInputStream;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.DefaultChannelConfig;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.terasology.protobuf.NetData;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.zip.Inflater;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ModuleDataTransferTest {
+
+    @Rule
+    public TemporaryFolder tempFolder = new TemporaryFolder();
+
+    @Test
+    public void moduleArchiveIsStreamedAsDecodableModuleDataMessages() throws Exception {
+        byte[] archive = new byte[150000];
+        new Random(42).nextBytes(archive);
+        Path archivePath = tempFolder.newFile("module.jar").toPath();
+        Files.write(archivePath, archive);
+
+        Channel channel = mock(Channel.class);
+        when(channel.getConfig()).thenReturn(new DefaultChannelConfig());
+        DeflateEncoder encoder = new DeflateEncoder();
+        Inflater inflater = new Inflater();
+        ByteArrayOutputStream inflated = new ByteArrayOutputStream();
+
+        byte[] time = NetData.NetMessage.newBuilder().setTime(1234).build().toByteArray();
+        inflate(inflater, encoder.encode(null, channel, ChannelBuffers.wrappedBuffer(new byte[]{(byte) time.length}, time)), inflated);
+        ModuleDataChunkedInput input = new ModuleDataChunkedInput(archivePath);
+        assertEquals(archive.length, input.getSize());
+        while (input.hasNextChunk()) {
+            inflate(inflater, encoder.encode(null, channel, input.nextChunk()), inflated);
+        }
+        input.close();
+        inflate(inflater, encoder.encode(null, channel, ChannelBuffers.wrappedBuffer(new byte[]{(byte) time.length}, time)), inflated);
+
+        CodedInputStream frames = CodedInputStream.newInstance(inflated.toByteArray());
+        assertEquals(1234, NetData.NetMessage.parseFrom(frames.readRawBytes(frames.readRawVarint32())).getTime());
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        while (received.size() < archive.length) {
+            NetData.NetMessage message = NetData.NetMessage.parseFrom(frames.readRawBytes(frames.readRawVarint32()));
+            message.getModuleData().getModule().writeTo(received);
+        }
+        assertArrayEquals(archive, received.toByteArray());
+        assertEquals(1234, NetData.NetMessage.parseFrom(frames.readRawBytes(frames.readRawVarint32())).getTime());
+        assertTrue(frames.isAtEnd());
+    }
+
+    private void inflate(Inflater inflater, Object encoded, ByteArrayOutputStream output) throws Exception {
+        ChannelBuffer buffer = (ChannelBuffer) encoded;
+        byte[] data = new byte[buffer.readableBytes()];
+        buffer.readBytes(data);
+        inflater.setInput(data);
+        byte[] block = new byte[8192];
+        int read;
+        while ((read = inflater.inflate(block)) > 0) {
+            output.write(block, 0, read);
+        }
+    }
+}
@@ -16,7 +16,7 @@
 package org.terasology.persistence;
 
 import com.google.common.collect.ImmutableMap;
-
+import com.google.protobuf.CodedOutputStream;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -29,10 +29,13 @@
 import org.terasology.entitySystem.stubs.GetterSetterComponent;
 import org.terasology.entitySystem.stubs.IntegerComponent;
 import org.terasology.entitySystem.stubs.StringComponent;
+import org.terasology.logic.location.LocationComponent;
 import org.terasology.math.geom.Quat4f;
 import org.terasology.math.geom.Vector3f;
 import org.terasology.network.NetworkSystem;
 import org.terasology.persistence.serializers.ComponentSerializer;
+import org.terasology.persistence.serializers.DirectComponentSerializer;
+import org.terasology.persistence.serializers.FieldSerializeCheck;
 import org.terasology.persistence.typeHandling.TypeSerializationLibrary;
 import org.terasology.persistence.typeHandling.mathTypes.Quat4fTypeHandler;
 import org.terasology.persistence.typeHandling.mathTypes.Vector3fTypeHandler;
@@ -42,8 +45,12 @@
 import org.terasology.reflection.reflect.ReflectionReflectFactory;
 import org.terasology.testUtil.ModuleManagerFactory;
 
+import java.io.IOException;
+
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 
@@ -73,6 +80,7 @@ public void setup() {
         entityManager.getComponentLibrary().register(new SimpleUri("test", "gettersetter"), GetterSetterComponent.class);
         entityManager.getComponentLibrary().register(new SimpleUri("test", "string"), StringComponent.class);
         entityManager.getComponentLibrary().register(new SimpleUri("test", "integer"), IntegerComponent.class);
+        entityManager.getComponentLibrary().register(new SimpleUri("engine", "location"), LocationComponent.class);
         ComponentLibrary componentLibrary = entityManager.getComponentLibrary();
         componentSerializer = new ComponentSerializer(componentLibrary, serializationLibrary);
 
@@ -140,4 +148,61 @@ public void testDeltaComponentTypeIdDeserializesWithoutValue() throws Exception
         componentSerializer.deserializeOnto(original, compData);
         assertEquals("test", original.value);
     }
+
+    @Test
+    public void testEncodedComponentMatchesMessage() throws Exception {
+        LocationComponent location = new LocationComponent(new Vector3f(1, -2, 3.5f));
+        location.setLocalRotation(new Quat4f(0, 1, 0, 0));
+        location.setLocalScale(2);
+        Component[] components = {new IntegerComponent(-42), new StringComponent("Test"), new GetterSetterComponent(), location};
+
+        assertEncodedMatchesMessage(components);
+
+        componentSerializer.setIdMapping(ImmutableMap.<Class<? extends Component>, Integer>of(IntegerComponent.class, 3, LocationComponent.class, 300));
+        componentSerializer.setUsingFieldIds(true);
+        assertEncodedMatchesMessage(components);
+    }
+
+    private void assertEncodedMatchesMessage(Component... components) throws IOException {
+        FieldSerializeCheck<Component> check = FieldSerializeCheck.NullCheck.newInstance();
+        for (Component component : components) {
+            byte[] expected = componentSerializer.serialize(component, check).toByteArray();
+            assertArrayEquals(expected, toByteArray(componentSerializer.encode(component, check)));
+        }
+    }
+
+    @Test
+    public void testEncodedComponentDeltaMatchesMessage() throws Exception {
+        FieldSerializeCheck<Component> check = FieldSerializeCheck.NullCheck.newInstance();
+        StringComponent base = new StringComponent("Original");
+        StringComponent delta = new StringComponent("Delta");
+
+        byte[] expected = componentSerializer.serialize(base, delta, check).toByteArray();
+        assertArrayEquals(expected, toByteArray(componentSerializer.encode(base, delta, check)));
+        assertNull(componentSerializer.encode(base, new StringComponent("Original"), check));
+    }
+
+    @Test
+    public void testEncodedComponentRoundTrip() throws Exception {
+        componentSerializer.setUsingFieldIds(true);
+        FieldSerializeCheck<Component> check = FieldSerializeCheck.NullCheck.newInstance();
+        LocationComponent location = new LocationComponent(new Vector3f(1, -2, 3.5f));
+        location.setLocalRotation(new Quat4f(0, 1, 0, 0));
+
+        EntityData.Component locationData = EntityData.Component.parseFrom(toByteArray(componentSerializer.encode(location, check)));
+        LocationComponent restored = (LocationComponent) componentSerializer.deserialize(locationData);
+        assertEquals(location.getLocalPosition(), restored.getLocalPosition());
+        assertEquals(location.getLocalRotation(), restored.getLocalRotation());
+
+        EntityData.Component integerData = EntityData.Component.parseFrom(toByteArray(componentSerializer.encode(new IntegerComponent(1234), check)));
+        assertEquals(new IntegerComponent(1234), componentSerializer.deserialize(integerData));
+    }
+
+    private byte[] toByteArray(DirectComponentSerializer<?>.EncodedComponent component) throws IOException {
+        byte[] result = new byte[component.getSerializedSize()];
+        CodedOutputStream out = CodedOutputStream.newInstance(result);
+        component.writeTo(out);
+        out.checkNoSpaceLeft();
+        return result;
+    }
 }
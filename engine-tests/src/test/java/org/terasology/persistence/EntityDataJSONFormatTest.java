@@ -21,7 +21,10 @@
 import org.junit.Before;
 import org.junit.Test;
 import org.terasology.engine.TerasologyConstants;
+import org.terasology.persistence.serializers.EntityDataBinaryFormat;
 import org.terasology.persistence.serializers.EntityDataJSONFormat;
+import org.terasology.persistence.serializers.WorldDataReader;
+import org.terasology.persistence.serializers.WorldDataWriter;
 import org.terasology.protobuf.EntityData;
 
 import java.io.BufferedReader;
@@ -280,6 +283,107 @@ public void testPersistPersistableFlag() throws Exception {
         assertPersist(worldBuilder);
     }
 
+    @Test
+    public void testStreamWorld() throws Exception {
+        prefabBuilder.setName("Test");
+        worldBuilder.addPrefab(prefabBuilder);
+        worldBuilder.addEntity(entityBuilder.setId(1).setParentPrefab("Test"));
+        worldBuilder.addEntity(EntityData.Entity.newBuilder().setId(2).addComponent(componentBuilder));
+        worldBuilder.setNextEntityId(3);
+        EntityData.GlobalStore world = worldBuilder.build();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (WorldDataWriter writer = EntityDataJSONFormat.newWorldWriter(new OutputStreamWriter(baos, TerasologyConstants.CHARSET))) {
+            writer.writeHeader(world.toBuilder().clearEntity().build());
+            for (EntityData.Entity entity : world.getEntityList()) {
+                writer.writeEntity(entity);
+            }
+        }
+
+        assertEquals(world, readStreamed(baos.toByteArray()));
+        assertEquals(world, EntityDataJSONFormat.readWorld(new BufferedReader(new InputStreamReader(
+                new ByteArrayInputStream(baos.toByteArray()), TerasologyConstants.CHARSET))));
+    }
+
+    @Test
+    public void testStreamWorldWrittenAtOnce() throws Exception {
+        prefabBuilder.setName("Test");
+        worldBuilder.addPrefab(prefabBuilder);
+        worldBuilder.addEntity(entityBuilder.setId(1).setParentPrefab("Test"));
+        worldBuilder.setNextEntityId(2);
+        EntityData.GlobalStore world = worldBuilder.build();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(baos, TerasologyConstants.CHARSET));
+        EntityDataJSONFormat.write(world, writer);
+        writer.flush();
+
+        assertEquals(world, readStreamed(baos.toByteArray()));
+    }
+
+    @Test
+    public void testStreamWorldWithoutNextEntityId() throws Exception {
+        worldBuilder.addEntity(entityBuilder.setId(1));
+        EntityData.GlobalStore world = worldBuilder.build();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (WorldDataWriter writer = EntityDataJSONFormat.newWorldWriter(new OutputStreamWriter(baos, TerasologyConstants.CHARSET))) {
+            writer.writeHeader(world.toBuilder().clearEntity().build());
+            writer.writeEntity(world.getEntity(0));
+        }
+
+        assertEquals(world, readStreamed(baos.toByteArray()));
+    }
+
+    @Test
+    public void testStreamWorldBinary() throws Exception {
+        prefabBuilder.setName("Test");
+        worldBuilder.addPrefab(prefabBuilder);
+        worldBuilder.addEntity(entityBuilder.setId(1).setParentPrefab("Test"));
+        nameValueBuilder.setName(VALUE_NAME).setValue(EntityData.Value.newBuilder().addString("Hello").addInteger(4));
+        worldBuilder.addEntity(EntityData.Entity.newBuilder().setId(2).addComponent(componentBuilder.addField(nameValueBuilder)));
+        worldBuilder.addComponentClass("Test");
+        worldBuilder.setNextEntityId(3);
+        EntityData.GlobalStore world = worldBuilder.build();
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (WorldDataWriter writer = EntityDataBinaryFormat.newWorldWriter(baos)) {
+            writer.writeHeader(world.toBuilder().clearEntity().build());
+            for (EntityData.Entity entity : world.getEntityList()) {
+                writer.writeEntity(entity);
+            }
+        }
+
+        assertEquals(EntityDataBinaryFormat.FORMAT_VERSION, baos.toByteArray()[0]);
+        assertEquals(world, readStreamed(EntityDataBinaryFormat.newWorldReader(new ByteArrayInputStream(baos.toByteArray()))));
+    }
+
+    @Test(expected = IOException.class)
+    public void testBinaryRejectsUnknownFormatVersion() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        baos.write(EntityDataBinaryFormat.FORMAT_VERSION + 1);
+        worldBuilder.build().writeDelimitedTo(baos);
+
+        readStreamed(EntityDataBinaryFormat.newWorldReader(new ByteArrayInputStream(baos.toByteArray())));
+    }
+
+    private EntityData.GlobalStore readStreamed(byte[] data) throws IOException {
+        return readStreamed(EntityDataJSONFormat.newWorldReader(new InputStreamReader(new ByteArrayInputStream(data),
+                TerasologyConstants.CHARSET)));
+    }
+
+    private EntityData.GlobalStore readStreamed(WorldDataReader worldReader) throws IOException {
+        try (WorldDataReader reader = worldReader) {
+            EntityData.GlobalStore.Builder world = reader.readHeader().toBuilder();
+            EntityData.Entity entity = reader.readEntity();
+            while (entity != null) {
+                world.addEntity(entity);
+                entity = reader.readEntity();
+            }
+            return world.build();
+        }
+    }
+
     private void assertPersist(EntityData.GlobalStore.Builder builder) throws IOException {
         EntityData.GlobalStore world = builder.build();
         EntityData.GlobalStore newWorld = persistAndRetrieve(world);
@@ -16,6 +16,7 @@
 package org.terasology.persistence;
 
 import com.google.common.collect.Lists;
+import com.google.protobuf.CodedOutputStream;
 import org.junit.Before;
 import org.junit.BeforeClass;
 import org.junit.Test;
@@ -45,6 +46,10 @@
 import org.terasology.registry.CoreRegistry;
 import org.terasology.testUtil.ModuleManagerFactory;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
@@ -259,4 +264,37 @@ public void testMappedTypeHandling() throws Exception {
         assertTrue(loadedEntity.exists());
         assertTrue(loadedEntity.hasComponent(MappedTypeComponent.class));
     }
+
+    @Test
+    public void testStreamedEntityMatchesMessage() throws Exception {
+        EntityRef fullEntity = entityManager.create(new StringComponent("Value"), new IntegerComponent(-3));
+        fullEntity.setAlwaysRelevant(true);
+        assertStreamedMatchesMessage(fullEntity);
+
+        EntityRef deltaEntity = entityManager.create(prefab);
+        deltaEntity.addComponent(new IntegerComponent(1));
+        StringComponent stringComponent = deltaEntity.getComponent(StringComponent.class);
+        stringComponent.value = "Delta";
+        deltaEntity.saveComponent(stringComponent);
+        deltaEntity.setOwner(fullEntity);
+        assertStreamedMatchesMessage(deltaEntity);
+
+        EntityRef removedEntity = entityManager.create(prefab);
+        removedEntity.removeComponent(StringComponent.class);
+        assertStreamedMatchesMessage(removedEntity);
+
+        entitySerializer.setIgnoringEntityId(true);
+        assertStreamedMatchesMessage(deltaEntity);
+    }
+
+    private void assertStreamedMatchesMessage(EntityRef entity) throws IOException {
+        ByteArrayOutputStream expected = new ByteArrayOutputStream();
+        entitySerializer.serialize(entity).writeDelimitedTo(expected);
+
+        ByteArrayOutputStream actual = new ByteArrayOutputStream();
+        CodedOutputStream out = CodedOutputStream.newInstance(actual);
+        entitySerializer.serialize(entity, out);
+        out.flush();
+        assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+    }
 }
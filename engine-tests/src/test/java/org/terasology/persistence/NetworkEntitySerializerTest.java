@@ -0,0 +1,119 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
+import com.google.protobuf.ByteString;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.terasology.engine.SimpleUri;
+import org.terasology.engine.bootstrap.EntitySystemBuilder;
+import org.terasology.engine.module.ModuleManager;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.entitySystem.metadata.ComponentLibrary;
+import org.terasology.entitySystem.stubs.IntegerComponent;
+import org.terasology.entitySystem.stubs.StringComponent;
+import org.terasology.network.NetworkSystem;
+import org.terasology.persistence.serializers.FieldSerializeCheck;
+import org.terasology.persistence.serializers.NetworkEntitySerializer;
+import org.terasology.protobuf.EntityData;
+import org.terasology.reflection.reflect.ReflectionReflectFactory;
+import org.terasology.testUtil.ModuleManagerFactory;
+
+import java.util.Collections;
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+
+public class NetworkEntitySerializerTest {
+
+    private static ModuleManager moduleManager;
+    private EngineEntityManager entityManager;
+    private ComponentLibrary componentLibrary;
+    private NetworkEntitySerializer serializer;
+
+    @BeforeClass
+    public static void setupClass() throws Exception {
+        moduleManager = ModuleManagerFactory.create();
+    }
+
+    @Before
+    public void setup() {
+        EntitySystemBuilder builder = new EntitySystemBuilder();
+        entityManager = builder.build(moduleManager.getEnvironment(), mock(NetworkSystem.class), new ReflectionReflectFactory());
+        componentLibrary = entityManager.getComponentLibrary();
+        componentLibrary.register(new SimpleUri("test", "string"), StringComponent.class);
+        componentLibrary.register(new SimpleUri("test", "integer"), IntegerComponent.class);
+        serializer = new NetworkEntitySerializer(entityManager, componentLibrary, entityManager.getTypeSerializerLibrary());
+        serializer.setIdMapping(ImmutableMap.<Class<? extends Component>, Integer>of(StringComponent.class, 1, IntegerComponent.class, 2));
+    }
+
+    @Test
+    public void testSentEntityMatchesMessage() throws Exception {
+        EntityRef entity = entityManager.create(new StringComponent("Value"), new IntegerComponent(-5));
+        Set<Class<? extends Component>> added = Sets.<Class<? extends Component>>newLinkedHashSet();
+        added.add(StringComponent.class);
+        added.add(IntegerComponent.class);
+
+        EntityData.PackedEntity sent = serializer.serialize(entity, added, noComponents(), noComponents(),
+                FieldSerializeCheck.NullCheck.<Component>newInstance());
+
+        EntityData.PackedEntity expected = EntityData.PackedEntity.newBuilder()
+                .addComponentId(1)
+                .addComponentId(2)
+                .setComponentFieldCounts(ByteString.copyFrom(new byte[]{1, 1}))
+                .setFieldIds(ByteString.copyFrom(new byte[]{fieldId(StringComponent.class), fieldId(IntegerComponent.class)}))
+                .addFieldValue(EntityData.Value.newBuilder().addString("Value"))
+                .addFieldValue(EntityData.Value.newBuilder().addInteger(-5))
+                .build();
+        EntityData.PackedEntity received = EntityData.PackedEntity.parseFrom(sent.toByteArray());
+        assertEquals(expected, received);
+
+        EntityRef copy = serializer.deserialize(received);
+        assertEquals(new StringComponent("Value"), copy.getComponent(StringComponent.class));
+        assertEquals(new IntegerComponent(-5), copy.getComponent(IntegerComponent.class));
+    }
+
+    @Test
+    public void testNullFieldSentAsEmptyValue() throws Exception {
+        EntityRef entity = entityManager.create(new StringComponent(null));
+        Set<Class<? extends Component>> changed = Collections.<Class<? extends Component>>singleton(StringComponent.class);
+
+        EntityData.PackedEntity sent = serializer.serialize(entity, noComponents(), changed, noComponents(),
+                FieldSerializeCheck.NullCheck.<Component>newInstance());
+
+        EntityData.PackedEntity expected = EntityData.PackedEntity.newBuilder()
+                .addComponentId(1)
+                .setComponentFieldCounts(ByteString.copyFrom(new byte[]{1}))
+                .setFieldIds(ByteString.copyFrom(new byte[]{fieldId(StringComponent.class)}))
+                .addFieldValue(EntityData.Value.getDefaultInstance())
+                .build();
+        assertEquals(expected, EntityData.PackedEntity.parseFrom(sent.toByteArray()));
+    }
+
+    private byte fieldId(Class<? extends Component> componentType) {
+        return componentLibrary.getMetadata(componentType).getField("value").getId();
+    }
+
+    private static Set<Class<? extends Component>> noComponents() {
+        return Collections.emptySet();
+    }
+}
@@ -17,7 +17,9 @@
 
 import org.junit.Before;
 import org.junit.BeforeClass;
+import org.junit.Rule;
 import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
 import org.terasology.asset.AssetManager;
 import org.terasology.asset.AssetType;
 import org.terasology.engine.SimpleUri;
@@ -39,9 +41,12 @@
 import org.terasology.registry.CoreRegistry;
 import org.terasology.testUtil.ModuleManagerFactory;
 
+import java.nio.file.Path;
 import java.util.Collections;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
@@ -52,8 +57,12 @@ public class WorldSerializerTest {
 
     private static ModuleManager moduleManager;
 
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
     private EngineEntityManager entityManager;
     private WorldSerializer worldSerializer;
+    private PrefabSerializer prefabSerializer;
 
     @BeforeClass
     public static void setupClass() throws Exception {
@@ -70,7 +79,8 @@ public void setup() {
         entityManager.getComponentLibrary().register(new SimpleUri("test", "gettersetter"), GetterSetterComponent.class);
         entityManager.getComponentLibrary().register(new SimpleUri("test", "string"), StringComponent.class);
         entityManager.getComponentLibrary().register(new SimpleUri("test", "integer"), IntegerComponent.class);
-        worldSerializer = new WorldSerializerImpl(entityManager, new PrefabSerializer(entityManager.getComponentLibrary(), entityManager.getTypeSerializerLibrary()));
+        prefabSerializer = new PrefabSerializer(entityManager.getComponentLibrary(), entityManager.getTypeSerializerLibrary());
+        worldSerializer = new WorldSerializerImpl(entityManager, prefabSerializer);
     }
 
     @Test
@@ -84,4 +94,21 @@ public void testNotPersistedIfFlagedOtherwise() throws Exception {
         assertEquals(0, worldData.getEntityCount());
     }
 
+    @Test
+    public void testBinaryDumpRoundTrip() throws Exception {
+        EntityRef entity = entityManager.create(new StringComponent("Test"), new IntegerComponent(3));
+        long id = entity.getId();
+        Path dump = temporaryFolder.getRoot().toPath().resolve("dumps").resolve("world.dump");
+
+        WorldDumper dumper = new WorldDumper(entityManager, prefabSerializer);
+        dumper.saveBinary(dump);
+        entityManager.clear();
+        assertFalse(entity.exists());
+
+        dumper.loadBinary(dump);
+        EntityRef loaded = entityManager.getEntity(id);
+        assertTrue(loaded.exists());
+        assertEquals("Test", loaded.getComponent(StringComponent.class).value);
+        assertEquals(3, loaded.getComponent(IntegerComponent.class).value);
+    }
 }
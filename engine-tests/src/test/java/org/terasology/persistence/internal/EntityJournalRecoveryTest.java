@@ -0,0 +1,134 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.terasology.protobuf.EntityData;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+public class EntityJournalRecoveryTest {
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private StoragePathProvider storagePathProvider;
+    private EntityJournalRecovery recovery;
+
+    @Before
+    public void setup() throws IOException {
+        storagePathProvider = new StoragePathProvider(temporaryFolder.getRoot().toPath());
+        recovery = new EntityJournalRecovery(storagePathProvider, new SaveTransactionHelper(storagePathProvider));
+        Files.createDirectories(storagePathProvider.getEntityJournalPath());
+    }
+
+    @Test
+    public void journaledChangesAreAppliedToGlobalStore() throws IOException {
+        writeGlobalStore(EntityData.GlobalStore.newBuilder()
+                .addEntity(entity(1, "old"))
+                .addEntity(entity(2, "old"))
+                .setNextEntityId(3)
+                .build());
+        appendRecord(1, new long[]{2}, entity(1, "changed"));
+        appendRecord(2, new long[0], entity(7, "new"));
+
+        recovery.recover();
+
+        EntityData.GlobalStore globalStore = readGlobalStore();
+        assertEquals(Arrays.asList(entity(1, "changed"), entity(7, "new")), globalStore.getEntityList());
+        assertEquals(8, globalStore.getNextEntityId());
+        assertEquals(0, EntityJournal.listSegments(storagePathProvider).size());
+        assertFalse(Files.exists(storagePathProvider.getUnmergedChangesPath()));
+    }
+
+    @Test
+    public void journaledEntitiesStayInTheirStore() throws IOException {
+        Path playerPath = storagePathProvider.getPlayerFilePath("player");
+        Files.createDirectories(playerPath.getParent());
+        try (OutputStream out = Files.newOutputStream(playerPath)) {
+            EntityData.PlayerStore.newBuilder()
+                    .setStore(EntityData.EntityStore.newBuilder().addEntity(entity(4, "old")))
+                    .build().writeTo(out);
+        }
+        appendRecord(1, new long[0], entity(4, "changed"));
+
+        recovery.recover();
+
+        try (InputStream in = Files.newInputStream(playerPath)) {
+            EntityData.PlayerStore playerStore = EntityData.PlayerStore.parseFrom(in);
+            assertEquals(Arrays.asList(entity(4, "changed")), playerStore.getStore().getEntityList());
+        }
+        assertEquals(0, readGlobalStore().getEntityCount());
+    }
+
+    @Test
+    public void incompleteRecordIsDiscarded() throws IOException {
+        appendRecord(1, new long[0], entity(1, "first"));
+        TLongSet noEntities = new TLongHashSet();
+        byte[] record = EntityJournal.encodeRecord(noEntities, EntityData.EntityStore.newBuilder()
+                .addEntity(entity(1, "second")).build().toByteString());
+        Files.write(storagePathProvider.getEntityJournalSegmentPath(1), Arrays.copyOf(record, record.length - 1),
+                StandardOpenOption.APPEND);
+
+        recovery.recover();
+
+        assertEquals(Arrays.asList(entity(1, "first")), readGlobalStore().getEntityList());
+    }
+
+    private void appendRecord(long segment, long[] destroyed, EntityData.Entity changed) throws IOException {
+        byte[] record = EntityJournal.encodeRecord(new TLongHashSet(destroyed),
+                EntityData.EntityStore.newBuilder().addEntity(changed).build().toByteString());
+        Files.write(storagePathProvider.getEntityJournalSegmentPath(segment), record,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private EntityData.Entity entity(long id, String value) {
+        return EntityData.Entity.newBuilder()
+                .setId(id)
+                .addComponent(EntityData.Component.newBuilder()
+                        .setType("test:string")
+                        .addField(EntityData.NameValue.newBuilder()
+                                .setName("value")
+                                .setValue(EntityData.Value.newBuilder().addString(value))))
+                .build();
+    }
+
+    private void writeGlobalStore(EntityData.GlobalStore globalStore) throws IOException {
+        try (OutputStream out = Files.newOutputStream(storagePathProvider.getGlobalEntityStorePath())) {
+            globalStore.writeTo(out);
+        }
+    }
+
+    private EntityData.GlobalStore readGlobalStore() throws IOException {
+        try (InputStream in = Files.newInputStream(storagePathProvider.getGlobalEntityStorePath())) {
+            return EntityData.GlobalStore.parseFrom(in);
+        }
+    }
+}
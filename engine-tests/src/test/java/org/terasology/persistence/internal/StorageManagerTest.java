@@ -304,6 +304,32 @@ public void chunkSurvivesStorageSaveAndRestore() throws Exception {
         assertEquals(testBlock2, restored.getChunk().getBlock(0, 4, 2));
     }
 
+    @Test
+    public void generatedChunkSurvivesStorageSaveAndRestore() throws Exception {
+        Chunk chunk = new ChunkImpl(CHUNK_POS);
+        chunk.setBlock(0, 4, 2, testBlock);
+        chunk.deflate();
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Collections.<Chunk>emptyList());
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+
+        assertFalse(esm.isChunkStored(CHUNK_POS));
+        assertTrue(esm.storeGeneratedChunk(chunk));
+        assertFalse(esm.storeGeneratedChunk(new ChunkImpl(CHUNK_POS)));
+        assertTrue(esm.isChunkStored(CHUNK_POS));
+        esm.waitForCompletionOfPreviousSaveAndStartSaving();
+        esm.finishSavingAndShutdown();
+
+        EngineEntityManager newEntityManager = new EntitySystemBuilder().build(moduleManager.getEnvironment(), networkSystem, new ReflectionReflectFactory());
+        StorageManager newSM = new ReadWriteStorageManager(savePath, moduleManager.getEnvironment(), newEntityManager, false);
+        newSM.loadGlobalStore();
+
+        assertTrue(newSM.isChunkStored(CHUNK_POS));
+        ChunkStore restored = newSM.loadChunkStore(CHUNK_POS);
+        assertNotNull(restored);
+        assertEquals(testBlock, restored.getChunk().getBlock(0, 4, 2));
+    }
+
     @Test
     public void entitySurvivesStorageInChunkStore() throws Exception {
         Chunk chunk = new ChunkImpl(CHUNK_POS);
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.TerasologyTestingEnvironment;
+import org.terasology.math.Vector3i;
+import org.terasology.protobuf.EntityData;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.block.family.DefaultBlockFamilyFactoryRegistry;
+import org.terasology.world.block.family.SymmetricFamily;
+import org.terasology.world.block.internal.BlockManagerImpl;
+import org.terasology.world.block.loader.NullWorldAtlas;
+import org.terasology.world.chunks.internal.ChunkImpl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+
+public class UnloadedChunkCacheTest extends TerasologyTestingEnvironment {
+
+    private Block stone;
+
+    @Before
+    public void setup() throws Exception {
+        super.setup();
+        BlockManagerImpl blockManager = new BlockManagerImpl(new NullWorldAtlas(), new DefaultBlockFamilyFactoryRegistry());
+        CoreRegistry.put(BlockManager.class, blockManager);
+        blockManager.addBlockFamily(new SymmetricFamily(new BlockUri("engine:stone"), new Block()), false);
+        stone = blockManager.getBlock("engine:stone");
+    }
+
+    @Test
+    public void takenChunkIsACopyOfTheUnloadedChunk() {
+        UnloadedChunkCache cache = new UnloadedChunkCache(Long.MAX_VALUE);
+        ChunkImpl chunk = createUnloadedChunk(new Vector3i(1, 2, 3));
+        cache.put(chunk, EntityData.EntityStore.getDefaultInstance());
+
+        UnloadedChunkCache.Entry entry = cache.take(new Vector3i(1, 2, 3));
+        assertNotNull(entry);
+        ChunkImpl restored = entry.restoreChunk();
+        assertNotSame(chunk, restored);
+        assertEquals(new Vector3i(1, 2, 3), restored.getPosition());
+        assertEquals(stone, restored.getBlock(4, 5, 6));
+        assertNull(cache.take(new Vector3i(1, 2, 3)));
+    }
+
+    @Test
+    public void leastRecentlyUnloadedChunksAreEvicted() {
+        ChunkImpl first = createUnloadedChunk(new Vector3i(0, 0, 0));
+        long chunkSize = first.getEstimatedBlockDataMemoryConsumptionInBytes();
+        UnloadedChunkCache cache = new UnloadedChunkCache(2 * chunkSize);
+        cache.put(first, EntityData.EntityStore.getDefaultInstance());
+        cache.put(createUnloadedChunk(new Vector3i(1, 0, 0)), EntityData.EntityStore.getDefaultInstance());
+        cache.put(createUnloadedChunk(new Vector3i(2, 0, 0)), EntityData.EntityStore.getDefaultInstance());
+
+        assertEquals(2, cache.size());
+        assertEquals(2 * chunkSize, cache.getSizeInBytes());
+        assertNull(cache.take(new Vector3i(0, 0, 0)));
+        assertNotNull(cache.take(new Vector3i(2, 0, 0)));
+        assertEquals(chunkSize, cache.getSizeInBytes());
+    }
+
+    private ChunkImpl createUnloadedChunk(Vector3i pos) {
+        ChunkImpl chunk = new ChunkImpl(pos);
+        chunk.setBlock(4, 5, 6, stone);
+        chunk.markReady();
+        chunk.dispose();
+        return chunk;
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.physics;
+
+import com.bulletphysics.collision.shapes.BoxShape;
+import com.bulletphysics.collision.shapes.voxel.VoxelInfo;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.TerasologyTestingEnvironment;
+import org.terasology.math.Vector3i;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.physics.engine.PhysicsLiquidWrapper;
+import org.terasology.physics.engine.PhysicsWorldWrapper;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.block.family.DefaultBlockFamilyFactoryRegistry;
+import org.terasology.world.block.family.SymmetricFamily;
+import org.terasology.world.block.internal.BlockManagerImpl;
+import org.terasology.world.block.loader.NullWorldAtlas;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkProvider;
+import org.terasology.world.chunks.internal.ChunkImpl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class PhysicsWorldWrapperTest extends TerasologyTestingEnvironment {
+
+    private Block solidBlock;
+    private Block liquidBlock;
+    private ChunkProvider chunkProvider;
+
+    @Before
+    public void setup() {
+        BlockManagerImpl blockManager = new BlockManagerImpl(new NullWorldAtlas(), new DefaultBlockFamilyFactoryRegistry());
+        CoreRegistry.put(BlockManager.class, blockManager);
+        solidBlock = new Block();
+        solidBlock.setUri(new BlockUri("engine:stone"));
+        solidBlock.setCollision(new Vector3f(), new BoxShape(new javax.vecmath.Vector3f(0.5f, 0.5f, 0.5f)));
+        blockManager.addBlockFamily(new SymmetricFamily(solidBlock.getURI(), solidBlock), true);
+        liquidBlock = new Block();
+        liquidBlock.setUri(new BlockUri("engine:water"));
+        liquidBlock.setLiquid(true);
+        liquidBlock.setPenetrable(true);
+        liquidBlock.setCollision(new Vector3f(), new BoxShape(new javax.vecmath.Vector3f(0.5f, 0.5f, 0.5f)));
+        blockManager.addBlockFamily(new SymmetricFamily(liquidBlock.getURI(), liquidBlock), true);
+
+        Chunk chunk = new ChunkImpl(new Vector3i(0, 0, 0));
+        chunk.setBlock(new Vector3i(1, 2, 3), solidBlock);
+        chunk.setBlock(new Vector3i(4, 5, 6), liquidBlock);
+        chunk.markReady();
+        chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getChunk(0, 0, 0)).thenReturn(chunk);
+    }
+
+    @Test
+    public void collidingVoxelReportsItsPosition() {
+        PhysicsWorldWrapper wrapper = new PhysicsWorldWrapper(chunkProvider);
+        VoxelInfo info = wrapper.getCollisionShapeAt(1, 2, 3);
+        assertTrue(info.isColliding());
+        assertTrue(info.isBlocking());
+        assertSame(solidBlock.getCollisionShape(), info.getCollisionShape());
+        assertEquals(new Vector3i(1, 2, 3), info.getUserData());
+    }
+
+    @Test
+    public void emptyVoxelsShareTheirInfo() {
+        PhysicsWorldWrapper wrapper = new PhysicsWorldWrapper(chunkProvider);
+        VoxelInfo first = wrapper.getCollisionShapeAt(0, 0, 0);
+        assertFalse(first.isColliding());
+        assertNull(first.getUserData());
+        assertSame(first, wrapper.getCollisionShapeAt(7, 8, 9));
+    }
+
+    @Test
+    public void unavailableChunksAreAir() {
+        PhysicsWorldWrapper wrapper = new PhysicsWorldWrapper(chunkProvider);
+        assertFalse(wrapper.getCollisionShapeAt(-1, 0, 0).isColliding());
+    }
+
+    @Test
+    public void liquidWrapperOnlyCollidesWithLiquid() {
+        PhysicsLiquidWrapper wrapper = new PhysicsLiquidWrapper(chunkProvider);
+        assertFalse(wrapper.getCollisionShapeAt(1, 2, 3).isColliding());
+        VoxelInfo info = wrapper.getCollisionShapeAt(4, 5, 6);
+        assertTrue(info.isColliding());
+        assertFalse(info.isBlocking());
+        assertEquals(new Vector3i(4, 5, 6), info.getUserData());
+    }
+}
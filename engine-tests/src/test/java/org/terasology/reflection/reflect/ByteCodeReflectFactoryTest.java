@@ -16,15 +16,22 @@
 package org.terasology.reflection.reflect;
 
 import org.junit.Test;
+import org.terasology.engine.SimpleUri;
 import org.terasology.entitySystem.stubs.GetterSetterComponent;
 import org.terasology.entitySystem.stubs.IntegerComponent;
 import org.terasology.entitySystem.stubs.StringComponent;
 import org.terasology.logic.characters.events.AttackRequest;
 import org.terasology.logic.location.LocationComponent;
 import org.terasology.math.geom.Vector3f;
+import org.terasology.reflection.copy.CopyStrategy;
+import org.terasology.reflection.copy.CopyStrategyLibrary;
+import org.terasology.reflection.copy.strategy.Vector3fCopyStrategy;
+import org.terasology.reflection.metadata.ClassMetadata;
+import org.terasology.reflection.metadata.DefaultClassMetadata;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertTrue;
 
 /**
@@ -82,4 +89,35 @@ public void accessIntegerField() throws Exception {
         assertEquals(1, fieldAccessor.getValue(comp));
     }
 
+    @Test
+    public void createCopyStrategyWithDirectFieldAccess() throws Exception {
+        ReflectFactory reflectFactory = new ByteCodeReflectFactory();
+        ClassMetadata<StringComponent, ?> metadata = new DefaultClassMetadata<>(new SimpleUri(), StringComponent.class, reflectFactory,
+                new CopyStrategyLibrary(reflectFactory));
+        CopyStrategy<StringComponent> copyStrategy = reflectFactory.createCopyStrategy(metadata);
+        assertNotNull(copyStrategy);
+
+        StringComponent comp = new StringComponent("String");
+        StringComponent copy = copyStrategy.copy(comp);
+        assertNotSame(comp, copy);
+        assertEquals("String", copy.value);
+    }
+
+    @Test
+    public void createCopyStrategyWithGetterSetter() throws Exception {
+        ReflectFactory reflectFactory = new ByteCodeReflectFactory();
+        CopyStrategyLibrary copyStrategyLibrary = new CopyStrategyLibrary(reflectFactory);
+        copyStrategyLibrary.register(Vector3f.class, new Vector3fCopyStrategy());
+        ClassMetadata<GetterSetterComponent, ?> metadata = new DefaultClassMetadata<>(new SimpleUri(), GetterSetterComponent.class,
+                reflectFactory, copyStrategyLibrary);
+        CopyStrategy<GetterSetterComponent> copyStrategy = reflectFactory.createCopyStrategy(metadata);
+        assertNotNull(copyStrategy);
+
+        GetterSetterComponent comp = new GetterSetterComponent();
+        comp.setValue(new Vector3f(1, 2, 3));
+        GetterSetterComponent copy = copyStrategy.copy(comp);
+        assertTrue(copy.setterUsed);
+        assertEquals(new Vector3f(1, 2, 3), copy.getValue());
+        assertNotSame(comp.getValue(), copy.getValue());
+    }
 }
@@ -0,0 +1,191 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.logic;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.math.geom.BaseQuat4f;
+import org.terasology.math.geom.BaseVector3f;
+import org.terasology.math.geom.Matrix4f;
+import org.terasology.math.geom.Quat4f;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.rendering.assets.animation.MeshAnimation;
+import org.terasology.rendering.assets.animation.MeshAnimationFrame;
+import org.terasology.rendering.assets.skeletalmesh.Bone;
+import org.terasology.rendering.assets.skeletalmesh.SkeletalMesh;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Compares the poses computed by SkeletonPose with composing the bone transforms one matrix at a time, as was done
+ * through the bone entities' LocationComponents.
+ */
+public class SkeletonPoseTest {
+    private static final float EPSILON = 0.0001f;
+
+    private Bone root;
+    private Bone arm;
+    private Bone hand;
+    private Bone head;
+    /**
+     * Children are listed before their parents, so the pose has to order the bones itself.
+     */
+    private List<Bone> bones;
+    private SkeletalMesh mesh;
+
+    @Before
+    public void setup() {
+        root = new Bone(0, "root", new Vector3f(1, 2, 3), rotation(0, 0.38f, 0, 0.92f));
+        arm = new Bone(1, "arm", new Vector3f(2, 3, 3), rotation(0.2f, 0.1f, 0.4f, 0.9f));
+        hand = new Bone(2, "hand", new Vector3f(3, 2.5f, 4), rotation(-0.3f, 0.5f, 0.1f, 0.8f));
+        head = new Bone(3, "head", new Vector3f(1, 4, 3), rotation(0.1f, 0, 0, 1));
+        root.addChild(arm);
+        arm.addChild(hand);
+        root.addChild(head);
+        bones = Arrays.asList(hand, arm, head, root);
+
+        mesh = mock(SkeletalMesh.class);
+        when(mesh.getBones()).thenReturn(bones);
+    }
+
+    @Test
+    public void testBindPose() {
+        SkeletonPose pose = new SkeletonPose(mesh);
+
+        Map<Bone, Vector3f> localPositions = Maps.newHashMap();
+        Map<Bone, Quat4f> localRotations = Maps.newHashMap();
+        for (Bone bone : bones) {
+            localPositions.put(bone, bone.getLocalPosition());
+            localRotations.put(bone, bone.getLocalRotation());
+        }
+        assertModelTransforms(pose, localPositions, localRotations);
+
+        // The bind pose is given in object space, which the model space transforms have to reproduce
+        for (int i = 0; i < bones.size(); ++i) {
+            assertPosition(bones.get(i).getObjectPosition(), pose.getModelPosition(i, new Vector3f()));
+            assertRotation(bones.get(i).getObjectRotation(), pose.getModelRotation(i, new Quat4f()));
+        }
+    }
+
+    @Test
+    public void testInterpolatedPose() {
+        // The animation has its own bone order, and animates a bone the mesh does not have
+        MeshAnimation animation = mock(MeshAnimation.class);
+        List<String> animatedBones = Arrays.asList("root", "tail", "hand", "arm");
+        when(animation.getBoneCount()).thenReturn(animatedBones.size());
+        for (int i = 0; i < animatedBones.size(); ++i) {
+            when(animation.getBoneName(i)).thenReturn(animatedBones.get(i));
+        }
+        MeshAnimationFrame frameA = new MeshAnimationFrame(
+                Arrays.asList(new Vector3f(0, 1, 0), new Vector3f(5, 5, 5), new Vector3f(1, 0, 0), new Vector3f(0, 0, 2)),
+                Arrays.asList(rotation(0, 0, 0, 1), rotation(1, 0, 0, 0), rotation(0.3f, 0, 0, 0.95f), rotation(0, 0.2f, 0, 0.98f)));
+        MeshAnimationFrame frameB = new MeshAnimationFrame(
+                Arrays.asList(new Vector3f(2, 1, -1), new Vector3f(5, 5, 5), new Vector3f(1, 1, 0), new Vector3f(0, 1, 2)),
+                Arrays.asList(rotation(0, 0.7f, 0, 0.7f), rotation(1, 0, 0, 0), rotation(-0.4f, 0.2f, 0, 0.9f), rotation(0, -0.6f, 0.3f, 0.7f)));
+
+        SkeletonPose pose = new SkeletonPose(mesh);
+        for (float t : new float[]{0, 0.25f, 0.5f, 1}) {
+            pose.setPendingFrames(animation, frameA, frameB, t);
+            assertTrue(pose.hasPendingFrames());
+            pose.applyPendingFrames();
+            assertFalse(pose.hasPendingFrames());
+            assertTrue(pose.isBoneEntitiesStale());
+
+            Map<Bone, Vector3f> localPositions = Maps.newHashMap();
+            Map<Bone, Quat4f> localRotations = Maps.newHashMap();
+            for (Bone bone : bones) {
+                int frameIndex = animatedBones.indexOf(bone.getName());
+                if (frameIndex != -1) {
+                    localPositions.put(bone, BaseVector3f.lerp(frameA.getPosition(frameIndex), frameB.getPosition(frameIndex), t));
+                    Quat4f rotation = BaseQuat4f.interpolate(frameA.getRotation(frameIndex), frameB.getRotation(frameIndex), t);
+                    rotation.normalize();
+                    localRotations.put(bone, rotation);
+                } else {
+                    localPositions.put(bone, bone.getLocalPosition());
+                    localRotations.put(bone, bone.getLocalRotation());
+                }
+            }
+            assertModelTransforms(pose, localPositions, localRotations);
+        }
+    }
+
+    /**
+     * Composes each bone's local transform matrix with its parent's, and checks the result against the pose.
+     */
+    private void assertModelTransforms(SkeletonPose pose, Map<Bone, Vector3f> localPositions, Map<Bone, Quat4f> localRotations) {
+        Map<Bone, Matrix4f> modelMatrices = Maps.newHashMap();
+        Map<Bone, Quat4f> modelRotations = Maps.newHashMap();
+        List<Bone> open = Lists.newArrayList(root);
+        while (!open.isEmpty()) {
+            Bone bone = open.remove(0);
+            Matrix4f local = new Matrix4f(localRotations.get(bone), localPositions.get(bone), 1);
+            Quat4f rotation = new Quat4f(localRotations.get(bone));
+            if (bone.getParent() != null) {
+                Matrix4f model = new Matrix4f(modelMatrices.get(bone.getParent()));
+                model.mul(local);
+                local = model;
+                rotation = new Quat4f(modelRotations.get(bone.getParent()));
+                rotation.mul(localRotations.get(bone));
+            }
+            modelMatrices.put(bone, local);
+            modelRotations.put(bone, rotation);
+            open.addAll(bone.getChildren());
+        }
+
+        assertEquals(bones.size(), pose.getBoneCount());
+        for (int i = 0; i < bones.size(); ++i) {
+            Bone bone = bones.get(i);
+            assertEquals(bone.getName(), pose.getBoneName(i));
+            assertEquals(bone.getChildren().size(), pose.getChildBoneCount(i));
+            assertPosition(localPositions.get(bone), pose.getLocalPosition(i, new Vector3f()));
+            assertRotation(localRotations.get(bone), pose.getLocalRotation(i, new Quat4f()));
+
+            Matrix4f model = modelMatrices.get(bone);
+            assertPosition(new Vector3f(model.m03, model.m13, model.m23), pose.getModelPosition(i, new Vector3f()));
+            assertRotation(modelRotations.get(bone), pose.getModelRotation(i, new Quat4f()));
+        }
+    }
+
+    private static Quat4f rotation(float x, float y, float z, float w) {
+        Quat4f result = new Quat4f(x, y, z, w);
+        result.normalize();
+        return result;
+    }
+
+    private static void assertPosition(Vector3f expected, Vector3f actual) {
+        assertEquals(expected.x, actual.x, EPSILON);
+        assertEquals(expected.y, actual.y, EPSILON);
+        assertEquals(expected.z, actual.z, EPSILON);
+    }
+
+    /**
+     * Rotations are compared up to their sign, as q and -q describe the same rotation.
+     */
+    private static void assertRotation(Quat4f expected, Quat4f actual) {
+        float dot = expected.x * actual.x + expected.y * actual.y + expected.z * actual.z + expected.w * actual.w;
+        assertEquals(1, Math.abs(dot), EPSILON);
+    }
+}
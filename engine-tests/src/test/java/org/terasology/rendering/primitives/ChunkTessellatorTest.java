@@ -0,0 +1,185 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.primitives;
+
+import com.google.common.collect.Maps;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.TerasologyTestingEnvironment;
+import org.terasology.engine.subsystem.lwjgl.GLBufferPool;
+import org.terasology.math.Region3i;
+import org.terasology.math.Side;
+import org.terasology.math.Vector3i;
+import org.terasology.math.geom.Vector2f;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.world.biomes.BiomeManager;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockAppearance;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockPart;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.block.family.DefaultBlockFamilyFactoryRegistry;
+import org.terasology.world.block.family.SymmetricFamily;
+import org.terasology.world.block.internal.BlockManagerImpl;
+import org.terasology.world.block.loader.NullWorldAtlas;
+import org.terasology.world.block.loader.WorldAtlas;
+import org.terasology.world.block.shapes.BlockMeshPart;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.internal.ChunkViewCoreImpl;
+
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ChunkTessellatorTest extends TerasologyTestingEnvironment {
+
+    private static final int SURFACE = 20;
+    private static final float TILE_SIZE = 1f / 16f;
+
+    private Block stone;
+
+    @Before
+    public void setup() throws Exception {
+        BlockManagerImpl blockManager = new BlockManagerImpl(new NullWorldAtlas(), new DefaultBlockFamilyFactoryRegistry());
+        CoreRegistry.put(BlockManager.class, blockManager);
+        CoreRegistry.put(BiomeManager.class, mock(BiomeManager.class));
+        WorldAtlas atlas = mock(WorldAtlas.class);
+        when(atlas.getRelativeTileSize()).thenReturn(TILE_SIZE);
+        CoreRegistry.put(WorldAtlas.class, atlas);
+
+        Block block = new Block();
+        block.setUri(new BlockUri("engine:stone"));
+        Map<BlockPart, BlockMeshPart> parts = Maps.newEnumMap(BlockPart.class);
+        Map<BlockPart, Vector2f> atlasPositions = Maps.newEnumMap(BlockPart.class);
+        for (BlockPart part : BlockPart.values()) {
+            atlasPositions.put(part, new Vector2f());
+        }
+        for (Side side : Side.values()) {
+            parts.put(BlockPart.fromSide(side), createFace(side).mapTexCoords(new Vector2f(), TILE_SIZE));
+            block.setFullSide(side, true);
+        }
+        block.setPrimaryAppearance(new BlockAppearance(parts, atlasPositions));
+        blockManager.addBlockFamily(new SymmetricFamily(block.getURI(), block), true);
+        stone = blockManager.getBlock(block.getURI());
+    }
+
+    @Test
+    public void meshOfUniformLayersMatchesMeshOfExaminedBlocks() {
+        ChunkViewCoreImpl deflatedView = createView(true, 2);
+        ChunkViewCoreImpl inflatedView = createView(false, 2);
+        assertTrue(deflatedView.isUniformBlockLayer(0, 0, 0));
+        assertTrue(deflatedView.isUniformBlockLayer(0, ChunkConstants.SIZE_Y - 1, 0));
+        assertFalse(deflatedView.isUniformBlockLayer(0, SURFACE, 0));
+        assertFalse(inflatedView.isUniformBlockLayer(0, 0, 0));
+
+        ChunkTessellator tessellator = new ChunkTessellator(new GLBufferPool(false));
+        ChunkMesh deflatedMesh = tessellator.generateMesh(deflatedView, ChunkConstants.SIZE_Y, 0);
+        ChunkMesh inflatedMesh = tessellator.generateMesh(inflatedView, ChunkConstants.SIZE_Y, 0);
+
+        for (ChunkMesh.RenderType type : ChunkMesh.RenderType.values()) {
+            ChunkMesh.VertexElements expected = inflatedMesh.getVertexElements(type);
+            ChunkMesh.VertexElements actual = deflatedMesh.getVertexElements(type);
+            assertEquals(expected.finalVertices, actual.finalVertices);
+            assertEquals(expected.finalIndices, actual.finalIndices);
+        }
+        assertTrue(deflatedMesh.getVertexElements(ChunkMesh.RenderType.OPAQUE).finalVertices.remaining() > 0);
+    }
+
+    @Test
+    public void greedyMeshingMergesFacesOfFlatSurface() {
+        ChunkViewCoreImpl view = createView(true, 1);
+        ChunkMesh perFaceMesh = new ChunkTessellator(new GLBufferPool(false), false).generateMesh(view, ChunkConstants.SIZE_Y, 0);
+        ChunkMesh greedyMesh = new ChunkTessellator(new GLBufferPool(false), true).generateMesh(view, ChunkConstants.SIZE_Y, 0);
+
+        ChunkMesh.VertexElements perFace = perFaceMesh.getVertexElements(ChunkMesh.RenderType.OPAQUE);
+        ChunkMesh.VertexElements greedy = greedyMesh.getVertexElements(ChunkMesh.RenderType.OPAQUE);
+        assertEquals(4 * ChunkConstants.SIZE_X * ChunkConstants.SIZE_Z, countVerticesAbove(perFace, SURFACE - 1));
+        assertEquals(4, countVerticesAbove(greedy, SURFACE - 1));
+        for (int i = 0; i < greedy.flags.size(); i++) {
+            if (greedy.vertices.get(3 * i + 1) > SURFACE - 1) {
+                assertEquals(ChunkVertexFlag.TILED.getValue(), greedy.flags.get(i));
+            }
+        }
+    }
+
+    private static int countVerticesAbove(ChunkMesh.VertexElements elements, float y) {
+        int count = 0;
+        for (int i = 1; i < elements.vertices.size(); i += 3) {
+            if (elements.vertices.get(i) > y) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Creates a 3x3 view of chunks that are solid below a surface layer of the given roughness and lit from above
+     */
+    private ChunkViewCoreImpl createView(boolean deflate, int roughness) {
+        Random random = new Random(7);
+        Chunk[] chunks = new Chunk[9];
+        for (int chunkZ = -1; chunkZ <= 1; chunkZ++) {
+            for (int chunkX = -1; chunkX <= 1; chunkX++) {
+                Chunk chunk = new ChunkImpl(new Vector3i(chunkX, 0, chunkZ));
+                for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+                    for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                        int height = SURFACE + random.nextInt(roughness);
+                        for (int y = 0; y < ChunkConstants.SIZE_Y; y++) {
+                            if (y < height) {
+                                chunk.setBlock(x, y, z, stone);
+                            } else {
+                                chunk.setSunlight(x, y, z, ChunkConstants.MAX_SUNLIGHT);
+                            }
+                        }
+                    }
+                }
+                if (deflate) {
+                    chunk.deflate();
+                }
+                chunks[(chunkX + 1) + 3 * (chunkZ + 1)] = chunk;
+            }
+        }
+        return new ChunkViewCoreImpl(chunks, Region3i.createFromCenterExtents(Vector3i.zero(), new Vector3i(1, 0, 1)), new Vector3i(1, 0, 1));
+    }
+
+    private static BlockMeshPart createFace(Side side) {
+        Vector3i normal = side.getVector3i();
+        Vector3f center = new Vector3f(0.5f * normal.x, 0.5f * normal.y, 0.5f * normal.z);
+        Vector3f tangent = (normal.y == 0) ? new Vector3f(0, 0.5f, 0) : new Vector3f(0.5f, 0, 0);
+        Vector3f bitangent = new Vector3f(normal.y * tangent.z - normal.z * tangent.y, normal.z * tangent.x - normal.x * tangent.z,
+                normal.x * tangent.y - normal.y * tangent.x);
+        Vector3f[] vertices = new Vector3f[4];
+        Vector3f[] normals = new Vector3f[4];
+        Vector2f[] texCoords = new Vector2f[4];
+        for (int i = 0; i < 4; i++) {
+            float t = (i == 0 || i == 3) ? -1 : 1;
+            float b = (i < 2) ? -1 : 1;
+            vertices[i] = new Vector3f(center.x + t * tangent.x + b * bitangent.x, center.y + t * tangent.y + b * bitangent.y,
+                    center.z + t * tangent.z + b * bitangent.z);
+            normals[i] = new Vector3f(normal.x, normal.y, normal.z);
+            texCoords[i] = new Vector2f((t + 1) / 2, (b + 1) / 2);
+        }
+        return new BlockMeshPart(vertices, normals, texCoords, new int[]{0, 1, 2, 0, 2, 3});
+    }
+}
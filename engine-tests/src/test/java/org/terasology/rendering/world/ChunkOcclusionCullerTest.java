@@ -0,0 +1,156 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.world;
+
+import com.google.common.collect.Maps;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.TerasologyTestingEnvironment;
+import org.terasology.math.Region3i;
+import org.terasology.math.Side;
+import org.terasology.math.Vector3i;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.block.family.DefaultBlockFamilyFactoryRegistry;
+import org.terasology.world.block.family.SymmetricFamily;
+import org.terasology.world.block.internal.BlockManagerImpl;
+import org.terasology.world.block.loader.NullWorldAtlas;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.internal.ChunkImpl;
+
+import java.util.Map;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class ChunkOcclusionCullerTest extends TerasologyTestingEnvironment {
+
+    private Block stone;
+
+    @Before
+    public void setup() throws Exception {
+        super.setup();
+        BlockManagerImpl blockManager = new BlockManagerImpl(new NullWorldAtlas(), new DefaultBlockFamilyFactoryRegistry());
+        CoreRegistry.put(BlockManager.class, blockManager);
+        Block block = new Block();
+        block.setUri(new BlockUri("engine:stone"));
+        for (Side side : Side.values()) {
+            block.setFullSide(side, true);
+        }
+        blockManager.addBlockFamily(new SymmetricFamily(block.getURI(), block), false);
+        stone = blockManager.getBlock("engine:stone");
+    }
+
+    @Test
+    public void uniformChunksAreFullyConnectedOrClosed() {
+        assertSame(ChunkConnectivity.FULL, ChunkConnectivity.compute(new ChunkImpl(0, 0, 0)));
+        assertSame(ChunkConnectivity.NONE, ChunkConnectivity.compute(createSolidChunk()));
+    }
+
+    @Test
+    public void tunnelConnectsOnlyTheFacesItOpensTo() {
+        ChunkImpl chunk = createSolidChunk();
+        for (int x = 0; x < ChunkConstants.SIZE_X; ++x) {
+            chunk.setBlock(x, 10, 5, BlockManager.getAir());
+        }
+        // An enclosed cave touching no face
+        chunk.setBlock(10, 30, 10, BlockManager.getAir());
+
+        ChunkConnectivity connectivity = ChunkConnectivity.compute(chunk);
+        assertTrue(connectivity.isConnected(Side.LEFT, Side.RIGHT));
+        assertTrue(connectivity.isConnected(Side.RIGHT, Side.LEFT));
+        assertFalse(connectivity.isConnected(Side.LEFT, Side.TOP));
+        assertFalse(connectivity.isConnected(Side.FRONT, Side.BACK));
+        assertFalse(connectivity.isConnected(Side.TOP, Side.BOTTOM));
+    }
+
+    @Test
+    public void chunksBehindClosedChunksAreNotVisible() {
+        final Map<Vector3i, ChunkConnectivity> chunks = Maps.newHashMap();
+        chunks.put(new Vector3i(2, 0, 0), ChunkConnectivity.NONE);
+        ChunkOcclusionCuller culler = new ChunkOcclusionCuller();
+        culler.update(Region3i.createFromMinMax(new Vector3i(0, 0, 0), new Vector3i(4, 0, 0)), new Vector3i(0, 0, 0),
+                new ChunkOcclusionCuller.ChunkConnectivityProvider() {
+                    @Override
+                    public ChunkConnectivity getConnectivity(int x, int y, int z) {
+                        ChunkConnectivity connectivity = chunks.get(new Vector3i(x, y, z));
+                        return (connectivity != null) ? connectivity : ChunkConnectivity.FULL;
+                    }
+                });
+
+        assertTrue(culler.isVisible(new Vector3i(0, 0, 0)));
+        assertTrue(culler.isVisible(new Vector3i(1, 0, 0)));
+        assertTrue(culler.isVisible(new Vector3i(2, 0, 0)));
+        assertFalse(culler.isVisible(new Vector3i(3, 0, 0)));
+        assertFalse(culler.isVisible(new Vector3i(4, 0, 0)));
+        assertEquals(3, culler.getVisibleChunkCount());
+    }
+
+    @Test
+    public void searchDoesNotTurnBack() {
+        // A wall of closed chunks at x = 1, with an opening above the camera that leads over the wall
+        final Map<Vector3i, ChunkConnectivity> chunks = Maps.newHashMap();
+        for (int y = 0; y <= 2; ++y) {
+            for (int z = 0; z <= 2; ++z) {
+                chunks.put(new Vector3i(1, y, z), ChunkConnectivity.NONE);
+            }
+        }
+        chunks.remove(new Vector3i(1, 2, 1));
+        ChunkOcclusionCuller culler = new ChunkOcclusionCuller();
+        culler.update(Region3i.createFromMinMax(new Vector3i(0, 0, 0), new Vector3i(2, 2, 2)), new Vector3i(0, 0, 1),
+                new ChunkOcclusionCuller.ChunkConnectivityProvider() {
+                    @Override
+                    public ChunkConnectivity getConnectivity(int x, int y, int z) {
+                        ChunkConnectivity connectivity = chunks.get(new Vector3i(x, y, z));
+                        return (connectivity != null) ? connectivity : ChunkConnectivity.FULL;
+                    }
+                });
+
+        // Reached by moving up and then right
+        assertTrue(culler.isVisible(new Vector3i(2, 2, 1)));
+        // Would require moving down after moving up
+        assertFalse(culler.isVisible(new Vector3i(2, 0, 1)));
+    }
+
+    @Test
+    public void everythingIsVisibleFromOutsideTheRegion() {
+        ChunkOcclusionCuller culler = new ChunkOcclusionCuller();
+        culler.update(Region3i.createFromMinMax(new Vector3i(0, 0, 0), new Vector3i(2, 0, 0)), new Vector3i(0, 5, 0),
+                new ChunkOcclusionCuller.ChunkConnectivityProvider() {
+                    @Override
+                    public ChunkConnectivity getConnectivity(int x, int y, int z) {
+                        return ChunkConnectivity.NONE;
+                    }
+                });
+        assertTrue(culler.isVisible(new Vector3i(2, 0, 0)));
+    }
+
+    private ChunkImpl createSolidChunk() {
+        ChunkImpl chunk = new ChunkImpl(0, 0, 0);
+        for (int y = 0; y < ChunkConstants.SIZE_Y; ++y) {
+            for (int z = 0; z < ChunkConstants.SIZE_Z; ++z) {
+                for (int x = 0; x < ChunkConstants.SIZE_X; ++x) {
+                    chunk.setBlock(x, y, z, stone);
+                }
+            }
+        }
+        return chunk;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities;
+
+import org.junit.Test;
+import org.terasology.math.Rect2i;
+import org.terasology.math.geom.Vector2f;
+import org.terasology.utilities.procedural.BrownianNoise3D;
+import org.terasology.utilities.procedural.BulkNoise;
+import org.terasology.utilities.procedural.Noise2D;
+import org.terasology.utilities.procedural.Noise3D;
+import org.terasology.utilities.procedural.Noise3DTo2DAdapter;
+import org.terasology.utilities.procedural.PerlinNoise;
+import org.terasology.utilities.procedural.SimplexNoise;
+import org.terasology.utilities.procedural.SubSampledNoise2D;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Bulk evaluation has to produce exactly the values of per-point evaluation, otherwise existing worlds would
+ * show seams between chunks generated before and after the switch.
+ */
+public class BulkNoiseTest {
+
+    private static final float[] XS = {-1000.5f, -3.25f, -1f, 0f, 0.001f, 0.5f, 17.75f, 255.9f, 256f, 12345.67f};
+    private static final float[] YS = {-77.1f, 0f, 0.999f, 42f, 511.5f};
+    private static final float[] ZS = {-0.5f, 3.3f, 1024f};
+
+    @Test
+    public void perlinMatchesPerPoint() {
+        assertMatchesPerPoint(new PerlinNoise(23));
+    }
+
+    @Test
+    public void brownianMatchesPerPoint() {
+        assertMatchesPerPoint(new BrownianNoise3D(new PerlinNoise(42), 8));
+    }
+
+    @Test
+    public void simplexMatchesPerPoint() {
+        SimplexNoise noise = new SimplexNoise(7);
+        assertMatchesPerPoint((Noise3D) noise);
+        assertMatchesPerPoint((Noise2D) noise);
+    }
+
+    @Test
+    public void adaptedBrownianMatchesPerPoint() {
+        assertMatchesPerPoint(new Noise3DTo2DAdapter(new BrownianNoise3D(new PerlinNoise(5), 8), 12.5f));
+    }
+
+    @Test
+    public void subSampledRegionUnchanged() {
+        final Noise2D source = new Noise3DTo2DAdapter(new BrownianNoise3D(new PerlinNoise(99), 8));
+        Noise2D perPointSource = new Noise2D() {
+            @Override
+            public float noise(float x, float y) {
+                return source.noise(x, y);
+            }
+        };
+        Vector2f zoom = new Vector2f(0.0004f, 0.0004f);
+        Rect2i region = Rect2i.createFromMinAndSize(-37, 81, 32, 32);
+
+        float[] expected = new SubSampledNoise2D(perPointSource, zoom, 4).noise(region);
+        float[] actual = new SubSampledNoise2D(source, zoom, 4).noise(region);
+        assertArrayEquals(expected, actual, 0.0f);
+    }
+
+    @Test
+    public void axisSpacing() {
+        assertArrayEquals(new float[]{-2f, -1.5f, -1f, -0.5f}, BulkNoise.axis(-2f, 0.5f, 4), 0.0f);
+    }
+
+    private void assertMatchesPerPoint(Noise3D noise) {
+        float[] target = new float[XS.length * YS.length * ZS.length];
+        BulkNoise.noise(noise, XS, YS, ZS, target);
+        for (int k = 0; k < ZS.length; k++) {
+            for (int j = 0; j < YS.length; j++) {
+                for (int i = 0; i < XS.length; i++) {
+                    assertEquals(noise.noise(XS[i], YS[j], ZS[k]), target[i + XS.length * (j + YS.length * k)], 0.0f);
+                }
+            }
+        }
+    }
+
+    private void assertMatchesPerPoint(Noise2D noise) {
+        float[] target = new float[XS.length * YS.length];
+        BulkNoise.noise(noise, XS, YS, target);
+        for (int j = 0; j < YS.length; j++) {
+            for (int i = 0; i < XS.length; i++) {
+                assertEquals(noise.noise(XS[i], YS[j]), target[i + XS.length * j], 0.0f);
+            }
+        }
+    }
+}
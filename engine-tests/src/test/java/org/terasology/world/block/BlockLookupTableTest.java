@@ -0,0 +1,82 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.block;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+public class BlockLookupTableTest {
+
+    @Test
+    public void testBlocksAreIndexedById() {
+        Block stone = createBlock((short) 3);
+        Block high = createBlock((short) 40000);
+        BlockLookupTable table = new BlockLookupTable(Lists.newArrayList(BlockManager.getAir(), stone, high));
+
+        assertSame(stone, table.getBlock((short) 3));
+        assertSame(high, table.getBlock((short) 40000));
+        assertSame(BlockManager.getAir(), table.getBlock((short) 0));
+    }
+
+    @Test
+    public void testUnregisteredIdsResolveToAir() {
+        BlockLookupTable table = new BlockLookupTable(Lists.newArrayList(BlockManager.getAir(), createBlock((short) 3)));
+
+        assertSame(BlockManager.getAir(), table.getBlock((short) 2));
+        assertSame(BlockManager.getAir(), table.getBlock((short) 100));
+        assertEquals(0, table.getLuminance((short) 100));
+    }
+
+    @Test
+    public void testLuminanceIsIndexedById() {
+        Block lava = createBlock((short) 70);
+        lava.setLuminance((byte) 15);
+        Block glass = createBlock((short) 65);
+        BlockLookupTable table = new BlockLookupTable(Lists.newArrayList(BlockManager.getAir(), lava, glass));
+
+        assertEquals(15, table.getLuminance((short) 70));
+        assertEquals(0, table.getLuminance((short) 65));
+    }
+
+    @Test
+    public void testWithBlocksExtendsAndReplaces() {
+        Block stone = createBlock((short) 3);
+        BlockLookupTable table = new BlockLookupTable(Lists.newArrayList(BlockManager.getAir(), stone));
+        Block glass = createBlock((short) 3);
+        glass.setLuminance((byte) 2);
+        Block torch = createBlock((short) 130);
+        torch.setLuminance((byte) 14);
+        BlockLookupTable extended = table.withBlocks(Lists.newArrayList(glass, torch));
+
+        assertSame(glass, extended.getBlock((short) 3));
+        assertEquals(2, extended.getLuminance((short) 3));
+        assertSame(torch, extended.getBlock((short) 130));
+        assertEquals(14, extended.getLuminance((short) 130));
+        assertSame(BlockManager.getAir(), extended.getBlock((short) 100));
+        assertEquals(0, extended.getLuminance((short) 100));
+        assertSame(stone, table.getBlock((short) 3));
+        assertEquals(0, table.getLuminance((short) 3));
+    }
+
+    private Block createBlock(short id) {
+        Block block = new Block();
+        block.setId(id);
+        return block;
+    }
+}
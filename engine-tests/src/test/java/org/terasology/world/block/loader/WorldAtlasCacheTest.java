@@ -0,0 +1,123 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.block.loader;
+
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.terasology.asset.AssetType;
+import org.terasology.asset.AssetUri;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+/**
+ * Tests the {@link WorldAtlasCache} class.
+ */
+public class WorldAtlasCacheTest {
+
+    private static final byte[] KEY = {1, 2, 3, 4};
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private WorldAtlasCache cache;
+    private Path cacheFile;
+
+    @Before
+    public void setup() throws Exception {
+        cacheFile = temporaryFolder.getRoot().toPath().resolve("atlas.bin");
+        cache = new WorldAtlasCache(cacheFile);
+    }
+
+    @Test
+    public void missingCacheFileIsIgnored() {
+        assertNull(cache.load(KEY));
+    }
+
+    @Test
+    public void storedAtlasRoundTrips() {
+        cache.store(KEY, createEntry());
+
+        WorldAtlasCache.Entry loaded = cache.load(KEY);
+        assertNotNull(loaded);
+        assertEquals(4, loaded.getTileSize());
+        assertEquals(8, loaded.getAtlasSize());
+        assertEquals(3, loaded.getNumMipmaps());
+        assertEquals(2, loaded.getTileIndexes().size());
+        assertEquals(1, loaded.getTileIndexes().get(new AssetUri(AssetType.BLOCK_TILE, "engine:stone")));
+        for (int level = 0; level < 3; ++level) {
+            assertMipmap(level, 0, loaded.getColor()[level]);
+            assertMipmap(level, 1, loaded.getNormal()[level]);
+            assertMipmap(level, 2, loaded.getHeight()[level]);
+        }
+    }
+
+    @Test
+    public void differentKeyIsRejected() {
+        cache.store(KEY, createEntry());
+
+        assertNull(cache.load(new byte[]{1, 2, 3, 5}));
+    }
+
+    @Test
+    public void corruptCacheIsRejected() throws Exception {
+        cache.store(KEY, createEntry());
+        byte[] content = Files.readAllBytes(cacheFile);
+        byte[] truncated = new byte[content.length / 2];
+        System.arraycopy(content, 0, truncated, 0, truncated.length);
+        Files.write(cacheFile, truncated);
+
+        assertNull(cache.load(KEY));
+    }
+
+    private WorldAtlasCache.Entry createEntry() {
+        TObjectIntMap<AssetUri> tileIndexes = new TObjectIntHashMap<>();
+        tileIndexes.put(new AssetUri(AssetType.BLOCK_TILE, "engine:dirt"), 0);
+        tileIndexes.put(new AssetUri(AssetType.BLOCK_TILE, "engine:stone"), 1);
+        return new WorldAtlasCache.Entry(4, 8, tileIndexes, createChain(0), createChain(1), createChain(2));
+    }
+
+    private ByteBuffer[] createChain(int chain) {
+        ByteBuffer[] result = new ByteBuffer[3];
+        for (int level = 0; level < result.length; ++level) {
+            int size = 8 >> level;
+            ByteBuffer buffer = ByteBuffer.allocateDirect(4 * size * size);
+            while (buffer.hasRemaining()) {
+                buffer.put((byte) (chain * 16 + level));
+            }
+            buffer.flip();
+            result[level] = buffer;
+        }
+        return result;
+    }
+
+    private void assertMipmap(int level, int chain, ByteBuffer buffer) {
+        int size = 8 >> level;
+        assertEquals(4 * size * size, buffer.limit());
+        while (buffer.hasRemaining()) {
+            assertEquals((byte) (chain * 16 + level), buffer.get());
+        }
+    }
+}
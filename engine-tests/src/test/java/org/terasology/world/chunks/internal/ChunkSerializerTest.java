@@ -0,0 +1,120 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.internal;
+
+import com.google.common.collect.Lists;
+import org.junit.Test;
+import org.terasology.math.Vector3i;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
+import org.terasology.world.chunks.blockdata.TeraDenseArray8Bit;
+import org.terasology.world.chunks.deflate.TeraStandardDeflator;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class ChunkSerializerTest {
+
+    @Test
+    public void roundTripDenseArrays() {
+        TeraArray blocks = createBlocks();
+        TeraArray liquid = createLiquid();
+        assertRoundTrip(blocks, liquid);
+    }
+
+    @Test
+    public void roundTripDeflatedArrays() {
+        TeraStandardDeflator deflator = new TeraStandardDeflator();
+        TeraArray blocks = deflator.deflate(createBlocks());
+        TeraArray liquid = deflator.deflate(createLiquid());
+        assertTrue(blocks.isSparse());
+        assertRoundTrip(blocks, liquid);
+    }
+
+    @Test
+    public void trailingZeroRunIsOmitted() {
+        TeraArray blocks = new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+        blocks.set(0, 0, 0, 5);
+        TeraArray liquid = new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+        EntityData.ChunkStore store = ChunkSerializer.encode(new Vector3i(), blocks, liquid, liquid).build();
+
+        assertEquals(1, store.getBlockData().getRunLengthsCount());
+        assertEquals(1, store.getBlockData().getRunLengths(0));
+        assertEquals(5, store.getBlockData().getValues(0));
+        assertEquals(0, store.getLiquidData().getRunLengthsCount());
+    }
+
+    private void assertRoundTrip(TeraArray blocks, TeraArray liquid) {
+        EntityData.ChunkStore store = ChunkSerializer.encode(new Vector3i(1, 0, 2), blocks, liquid, liquid).build();
+        int[] decodedBlocks = expand(store.getBlockData().getRunLengthsList(), store.getBlockData().getValuesList());
+        List<Integer> liquidValues = Lists.newArrayList();
+        for (byte value : store.getLiquidData().getValues()) {
+            liquidValues.add((int) value);
+        }
+        int[] decodedLiquid = expand(store.getLiquidData().getRunLengthsList(), liquidValues);
+
+        int index = 0;
+        for (int y = 0; y < ChunkConstants.SIZE_Y; ++y) {
+            for (int z = 0; z < ChunkConstants.SIZE_Z; ++z) {
+                for (int x = 0; x < ChunkConstants.SIZE_X; ++x) {
+                    assertEquals(blocks.get(x, y, z), decodedBlocks[index]);
+                    assertEquals(liquid.get(x, y, z), decodedLiquid[index]);
+                    index++;
+                }
+            }
+        }
+    }
+
+    private int[] expand(List<Integer> runLengths, List<Integer> values) {
+        assertEquals(runLengths.size(), values.size());
+        int[] result = new int[ChunkConstants.SIZE_X * ChunkConstants.SIZE_Y * ChunkConstants.SIZE_Z];
+        int index = 0;
+        for (int run = 0; run < runLengths.size(); ++run) {
+            for (int i = 0; i < runLengths.get(run); ++i) {
+                result[index++] = values.get(run);
+            }
+        }
+        return result;
+    }
+
+    private TeraArray createBlocks() {
+        Random random = new Random(7);
+        TeraArray blocks = new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+        for (int y = 0; y < 64; ++y) {
+            for (int z = 0; z < ChunkConstants.SIZE_Z; ++z) {
+                for (int x = 0; x < ChunkConstants.SIZE_X; ++x) {
+                    blocks.set(x, y, z, (y < 32 || random.nextInt(4) == 0) ? 1 + random.nextInt(3) * (y % 2) : 300);
+                }
+            }
+        }
+        return blocks;
+    }
+
+    private TeraArray createLiquid() {
+        TeraArray liquid = new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+        for (int z = 0; z < ChunkConstants.SIZE_Z; ++z) {
+            for (int x = 0; x < ChunkConstants.SIZE_X; x += 2) {
+                liquid.set(x, 64, z, 7);
+            }
+        }
+        return liquid;
+    }
+}
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.localChunkProvider;
+
+import com.google.common.collect.Sets;
+import org.junit.Test;
+import org.terasology.math.Region3i;
+import org.terasology.math.Vector3i;
+
+import java.util.Set;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class ChunkRelevanceCountsTest {
+
+    @Test
+    public void testOverlappingRegionsAreCounted() {
+        ChunkRelevanceCounts counts = new ChunkRelevanceCounts();
+        counts.add(Region3i.createFromCenterExtents(new Vector3i(0, 0, 0), 1));
+        counts.add(Region3i.createFromCenterExtents(new Vector3i(1, 0, 0), 1));
+
+        assertEquals(2, counts.getCount(new Vector3i(0, 0, 0)));
+        assertEquals(1, counts.getCount(new Vector3i(-1, 0, 0)));
+        assertEquals(1, counts.getCount(new Vector3i(2, 0, 0)));
+        assertFalse(counts.isRelevant(new Vector3i(3, 0, 0)));
+        assertEquals(0, counts.getUnloadCandidateCount());
+    }
+
+    @Test
+    public void testMovingRegionQueuesOnlyLostPositions() {
+        ChunkRelevanceCounts counts = new ChunkRelevanceCounts();
+        Region3i from = Region3i.createFromCenterExtents(new Vector3i(0, 0, 0), 1);
+        Region3i to = Region3i.createFromCenterExtents(new Vector3i(1, 0, 0), 1);
+        counts.add(from);
+        counts.move(from, to);
+
+        Set<Vector3i> candidates = Sets.newHashSet();
+        for (Vector3i pos = counts.pollUnloadCandidate(); pos != null; pos = counts.pollUnloadCandidate()) {
+            candidates.add(pos);
+        }
+        assertEquals(9, candidates.size());
+        for (Vector3i pos : candidates) {
+            assertEquals(-1, pos.x);
+        }
+        for (Vector3i pos : to) {
+            assertEquals(1, counts.getCount(pos));
+        }
+    }
+
+    @Test
+    public void testRegainedPositionIsNoLongerACandidate() {
+        ChunkRelevanceCounts counts = new ChunkRelevanceCounts();
+        Region3i region = Region3i.createFromCenterExtents(new Vector3i(0, 0, 0), 0);
+        counts.add(region);
+        counts.remove(region);
+        assertEquals(1, counts.getUnloadCandidateCount());
+
+        counts.add(region);
+        assertTrue(counts.isRelevant(new Vector3i(0, 0, 0)));
+        assertNull(counts.pollUnloadCandidate());
+    }
+
+    @Test
+    public void testOfferOnlyQueuesIrrelevantPositions() {
+        ChunkRelevanceCounts counts = new ChunkRelevanceCounts();
+        counts.add(Region3i.createFromCenterExtents(new Vector3i(0, 0, 0), 0));
+        counts.offerUnloadCandidate(new Vector3i(0, 0, 0));
+        counts.offerUnloadCandidate(new Vector3i(5, 0, 0));
+
+        assertEquals(new Vector3i(5, 0, 0), counts.pollUnloadCandidate());
+        assertNull(counts.pollUnloadCandidate());
+    }
+}
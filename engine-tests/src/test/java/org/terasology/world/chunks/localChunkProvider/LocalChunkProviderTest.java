@@ -0,0 +1,106 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.localChunkProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.entitySystem.entity.EntityManager;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.math.Vector3i;
+import org.terasology.persistence.StorageManager;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockLookupTable;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.generator.WorldGenerator;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Matchers.anyShort;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class LocalChunkProviderTest {
+
+    private LocalChunkProvider chunkProvider;
+
+    @Before
+    public void setup() {
+        BlockManager blockManager = mock(BlockManager.class);
+        when(blockManager.getBlock(anyShort())).thenReturn(BlockManager.getAir());
+        when(blockManager.listRegisteredBlocks()).thenReturn(Collections.<Block>emptyList());
+        when(blockManager.getLookupTable()).thenReturn(new BlockLookupTable(Collections.singletonList(BlockManager.getAir())));
+        CoreRegistry.put(BlockManager.class, blockManager);
+
+        chunkProvider = new LocalChunkProvider(mock(StorageManager.class), mock(EntityManager.class), mock(WorldGenerator.class));
+        chunkProvider.setWorldEntity(mock(EntityRef.class));
+    }
+
+    @After
+    public void teardown() {
+        chunkProvider.shutdown();
+    }
+
+    @Test
+    public void testActivatesSeveralChunksPerFrameWithinBudget() {
+        chunkProvider.setChunkActivationBudget(10000);
+        makeChunksReady();
+
+        chunkProvider.beginUpdate();
+        chunkProvider.completeUpdate();
+
+        for (int x = 1; x <= 3; ++x) {
+            assertTrue(chunkProvider.isChunkReady(new Vector3i(x, 1, 1)));
+        }
+    }
+
+    @Test
+    public void testNoBudgetDoesNotWaitForMerges() {
+        chunkProvider.setChunkActivationBudget(0);
+        makeChunksReady();
+
+        chunkProvider.beginUpdate();
+        chunkProvider.completeUpdate();
+
+        // At most the merge begun by beginUpdate can have finished, and only if it was very quick
+        int ready = 0;
+        for (int x = 1; x <= 3; ++x) {
+            if (chunkProvider.isChunkReady(new Vector3i(x, 1, 1))) {
+                ready++;
+            }
+        }
+        assertTrue(ready <= 1);
+        assertFalse(chunkProvider.isChunkReady(new Vector3i(0, 1, 1)));
+    }
+
+    /**
+     * Loads a row of 5x3x3 chunks. Only the three inner ones have all their neighbours loaded, so only their lighting
+     * can be merged.
+     */
+    private void makeChunksReady() {
+        for (int x = 0; x < 5; ++x) {
+            for (int y = 0; y < 3; ++y) {
+                for (int z = 0; z < 3; ++z) {
+                    chunkProvider.onChunkIsReady(new ChunkImpl(x, y, z));
+                }
+            }
+        }
+    }
+}
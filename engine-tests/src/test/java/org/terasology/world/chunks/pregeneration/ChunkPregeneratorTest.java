@@ -0,0 +1,174 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.pregeneration;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.terasology.asset.AssetManager;
+import org.terasology.config.Config;
+import org.terasology.engine.ComponentSystemManager;
+import org.terasology.engine.EngineTime;
+import org.terasology.engine.bootstrap.EntitySystemBuilder;
+import org.terasology.engine.module.ModuleManager;
+import org.terasology.engine.paths.PathManager;
+import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.game.Game;
+import org.terasology.math.Region3i;
+import org.terasology.math.Vector3i;
+import org.terasology.network.NetworkMode;
+import org.terasology.network.NetworkSystem;
+import org.terasology.persistence.ChunkStore;
+import org.terasology.persistence.StorageManager;
+import org.terasology.persistence.internal.ReadWriteStorageManager;
+import org.terasology.reflection.reflect.ReflectionReflectFactory;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.testUtil.ModuleManagerFactory;
+import org.terasology.world.WorldProvider;
+import org.terasology.world.biomes.Biome;
+import org.terasology.world.biomes.BiomeManager;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.block.family.DefaultBlockFamilyFactoryRegistry;
+import org.terasology.world.block.family.SymmetricFamily;
+import org.terasology.world.block.internal.BlockManagerImpl;
+import org.terasology.world.block.loader.WorldAtlas;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkProvider;
+import org.terasology.world.chunks.CoreChunk;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.generator.WorldGenerator;
+import org.terasology.world.internal.WorldInfo;
+
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class ChunkPregeneratorTest {
+
+    private static final Vector3i CHUNK_POS = new Vector3i(1, 2, 3);
+
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+    private ModuleManager moduleManager;
+    private NetworkSystem networkSystem;
+    private ReadWriteStorageManager storageManager;
+    private Block testBlock;
+    private Path savePath;
+
+    @Before
+    public void setup() throws Exception {
+        PathManager.getInstance().useOverrideHomePath(temporaryFolder.getRoot().toPath());
+        savePath = PathManager.getInstance().getSavePath("testSave");
+
+        moduleManager = ModuleManagerFactory.create();
+        networkSystem = mock(NetworkSystem.class);
+        when(networkSystem.getMode()).thenReturn(NetworkMode.NONE);
+        CoreRegistry.put(ModuleManager.class, moduleManager);
+        CoreRegistry.put(Config.class, new Config());
+        CoreRegistry.put(AssetManager.class, new AssetManager(moduleManager.getEnvironment()));
+        CoreRegistry.put(NetworkSystem.class, networkSystem);
+
+        EngineEntityManager entityManager = new EntitySystemBuilder().build(moduleManager.getEnvironment(), networkSystem,
+                new ReflectionReflectFactory());
+        storageManager = new ReadWriteStorageManager(savePath, moduleManager.getEnvironment(), entityManager, false);
+        CoreRegistry.put(StorageManager.class, storageManager);
+
+        BlockManagerImpl blockManager = CoreRegistry.put(BlockManager.class, new BlockManagerImpl(mock(WorldAtlas.class),
+                new DefaultBlockFamilyFactoryRegistry()));
+        testBlock = new Block();
+        testBlock.setId((short) 1);
+        blockManager.addBlockFamily(new SymmetricFamily(new BlockUri("test:testblock"), testBlock), true);
+
+        CoreRegistry.put(ComponentSystemManager.class, new ComponentSystemManager());
+        ChunkProvider chunkProvider = mock(ChunkProvider.class);
+        when(chunkProvider.getAllChunks()).thenReturn(Collections.<Chunk>emptyList());
+        CoreRegistry.put(ChunkProvider.class, chunkProvider);
+
+        Game game = mock(Game.class);
+        when(game.getTime()).thenReturn(mock(EngineTime.class));
+        CoreRegistry.put(Game.class, game);
+        BiomeManager biomeManager = mock(BiomeManager.class);
+        when(biomeManager.getBiomes()).thenReturn(Collections.<Biome>emptyList());
+        CoreRegistry.put(BiomeManager.class, biomeManager);
+        WorldProvider worldProvider = mock(WorldProvider.class);
+        when(worldProvider.getWorldInfo()).thenReturn(new WorldInfo());
+        CoreRegistry.put(WorldProvider.class, worldProvider);
+    }
+
+    @Test(timeout = 10000)
+    public void chunkSavedWhileBeingGeneratedIsNotOverwritten() throws Exception {
+        final CountDownLatch generationStarted = new CountDownLatch(1);
+        final CountDownLatch playerChunkSaved = new CountDownLatch(1);
+        WorldGenerator generator = mock(WorldGenerator.class);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                generationStarted.countDown();
+                playerChunkSaved.await();
+                return null;
+            }
+        }).when(generator).createChunk(any(CoreChunk.class));
+
+        ChunkPregenerator pregenerator = new ChunkPregenerator(Region3i.createFromMinAndSize(CHUNK_POS, Vector3i.one()),
+                generator, storageManager, mock(ChunkProvider.class), 1);
+        pregenerator.start();
+        pregenerator.update();
+
+        // The worker found the chunk unstored and is generating it, while a player modifies and unloads the chunk
+        generationStarted.await();
+        Chunk playerChunk = new ChunkImpl(CHUNK_POS);
+        playerChunk.setBlock(0, 0, 0, testBlock);
+        playerChunk.markReady();
+        storageManager.deactivateChunk(playerChunk);
+
+        // The second save waits for the first one, so the modified chunk is only on disk afterwards
+        storageManager.waitForCompletionOfPreviousSaveAndStartSaving();
+        storageManager.waitForCompletionOfPreviousSaveAndStartSaving();
+        playerChunkSaved.countDown();
+
+        while (pregenerator.isRunning()) {
+            pregenerator.update();
+            Thread.sleep(10);
+        }
+        assertEquals(0, pregenerator.getStoredChunks());
+        assertEquals(1, pregenerator.getProcessedChunks());
+
+        storageManager.waitForCompletionOfPreviousSaveAndStartSaving();
+        storageManager.finishSavingAndShutdown();
+
+        EngineEntityManager newEntityManager = new EntitySystemBuilder().build(moduleManager.getEnvironment(), networkSystem,
+                new ReflectionReflectFactory());
+        StorageManager newStorageManager = new ReadWriteStorageManager(savePath, moduleManager.getEnvironment(), newEntityManager, false);
+        newStorageManager.loadGlobalStore();
+
+        ChunkStore restored = newStorageManager.loadChunkStore(CHUNK_POS);
+        assertNotNull(restored);
+        assertEquals(testBlock, restored.getChunk().getBlock(0, 0, 0));
+    }
+}
@@ -0,0 +1,188 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.generation;
+
+import com.google.common.collect.Lists;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.terasology.math.Region3i;
+import org.terasology.math.Vector3i;
+import org.terasology.world.generation.facets.base.BaseFacet3D;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+public class ConcurrentFacetProvidersTest {
+
+    private ExecutorService executor;
+    private Region3i regionToGenerate;
+
+    @Before
+    public void setup() {
+        executor = Executors.newFixedThreadPool(2);
+        regionToGenerate = Region3i.createFromCenterExtents(new Vector3i(), 1);
+    }
+
+    @After
+    public void teardown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void independentProvidersRunConcurrently() {
+        // both providers have to wait for each other at the barrier, which fails if they run one after another
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        WorldBuilder worldBuilder = new WorldBuilder(12L).setProviderExecutor(executor);
+        worldBuilder.addProvider(new CombinedProvider());
+        worldBuilder.addProvider(new LeftProvider(barrier));
+        worldBuilder.addProvider(new RightProvider(barrier));
+
+        Region regionData = worldBuilder.build().getWorldData(regionToGenerate);
+
+        CombinedFacet combined = regionData.getFacet(CombinedFacet.class);
+        assertEquals(Arrays.asList("left", "right"), combined.getEntries());
+    }
+
+    @Test
+    public void updatesKeepTheirOrder() {
+        WorldBuilder worldBuilder = new WorldBuilder(12L).setProviderExecutor(executor);
+        worldBuilder.addProvider(new CombinedProvider());
+        worldBuilder.addProvider(new LeftProvider(null));
+        worldBuilder.addProvider(new RightProvider(null));
+        worldBuilder.addProvider(new LeftUpdater("first"));
+        worldBuilder.addProvider(new LeftUpdater("second"));
+
+        Region regionData = worldBuilder.build().getWorldData(regionToGenerate);
+
+        CombinedFacet combined = regionData.getFacet(CombinedFacet.class);
+        assertEquals(Arrays.asList("left", "first", "second", "right"), combined.getEntries());
+        assertNotNull(regionData.getFacet(RightFacet.class));
+    }
+
+    public static class EntriesFacet extends BaseFacet3D {
+        private final List<String> entries = Lists.newArrayList();
+
+        public EntriesFacet(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+
+        public List<String> getEntries() {
+            return entries;
+        }
+    }
+
+    public static class LeftFacet extends EntriesFacet {
+        public LeftFacet(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    public static class RightFacet extends EntriesFacet {
+        public RightFacet(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    public static class CombinedFacet extends EntriesFacet {
+        public CombinedFacet(Region3i targetRegion, Border3D border) {
+            super(targetRegion, border);
+        }
+    }
+
+    private abstract static class TestProvider implements FacetProvider {
+        @Override
+        public void setSeed(long seed) {
+        }
+
+        protected static void await(CyclicBarrier barrier) {
+            if (barrier != null) {
+                try {
+                    barrier.await(5, TimeUnit.SECONDS);
+                } catch (Exception e) {
+                    throw new IllegalStateException("Providers did not run concurrently", e);
+                }
+            }
+        }
+    }
+
+    @Produces(LeftFacet.class)
+    public static class LeftProvider extends TestProvider {
+        private final CyclicBarrier barrier;
+
+        public LeftProvider(CyclicBarrier barrier) {
+            this.barrier = barrier;
+        }
+
+        @Override
+        public void process(GeneratingRegion region) {
+            await(barrier);
+            LeftFacet facet = new LeftFacet(region.getRegion(), region.getBorderForFacet(LeftFacet.class));
+            facet.getEntries().add("left");
+            region.setRegionFacet(LeftFacet.class, facet);
+        }
+    }
+
+    @Produces(RightFacet.class)
+    public static class RightProvider extends TestProvider {
+        private final CyclicBarrier barrier;
+
+        public RightProvider(CyclicBarrier barrier) {
+            this.barrier = barrier;
+        }
+
+        @Override
+        public void process(GeneratingRegion region) {
+            await(barrier);
+            RightFacet facet = new RightFacet(region.getRegion(), region.getBorderForFacet(RightFacet.class));
+            facet.getEntries().add("right");
+            region.setRegionFacet(RightFacet.class, facet);
+        }
+    }
+
+    @Updates(@Facet(LeftFacet.class))
+    public static class LeftUpdater extends TestProvider {
+        private final String entry;
+
+        public LeftUpdater(String entry) {
+            this.entry = entry;
+        }
+
+        @Override
+        public void process(GeneratingRegion region) {
+            region.getRegionFacet(LeftFacet.class).getEntries().add(entry);
+        }
+    }
+
+    @Produces(CombinedFacet.class)
+    @Requires({@Facet(LeftFacet.class), @Facet(RightFacet.class)})
+    public static class CombinedProvider extends TestProvider {
+        @Override
+        public void process(GeneratingRegion region) {
+            CombinedFacet facet = new CombinedFacet(region.getRegion(), region.getBorderForFacet(CombinedFacet.class));
+            facet.getEntries().addAll(region.getRegionFacet(LeftFacet.class).getEntries());
+            facet.getEntries().addAll(region.getRegionFacet(RightFacet.class).getEntries());
+            region.setRegionFacet(CombinedFacet.class, facet);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.generation.facets;
+
+import org.junit.Test;
+import org.terasology.math.Region3i;
+import org.terasology.math.Vector3i;
+import org.terasology.world.generation.Border3D;
+import org.terasology.world.generation.facets.base.BaseFieldFacet3D;
+import org.terasology.world.generation.facets.base.FieldSampler3D;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Tests the {@link FieldSampler3D} class.
+ */
+public class FieldSampler3DTest {
+
+    private static final FieldSampler3D.Field LINEAR = new FieldSampler3D.Field() {
+        @Override
+        public float get(int x, int y, int z) {
+            return 2 * x - 3 * y + 0.5f * z;
+        }
+    };
+
+    private static final FieldSampler3D.Field WAVES = new FieldSampler3D.Field() {
+        @Override
+        public float get(int x, int y, int z) {
+            return (float) (Math.sin(x * 0.3) * Math.cos(z * 0.2) + y * 0.1);
+        }
+    };
+
+    private final Region3i region = Region3i.createFromMinAndSize(new Vector3i(-13, 5, 22), new Vector3i(16, 32, 16));
+    private final Border3D border = new Border3D(2, 3, 1);
+
+    @Test
+    public void testFullRate() {
+        BaseFieldFacet3D facet = fill(region, new FieldSampler3D(1), WAVES);
+        for (Vector3i pos : facet.getWorldRegion()) {
+            assertEquals(WAVES.get(pos.x, pos.y, pos.z), facet.getWorld(pos), 0.0f);
+        }
+    }
+
+    @Test
+    public void testLinearFieldIsReproduced() {
+        BaseFieldFacet3D facet = fill(region, new FieldSampler3D(4, 8, 2), LINEAR);
+        for (Vector3i pos : facet.getWorldRegion()) {
+            assertEquals(LINEAR.get(pos.x, pos.y, pos.z), facet.getWorld(pos), 0.001f);
+        }
+    }
+
+    @Test
+    public void testLatticePointsAreExact() {
+        BaseFieldFacet3D facet = fill(region, new FieldSampler3D(4), WAVES);
+        for (Vector3i pos : facet.getWorldRegion()) {
+            if (pos.x % 4 == 0 && pos.y % 4 == 0 && pos.z % 4 == 0) {
+                assertEquals(WAVES.get(pos.x, pos.y, pos.z), facet.getWorld(pos), 0.0f);
+            }
+        }
+    }
+
+    @Test
+    public void testNeighbouringRegionsMatch() {
+        FieldSampler3D sampler = new FieldSampler3D(4);
+        BaseFieldFacet3D first = fill(region, sampler, WAVES);
+        Region3i neighbourRegion = Region3i.createFromMinAndSize(new Vector3i(region.maxX() + 1, region.minY(), region.minZ()), region.size());
+        BaseFieldFacet3D second = fill(neighbourRegion, sampler, WAVES);
+
+        int overlaps = 0;
+        for (Vector3i pos : first.getWorldRegion()) {
+            if (second.getWorldRegion().encompasses(pos)) {
+                assertEquals(first.getWorld(pos), second.getWorld(pos), 0.0f);
+                overlaps++;
+            }
+        }
+        // the side borders overlap in two columns
+        assertEquals(2 * first.getWorldRegion().sizeY() * first.getWorldRegion().sizeZ(), overlaps);
+    }
+
+    private BaseFieldFacet3D fill(Region3i target, FieldSampler3D sampler, FieldSampler3D.Field field) {
+        BaseFieldFacet3D facet = new BaseFieldFacet3D(target, border) {
+            // this class is abstract, but we don't want specific implementations
+        };
+        sampler.fill(facet, field);
+        return facet;
+    }
+}
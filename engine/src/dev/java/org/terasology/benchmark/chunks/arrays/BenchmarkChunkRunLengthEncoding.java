@@ -0,0 +1,148 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.chunks.arrays;
+
+import com.google.protobuf.ByteString;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.math.Vector3i;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
+import org.terasology.world.chunks.blockdata.TeraDenseArray8Bit;
+import org.terasology.world.chunks.deflate.TeraStandardDeflator;
+import org.terasology.world.chunks.internal.ChunkSerializer;
+
+import java.util.Random;
+
+/**
+ * Measures run-length encoding and decoding chunk data with {@link ChunkSerializer}, against a baseline that reads
+ * every element through {@link TeraArray#get(int, int, int)}.
+ */
+public class BenchmarkChunkRunLengthEncoding extends AbstractBenchmark {
+
+    private final boolean baseline;
+    private final boolean deflated;
+    private final Vector3i pos = new Vector3i();
+    private TeraArray blockData;
+    private TeraArray liquidData;
+    private TeraArray biomeData;
+    private EntityData.ChunkStore encoded;
+
+    public BenchmarkChunkRunLengthEncoding(boolean baseline, boolean deflated) {
+        super("Chunk run-length coding (" + (baseline ? "element access" : "ChunkSerializer") + ", " + (deflated ? "deflated" : "dense") + " arrays)",
+                1000, new int[]{1000, 5000});
+        this.baseline = baseline;
+        this.deflated = deflated;
+    }
+
+    @Override
+    public void setup() {
+        Random random = new Random(42);
+        blockData = new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+        liquidData = new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+        biomeData = new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z);
+        int surface = ChunkConstants.SIZE_Y / 2;
+        for (int y = 0; y < surface; ++y) {
+            for (int z = 0; z < ChunkConstants.SIZE_Z; ++z) {
+                for (int x = 0; x < ChunkConstants.SIZE_X; ++x) {
+                    blockData.set(x, y, z, (random.nextInt(10) == 0) ? 2 + random.nextInt(8) : 1);
+                    biomeData.set(x, y, z, 1);
+                }
+            }
+        }
+        for (int z = 0; z < ChunkConstants.SIZE_Z; ++z) {
+            for (int x = 0; x < ChunkConstants.SIZE_X; ++x) {
+                liquidData.set(x, surface, z, 7);
+            }
+        }
+        if (deflated) {
+            TeraStandardDeflator deflator = new TeraStandardDeflator();
+            blockData = deflator.deflate(blockData);
+            liquidData = deflator.deflate(liquidData);
+            biomeData = deflator.deflate(biomeData);
+        }
+        encoded = ChunkSerializer.encode(pos, blockData, liquidData, biomeData).build();
+    }
+
+    @Override
+    public void run() {
+        if (baseline) {
+            EntityData.ChunkStore.Builder builder = EntityData.ChunkStore.newBuilder();
+            builder.setBlockData(encode16(blockData));
+            builder.setLiquidData(encode8(liquidData));
+            builder.setBiomeData(encode16(biomeData));
+        } else {
+            ChunkSerializer.encode(pos, blockData, liquidData, biomeData);
+        }
+        ChunkSerializer.decode(encoded);
+    }
+
+    private static EntityData.RunLengthEncoding16 encode16(TeraArray array) {
+        EntityData.RunLengthEncoding16.Builder builder = EntityData.RunLengthEncoding16.newBuilder();
+        short lastItem = (short) array.get(0, 0, 0);
+        int counter = 0;
+        for (int y = 0; y < array.getSizeY(); ++y) {
+            for (int z = 0; z < array.getSizeZ(); ++z) {
+                for (int x = 0; x < array.getSizeX(); ++x) {
+                    short item = (short) array.get(x, y, z);
+                    if (lastItem != item) {
+                        builder.addRunLengths(counter);
+                        builder.addValues(lastItem & 0xFFFF);
+                        lastItem = item;
+                        counter = 1;
+                    } else {
+                        counter++;
+                    }
+                }
+            }
+        }
+        if (lastItem != 0) {
+            builder.addRunLengths(counter);
+            builder.addValues(lastItem & 0xFFFF);
+        }
+        return builder.build();
+    }
+
+    private static EntityData.RunLengthEncoding8 encode8(TeraArray array) {
+        EntityData.RunLengthEncoding8.Builder builder = EntityData.RunLengthEncoding8.newBuilder();
+        byte[] values = new byte[array.getSizeXYZ()];
+        int valueCount = 0;
+        byte lastItem = (byte) array.get(0, 0, 0);
+        int counter = 0;
+        for (int y = 0; y < array.getSizeY(); ++y) {
+            for (int z = 0; z < array.getSizeZ(); ++z) {
+                for (int x = 0; x < array.getSizeX(); ++x) {
+                    byte item = (byte) array.get(x, y, z);
+                    if (lastItem != item) {
+                        builder.addRunLengths(counter);
+                        values[valueCount++] = lastItem;
+                        lastItem = item;
+                        counter = 1;
+                    } else {
+                        counter++;
+                    }
+                }
+            }
+        }
+        if (lastItem != 0) {
+            builder.addRunLengths(counter);
+            values[valueCount++] = lastItem;
+        }
+        builder.setValues(ByteString.copyFrom(values, 0, valueCount));
+        return builder.build();
+    }
+}
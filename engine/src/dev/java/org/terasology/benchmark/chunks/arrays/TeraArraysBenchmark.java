@@ -59,6 +59,11 @@ public static void main(String[] args) {
         benchmarks.add(new BenchmarkTeraArraySerializeToStreamViaByteArray(new TeraDenseArray8Bit.SerializationHandler(), new TeraDenseArray8Bit(16, 256, 16)));
         benchmarks.add(new BenchmarkTeraArraySerializeToStreamViaChannel(new TeraDenseArray8Bit.SerializationHandler(), new TeraDenseArray8Bit(16, 256, 16)));
 
+        benchmarks.add(new BenchmarkChunkRunLengthEncoding(true, false));
+        benchmarks.add(new BenchmarkChunkRunLengthEncoding(false, false));
+        benchmarks.add(new BenchmarkChunkRunLengthEncoding(true, true));
+        benchmarks.add(new BenchmarkChunkRunLengthEncoding(false, true));
+
 //        benchmarks.add(new BenchmarkTeraArrayDeserializeFromBuffer(new TeraDenseArray8Bit.SerializationHandler(), new TeraDenseArray8Bit(16, 256, 16)));
 //
 //
@@ -38,6 +38,8 @@ public static void main(String[] args) {
         final List<Benchmark> benchmarks = Lists.newArrayList();
 
         benchmarks.add(new EntityCreateBenchmark());
+        benchmarks.add(new PrefabInstantiateBenchmark(false));
+        benchmarks.add(new PrefabInstantiateBenchmark(true));
         benchmarks.add(new IterateSingleComponentBenchmark());
         benchmarks.add(new IterateMultipleComponentBenchmark());
         Benchmarks.execute(benchmarks, new PrintToConsoleCallback());
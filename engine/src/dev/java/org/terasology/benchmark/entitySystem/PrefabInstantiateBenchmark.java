@@ -0,0 +1,79 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.entitySystem;
+
+import org.terasology.asset.AssetType;
+import org.terasology.asset.AssetUri;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.engine.SimpleUri;
+import org.terasology.entitySystem.entity.internal.PojoEntityManager;
+import org.terasology.entitySystem.metadata.ComponentLibrary;
+import org.terasology.entitySystem.metadata.EntitySystemLibrary;
+import org.terasology.entitySystem.prefab.Prefab;
+import org.terasology.entitySystem.prefab.PrefabData;
+import org.terasology.entitySystem.prefab.internal.PojoPrefab;
+import org.terasology.logic.health.HealthComponent;
+import org.terasology.logic.inventory.InventoryComponent;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.persistence.typeHandling.TypeSerializationLibrary;
+import org.terasology.reflection.copy.CopyStrategyLibrary;
+import org.terasology.reflection.reflect.ReflectFactory;
+import org.terasology.reflection.reflect.ReflectionReflectFactory;
+import org.terasology.rendering.logic.MeshComponent;
+
+/**
+ * Measures instantiating entities from a prefab, either deep-copying every prefab component or sharing them copy-on-write.
+ */
+public class PrefabInstantiateBenchmark extends AbstractBenchmark {
+
+    private final boolean copyOnWrite;
+    private ComponentLibrary componentLibrary;
+    private Prefab prefab;
+
+    public PrefabInstantiateBenchmark(boolean copyOnWrite) {
+        super("Instantiate Prefabs" + (copyOnWrite ? " (copy-on-write)" : " (copy)"), 10000, new int[]{10000});
+        this.copyOnWrite = copyOnWrite;
+    }
+
+    @Override
+    public void setup() {
+        ReflectFactory reflectFactory = new ReflectionReflectFactory();
+        CopyStrategyLibrary copyStrategyLibrary = new CopyStrategyLibrary(reflectFactory);
+        TypeSerializationLibrary serializationLibrary = new TypeSerializationLibrary(reflectFactory, copyStrategyLibrary);
+        componentLibrary = new EntitySystemLibrary(reflectFactory, copyStrategyLibrary, serializationLibrary).getComponentLibrary();
+        componentLibrary.register(new SimpleUri("engine", "location"), LocationComponent.class);
+        componentLibrary.register(new SimpleUri("engine", "mesh"), MeshComponent.class);
+        componentLibrary.register(new SimpleUri("engine", "inventory"), InventoryComponent.class);
+        componentLibrary.register(new SimpleUri("engine", "health"), HealthComponent.class);
+
+        PrefabData data = new PrefabData();
+        data.addComponent(new LocationComponent());
+        data.addComponent(new MeshComponent());
+        data.addComponent(new InventoryComponent(36));
+        data.addComponent(new HealthComponent());
+        prefab = new PojoPrefab(new AssetUri(AssetType.PREFAB, "benchmark:mob"), data);
+    }
+
+    @Override
+    public void run() {
+        PojoEntityManager entityManager = new PojoEntityManager();
+        entityManager.setComponentLibrary(componentLibrary);
+        entityManager.setPrefabCopyOnWrite(copyOnWrite);
+        for (int i = 0; i < 1000; ++i) {
+            entityManager.create(prefab).getComponent(HealthComponent.class);
+        }
+    }
+}
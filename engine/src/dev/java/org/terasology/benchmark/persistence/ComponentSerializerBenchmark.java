@@ -0,0 +1,106 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.persistence;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.protobuf.CodedOutputStream;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.engine.SimpleUri;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.metadata.ComponentLibrary;
+import org.terasology.entitySystem.metadata.EntitySystemLibrary;
+import org.terasology.logic.health.HealthComponent;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.geom.Quat4f;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.persistence.serializers.ComponentSerializer;
+import org.terasology.persistence.serializers.FieldSerializeCheck;
+import org.terasology.persistence.typeHandling.TypeSerializationLibrary;
+import org.terasology.persistence.typeHandling.mathTypes.Quat4fTypeHandler;
+import org.terasology.persistence.typeHandling.mathTypes.Vector3fTypeHandler;
+import org.terasology.protobuf.EntityData;
+import org.terasology.reflection.copy.CopyStrategyLibrary;
+import org.terasology.reflection.reflect.ByteCodeReflectFactory;
+import org.terasology.reflection.reflect.ReflectFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * Measures serializing components to a protobuf stream, either by building EntityData.Component messages or by
+ * encoding them with a DirectComponentSerializer.
+ */
+public class ComponentSerializerBenchmark extends AbstractBenchmark {
+
+    private static final int COMPONENTS_PER_RUN = 10000;
+
+    private final boolean direct;
+    private ComponentSerializer serializer;
+    private Component[] components;
+    private ByteArrayOutputStream buffer;
+
+    public ComponentSerializerBenchmark(boolean direct) {
+        super("Serialize Components" + (direct ? " (direct)" : " (messages)"), 100, new int[]{1000});
+        this.direct = direct;
+    }
+
+    @Override
+    public void setup() {
+        ReflectFactory reflectFactory = new ByteCodeReflectFactory();
+        CopyStrategyLibrary copyStrategyLibrary = new CopyStrategyLibrary(reflectFactory);
+        TypeSerializationLibrary serializationLibrary = new TypeSerializationLibrary(reflectFactory, copyStrategyLibrary);
+        serializationLibrary.add(Vector3f.class, new Vector3fTypeHandler());
+        serializationLibrary.add(Quat4f.class, new Quat4fTypeHandler());
+        ComponentLibrary componentLibrary = new EntitySystemLibrary(reflectFactory, copyStrategyLibrary, serializationLibrary).getComponentLibrary();
+        componentLibrary.register(new SimpleUri("engine", "health"), HealthComponent.class);
+        componentLibrary.register(new SimpleUri("engine", "location"), LocationComponent.class);
+
+        serializer = new ComponentSerializer(componentLibrary, serializationLibrary);
+        serializer.setUsingFieldIds(true);
+        serializer.setIdMapping(ImmutableMap.<Class<? extends Component>, Integer>of(HealthComponent.class, 1, LocationComponent.class, 2));
+
+        components = new Component[COMPONENTS_PER_RUN];
+        for (int i = 0; i < components.length; ++i) {
+            if (i % 4 == 0) {
+                components[i] = new LocationComponent();
+            } else {
+                components[i] = new HealthComponent(i, 0.5f * i, i);
+            }
+        }
+        buffer = new ByteArrayOutputStream(COMPONENTS_PER_RUN * 64);
+    }
+
+    @Override
+    public void run() {
+        buffer.reset();
+        CodedOutputStream out = CodedOutputStream.newInstance(buffer);
+        FieldSerializeCheck<Component> check = FieldSerializeCheck.NullCheck.newInstance();
+        try {
+            for (Component component : components) {
+                if (direct) {
+                    serializer.encode(component, check).writeDelimitedTo(out);
+                } else {
+                    EntityData.Component message = serializer.serialize(component, check);
+                    out.writeRawVarint32(message.getSerializedSize());
+                    message.writeTo(out);
+                }
+            }
+            out.flush();
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to serialize components", e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.physics;
+
+import com.google.common.collect.Maps;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.math.Vector3i;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkProvider;
+import org.terasology.world.chunks.ChunkRegionListener;
+import org.terasology.world.internal.ChunkViewCore;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * A chunk provider over a fixed set of chunks, supporting only chunk lookups.
+ */
+class BenchmarkChunkProvider implements ChunkProvider {
+
+    private final Map<Vector3i, Chunk> chunks = Maps.newHashMap();
+
+    public void add(Chunk chunk) {
+        chunks.put(chunk.getPosition(), chunk);
+    }
+
+    @Override
+    public Chunk getChunk(int x, int y, int z) {
+        return getChunk(new Vector3i(x, y, z));
+    }
+
+    @Override
+    public Chunk getChunk(Vector3i chunkPos) {
+        return chunks.get(chunkPos);
+    }
+
+    @Override
+    public boolean isChunkReady(Vector3i pos) {
+        return chunks.containsKey(pos);
+    }
+
+    @Override
+    public Collection<Chunk> getAllChunks() {
+        return chunks.values();
+    }
+
+    @Override
+    public ChunkViewCore getLocalView(Vector3i centerChunkPos) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ChunkViewCore getSubviewAroundBlock(Vector3i blockPos, int extent) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ChunkViewCore getSubviewAroundChunk(Vector3i chunkPos) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public void setWorldEntity(EntityRef entity) {
+    }
+
+    @Override
+    public void addRelevanceEntity(EntityRef entity, Vector3i distance) {
+    }
+
+    @Override
+    public void addRelevanceEntity(EntityRef entity, Vector3i distance, ChunkRegionListener listener) {
+    }
+
+    @Override
+    public void updateRelevanceEntity(EntityRef entity, Vector3i distance) {
+    }
+
+    @Override
+    public void removeRelevanceEntity(EntityRef entity) {
+    }
+
+    @Override
+    public void completeUpdate() {
+    }
+
+    @Override
+    public void beginUpdate() {
+    }
+
+    @Override
+    public boolean reloadChunk(Vector3i pos) {
+        return false;
+    }
+
+    @Override
+    public void purgeWorld() {
+        chunks.clear();
+    }
+
+    @Override
+    public void dispose() {
+    }
+
+    @Override
+    public void shutdown() {
+    }
+
+    @Override
+    public void restart() {
+    }
+}
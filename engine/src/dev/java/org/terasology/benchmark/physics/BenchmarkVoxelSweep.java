@@ -0,0 +1,206 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.physics;
+
+import com.bulletphysics.collision.broadphase.DbvtBroadphase;
+import com.bulletphysics.collision.dispatch.CollisionDispatcher;
+import com.bulletphysics.collision.dispatch.CollisionObject;
+import com.bulletphysics.collision.dispatch.CollisionWorld;
+import com.bulletphysics.collision.dispatch.DefaultCollisionConfiguration;
+import com.bulletphysics.collision.shapes.BoxShape;
+import com.bulletphysics.collision.shapes.CapsuleShape;
+import com.bulletphysics.collision.shapes.CollisionShape;
+import com.bulletphysics.collision.shapes.voxel.VoxelInfo;
+import com.bulletphysics.collision.shapes.voxel.VoxelPhysicsWorld;
+import com.bulletphysics.collision.shapes.voxel.VoxelWorldShape;
+import com.bulletphysics.linearmath.Transform;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.math.ChunkMath;
+import org.terasology.math.VecMath;
+import org.terasology.math.Vector3i;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.physics.engine.PhysicsWorldWrapper;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.block.family.DefaultBlockFamilyFactoryRegistry;
+import org.terasology.world.block.family.SymmetricFamily;
+import org.terasology.world.block.internal.BlockManagerImpl;
+import org.terasology.world.block.loader.NullWorldAtlas;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.internal.ChunkImpl;
+
+import javax.vecmath.Matrix4f;
+import javax.vecmath.Quat4f;
+import java.util.Random;
+
+/**
+ * Measures character sized capsule sweeps against a voxel world shape over rough terrain, either through
+ * {@link PhysicsWorldWrapper} or through a baseline that looks up and allocates per voxel, as the wrapper used to.
+ */
+public class BenchmarkVoxelSweep extends AbstractBenchmark {
+
+    private static final int SWEEPS_PER_RUN = 1000;
+    private static final int CHUNKS_PER_SIDE = 3;
+    private static final int SURFACE = ChunkConstants.SIZE_Y / 2;
+
+    private final boolean baseline;
+    private CollisionWorld collisionWorld;
+    private CapsuleShape capsule;
+    private Transform[] starts;
+    private Transform[] ends;
+    private int hits;
+
+    public BenchmarkVoxelSweep(boolean baseline) {
+        super("Voxel sweeps (" + (baseline ? "allocating lookups" : "PhysicsWorldWrapper") + ")", 100, new int[]{100, 500});
+        this.baseline = baseline;
+    }
+
+    @Override
+    public void setup() {
+        BlockManagerImpl blockManager = new BlockManagerImpl(new NullWorldAtlas(), new DefaultBlockFamilyFactoryRegistry());
+        CoreRegistry.put(BlockManager.class, blockManager);
+        Block stone = new Block();
+        stone.setUri(new BlockUri("engine:stone"));
+        stone.setCollision(new Vector3f(), new BoxShape(new javax.vecmath.Vector3f(0.5f, 0.5f, 0.5f)));
+        blockManager.addBlockFamily(new SymmetricFamily(stone.getURI(), stone), true);
+        stone = blockManager.getBlock(stone.getURI());
+
+        Random random = new Random(42);
+        BenchmarkChunkProvider chunkProvider = new BenchmarkChunkProvider();
+        for (int chunkZ = 0; chunkZ < CHUNKS_PER_SIDE; ++chunkZ) {
+            for (int chunkX = 0; chunkX < CHUNKS_PER_SIDE; ++chunkX) {
+                Chunk chunk = new ChunkImpl(new Vector3i(chunkX, 0, chunkZ));
+                for (int z = 0; z < ChunkConstants.SIZE_Z; ++z) {
+                    for (int x = 0; x < ChunkConstants.SIZE_X; ++x) {
+                        int height = SURFACE + random.nextInt(3);
+                        for (int y = 0; y < height; ++y) {
+                            chunk.setBlock(x, y, z, stone);
+                        }
+                    }
+                }
+                chunk.markReady();
+                chunkProvider.add(chunk);
+            }
+        }
+
+        VoxelPhysicsWorld voxelWorld = (baseline) ? new AllocatingVoxelWorld(chunkProvider) : new PhysicsWorldWrapper(chunkProvider);
+        DefaultCollisionConfiguration configuration = new DefaultCollisionConfiguration();
+        collisionWorld = new CollisionWorld(new CollisionDispatcher(configuration), new DbvtBroadphase(), configuration);
+        CollisionObject worldObject = new CollisionObject();
+        worldObject.setCollisionShape(new VoxelWorldShape(voxelWorld));
+        worldObject.setWorldTransform(createTransform(0, 0, 0));
+        collisionWorld.addCollisionObject(worldObject);
+
+        capsule = new CapsuleShape(0.3f, 1.2f);
+        int extent = CHUNKS_PER_SIDE * ChunkConstants.SIZE_X - 4;
+        starts = new Transform[SWEEPS_PER_RUN];
+        ends = new Transform[SWEEPS_PER_RUN];
+        for (int i = 0; i < SWEEPS_PER_RUN; ++i) {
+            float x = 2 + random.nextFloat() * extent;
+            float z = 2 + random.nextFloat() * extent;
+            starts[i] = createTransform(x, SURFACE + 3.5f, z);
+            ends[i] = createTransform(x + random.nextFloat() - 0.5f, SURFACE + 1.5f, z + random.nextFloat() - 0.5f);
+        }
+    }
+
+    @Override
+    public void run() {
+        for (int i = 0; i < SWEEPS_PER_RUN; ++i) {
+            CollisionWorld.ClosestConvexResultCallback callback = new CollisionWorld.ClosestConvexResultCallback(
+                    starts[i].origin, ends[i].origin);
+            collisionWorld.convexSweepTest(capsule, starts[i], ends[i], callback);
+            if (callback.hasHit()) {
+                hits++;
+            }
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        if (hits == 0 && !aborted) {
+            throw new IllegalStateException("No sweep hit the terrain");
+        }
+    }
+
+    private static Transform createTransform(float x, float y, float z) {
+        return new Transform(new Matrix4f(new Quat4f(0, 0, 0, 1), new javax.vecmath.Vector3f(x, y, z), 1.0f));
+    }
+
+    /**
+     * Resolves every voxel the way the physics wrappers used to: through vector based chunk lookups, with new
+     * collision information for each voxel.
+     */
+    private static class AllocatingVoxelWorld implements VoxelPhysicsWorld {
+
+        private final BenchmarkChunkProvider chunkProvider;
+
+        public AllocatingVoxelWorld(BenchmarkChunkProvider chunkProvider) {
+            this.chunkProvider = chunkProvider;
+        }
+
+        @Override
+        public VoxelInfo getCollisionShapeAt(int x, int y, int z) {
+            Chunk chunk = chunkProvider.getChunk(ChunkMath.calcChunkPos(x, y, z));
+            Block block = (chunk != null) ? chunk.getBlock(ChunkMath.calcBlockPos(x, y, z)) : BlockManager.getAir();
+            return new AllocatedVoxelInfo(block, new Vector3i(x, y, z));
+        }
+    }
+
+    private static class AllocatedVoxelInfo implements VoxelInfo {
+
+        private final boolean colliding;
+        private final boolean blocking;
+        private final CollisionShape shape;
+        private final Vector3i position;
+        private final Vector3f offset;
+
+        public AllocatedVoxelInfo(Block block, Vector3i position) {
+            this.shape = block.getCollisionShape();
+            this.offset = (block.getCollisionOffset() != null) ? block.getCollisionOffset() : new Vector3f();
+            this.colliding = shape != null && block.isTargetable();
+            this.blocking = shape != null && !block.isPenetrable();
+            this.position = position;
+        }
+
+        @Override
+        public boolean isColliding() {
+            return colliding;
+        }
+
+        @Override
+        public Object getUserData() {
+            return position;
+        }
+
+        @Override
+        public CollisionShape getCollisionShape() {
+            return shape;
+        }
+
+        @Override
+        public javax.vecmath.Vector3f getCollisionOffset() {
+            return VecMath.to(offset);
+        }
+
+        @Override
+        public boolean isBlocking() {
+            return blocking;
+        }
+    }
+}
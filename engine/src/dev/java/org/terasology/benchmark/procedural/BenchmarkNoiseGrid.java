@@ -0,0 +1,62 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.procedural;
+
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.utilities.procedural.BrownianNoise3D;
+import org.terasology.utilities.procedural.BulkNoise;
+import org.terasology.utilities.procedural.Noise3D;
+import org.terasology.utilities.procedural.PerlinNoise;
+
+/**
+ * Measures the evaluation of octaved Perlin noise over a chunk-sized grid, either one point at a time
+ * or through the bulk noise API.
+ */
+public class BenchmarkNoiseGrid extends AbstractBenchmark {
+
+    private static final int GRID_SIZE = 32;
+    private static final float STEP = 0.01f;
+
+    private final boolean bulk;
+    private Noise3D noise;
+    private float[] target;
+    private float origin;
+
+    public BenchmarkNoiseGrid(boolean bulk) {
+        super("Noise grid " + GRID_SIZE + "^3 (" + (bulk ? "bulk" : "per point") + ")", 10, new int[]{20, 100});
+        this.bulk = bulk;
+    }
+
+    @Override
+    public void setup() {
+        noise = new BrownianNoise3D(new PerlinNoise(42), 8);
+        target = new float[GRID_SIZE * GRID_SIZE * GRID_SIZE];
+    }
+
+    @Override
+    public void run() {
+        // move the grid each time so that every run evaluates different positions
+        origin += GRID_SIZE * STEP;
+        float[] xs = BulkNoise.axis(origin, STEP, GRID_SIZE);
+        float[] ys = BulkNoise.axis(0, STEP, GRID_SIZE);
+        float[] zs = BulkNoise.axis(-origin, STEP, GRID_SIZE);
+        if (bulk) {
+            BulkNoise.noise(noise, xs, ys, zs, target);
+        } else {
+            BulkNoise.perPoint(noise, xs, ys, zs, target);
+        }
+    }
+}
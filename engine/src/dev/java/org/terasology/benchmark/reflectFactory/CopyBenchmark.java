@@ -0,0 +1,76 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.reflectFactory;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.engine.SimpleUri;
+import org.terasology.logic.health.HealthComponent;
+import org.terasology.reflection.copy.CopyStrategy;
+import org.terasology.reflection.copy.CopyStrategyLibrary;
+import org.terasology.reflection.metadata.ClassMetadata;
+import org.terasology.reflection.metadata.DefaultClassMetadata;
+import org.terasology.reflection.metadata.FieldMetadata;
+import org.terasology.reflection.reflect.ReflectFactory;
+
+/**
+ * Compares copying a component field by field through its field metadata with copying it via a generated copy strategy.
+ */
+public class CopyBenchmark extends AbstractBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(CopyBenchmark.class);
+    private ReflectFactory reflectFactory;
+    private boolean generated;
+    private ClassMetadata<HealthComponent, ?> metadata;
+    private CopyStrategy<HealthComponent> copyStrategy;
+    private HealthComponent comp;
+
+    public CopyBenchmark(ReflectFactory reflectFactory, boolean generated) {
+        super((generated ? "Generated copy via " : "Field by field copy via ") + reflectFactory.getClass().getSimpleName(),
+                10000000, new int[]{10000000, 10000000});
+        this.reflectFactory = reflectFactory;
+        this.generated = generated;
+    }
+
+    @Override
+    public void setup() {
+        comp = new HealthComponent(100, 1, 5);
+        try {
+            metadata = new DefaultClassMetadata<>(new SimpleUri(), HealthComponent.class, reflectFactory, new CopyStrategyLibrary(reflectFactory));
+        } catch (NoSuchMethodException e) {
+            logger.error("Failed to establish class metadata", e);
+        }
+        if (generated) {
+            copyStrategy = reflectFactory.createCopyStrategy(metadata);
+            if (copyStrategy == null) {
+                logger.error("{} does not support generated copy strategies", reflectFactory.getClass().getSimpleName());
+            }
+        }
+    }
+
+    @Override
+    public void run() {
+        if (generated) {
+            copyStrategy.copy(comp);
+        } else {
+            HealthComponent result = metadata.newInstance();
+            for (FieldMetadata<HealthComponent, ?> field : metadata.getFields()) {
+                field.setValue(result, field.getCopyOfValue(comp));
+            }
+        }
+    }
+}
@@ -0,0 +1,196 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.rendering;
+
+import com.google.common.collect.Maps;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.asset.AssetUri;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.engine.subsystem.lwjgl.GLBufferPool;
+import org.terasology.math.Region3i;
+import org.terasology.math.Side;
+import org.terasology.math.Vector3i;
+import org.terasology.math.geom.Vector2f;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.rendering.primitives.ChunkMesh;
+import org.terasology.rendering.primitives.ChunkTessellator;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockAppearance;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockPart;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.block.family.DefaultBlockFamilyFactoryRegistry;
+import org.terasology.world.block.family.SymmetricFamily;
+import org.terasology.world.block.internal.BlockManagerImpl;
+import org.terasology.world.block.loader.WorldAtlas;
+import org.terasology.world.block.shapes.BlockMeshPart;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.internal.ChunkViewCoreImpl;
+
+import java.util.Map;
+
+/**
+ * Tessellates the center chunk of rolling, sunlit terrain of cube shaped blocks, either with or without greedy meshing,
+ * and reports the number of vertices of the resulting meshes.
+ */
+public class BenchmarkChunkTessellation extends AbstractBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(BenchmarkChunkTessellation.class);
+
+    private static final int TILES_PER_SIDE = 16;
+    private static final float TILE_SIZE = 1f / TILES_PER_SIDE;
+    private static final int SURFACE = ChunkConstants.SIZE_Y / 2;
+
+    private final boolean greedyMeshing;
+    private ChunkTessellator tessellator;
+    private ChunkViewCoreImpl view;
+    private int opaqueVertices;
+    private int totalVertices;
+
+    public BenchmarkChunkTessellation(boolean greedyMeshing) {
+        super("Chunk tessellation (" + (greedyMeshing ? "greedy meshing" : "per face") + ")", 10, new int[]{20, 50});
+        this.greedyMeshing = greedyMeshing;
+    }
+
+    @Override
+    public void setup() {
+        WorldAtlas atlas = new FixedTileAtlas();
+        CoreRegistry.put(WorldAtlas.class, atlas);
+        BlockManagerImpl blockManager = new BlockManagerImpl(atlas, new DefaultBlockFamilyFactoryRegistry());
+        CoreRegistry.put(BlockManager.class, blockManager);
+        Block stone = createCube(blockManager, "engine:stone", new Vector2f(0, 0));
+        Block dirt = createCube(blockManager, "engine:dirt", new Vector2f(TILE_SIZE, 0));
+
+        Chunk[] chunks = new Chunk[9];
+        for (int chunkZ = -1; chunkZ <= 1; chunkZ++) {
+            for (int chunkX = -1; chunkX <= 1; chunkX++) {
+                Chunk chunk = new ChunkImpl(new Vector3i(chunkX, 0, chunkZ));
+                for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
+                    for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                        int worldX = chunkX * ChunkConstants.SIZE_X + x;
+                        int worldZ = chunkZ * ChunkConstants.SIZE_Z + z;
+                        int height = SURFACE + (int) (4 * Math.sin(worldX / 9.0) + 3 * Math.cos(worldZ / 7.0));
+                        for (int y = 0; y < ChunkConstants.SIZE_Y; y++) {
+                            if (y < height - 3) {
+                                chunk.setBlock(x, y, z, stone);
+                            } else if (y < height) {
+                                chunk.setBlock(x, y, z, dirt);
+                            } else {
+                                chunk.setSunlight(x, y, z, ChunkConstants.MAX_SUNLIGHT);
+                            }
+                        }
+                    }
+                }
+                chunk.deflate();
+                chunks[(chunkX + 1) + 3 * (chunkZ + 1)] = chunk;
+            }
+        }
+        view = new ChunkViewCoreImpl(chunks, Region3i.createFromCenterExtents(Vector3i.zero(), new Vector3i(1, 0, 1)), new Vector3i(1, 0, 1));
+        tessellator = new ChunkTessellator(new GLBufferPool(false), greedyMeshing);
+    }
+
+    @Override
+    public void run() {
+        ChunkMesh mesh = tessellator.generateMesh(view, ChunkConstants.SIZE_Y, 0);
+        opaqueVertices = mesh.getVertexElements(ChunkMesh.RenderType.OPAQUE).vertexCount;
+        totalVertices = 0;
+        for (ChunkMesh.RenderType type : ChunkMesh.RenderType.values()) {
+            totalVertices += mesh.getVertexElements(type).vertexCount;
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        if (!aborted) {
+            logger.info("{}: {} vertices per chunk, {} of them opaque", getTitle(), totalVertices, opaqueVertices);
+        }
+    }
+
+    private static Block createCube(BlockManagerImpl blockManager, String uri, Vector2f tile) {
+        Block block = new Block();
+        block.setUri(new BlockUri(uri));
+        Map<BlockPart, BlockMeshPart> parts = Maps.newEnumMap(BlockPart.class);
+        Map<BlockPart, Vector2f> atlasPositions = Maps.newEnumMap(BlockPart.class);
+        for (BlockPart part : BlockPart.values()) {
+            atlasPositions.put(part, tile);
+        }
+        for (Side side : Side.values()) {
+            parts.put(BlockPart.fromSide(side), createFace(side).mapTexCoords(tile, TILE_SIZE));
+            block.setFullSide(side, true);
+        }
+        block.setPrimaryAppearance(new BlockAppearance(parts, atlasPositions));
+        blockManager.addBlockFamily(new SymmetricFamily(block.getURI(), block), true);
+        return blockManager.getBlock(block.getURI());
+    }
+
+    /**
+     * @return A unit quad on the given side of the block, covering the whole texture tile
+     */
+    private static BlockMeshPart createFace(Side side) {
+        Vector3i normal = side.getVector3i();
+        Vector3f center = new Vector3f(0.5f * normal.x, 0.5f * normal.y, 0.5f * normal.z);
+        Vector3f tangent = (normal.y == 0) ? new Vector3f(0, 0.5f, 0) : new Vector3f(0.5f, 0, 0);
+        Vector3f bitangent = new Vector3f(normal.y * tangent.z - normal.z * tangent.y, normal.z * tangent.x - normal.x * tangent.z,
+                normal.x * tangent.y - normal.y * tangent.x);
+        Vector3f[] vertices = new Vector3f[4];
+        Vector3f[] normals = new Vector3f[4];
+        Vector2f[] texCoords = new Vector2f[4];
+        for (int i = 0; i < 4; i++) {
+            float t = (i == 0 || i == 3) ? -1 : 1;
+            float b = (i < 2) ? -1 : 1;
+            vertices[i] = new Vector3f(center.x + t * tangent.x + b * bitangent.x, center.y + t * tangent.y + b * bitangent.y,
+                    center.z + t * tangent.z + b * bitangent.z);
+            normals[i] = new Vector3f(normal.x, normal.y, normal.z);
+            texCoords[i] = new Vector2f((t + 1) / 2, (b + 1) / 2);
+        }
+        return new BlockMeshPart(vertices, normals, texCoords, new int[]{0, 1, 2, 0, 2, 3});
+    }
+
+    /**
+     * An atlas of a fixed number of tiles, which does not load any textures.
+     */
+    private static class FixedTileAtlas implements WorldAtlas {
+
+        @Override
+        public int getTileSize() {
+            return 16;
+        }
+
+        @Override
+        public int getAtlasSize() {
+            return TILES_PER_SIDE * getTileSize();
+        }
+
+        @Override
+        public float getRelativeTileSize() {
+            return TILE_SIZE;
+        }
+
+        @Override
+        public int getNumMipmaps() {
+            return 1;
+        }
+
+        @Override
+        public Vector2f getTexCoords(AssetUri uri, boolean warnOnError) {
+            return new Vector2f();
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.benchmark.rendering;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.benchmark.AbstractBenchmark;
+import org.terasology.math.Region3i;
+import org.terasology.math.Side;
+import org.terasology.math.Vector3i;
+import org.terasology.registry.CoreRegistry;
+import org.terasology.rendering.world.ChunkConnectivity;
+import org.terasology.rendering.world.ChunkOcclusionCuller;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.block.BlockUri;
+import org.terasology.world.block.family.DefaultBlockFamilyFactoryRegistry;
+import org.terasology.world.block.family.SymmetricFamily;
+import org.terasology.world.block.internal.BlockManagerImpl;
+import org.terasology.world.block.loader.NullWorldAtlas;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.internal.ChunkImpl;
+
+import java.util.Random;
+
+/**
+ * Measures occlusion culling underground, in a region of solid chunks crossed by random tunnels: either computing the
+ * connectivity of a chunk, or searching the region for the chunks visible from its center.
+ */
+public class BenchmarkOcclusionCulling extends AbstractBenchmark {
+
+    private static final Logger logger = LoggerFactory.getLogger(BenchmarkOcclusionCulling.class);
+
+    private static final int CHUNK_VARIANTS = 16;
+    private static final int TUNNELS_PER_CHUNK = 2;
+    private static final Vector3i REGION_EXTENTS = new Vector3i(16, 4, 16);
+
+    private final boolean search;
+    private ChunkImpl[] chunks;
+    private ChunkConnectivity[] connectivities;
+    private Region3i region;
+    private ChunkOcclusionCuller culler;
+    private ChunkOcclusionCuller.ChunkConnectivityProvider provider;
+    private int chunkIndex;
+
+    public BenchmarkOcclusionCulling(boolean search) {
+        super("Occlusion culling (" + (search ? "visibility search" : "chunk connectivity") + ")", 10, new int[]{100, 500});
+        this.search = search;
+    }
+
+    @Override
+    public void setup() {
+        BlockManagerImpl blockManager = new BlockManagerImpl(new NullWorldAtlas(), new DefaultBlockFamilyFactoryRegistry());
+        CoreRegistry.put(BlockManager.class, blockManager);
+        Block stone = new Block();
+        stone.setUri(new BlockUri("engine:stone"));
+        for (Side side : Side.values()) {
+            stone.setFullSide(side, true);
+        }
+        blockManager.addBlockFamily(new SymmetricFamily(stone.getURI(), stone), true);
+        stone = blockManager.getBlock(stone.getURI());
+
+        Random random = new Random(42);
+        chunks = new ChunkImpl[CHUNK_VARIANTS];
+        connectivities = new ChunkConnectivity[CHUNK_VARIANTS];
+        for (int i = 0; i < CHUNK_VARIANTS; ++i) {
+            chunks[i] = createTunnelledChunk(stone, random);
+            connectivities[i] = ChunkConnectivity.compute(chunks[i]);
+        }
+
+        region = Region3i.createFromCenterExtents(Vector3i.zero(), REGION_EXTENTS);
+        culler = new ChunkOcclusionCuller();
+        provider = new ChunkOcclusionCuller.ChunkConnectivityProvider() {
+            @Override
+            public ChunkConnectivity getConnectivity(int x, int y, int z) {
+                int hash = x * 73856093 ^ y * 19349663 ^ z * 83492791;
+                return connectivities[(hash & Integer.MAX_VALUE) % CHUNK_VARIANTS];
+            }
+        };
+    }
+
+    @Override
+    public void run() {
+        if (search) {
+            culler.update(region, Vector3i.zero(), provider);
+        } else {
+            ChunkConnectivity.compute(chunks[chunkIndex]);
+            chunkIndex = (chunkIndex + 1) % CHUNK_VARIANTS;
+        }
+    }
+
+    @Override
+    public void finish(boolean aborted) {
+        if (!aborted && search) {
+            int regionVolume = region.sizeX() * region.sizeY() * region.sizeZ();
+            logger.info("{}: {} of {} chunks visible", getTitle(), culler.getVisibleChunkCount(), regionVolume);
+        }
+    }
+
+    /**
+     * @return A chunk of stone crossed by tunnels wandering from one face to another
+     */
+    private static ChunkImpl createTunnelledChunk(Block stone, Random random) {
+        ChunkImpl chunk = new ChunkImpl(Vector3i.zero());
+        for (int y = 0; y < ChunkConstants.SIZE_Y; ++y) {
+            for (int z = 0; z < ChunkConstants.SIZE_Z; ++z) {
+                for (int x = 0; x < ChunkConstants.SIZE_X; ++x) {
+                    chunk.setBlock(x, y, z, stone);
+                }
+            }
+        }
+        for (int tunnel = 0; tunnel < TUNNELS_PER_CHUNK; ++tunnel) {
+            int x = random.nextInt(ChunkConstants.SIZE_X);
+            int y = random.nextInt(ChunkConstants.SIZE_Y);
+            int z = 0;
+            while (z < ChunkConstants.SIZE_Z) {
+                for (int dy = 0; dy < 3; ++dy) {
+                    for (int dx = 0; dx < 3; ++dx) {
+                        int carveX = Math.min(x + dx, ChunkConstants.SIZE_X - 1);
+                        int carveY = Math.min(y + dy, ChunkConstants.SIZE_Y - 1);
+                        chunk.setBlock(carveX, carveY, z, BlockManager.getAir());
+                    }
+                }
+                x = Math.max(0, Math.min(ChunkConstants.SIZE_X - 1, x + random.nextInt(3) - 1));
+                y = Math.max(0, Math.min(ChunkConstants.SIZE_Y - 1, y + random.nextInt(3) - 1));
+                z += random.nextInt(2);
+            }
+        }
+        return chunk;
+    }
+}
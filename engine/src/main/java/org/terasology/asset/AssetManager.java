@@ -20,7 +20,15 @@
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.google.common.collect.Table;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -38,6 +46,7 @@
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.ref.SoftReference;
 import java.net.URL;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -51,22 +60,53 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
-
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Resolves, loads and caches assets.
+ * <p>
+ * Assets can be loaded from any thread. Concurrent requests for the same asset are served by a single load, and
+ * {@link #loadAssetAsync(AssetUri, Executor)} loads assets without blocking the requesting thread. Note that
+ * the factories of some asset types, such as textures, have to be run on the game thread. Asset types, loaders,
+ * factories and resolvers are expected to be set up before assets are loaded concurrently, and the environment is
+ * expected to change only while no assets are being loaded.
+ */
 // TODO: Split out an interface, possibly two with one for loading and adding assets, the other with disposal and other more management methods
 @API
 public class AssetManager {
 
     private static final Logger logger = LoggerFactory.getLogger(AssetManager.class);
 
+    private static final int LOADING_THREADS = 4;
+
     private ModuleEnvironment environment;
-    private Map<Name, AssetSource> assetSources = Maps.newHashMap();
+    private Map<Name, AssetSource> assetSources = Maps.newConcurrentMap();
     private Map<AssetType, Map<String, AssetLoader<?>>> assetLoaders = Maps.newEnumMap(AssetType.class);
-    private Map<AssetUri, Asset<?>> assetCache = Maps.newHashMap();
-    private Map<AssetUri, AssetSource> overrides = Maps.newHashMap();
-    private Map<AssetType, AssetFactory<?, ?>> factories = Maps.newHashMap();
-    private Map<AssetType, Table<Name, Name, AssetUri>> uriLookup = Maps.newHashMap();
+    private ConcurrentMap<AssetUri, Asset<?>> assetCache = Maps.newConcurrentMap();
+    private Map<AssetUri, AssetSource> overrides = Maps.newConcurrentMap();
+    private Map<AssetType, AssetFactory<?, ?>> factories = Maps.newConcurrentMap();
+    // The tables are guarded by synchronizing on them
+    private Map<AssetType, Table<Name, Name, AssetUri>> uriLookup = Maps.newEnumMap(AssetType.class);
     private ListMultimap<AssetType, AssetResolver<?, ?>> resolvers = ArrayListMultimap.create();
 
+    private ConcurrentMap<AssetUri, SettableFuture<Asset<?>>> pendingLoads = Maps.newConcurrentMap();
+    private ConcurrentMap<AssetUri, SettableFuture<Asset<?>>> pendingAsyncLoads = Maps.newConcurrentMap();
+    private ThreadLocal<Set<AssetUri>> loadsOfCurrentThread = new ThreadLocal<Set<AssetUri>>() {
+        @Override
+        protected Set<AssetUri> initialValue() {
+            return Sets.newHashSet();
+        }
+    };
+    private ListeningExecutorService loadingExecutor;
+
+    private Set<AssetType> softlyCachedDataTypes = Sets.newConcurrentHashSet();
+    private ConcurrentMap<AssetUri, SoftReference<AssetData>> softDataCache = Maps.newConcurrentMap();
+
     public AssetManager(ModuleEnvironment environment) {
         for (AssetType type : AssetType.values()) {
             uriLookup.put(type, HashBasedTable.<Name, Name, AssetUri>create());
@@ -81,6 +121,7 @@ public ModuleEnvironment getEnvironment() {
     public void setEnvironment(ModuleEnvironment environment) {
         this.environment = environment;
         assetSources.clear();
+        softDataCache.clear();
         for (Module module : environment) {
             Collection<Path> location = module.getLocations();
             if (!location.isEmpty()) {
@@ -92,7 +133,10 @@ public void setEnvironment(ModuleEnvironment environment) {
                 assetSources.put(source.getSourceId(), source);
 
                 for (AssetUri asset : source.list()) {
-                    uriLookup.get(asset.getAssetType()).put(asset.getAssetName(), asset.getModuleName(), asset);
+                    Table<Name, Name, AssetUri> table = uriLookup.get(asset.getAssetType());
+                    synchronized (table) {
+                        table.put(asset.getAssetName(), asset.getModuleName(), asset);
+                    }
                 }
             }
         }
@@ -128,7 +172,11 @@ public List<AssetUri> resolveAll(AssetType type, String name) {
     }
 
     public List<AssetUri> resolveAll(AssetType type, Name name) {
-        List<AssetUri> results = Lists.newArrayList(uriLookup.get(type).row(name).values());
+        List<AssetUri> results;
+        Table<Name, Name, AssetUri> table = uriLookup.get(type);
+        synchronized (table) {
+            results = Lists.newArrayList(table.row(name).values());
+        }
         for (AssetResolver<?, ?> resolver : resolvers.get(type)) {
             AssetUri additionalUri = resolver.resolve(name);
             if (additionalUri != null) {
@@ -289,11 +337,176 @@ public <T extends Asset<?>> T loadAsset(AssetUri uri, Class<T> assetClass) {
         return null;
     }
 
+    /**
+     * Loads the data of an asset, within the context of the asset's module, without building or caching the asset.
+     * Unlike the other methods of the asset manager, this may be called from any thread, as long as the asset sources,
+     * loaders and environment are not changed meanwhile. This allows the data of many assets to be decoded in parallel,
+     * before the assets are built on the main thread with {@link #buildAsset(AssetUri, AssetData)}.
+     *
+     * @return The loaded asset data, or null if it could not be loaded
+     */
+    public AssetData loadAssetDataInContext(AssetUri uri) {
+        if (!uri.isValid()) {
+            return null;
+        }
+        try (ModuleContext.ContextSpan ignored = ModuleContext.setContext(environment.get(uri.getModuleName()))) {
+            return loadAssetData(uri, true);
+        } catch (Exception e) {
+            logger.error("Error loading asset data: {}", uri, e);
+            return null;
+        }
+    }
+
+    /**
+     * Builds and caches an asset from data loaded with {@link #loadAssetDataInContext(AssetUri)}. If the asset has been
+     * loaded in the meantime, the loaded asset is kept and returned.
+     *
+     * @return The asset, or null if it could not be built
+     */
+    public <D extends AssetData> Asset<D> buildAsset(AssetUri uri, D data) {
+        Asset<D> asset = (Asset<D>) assetCache.get(uri);
+        if (asset != null) {
+            return asset;
+        }
+        AssetFactory<D, Asset<D>> factory = (AssetFactory<D, Asset<D>>) factories.get(uri.getAssetType());
+        if (factory == null) {
+            logger.error("No asset factory set for assets of type {}", uri.getAssetType());
+            return null;
+        }
+        try (ModuleContext.ContextSpan ignored = ModuleContext.setContext(environment.get(uri.getModuleName()))) {
+            asset = factory.buildAsset(uri, data);
+            if (asset != null) {
+                logger.debug("Loaded {}", uri);
+                asset = cacheAsset(uri, asset);
+            }
+        } catch (Exception e) {
+            logger.error("Error building asset: {}", uri, e);
+        }
+        return asset;
+    }
+
+    /**
+     * Loads an asset without blocking the calling thread. The asset data is loaded on the asset manager's loading
+     * threads, and the asset is built with the given executor - for asset types that have to be built on the game
+     * thread, this must be an executor running on the game thread.
+     * <p>
+     * Concurrent asynchronous requests for the same asset share a single load, built with the executor of the first
+     * request.
+     *
+     * @return A future of the asset, which is null if the asset could not be loaded
+     */
+    public ListenableFuture<Asset<?>> loadAssetAsync(final AssetUri uri, Executor buildExecutor) {
+        Asset<?> cached = assetCache.get(uri);
+        if (cached != null) {
+            return Futures.<Asset<?>>immediateFuture(cached);
+        }
+        final SettableFuture<Asset<?>> result = SettableFuture.create();
+        SettableFuture<Asset<?>> inProgress = pendingAsyncLoads.putIfAbsent(uri, result);
+        if (inProgress != null) {
+            return inProgress;
+        }
+
+        ListenableFuture<AssetData> data = getLoadingExecutor().submit(new Callable<AssetData>() {
+            @Override
+            public AssetData call() {
+                return loadAssetDataInContext(uri);
+            }
+        });
+        Futures.addCallback(data, new FutureCallback<AssetData>() {
+            @Override
+            public void onSuccess(AssetData loadedData) {
+                try {
+                    // Assets without data of their own may still be provided by a resolver
+                    result.set((loadedData != null) ? buildAsset(uri, loadedData) : loadAsset(uri, false));
+                } catch (RuntimeException e) {
+                    result.setException(e);
+                } finally {
+                    pendingAsyncLoads.remove(uri, result);
+                }
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                result.setException(t);
+                pendingAsyncLoads.remove(uri, result);
+            }
+        }, buildExecutor);
+        return result;
+    }
+
+    /**
+     * Loads an asset without blocking the calling thread, building it on one of the asset manager's loading threads.
+     * This is only suitable for asset types whose factories can be run on any thread.
+     *
+     * @see #loadAssetAsync(AssetUri, Executor)
+     */
+    public ListenableFuture<Asset<?>> loadAssetAsync(AssetUri uri) {
+        return loadAssetAsync(uri, MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Keeps the loaded data of assets of the given type softly referenced, so that it does not have to be loaded again
+     * when the asset is reloaded or requested again after disposal, unless the memory is needed elsewhere. This is
+     * worthwhile for types with large data that is expensive to decode, such as textures and sounds, and whose data is
+     * not modified by building the asset.
+     */
+    public void setDataSoftlyCached(AssetType type, boolean softlyCached) {
+        if (softlyCached) {
+            softlyCachedDataTypes.add(type);
+        } else {
+            softlyCachedDataTypes.remove(type);
+            for (AssetUri uri : softDataCache.keySet()) {
+                if (uri.getAssetType() == type) {
+                    softDataCache.remove(uri);
+                }
+            }
+        }
+    }
+
+    private synchronized ListeningExecutorService getLoadingExecutor() {
+        if (loadingExecutor == null) {
+            loadingExecutor = MoreExecutors.listeningDecorator(Executors.newFixedThreadPool(LOADING_THREADS,
+                    new ThreadFactoryBuilder().setNameFormat("Asset-Loader-%d").setDaemon(true).build()));
+        }
+        return loadingExecutor;
+    }
+
+    /**
+     * Adds an asset to the cache, unless another thread has cached the same asset meanwhile. In that case the given
+     * asset is disposed and the cached one is returned.
+     */
+    @SuppressWarnings("unchecked")
+    private <T extends Asset<?>> T cacheAsset(AssetUri uri, T asset) {
+        Asset<?> existing = assetCache.putIfAbsent(uri, asset);
+        if (existing != null && existing != asset) {
+            logger.debug("Discarding concurrently loaded duplicate of {}", uri);
+            asset.dispose();
+            return (T) existing;
+        }
+        return asset;
+    }
+
+    /**
+     * @return Whether the asset is loaded and cached
+     */
+    public boolean isLoaded(AssetUri uri) {
+        return assetCache.containsKey(uri);
+    }
+
     private AssetData loadAssetData(AssetUri uri, boolean logErrors) {
         if (!uri.isValid()) {
             return null;
         }
 
+        boolean softlyCached = softlyCachedDataTypes.contains(uri.getAssetType());
+        if (softlyCached) {
+            SoftReference<AssetData> cachedData = softDataCache.get(uri);
+            AssetData data = (cachedData != null) ? cachedData.get() : null;
+            if (data != null) {
+                return data;
+            }
+        }
+
         List<URL> urls = getAssetURLs(uri);
         if (urls.size() == 0) {
             if (logErrors) {
@@ -320,22 +533,15 @@ private AssetData loadAssetData(AssetUri uri, boolean logErrors) {
             }
 
             Module module = environment.get(uri.getModuleName());
-            List<URL> deltas;
-            if (uri.getAssetType().isDeltaSupported()) {
-                deltas = Lists.newArrayList();
-                for (Module deltaModule : environment.getModulesOrderedByDependencies()) {
-                    AssetSource source = assetSources.get(deltaModule.getId());
-                    if (source != null) {
-                        deltas.addAll(source.getDelta(uri));
-                    }
-                }
-            } else {
-                deltas = Collections.emptyList();
-            }
+            List<URL> deltas = getAssetDeltaURLs(uri);
             try (InputStream stream = AccessController.doPrivileged(new PrivilegedOpenStream(url))) {
                 urls.remove(url);
                 urls.add(0, url);
-                return loader.load(module, stream, urls, deltas);
+                AssetData data = loader.load(module, stream, urls, deltas);
+                if (softlyCached && data != null) {
+                    softDataCache.put(uri, new SoftReference<>(data));
+                }
+                return data;
             } catch (PrivilegedActionException e) {
                 logger.error("Error reading asset {}", uri, e.getCause());
                 return null;
@@ -348,7 +554,10 @@ private AssetData loadAssetData(AssetUri uri, boolean logErrors) {
         return null;
     }
 
-    private <D extends AssetData> Asset<?> loadAsset(AssetUri uri, boolean logErrors) {
+    /**
+     * Loads an asset, or waits for the asset to be loaded if another thread is loading it already.
+     */
+    private Asset<?> loadAsset(AssetUri uri, boolean logErrors) {
         if (!uri.isValid()) {
             return null;
         }
@@ -358,6 +567,46 @@ private <D extends AssetData> Asset<?> loadAsset(AssetUri uri, boolean logErrors
             return asset;
         }
 
+        Set<AssetUri> loadsOfThread = loadsOfCurrentThread.get();
+        if (loadsOfThread.contains(uri)) {
+            logger.error("Asset {} depends on itself", uri);
+            return null;
+        }
+        SettableFuture<Asset<?>> load = SettableFuture.create();
+        SettableFuture<Asset<?>> inProgress = pendingLoads.putIfAbsent(uri, load);
+        if (inProgress != null) {
+            return awaitLoad(uri, inProgress);
+        }
+
+        loadsOfThread.add(uri);
+        try {
+            // The asset may have been cached between the lookup and claiming the load
+            asset = assetCache.get(uri);
+            if (asset == null) {
+                asset = loadUncachedAsset(uri, logErrors);
+            }
+            return asset;
+        } finally {
+            loadsOfThread.remove(uri);
+            load.set(asset);
+            pendingLoads.remove(uri, load);
+        }
+    }
+
+    private Asset<?> awaitLoad(AssetUri uri, Future<Asset<?>> load) {
+        try {
+            return load.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            logger.warn("Interrupted while waiting for asset {} to load", uri);
+        } catch (ExecutionException e) {
+            logger.error("Error loading asset: {}", uri, e.getCause());
+        }
+        return null;
+    }
+
+    private <D extends AssetData> Asset<?> loadUncachedAsset(AssetUri uri, boolean logErrors) {
+        Asset<?> asset = null;
         AssetFactory<D, Asset<D>> factory = (AssetFactory<D, Asset<D>>) factories.get(uri.getAssetType());
         if (factory == null) {
             logger.error("No asset factory set for assets of type {}", uri.getAssetType());
@@ -368,8 +617,7 @@ private <D extends AssetData> Asset<?> loadAsset(AssetUri uri, boolean logErrors
             AssetResolver<Asset<D>, D> typedResolver = (AssetResolver<Asset<D>, D>) resolver;
             Asset<D> result = typedResolver.resolve(uri, factory);
             if (result != null) {
-                assetCache.put(uri, result);
-                return result;
+                return cacheAsset(uri, result);
             }
         }
 
@@ -382,7 +630,7 @@ private <D extends AssetData> Asset<?> loadAsset(AssetUri uri, boolean logErrors
                 asset = factory.buildAsset(uri, (D) data);
                 if (asset != null) {
                     logger.debug("Loaded {}", uri);
-                    assetCache.put(uri, asset);
+                    asset = cacheAsset(uri, asset);
                 }
             }
         } catch (Exception e) {
@@ -448,6 +696,7 @@ public <U extends AssetData> Asset<U> generateTemporaryAsset(AssetType type, U d
 
     public <D extends AssetData> void removeAssetSource(AssetSource source) {
         assetSources.remove(source.getSourceId());
+        softDataCache.clear();
         for (AssetUri override : source.listOverrides()) {
             if (overrides.get(override).equals(source)) {
                 overrides.remove(override);
@@ -463,19 +712,22 @@ public <D extends AssetData> void removeAssetSource(AssetSource source) {
             }
         }
         for (Table<Name, Name, AssetUri> table : uriLookup.values()) {
-            Map<Name, AssetUri> columnMap = table.column(source.getSourceId());
-            for (AssetUri value : columnMap.values()) {
-                Asset<?> asset = assetCache.remove(value);
-                if (asset != null) {
-                    asset.dispose();
+            synchronized (table) {
+                Map<Name, AssetUri> columnMap = table.column(source.getSourceId());
+                for (AssetUri value : columnMap.values()) {
+                    Asset<?> asset = assetCache.remove(value);
+                    if (asset != null) {
+                        asset.dispose();
+                    }
                 }
+                columnMap.clear();
             }
-            columnMap.clear();
         }
     }
 
     public void applyOverrides() {
         overrides.clear();
+        softDataCache.clear();
         for (AssetSource assetSource : assetSources.values()) {
             for (AssetUri overrideURI : assetSource.listOverrides()) {
                 overrides.put(overrideURI, assetSource);
@@ -530,6 +782,23 @@ public List<URL> getAssetURLs(AssetUri uri) {
         return Lists.newArrayList();
     }
 
+    /**
+     * @return The deltas that modules provide for the asset, ordered by module dependencies
+     */
+    public List<URL> getAssetDeltaURLs(AssetUri uri) {
+        if (!uri.getAssetType().isDeltaSupported()) {
+            return Collections.emptyList();
+        }
+        List<URL> deltas = Lists.newArrayList();
+        for (Module deltaModule : environment.getModulesOrderedByDependencies()) {
+            AssetSource source = assetSources.get(deltaModule.getId());
+            if (source != null) {
+                deltas.addAll(source.getDelta(uri));
+            }
+        }
+        return deltas;
+    }
+
     public InputStream getAssetStream(AssetUri uri) throws IOException {
         final List<URL> assetURLs = getAssetURLs(uri);
 
@@ -66,6 +66,8 @@ public class RenderingConfig {
     private int particleEffectLimit = 10;
     private int frameLimit = 60;
     private int meshLimit = 400;
+    private boolean greedyMeshing;
+    private boolean occlusionCulling = true;
     private boolean inscattering = true;
     private boolean localReflections;
     private boolean vSync;
@@ -379,6 +381,29 @@ public void setRenderNearest(boolean renderNearest) {
         this.renderNearest = renderNearest;
     }
 
+    /**
+     * @return Whether coplanar faces of cube shaped blocks with the same texture and lighting are merged into larger quads
+     */
+    public boolean isGreedyMeshing() {
+        return greedyMeshing;
+    }
+
+    public void setGreedyMeshing(boolean greedyMeshing) {
+        this.greedyMeshing = greedyMeshing;
+    }
+
+    /**
+     * @return Whether chunks that cannot be seen from the camera chunk through the open blocks of the chunks in between
+     * are skipped when rendering
+     */
+    public boolean isOcclusionCulling() {
+        return occlusionCulling;
+    }
+
+    public void setOcclusionCulling(boolean occlusionCulling) {
+        this.occlusionCulling = occlusionCulling;
+    }
+
     public int getParticleEffectLimit() {
         return particleEffectLimit;
     }
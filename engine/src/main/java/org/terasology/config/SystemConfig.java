@@ -25,6 +25,12 @@ public class SystemConfig {
     private int verticalChunkMeshSegments = 1;
     private int maxSecondsBetweenSaves = 60;
     private int maxUnloadedChunksPercentageTillSave = 40;
+    private int chunkActivationBudgetMs = 4;
+    private int behaviorUpdateBudgetMs = 4;
+    private int unloadedChunkCacheSizeMb = 64;
+    private boolean entityJournalEnabled;
+    private int entityJournalSyncIntervalMs = 2000;
+    private boolean prefabCopyOnWrite;
     private boolean debugEnabled;
     private boolean monitoringEnabled;
 
@@ -68,6 +74,63 @@ public void setMaxUnloadedChunksPercentageTillSave(int maxUnloadedChunksPercenta
         this.maxUnloadedChunksPercentageTillSave = maxUnloadedChunksPercentageTillSave;
     }
 
+    public int getChunkActivationBudgetMs() {
+        return chunkActivationBudgetMs;
+    }
+
+    public void setChunkActivationBudgetMs(int chunkActivationBudgetMs) {
+        this.chunkActivationBudgetMs = chunkActivationBudgetMs;
+    }
+
+    public int getBehaviorUpdateBudgetMs() {
+        return behaviorUpdateBudgetMs;
+    }
+
+    public void setBehaviorUpdateBudgetMs(int behaviorUpdateBudgetMs) {
+        this.behaviorUpdateBudgetMs = behaviorUpdateBudgetMs;
+    }
+
+    public int getUnloadedChunkCacheSizeMb() {
+        return unloadedChunkCacheSizeMb;
+    }
+
+    public void setUnloadedChunkCacheSizeMb(int unloadedChunkCacheSizeMb) {
+        this.unloadedChunkCacheSizeMb = unloadedChunkCacheSizeMb;
+    }
+
+    /**
+     * @return Whether entity changes get journaled continuously, so they survive a crash between two saves. Block
+     * changes are only written by the saves, which still happen every {@link #getMaxSecondsBetweenSaves()} seconds and
+     * compact the journal.
+     */
+    public boolean isEntityJournalEnabled() {
+        return entityJournalEnabled;
+    }
+
+    public void setEntityJournalEnabled(boolean entityJournalEnabled) {
+        this.entityJournalEnabled = entityJournalEnabled;
+    }
+
+    public int getEntityJournalSyncIntervalMs() {
+        return entityJournalSyncIntervalMs;
+    }
+
+    public void setEntityJournalSyncIntervalMs(int entityJournalSyncIntervalMs) {
+        this.entityJournalSyncIntervalMs = entityJournalSyncIntervalMs;
+    }
+
+    /**
+     * @return Whether entities created from prefabs share the prefab's components until they are first retrieved,
+     * see {@link org.terasology.entitySystem.entity.internal.PojoEntityManager#setPrefabCopyOnWrite(boolean)}.
+     */
+    public boolean isPrefabCopyOnWrite() {
+        return prefabCopyOnWrite;
+    }
+
+    public void setPrefabCopyOnWrite(boolean prefabCopyOnWrite) {
+        this.prefabCopyOnWrite = prefabCopyOnWrite;
+    }
+
     public boolean isDebugEnabled() {
         return debugEnabled;
     }
@@ -24,6 +24,7 @@
 public class TransientConfig {
 
     private boolean writeSaveGamesEnabled = true;
+    private int pregenerationRadius;
 
     /**
      * Enables/disables write access for the storage manager.
@@ -39,4 +40,18 @@ public boolean isWriteSaveGamesEnabled() {
     public void setWriteSaveGamesEnabled(boolean writeSaveGamesEnabled) {
         this.writeSaveGamesEnabled = writeSaveGamesEnabled;
     }
+
+    /**
+     * @return the horizontal radius in chunks around the origin to pregenerate once a game has started, or 0 to not pregenerate
+     */
+    public int getPregenerationRadius() {
+        return pregenerationRadius;
+    }
+
+    /**
+     * @param pregenerationRadius the horizontal radius in chunks around the origin to pregenerate, or 0 to not pregenerate
+     */
+    public void setPregenerationRadius(int pregenerationRadius) {
+        this.pregenerationRadius = pregenerationRadius;
+    }
 }
@@ -489,6 +489,10 @@ private void cleanup() {
             // Even if a graceful shutdown of the subsystems fails,
             // the thread pool has to be shut down
             stopThreads();
+            WorldGeneratorManager worldGeneratorManager = CoreRegistry.get(WorldGeneratorManager.class);
+            if (worldGeneratorManager != null) {
+                worldGeneratorManager.shutdown();
+            }
         }
     }
 
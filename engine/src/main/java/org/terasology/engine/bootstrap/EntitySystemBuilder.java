@@ -47,6 +47,18 @@
 // TODO: Review - This could be a static class but its existence is also questionable.
 public class EntitySystemBuilder {
 
+    private boolean prefabCopyOnWrite;
+
+    /**
+     * Opts the built entity manager into copy-on-write prefab instantiation, which is off by default.
+     *
+     * @see PojoEntityManager#setPrefabCopyOnWrite(boolean)
+     */
+    public EntitySystemBuilder setPrefabCopyOnWrite(boolean prefabCopyOnWrite) {
+        this.prefabCopyOnWrite = prefabCopyOnWrite;
+        return this;
+    }
+
     public EngineEntityManager build(ModuleEnvironment environment, NetworkSystem networkSystem, ReflectFactory reflectFactory) {
         return build(environment, networkSystem, reflectFactory, new CopyStrategyLibrary(reflectFactory));
     }
@@ -55,6 +67,7 @@ public EngineEntityManager build(ModuleEnvironment environment, NetworkSystem ne
         // Entity Manager
         PojoEntityManager entityManager = CoreRegistry.put(EntityManager.class, new PojoEntityManager());
         CoreRegistry.put(EngineEntityManager.class, entityManager);
+        entityManager.setPrefabCopyOnWrite(prefabCopyOnWrite);
 
         // Standard serialization library
         TypeSerializationLibrary typeSerializationLibrary = TypeSerializationLibrary.createDefaultLibrary(entityManager,
@@ -17,7 +17,9 @@
 package org.terasology.engine.modes;
 
 import com.google.common.base.Preconditions;
-import com.google.common.collect.Queues;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.engine.EngineTime;
@@ -39,6 +41,7 @@
 import org.terasology.engine.modes.loadProcesses.InitialiseWorld;
 import org.terasology.engine.modes.loadProcesses.InitialiseWorldGenerator;
 import org.terasology.engine.modes.loadProcesses.JoinServer;
+import org.terasology.engine.modes.loadProcesses.LoadBlockShapes;
 import org.terasology.engine.modes.loadProcesses.LoadEntities;
 import org.terasology.engine.modes.loadProcesses.LoadPrefabs;
 import org.terasology.engine.modes.loadProcesses.PostBeginSystems;
@@ -62,7 +65,11 @@
 import org.terasology.rendering.nui.NUIManager;
 import org.terasology.rendering.nui.layers.mainMenu.loadingScreen.LoadingScreen;
 
-import java.util.Queue;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * @author Immortius
@@ -73,8 +80,12 @@ public class StateLoading implements GameState {
 
     private GameManifest gameManifest;
     private NetworkMode netMode;
-    private Queue<LoadProcess> loadProcesses = Queues.newArrayDeque();
-    private LoadProcess current;
+    private List<LoadProcess> loadProcesses = Lists.newArrayList();
+    private Map<LoadProcess, Set<LoadProcess>> dependencies = Maps.newHashMap();
+    private Set<LoadProcess> finished = Sets.newHashSet();
+    private List<LoadProcess> active = Lists.newArrayList();
+    private Map<LoadProcess, Long> startTimes = Maps.newHashMap();
+    private long loadingStartTime;
     private JoinStatus joinStatus;
 
     private NUIManager nuiManager;
@@ -128,18 +139,41 @@ public void init(GameEngine engine) {
 
         progress = 0;
         maxProgress = 0;
-        for (LoadProcess process : loadProcesses) {
+        for (int i = 0; i < loadProcesses.size(); i++) {
+            LoadProcess process = loadProcesses.get(i);
             maxProgress += process.getExpectedCost();
+            dependencies.put(process, determineDependencies(process, loadProcesses.subList(0, i)));
         }
 
-        popStep();
+        loadingStartTime = time.getRawTimeInMs();
+        startReadyProcesses();
         loadingScreen = nuiManager.pushScreen("engine:loadingScreen", LoadingScreen.class);
-        loadingScreen.updateStatus(current.getMessage(), current.getProgress());
+        loadingScreen.updateStatus(active.get(0).getMessage(), active.get(0).getProgress());
+    }
+
+    /**
+     * @param preceding The processes added before the given process
+     * @return The processes that have to be complete before the given process can begin
+     */
+    private Set<LoadProcess> determineDependencies(LoadProcess process, List<LoadProcess> preceding) {
+        DependsOn declared = process.getClass().getAnnotation(DependsOn.class);
+        if (declared == null) {
+            return Sets.newHashSet(preceding);
+        }
+        List<Class<? extends LoadProcess>> types = Arrays.asList(declared.value());
+        Set<LoadProcess> result = Sets.newHashSet();
+        for (LoadProcess candidate : preceding) {
+            if (types.contains(candidate.getClass())) {
+                result.add(candidate);
+            }
+        }
+        return result;
     }
 
     private void initClient() {
         loadProcesses.add(new JoinServer(gameManifest, joinStatus));
         loadProcesses.add(new CacheTextures());
+        loadProcesses.add(new LoadBlockShapes());
         loadProcesses.add(new RegisterBlockFamilyFactories());
         loadProcesses.add(new RegisterBlocks(gameManifest));
         loadProcesses.add(new RegisterBiomes(gameManifest));
@@ -165,6 +199,7 @@ private void initClient() {
     private void initHost() {
         loadProcesses.add(new RegisterMods(gameManifest));
         loadProcesses.add(new CacheTextures());
+        loadProcesses.add(new LoadBlockShapes());
         loadProcesses.add(new RegisterBlockFamilyFactories());
         loadProcesses.add(new RegisterBlocks(gameManifest));
         loadProcesses.add(new RegisterBiomes(gameManifest));
@@ -204,18 +239,38 @@ private void initHost() {
         loadProcesses.add(new PrepareWorld());
     }
 
-    private void popStep() {
-        if (current != null) {
-            progress += current.getExpectedCost();
-        }
-        current = null;
-        if (!loadProcesses.isEmpty()) {
-            current = loadProcesses.remove();
-            logger.debug(current.getMessage());
-            current.begin();
+    /**
+     * Begins every process whose dependencies are complete, in the order the processes were added.
+     */
+    private void startReadyProcesses() {
+        Iterator<LoadProcess> iterator = loadProcesses.iterator();
+        while (iterator.hasNext()) {
+            LoadProcess process = iterator.next();
+            if (finished.containsAll(dependencies.get(process))) {
+                iterator.remove();
+                logger.debug(process.getMessage());
+                startTimes.put(process, getRawTimeInMs());
+                process.begin();
+                active.add(process);
+            }
         }
     }
 
+    private void finishProcess(LoadProcess process) {
+        long duration = getRawTimeInMs() - startTimes.remove(process);
+        logger.info("{} completed in {}ms", process.getClass().getSimpleName(), duration);
+        progress += process.getExpectedCost();
+        finished.add(process);
+    }
+
+    private long getRawTimeInMs() {
+        return ((EngineTime) CoreRegistry.get(Time.class)).getRawTimeInMs();
+    }
+
+    private boolean isLoadingComplete() {
+        return loadProcesses.isEmpty() && active.isEmpty();
+    }
+
     @Override
     public void dispose() {
         EngineTime time = (EngineTime) CoreRegistry.get(Time.class);
@@ -231,18 +286,33 @@ public void update(float delta) {
         GameEngine gameEngine = CoreRegistry.get(GameEngine.class);
         EngineTime time = (EngineTime) CoreRegistry.get(Time.class);
         long startTime = time.getRawTimeInMs();
-        while (current != null && time.getRawTimeInMs() - startTime < 20 && !gameEngine.hasPendingState()) {
-            if (current.step()) {
-                popStep();
+        while (!isLoadingComplete() && time.getRawTimeInMs() - startTime < 20 && !gameEngine.hasPendingState()) {
+            Iterator<LoadProcess> iterator = active.iterator();
+            boolean anyFinished = false;
+            while (iterator.hasNext()) {
+                LoadProcess process = iterator.next();
+                if (process.step()) {
+                    iterator.remove();
+                    finishProcess(process);
+                    anyFinished = true;
+                }
+            }
+            if (anyFinished) {
+                startReadyProcesses();
             }
         }
-        if (current == null) {
+        if (isLoadingComplete()) {
+            logger.info("Loading completed in {}ms", time.getRawTimeInMs() - loadingStartTime);
             nuiManager.closeScreen(loadingScreen);
             nuiManager.setHUDVisible(true);
             CoreRegistry.get(GameEngine.class).changeState(new StateIngame());
         } else {
-            float progressValue = (progress + current.getExpectedCost() * current.getProgress()) / maxProgress;
-            loadingScreen.updateStatus(current.getMessage(), progressValue);
+            float activeProgress = 0;
+            for (LoadProcess process : active) {
+                activeProgress += process.getExpectedCost() * process.getProgress();
+            }
+            float progressValue = (progress + activeProgress) / maxProgress;
+            loadingScreen.updateStatus(active.get(0).getMessage(), progressValue);
             nuiManager.update(delta);
         }
     }
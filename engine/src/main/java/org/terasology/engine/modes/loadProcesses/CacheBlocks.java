@@ -16,6 +16,7 @@
 
 package org.terasology.engine.modes.loadProcesses;
 
+import org.terasology.engine.modes.DependsOn;
 import org.terasology.registry.CoreRegistry;
 import org.terasology.world.block.BlockManager;
 import org.terasology.world.block.family.BlockFamily;
@@ -25,6 +26,7 @@
 /**
  * @author Immortius
  */
+@DependsOn(RegisterBlocks.class)
 public class CacheBlocks extends StepBasedLoadProcess {
 
     private Iterator<BlockFamily> blockFamilyIterator;
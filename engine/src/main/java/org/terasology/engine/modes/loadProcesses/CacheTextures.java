@@ -16,40 +16,33 @@
 
 package org.terasology.engine.modes.loadProcesses;
 
-import com.google.common.collect.Lists;
+import org.terasology.asset.AssetData;
 import org.terasology.asset.AssetType;
 import org.terasology.asset.AssetUri;
-import org.terasology.asset.Assets;
-
-import java.util.Iterator;
+import org.terasology.engine.modes.DependsOn;
 
 /**
  * @author Immortius
  */
-public class CacheTextures extends StepBasedLoadProcess {
-    private Iterator<AssetUri> uris;
+@DependsOn({RegisterMods.class, JoinServer.class})
+public class CacheTextures extends ParallelAssetLoadProcess<AssetData> {
 
-    @Override
-    public String getMessage() {
-        return "Caching Textures...";
+    public CacheTextures() {
+        super(AssetType.TEXTURE);
     }
 
     @Override
-    public void begin() {
-        uris = Assets.list(AssetType.TEXTURE).iterator();
-        setTotalSteps(Lists.newArrayList(Assets.list(AssetType.TEXTURE)).size());
+    public String getMessage() {
+        return "Caching Textures...";
     }
 
     @Override
-    public boolean step() {
-        AssetUri textureURI = uris.next();
-        Assets.get(textureURI);
-        stepDone();
-        return !uris.hasNext();
+    protected AssetData decode(AssetUri uri) {
+        return getAssetManager().loadAssetDataInContext(uri);
     }
 
     @Override
-    public int getExpectedCost() {
-        return 1;
+    protected void build(AssetUri uri, AssetData decoded) {
+        getAssetManager().buildAsset(uri, decoded);
     }
 }
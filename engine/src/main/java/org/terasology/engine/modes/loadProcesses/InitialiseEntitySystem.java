@@ -16,6 +16,8 @@
 
 package org.terasology.engine.modes.loadProcesses;
 
+import org.terasology.config.Config;
+import org.terasology.engine.modes.DependsOn;
 import org.terasology.engine.module.ModuleManager;
 import org.terasology.reflection.copy.CopyStrategyLibrary;
 import org.terasology.reflection.reflect.ReflectFactory;
@@ -26,6 +28,7 @@
 /**
  * @author Immortius
  */
+@DependsOn({RegisterBlocks.class, CacheTextures.class, InitialiseGraphics.class})
 public class InitialiseEntitySystem extends SingleStepLoadProcess {
     @Override
     public String getMessage() {
@@ -35,7 +38,8 @@ public String getMessage() {
     @Override
     public boolean step() {
         ModuleManager moduleManager = CoreRegistry.get(ModuleManager.class);
-        new EntitySystemBuilder().build(moduleManager.getEnvironment(), CoreRegistry.get(NetworkSystem.class),
+        boolean prefabCopyOnWrite = CoreRegistry.get(Config.class).getSystem().isPrefabCopyOnWrite();
+        new EntitySystemBuilder().setPrefabCopyOnWrite(prefabCopyOnWrite).build(moduleManager.getEnvironment(), CoreRegistry.get(NetworkSystem.class),
                 CoreRegistry.get(ReflectFactory.class), CoreRegistry.get(CopyStrategyLibrary.class));
         return true;
     }
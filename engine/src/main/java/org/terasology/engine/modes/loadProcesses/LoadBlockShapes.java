@@ -0,0 +1,48 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.terasology.engine.modes.loadProcesses;
+
+import org.terasology.asset.AssetData;
+import org.terasology.asset.AssetType;
+import org.terasology.asset.AssetUri;
+import org.terasology.engine.modes.DependsOn;
+
+/**
+ * Loads the block shapes ahead of the block registration, which would otherwise load them one at a time.
+ */
+@DependsOn({RegisterMods.class, JoinServer.class})
+public class LoadBlockShapes extends ParallelAssetLoadProcess<AssetData> {
+
+    public LoadBlockShapes() {
+        super(AssetType.SHAPE);
+    }
+
+    @Override
+    public String getMessage() {
+        return "Loading Block Shapes...";
+    }
+
+    @Override
+    protected AssetData decode(AssetUri uri) {
+        return getAssetManager().loadAssetDataInContext(uri);
+    }
+
+    @Override
+    protected void build(AssetUri uri, AssetData decoded) {
+        getAssetManager().buildAsset(uri, decoded);
+    }
+}
@@ -16,23 +16,38 @@
 
 package org.terasology.engine.modes.loadProcesses;
 
-import com.google.common.collect.Lists;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.asset.AssetManager;
 import org.terasology.asset.AssetType;
 import org.terasology.asset.AssetUri;
-import org.terasology.asset.Assets;
-import org.terasology.entitySystem.prefab.Prefab;
+import org.terasology.engine.modes.DependsOn;
+import org.terasology.engine.module.ModuleManager;
+import org.terasology.entitySystem.prefab.PrefabData;
+import org.terasology.entitySystem.prefab.internal.PrefabLoader;
+import org.terasology.persistence.ModuleContext;
+import org.terasology.registry.CoreRegistry;
 
-import java.util.Iterator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.List;
 
 /**
+ * Reads the prefab files in parallel. Their components are deserialized on the main thread, as they may refer to
+ * assets such as textures, meshes and sounds, which have to be created there.
+ *
  * @author Immortius
  */
-public class LoadPrefabs extends StepBasedLoadProcess {
+@DependsOn({InitialiseEntitySystem.class, CacheTextures.class, InitialiseGraphics.class})
+public class LoadPrefabs extends ParallelAssetLoadProcess<PrefabLoader.ParsedPrefab> {
     private static final Logger logger = LoggerFactory.getLogger(LoadPrefabs.class);
 
-    private Iterator<AssetUri> prefabs;
+    private final PrefabLoader prefabLoader = new PrefabLoader();
+
+    public LoadPrefabs() {
+        super(AssetType.PREFAB);
+    }
 
     @Override
     public String getMessage() {
@@ -40,22 +55,29 @@ public String getMessage() {
     }
 
     @Override
-    public boolean step() {
-        if (prefabs.hasNext()) {
-            Assets.get(prefabs.next(), Prefab.class);
-            stepDone();
+    protected PrefabLoader.ParsedPrefab decode(AssetUri uri) {
+        AssetManager assetManager = getAssetManager();
+        List<URL> urls = assetManager.getAssetURLs(uri);
+        if (urls.isEmpty()) {
+            return null;
+        }
+        try (InputStream stream = urls.get(0).openStream()) {
+            return prefabLoader.parse(stream, assetManager.getAssetDeltaURLs(uri));
+        } catch (IOException | RuntimeException e) {
+            logger.error("Error reading prefab {}", uri, e);
+            return null;
         }
-        return !prefabs.hasNext();
-    }
-
-    @Override
-    public void begin() {
-        prefabs = Assets.list(AssetType.PREFAB).iterator();
-        setTotalSteps(Lists.newArrayList(Assets.list(AssetType.PREFAB)).size());
     }
 
     @Override
-    public int getExpectedCost() {
-        return 1;
+    protected void build(AssetUri uri, PrefabLoader.ParsedPrefab decoded) {
+        ModuleManager moduleManager = CoreRegistry.get(ModuleManager.class);
+        PrefabData data;
+        try (ModuleContext.ContextSpan ignored = ModuleContext.setContext(moduleManager.getEnvironment().get(uri.getModuleName()))) {
+            data = prefabLoader.deserialize(decoded);
+        }
+        if (data != null) {
+            getAssetManager().buildAsset(uri, data);
+        }
     }
 }
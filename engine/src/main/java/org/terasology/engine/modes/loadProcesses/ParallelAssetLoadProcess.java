@@ -0,0 +1,135 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.engine.modes.loadProcesses;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Queues;
+import org.terasology.asset.AssetManager;
+import org.terasology.asset.AssetType;
+import org.terasology.asset.AssetUri;
+import org.terasology.engine.GameEngine;
+import org.terasology.registry.CoreRegistry;
+
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads all assets of a type, decoding their data in parallel on the engine's task pool. Only building the assets
+ * from the decoded data, which may require the main thread, happens in the steps of the process.
+ *
+ * @param <T> The decoded form of an asset, handed from the decoding tasks to the main thread
+ */
+public abstract class ParallelAssetLoadProcess<T> extends StepBasedLoadProcess {
+
+    /**
+     * How long a step waits for decoded data, yielding the main thread to the decoding tasks
+     */
+    private static final long POLL_TIMEOUT_MS = 1;
+
+    private final AssetType assetType;
+    private final BlockingQueue<DecodedAsset<T>> decodedAssets = Queues.newLinkedBlockingQueue();
+    private AssetManager assetManager;
+    private int pendingAssets;
+
+    protected ParallelAssetLoadProcess(AssetType assetType) {
+        this.assetType = assetType;
+    }
+
+    @Override
+    public void begin() {
+        assetManager = CoreRegistry.get(AssetManager.class);
+        GameEngine gameEngine = CoreRegistry.get(GameEngine.class);
+        List<AssetUri> uris = Lists.newArrayList(assetManager.listAssets(assetType));
+        setTotalSteps(uris.size());
+        for (final AssetUri uri : uris) {
+            if (assetManager.isLoaded(uri)) {
+                stepDone();
+                continue;
+            }
+            pendingAssets++;
+            Runnable decodeTask = new Runnable() {
+                @Override
+                public void run() {
+                    T data = null;
+                    try {
+                        data = decode(uri);
+                    } finally {
+                        decodedAssets.add(new DecodedAsset<>(uri, data));
+                    }
+                }
+            };
+            if (gameEngine != null) {
+                gameEngine.submitTask("Decode " + uri, decodeTask);
+            } else {
+                decodeTask.run();
+            }
+        }
+    }
+
+    @Override
+    public boolean step() {
+        if (pendingAssets == 0) {
+            return true;
+        }
+        DecodedAsset<T> decoded;
+        try {
+            decoded = decodedAssets.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        if (decoded != null) {
+            if (decoded.data != null) {
+                build(decoded.uri, decoded.data);
+            }
+            pendingAssets--;
+            stepDone();
+        }
+        return pendingAssets == 0;
+    }
+
+    @Override
+    public int getExpectedCost() {
+        return 1;
+    }
+
+    protected AssetManager getAssetManager() {
+        return assetManager;
+    }
+
+    /**
+     * Decodes an asset on a task thread. This must not load other assets, as their creation may need the main thread.
+     *
+     * @return The decoded asset, or null if it could not be decoded
+     */
+    protected abstract T decode(AssetUri uri);
+
+    /**
+     * Builds an asset from its decoded form on the main thread.
+     */
+    protected abstract void build(AssetUri uri, T decoded);
+
+    private static final class DecodedAsset<T> {
+        private final AssetUri uri;
+        private final T data;
+
+        private DecodedAsset(AssetUri uri, T data) {
+            this.uri = uri;
+            this.data = data;
+        }
+    }
+}
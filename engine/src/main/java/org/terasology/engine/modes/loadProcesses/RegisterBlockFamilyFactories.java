@@ -18,6 +18,7 @@
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.engine.modes.DependsOn;
 import org.terasology.engine.module.ModuleManager;
 import org.terasology.module.ModuleEnvironment;
 import org.terasology.registry.CoreRegistry;
@@ -29,6 +30,7 @@
 /**
  * @author Immortius
  */
+@DependsOn({RegisterMods.class, JoinServer.class})
 public class RegisterBlockFamilyFactories extends SingleStepLoadProcess {
     private static final Logger logger = LoggerFactory.getLogger(RegisterBlockFamilyFactories.class);
 
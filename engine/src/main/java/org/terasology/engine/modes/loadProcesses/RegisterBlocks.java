@@ -17,6 +17,7 @@
 package org.terasology.engine.modes.loadProcesses;
 
 import org.terasology.config.Config;
+import org.terasology.engine.modes.DependsOn;
 import org.terasology.registry.CoreRegistry;
 import org.terasology.game.GameManifest;
 import org.terasology.network.NetworkSystem;
@@ -29,6 +30,7 @@
 /**
  * @author Immortius
  */
+@DependsOn({RegisterBlockFamilyFactories.class, LoadBlockShapes.class})
 public class RegisterBlocks extends SingleStepLoadProcess {
 
     private GameManifest gameManifest;
@@ -45,7 +47,8 @@ public String getMessage() {
     @Override
     public boolean step() {
         NetworkSystem networkSystem = CoreRegistry.get(NetworkSystem.class);
-        WorldAtlas atlas = new WorldAtlasImpl(CoreRegistry.get(Config.class).getRendering().getMaxTextureAtlasResolution());
+        WorldAtlas atlas = new WorldAtlasImpl(CoreRegistry.get(Config.class).getRendering().getMaxTextureAtlasResolution(),
+                WorldAtlasImpl.createDefaultCache());
         CoreRegistry.put(WorldAtlas.class, atlas);
 
         BlockManagerImpl blockManager;
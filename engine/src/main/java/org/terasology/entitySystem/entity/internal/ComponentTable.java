@@ -35,6 +35,7 @@
  */
 class ComponentTable {
     private Map<Class, TLongObjectMap<Component>> store = Maps.newConcurrentMap();
+    private Map<Class, TLongSet> shared = Maps.newConcurrentMap();
 
     public <T extends Component> T get(long entityId, Class<T> componentClass) {
         TLongObjectMap<Component> entityMap = store.get(componentClass);
@@ -50,9 +51,42 @@ public Component put(long entityId, Component component) {
             entityMap = new TLongObjectHashMap<Component>();
             store.put(component.getClass(), entityMap);
         }
+        clearShared(entityId, component.getClass());
         return entityMap.put(entityId, component);
     }
 
+    /**
+     * Stores a component instance that is shared with other entities (typically the component of a prefab). The component
+     * must be replaced with an entity-owned copy via {@link #put(long, Component)} before it is handed out for modification.
+     *
+     * @return The previous component of that type for the entity, or null
+     */
+    public Component putShared(long entityId, Component component) {
+        Component oldComponent = put(entityId, component);
+        TLongSet sharedIds = shared.get(component.getClass());
+        if (sharedIds == null) {
+            sharedIds = new TLongHashSet();
+            shared.put(component.getClass(), sharedIds);
+        }
+        sharedIds.add(entityId);
+        return oldComponent;
+    }
+
+    /**
+     * @return Whether the component of the given type for the entity is a shared instance
+     */
+    public boolean isShared(long entityId, Class<? extends Component> componentClass) {
+        TLongSet sharedIds = shared.get(componentClass);
+        return sharedIds != null && sharedIds.contains(entityId);
+    }
+
+    private void clearShared(long entityId, Class<? extends Component> componentClass) {
+        TLongSet sharedIds = shared.get(componentClass);
+        if (sharedIds != null) {
+            sharedIds.remove(entityId);
+        }
+    }
+
     /**
      *
      * @return removes the component with the specified class from the entity and returns it.
@@ -61,6 +95,7 @@ public Component put(long entityId, Component component) {
     public <T extends Component> Component remove(long entityId, Class<T> componentClass) {
         TLongObjectMap<Component> entityMap = store.get(componentClass);
         if (entityMap != null) {
+            clearShared(entityId, componentClass);
             return entityMap.remove(entityId);
         }
         return null;
@@ -68,6 +103,9 @@ public <T extends Component> Component remove(long entityId, Class<T> componentC
 
 
     public List<Component> removeAndReturnComponentsOf(long entityId) {
+        for (TLongSet sharedIds : shared.values()) {
+            sharedIds.remove(entityId);
+        }
         List<Component> componentList = Lists.newArrayList();
         for (TLongObjectMap<Component> entityMap : store.values()) {
             Component component = entityMap.remove(entityId);
@@ -82,10 +120,14 @@ public void remove(long entityId) {
         for (TLongObjectMap<Component> entityMap : store.values()) {
             entityMap.remove(entityId);
         }
+        for (TLongSet sharedIds : shared.values()) {
+            sharedIds.remove(entityId);
+        }
     }
 
     public void clear() {
         store.clear();
+        shared.clear();
     }
 
     public int getComponentCount(Class<? extends Component> componentClass) {
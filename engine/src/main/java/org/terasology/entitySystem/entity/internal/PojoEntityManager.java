@@ -81,6 +81,8 @@ public class PojoEntityManager implements LowLevelEntityManager, EngineEntityMan
 
     private RefStrategy refStrategy = new DefaultRefStrategy();
 
+    private boolean prefabCopyOnWrite;
+
     private TypeSerializationLibrary typeSerializerLibrary;
 
     public PojoEntityManager() {
@@ -98,6 +100,23 @@ public void setPrefabManager(PrefabManager prefabManager) {
         this.prefabManager = prefabManager;
     }
 
+    public boolean isPrefabCopyOnWrite() {
+        return prefabCopyOnWrite;
+    }
+
+    /**
+     * When enabled, entities created from a prefab initially share the prefab's component instances. Each component is
+     * only copied the first time it is retrieved from the entity (which is required before it can be modified and saved),
+     * so components that are never accessed are never copied.
+     * <p>
+     * Handlers of {@link BeforeEntityCreated} must not modify the original components while this is enabled.
+     *
+     * @param prefabCopyOnWrite Whether prefab components should be copied lazily
+     */
+    public void setPrefabCopyOnWrite(boolean prefabCopyOnWrite) {
+        this.prefabCopyOnWrite = prefabCopyOnWrite;
+    }
+
     @Override
     public void clear() {
         for (BaseEntityRef entityRef : entityCache.values()) {
@@ -204,11 +223,24 @@ private EntityRef createEntity(Iterable<Component> components) {
         }
 
         for (Component c : finalComponents) {
-            store.put(entityId, c);
+            if (prefab != null && prefab.getComponent(c.getClass()) == c) {
+                store.putShared(entityId, c);
+            } else {
+                store.put(entityId, c);
+            }
         }
         return createEntityRef(entityId);
     }
 
+    private List<Component> instantiatePrefabComponents(Prefab prefab) {
+        List<Component> components = Lists.newArrayList();
+        for (Component component : prefab.iterateComponents()) {
+            components.add(prefabCopyOnWrite ? component : componentLibrary.copy(component));
+        }
+        components.add(new EntityInfoComponent(prefab, prefab.isPersisted(), prefab.isAlwaysRelevant()));
+        return components;
+    }
+
     @Override
     public EntityRef create(String prefabName) {
         if (prefabName != null && !prefabName.isEmpty()) {
@@ -235,12 +267,13 @@ public EntityRef create(String prefabName, Vector3f position) {
     public EntityRef create(Prefab prefab, Vector3f position, Quat4f rotation) {
         List<Component> components = Lists.newArrayList();
         for (Component component : prefab.iterateComponents()) {
-            Component newComp = componentLibrary.copy(component);
-            components.add(newComp);
-            if (newComp instanceof LocationComponent) {
-                LocationComponent loc = (LocationComponent) newComp;
+            if (component instanceof LocationComponent) {
+                LocationComponent loc = componentLibrary.copy((LocationComponent) component);
                 loc.setWorldPosition(position);
                 loc.setWorldRotation(rotation);
+                components.add(loc);
+            } else {
+                components.add(prefabCopyOnWrite ? component : componentLibrary.copy(component));
             }
         }
         components.add(new EntityInfoComponent(prefab, prefab.isPersisted(), prefab.isAlwaysRelevant()));
@@ -256,11 +289,12 @@ public EntityRef getEntity(long id) {
     public EntityRef create(Prefab prefab, Vector3f position) {
         List<Component> components = Lists.newArrayList();
         for (Component component : prefab.iterateComponents()) {
-            Component newComp = componentLibrary.copy(component);
-            components.add(newComp);
-            if (newComp instanceof LocationComponent) {
-                LocationComponent loc = (LocationComponent) newComp;
+            if (component instanceof LocationComponent) {
+                LocationComponent loc = componentLibrary.copy((LocationComponent) component);
                 loc.setWorldPosition(position);
+                components.add(loc);
+            } else {
+                components.add(prefabCopyOnWrite ? component : componentLibrary.copy(component));
             }
         }
         components.add(new EntityInfoComponent(prefab, prefab.isPersisted(), prefab.isAlwaysRelevant()));
@@ -269,12 +303,7 @@ public EntityRef create(Prefab prefab, Vector3f position) {
 
     @Override
     public EntityRef create(Prefab prefab) {
-        List<Component> components = Lists.newArrayList();
-        for (Component component : prefab.iterateComponents()) {
-            components.add(componentLibrary.copy(component));
-        }
-        components.add(new EntityInfoComponent(prefab, prefab.isPersisted(), prefab.isAlwaysRelevant()));
-        return create(components);
+        return create(instantiatePrefabComponents(prefab));
     }
 
     @Override
@@ -400,13 +429,7 @@ public EntityRef createEntityWithoutLifecycleEvents(String prefabName) {
     @Override
     public EntityRef createEntityWithoutLifecycleEvents(Prefab prefab) {
         if (prefab != null) {
-            List<Component> components = Lists.newArrayList();
-            for (Component component : prefab.iterateComponents()) {
-                components.add(componentLibrary.copy(component));
-            }
-            components.add(new EntityInfoComponent(prefab, prefab.isPersisted(), prefab.isAlwaysRelevant()));
-
-            return createEntityWithoutLifecycleEvents(components);
+            return createEntityWithoutLifecycleEvents(instantiatePrefabComponents(prefab));
         } else {
             return createEntityWithoutLifecycleEvents(Collections.<Component>emptyList());
         }
@@ -526,7 +549,14 @@ public boolean isActiveEntity(long id) {
      */
     @Override
     public Iterable<Component> iterateComponents(long entityId) {
-        return store.iterateComponents(entityId);
+        List<Component> components = store.getComponentsInNewList(entityId);
+        for (int i = 0; i < components.size(); ++i) {
+            Component component = components.get(i);
+            if (store.isShared(entityId, component.getClass())) {
+                components.set(i, unshare(entityId, component));
+            }
+        }
+        return components;
     }
 
     /**
@@ -573,8 +603,22 @@ private void destroy(EntityRef ref) {
      */
     @Override
     public <T extends Component> T getComponent(long entityId, Class<T> componentClass) {
-        //return componentLibrary.copy(store.get(entityId, componentClass));
-        return store.get(entityId, componentClass);
+        T component = store.get(entityId, componentClass);
+        if (component != null && store.isShared(entityId, componentClass)) {
+            return componentClass.cast(unshare(entityId, component));
+        }
+        return component;
+    }
+
+    /**
+     * Replaces a component instance shared with a prefab by a copy owned by the entity.
+     *
+     * @return The entity's own copy of the component
+     */
+    private Component unshare(long entityId, Component sharedComponent) {
+        Component copy = componentLibrary.copy(sharedComponent);
+        store.put(entityId, copy);
+        return copy;
     }
 
     /**
@@ -617,7 +661,7 @@ public <T extends Component> T addComponent(long entityId, T component) {
      */
     @Override
     public <T extends Component> T removeComponent(long entityId, Class<T> componentClass) {
-        T component = store.get(entityId, componentClass);
+        T component = getComponent(entityId, componentClass);
         if (component != null) {
             if (eventSystem != null) {
                 EntityRef entityRef = createEntityRef(entityId);
@@ -730,9 +774,18 @@ public <T extends Component> Iterable<Map.Entry<EntityRef, T>> listComponents(Cl
         TLongObjectIterator<T> iterator = store.componentIterator(componentClass);
         if (iterator != null) {
             List<Map.Entry<EntityRef, T>> list = new ArrayList<Map.Entry<EntityRef, T>>();
+            Map<Long, Component> sharedCopies = Maps.newHashMap();
             while (iterator.hasNext()) {
                 iterator.advance();
-                list.add(new EntityEntry<T>(createEntityRef(iterator.key()), iterator.value()));
+                T component = iterator.value();
+                if (store.isShared(iterator.key(), componentClass)) {
+                    component = componentClass.cast(componentLibrary.copy(component));
+                    sharedCopies.put(iterator.key(), component);
+                }
+                list.add(new EntityEntry<T>(createEntityRef(iterator.key()), component));
+            }
+            for (Map.Entry<Long, Component> entry : sharedCopies.entrySet()) {
+                store.put(entry.getKey(), entry.getValue());
             }
             return list;
         }
@@ -22,6 +22,8 @@
 import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.prefab.Prefab;
 import org.terasology.entitySystem.prefab.PrefabData;
+import org.terasology.entitySystem.prefab.PrefabManager;
+import org.terasology.registry.CoreRegistry;
 
 import java.util.List;
 import java.util.Map;
@@ -84,6 +86,7 @@ public Iterable<Component> iterateComponents() {
 
     @Override
     protected void onDispose() {
+        notifyPrefabManager();
     }
 
     @Override
@@ -95,6 +98,13 @@ protected void onReload(PrefabData data) {
         if (parent != null && parent instanceof PojoPrefab) {
             ((PojoPrefab) parent).children.add(this);
         }
+        notifyPrefabManager();
     }
 
+    private static void notifyPrefabManager() {
+        PrefabManager prefabManager = CoreRegistry.get(PrefabManager.class);
+        if (prefabManager instanceof PojoPrefabManager) {
+            ((PojoPrefabManager) prefabManager).onPrefabsChanged();
+        }
+    }
 }
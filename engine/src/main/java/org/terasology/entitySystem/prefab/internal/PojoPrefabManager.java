@@ -15,6 +15,8 @@
  */
 package org.terasology.entitySystem.prefab.internal;
 
+import com.google.common.collect.HashMultimap;
+import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
 import org.terasology.asset.AssetManager;
 import org.terasology.asset.AssetType;
@@ -25,6 +27,7 @@
 import org.terasology.entitySystem.prefab.PrefabManager;
 
 import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Basic implementation of PrefabManager.
@@ -35,6 +38,22 @@
  */
 public class PojoPrefabManager implements PrefabManager {
 
+    /**
+     * Incremented whenever a prefab is loaded, reloaded or disposed, so that the component index can be rebuilt lazily.
+     */
+    private final AtomicInteger prefabChanges = new AtomicInteger();
+
+    private SetMultimap<Class<? extends Component>, Prefab> componentIndex = HashMultimap.create();
+    private AssetManager indexedAssetManager;
+    private int indexedPrefabChanges = -1;
+
+    /**
+     * Notifies this prefab manager that the set of loaded prefabs or their content has changed.
+     */
+    void onPrefabsChanged() {
+        prefabChanges.incrementAndGet();
+    }
+
     /**
      * {@inheritDoc}
      */
@@ -67,15 +86,26 @@ public Iterable<Prefab> listPrefabs() {
      * {@inheritDoc}
      */
     @Override
-    public Collection<Prefab> listPrefabs(Class<? extends Component> comp) {
-        Collection<Prefab> prefabs = Sets.newHashSet();
+    public synchronized Collection<Prefab> listPrefabs(Class<? extends Component> comp) {
+        AssetManager assetManager = CoreRegistry.get(AssetManager.class);
+        int changes = prefabChanges.get();
+        if (assetManager != indexedAssetManager || changes != indexedPrefabChanges) {
+            rebuildComponentIndex(assetManager);
+            indexedAssetManager = assetManager;
+            indexedPrefabChanges = changes;
+        }
+        return Sets.newHashSet(componentIndex.get(comp));
+    }
 
-        for (Prefab p : CoreRegistry.get(AssetManager.class).listLoadedAssets(AssetType.PREFAB, Prefab.class)) {
-            if (p.getComponent(comp) != null) {
-                prefabs.add(p);
+    private void rebuildComponentIndex(AssetManager assetManager) {
+        componentIndex.clear();
+        if (assetManager == null) {
+            return;
+        }
+        for (Prefab p : assetManager.listLoadedAssets(AssetType.PREFAB, Prefab.class)) {
+            for (Component component : p.iterateComponents()) {
+                componentIndex.put(component.getClass(), p);
             }
         }
-
-        return prefabs;
     }
 }
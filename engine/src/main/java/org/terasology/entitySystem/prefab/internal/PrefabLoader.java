@@ -40,20 +40,51 @@ public class PrefabLoader implements AssetLoader<PrefabData> {
 
     @Override
     public PrefabData load(Module module, InputStream stream, List<URL> urls, List<URL> deltas) throws IOException {
+        ParsedPrefab parsed = parse(stream, deltas);
+        return (parsed != null) ? deserialize(parsed) : null;
+    }
+
+    /**
+     * Reads a prefab and its deltas without deserializing their components. As this does not load any other assets,
+     * it can run on any thread.
+     *
+     * @return The parsed prefab, or null if the stream contains none
+     */
+    public ParsedPrefab parse(InputStream stream, List<URL> deltas) throws IOException {
         BufferedReader reader = new BufferedReader(new InputStreamReader(stream, Charsets.UTF_8));
         EntityData.Prefab prefabData = EntityDataJSONFormat.readPrefab(reader);
-        if (prefabData != null) {
-            EngineEntityManager entityManager = CoreRegistry.get(EngineEntityManager.class);
-            List<EntityData.Prefab> deltaData = Lists.newArrayListWithCapacity(deltas.size());
-            for (URL deltaUrl : deltas) {
-                try (BufferedReader deltaReader = new BufferedReader(new InputStreamReader(deltaUrl.openStream(), Charsets.UTF_8))) {
-                    EntityData.Prefab delta = EntityDataJSONFormat.readPrefab(deltaReader);
-                    deltaData.add(delta);
-                }
+        if (prefabData == null) {
+            return null;
+        }
+        List<EntityData.Prefab> deltaData = Lists.newArrayListWithCapacity(deltas.size());
+        for (URL deltaUrl : deltas) {
+            try (BufferedReader deltaReader = new BufferedReader(new InputStreamReader(deltaUrl.openStream(), Charsets.UTF_8))) {
+                deltaData.add(EntityDataJSONFormat.readPrefab(deltaReader));
             }
-            PrefabSerializer serializer = new PrefabSerializer(entityManager.getComponentLibrary(), entityManager.getTypeSerializerLibrary());
-            return serializer.deserialize(prefabData, deltaData);
         }
-        return null;
+        return new ParsedPrefab(prefabData, deltaData);
+    }
+
+    /**
+     * Deserializes the components of a parsed prefab. Components may refer to assets such as textures and meshes,
+     * which are loaded on the way, so this has to run on the main thread within the prefab's module context.
+     */
+    public PrefabData deserialize(ParsedPrefab parsed) {
+        EngineEntityManager entityManager = CoreRegistry.get(EngineEntityManager.class);
+        PrefabSerializer serializer = new PrefabSerializer(entityManager.getComponentLibrary(), entityManager.getTypeSerializerLibrary());
+        return serializer.deserialize(parsed.prefab, parsed.deltas);
+    }
+
+    /**
+     * The data of a prefab and its deltas, as read from their files.
+     */
+    public static final class ParsedPrefab {
+        private final EntityData.Prefab prefab;
+        private final List<EntityData.Prefab> deltas;
+
+        private ParsedPrefab(EntityData.Prefab prefab, List<EntityData.Prefab> deltas) {
+            this.prefab = prefab;
+            this.deltas = deltas;
+        }
     }
 }
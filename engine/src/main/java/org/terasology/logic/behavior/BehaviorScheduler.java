@@ -0,0 +1,148 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.logic.behavior;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.logic.behavior.tree.Interpreter;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.geom.Vector3f;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decides which interpreters are ticked each frame.
+ * <p/>
+ * Interpreters far away from every player are ticked less often: the time since their last tick is accumulated and
+ * passed as the delta of their next tick. The interpreters that are due are ticked most overdue first until the frame's
+ * time budget is used up; the rest keep accumulating time and are first in line next frame.
+ */
+final class BehaviorScheduler {
+    private static final float[] LOD_DISTANCES = {32, 64, 128};
+    private static final float[] LOD_INTERVALS = {0, 0.1f, 0.25f, 1f};
+
+    private static final Comparator<Entry> MOST_OVERDUE_FIRST = new Comparator<Entry>() {
+        @Override
+        public int compare(Entry o1, Entry o2) {
+            return Float.compare(o2.pendingDelta - o2.interval, o1.pendingDelta - o1.interval);
+        }
+    };
+
+    private final Map<EntityRef, Entry> entries = Maps.newLinkedHashMap();
+    private final List<Entry> dueEntries = Lists.newArrayList();
+    private final Vector3f position = new Vector3f();
+    private long budgetNanos;
+
+    /**
+     * @param milliseconds The time interpreters may be ticked for each frame. At least one due interpreter is ticked
+     *                     per frame. 0 ticks every due interpreter.
+     */
+    public void setBudget(int milliseconds) {
+        budgetNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, milliseconds));
+    }
+
+    public Interpreter get(EntityRef entity) {
+        Entry entry = entries.get(entity);
+        return (entry != null) ? entry.interpreter : null;
+    }
+
+    public void add(EntityRef entity, Interpreter interpreter) {
+        entries.put(entity, new Entry(entity, interpreter));
+    }
+
+    public void remove(EntityRef entity) {
+        entries.remove(entity);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public Collection<Interpreter> getInterpreters() {
+        List<Interpreter> result = Lists.newArrayListWithCapacity(entries.size());
+        for (Entry entry : entries.values()) {
+            result.add(entry.interpreter);
+        }
+        return result;
+    }
+
+    /**
+     * @param delta           The time since the last frame
+     * @param playerPositions The world positions of all players
+     */
+    public void update(float delta, List<Vector3f> playerPositions) {
+        dueEntries.clear();
+        for (Entry entry : entries.values()) {
+            entry.pendingDelta += delta;
+            entry.interval = getInterval(entry.entity, playerPositions);
+            if (entry.pendingDelta >= entry.interval) {
+                dueEntries.add(entry);
+            }
+        }
+        Collections.sort(dueEntries, MOST_OVERDUE_FIRST);
+
+        long deadline = System.nanoTime() + budgetNanos;
+        for (int i = 0; i < dueEntries.size(); ++i) {
+            if (i > 0 && budgetNanos > 0 && System.nanoTime() >= deadline) {
+                break;
+            }
+            Entry entry = dueEntries.get(i);
+            float entryDelta = entry.pendingDelta;
+            entry.pendingDelta = 0;
+            entry.interpreter.tick(entryDelta);
+        }
+        dueEntries.clear();
+    }
+
+    private float getInterval(EntityRef entity, List<Vector3f> playerPositions) {
+        LocationComponent location = entity.getComponent(LocationComponent.class);
+        if (location == null || playerPositions.isEmpty()) {
+            return LOD_INTERVALS[0];
+        }
+        location.getWorldPosition(position);
+        float minDistanceSquared = Float.MAX_VALUE;
+        for (Vector3f playerPosition : playerPositions) {
+            float dx = position.x - playerPosition.x;
+            float dy = position.y - playerPosition.y;
+            float dz = position.z - playerPosition.z;
+            minDistanceSquared = Math.min(minDistanceSquared, dx * dx + dy * dy + dz * dz);
+        }
+        for (int lod = 0; lod < LOD_DISTANCES.length; ++lod) {
+            if (minDistanceSquared < LOD_DISTANCES[lod] * LOD_DISTANCES[lod]) {
+                return LOD_INTERVALS[lod];
+            }
+        }
+        return LOD_INTERVALS[LOD_DISTANCES.length];
+    }
+
+    private static final class Entry {
+        private final EntityRef entity;
+        private final Interpreter interpreter;
+        private float pendingDelta;
+        private float interval;
+
+        private Entry(EntityRef entity, Interpreter interpreter) {
+            this.entity = entity;
+            this.interpreter = interpreter;
+        }
+    }
+}
@@ -16,10 +16,10 @@
 package org.terasology.logic.behavior;
 
 import com.google.common.collect.Lists;
-import com.google.common.collect.Maps;
 import org.terasology.asset.AssetManager;
 import org.terasology.asset.AssetType;
 import org.terasology.asset.AssetUri;
+import org.terasology.config.Config;
 import org.terasology.engine.paths.PathManager;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
@@ -38,7 +38,10 @@
 import org.terasology.logic.behavior.tree.Actor;
 import org.terasology.logic.behavior.tree.Interpreter;
 import org.terasology.logic.behavior.tree.Node;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.geom.Vector3f;
 import org.terasology.naming.Name;
+import org.terasology.network.ClientComponent;
 import org.terasology.registry.In;
 import org.terasology.registry.Share;
 
@@ -58,6 +61,9 @@
  * is loaded and an interpreter is started.
  * <p/>
  * Modifications made to a behavior tree will reflect to all entities using this tree.
+ * <p/>
+ * Interpreters are not all ticked every frame: those far from players are ticked less often, and ticking is spread
+ * over frames to stay within the behavior update budget of the system config.
  *
  * @author synopia
  */
@@ -72,12 +78,16 @@ public class BehaviorSystem extends BaseComponentSystem implements UpdateSubscri
     private PrefabManager prefabManager;
     @In
     private AssetManager assetManager;
+    @In
+    private Config config;
 
-    private Map<EntityRef, Interpreter> entityInterpreters = Maps.newHashMap();
+    private BehaviorScheduler scheduler = new BehaviorScheduler();
+    private List<Vector3f> playerPositions = Lists.newArrayList();
     private List<BehaviorTree> trees = Lists.newArrayList();
 
     @Override
     public void initialise() {
+        scheduler.setBudget(config.getSystem().getBehaviorUpdateBudgetMs());
         List<AssetUri> uris = Lists.newArrayList();
         for (AssetUri uri : assetManager.listAssets(AssetType.SOUND)) {
             uris.add(uri);
@@ -104,15 +114,20 @@ public void onBehaviorActivated(OnActivatedComponent event, EntityRef entityRef,
     @ReceiveEvent
     public void onBehaviorRemoved(BeforeRemoveComponent event, EntityRef entityRef, BehaviorComponent behaviorComponent) {
         if (behaviorComponent.tree != null) {
-            entityInterpreters.remove(entityRef);
+            scheduler.remove(entityRef);
         }
     }
 
     @Override
     public void update(float delta) {
-        for (Interpreter interpreter : entityInterpreters.values()) {
-            interpreter.tick(delta);
+        playerPositions.clear();
+        for (EntityRef client : entityManager.getEntitiesWith(ClientComponent.class)) {
+            LocationComponent location = client.getComponent(ClientComponent.class).character.getComponent(LocationComponent.class);
+            if (location != null) {
+                playerPositions.add(location.getWorldPosition());
+            }
         }
+        scheduler.update(delta, playerPositions);
     }
 
     public BehaviorTree createTree(String name, Node root) {
@@ -151,7 +166,7 @@ public List<BehaviorTree> getTrees() {
 
     public List<Interpreter> getInterpreter() {
         List<Interpreter> interpreters = Lists.newArrayList();
-        interpreters.addAll(entityInterpreters.values());
+        interpreters.addAll(scheduler.getInterpreters());
         Collections.sort(interpreters, new Comparator<Interpreter>() {
             @Override
             public int compare(Interpreter o1, Interpreter o2) {
@@ -162,18 +177,18 @@ public int compare(Interpreter o1, Interpreter o2) {
     }
 
     public void treeModified(BehaviorTree tree) {
-        for (Interpreter interpreter : entityInterpreters.values()) {
+        for (Interpreter interpreter : scheduler.getInterpreters()) {
             interpreter.reset();
         }
         save(tree);
     }
 
     private void addEntity(EntityRef entityRef, BehaviorComponent behaviorComponent) {
-        Interpreter interpreter = entityInterpreters.get(entityRef);
+        Interpreter interpreter = scheduler.get(entityRef);
         if (interpreter == null) {
             interpreter = new Interpreter(new Actor(entityRef));
             BehaviorTree tree = behaviorComponent.tree;
-            entityInterpreters.put(entityRef, interpreter);
+            scheduler.add(entityRef, interpreter);
             if (tree != null) {
                 interpreter.start(tree.getRoot());
             }
@@ -90,5 +90,10 @@ public CounterNode getNode() {
             return (CounterNode) super.getNode();
         }
 
+        @Override
+        public boolean isReusable() {
+            return true;
+        }
+
     }
 }
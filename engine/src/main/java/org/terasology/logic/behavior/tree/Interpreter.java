@@ -38,12 +38,16 @@
  * If a task returns RUNNING, the task is placed to the active list and asked next tick again.
  * Finished nodes may create new tasks, which are placed to the active list.
  * <p/>
+ * Finished tasks that are {@link Task#isReusable() reusable} are kept in a small pool per node and restarted the next
+ * time their node is started, instead of creating and injecting a new task.
+ * <p/>
  *
  * @author synopia
  */
 @API
 public class Interpreter {
     private static final Logger logger = LoggerFactory.getLogger(Interpreter.class);
+    private static final int MAX_POOLED_TASKS_PER_NODE = 4;
 
     private static final Task TERMINAL = new Task(null) {
         @Override
@@ -63,6 +67,7 @@ public void handle(Status result) {
     private Node root;
     private Set<Node> startedNodes = Sets.newHashSet();
     private Map<Task, List<Task>> startedTasks = Maps.newHashMap();
+    private Map<Node, Deque<Task>> taskPool = Maps.newHashMap();
 
     public Interpreter(Actor actor) {
         this.actor = actor;
@@ -76,6 +81,7 @@ public Actor actor() {
     public void reset() {
         tasks.clear();
         startedTasks.clear();
+        taskPool.clear();
 
         start(root);
         tasks.addLast(TERMINAL);
@@ -94,11 +100,17 @@ public Task start(Node node, Task parent) {
         if (node == null) {
             return null;
         }
+        Deque<Task> pooled = taskPool.get(node);
+        if (pooled != null && !pooled.isEmpty()) {
+            Task task = pooled.pollFirst();
+            task.recycle();
+            return start(task, parent, false);
+        }
         Task task = node.createTask();
-        return start(task, parent);
+        return start(task, parent, true);
     }
 
-    private Task start(final Task task, Task parent) {
+    private Task start(final Task task, Task parent, boolean inject) {
         task.setActor(actor);
         task.setInterpreter(this);
         task.setParent(parent);
@@ -111,6 +123,9 @@ private Task start(final Task task, Task parent) {
             subTasks.add(task);
         }
         tasks.addFirst(task);
+        if (!inject) {
+            return task;
+        }
         return AccessController.doPrivileged(new PrivilegedAction<Task>() {
             @Override
             public Task run() {
@@ -125,6 +140,10 @@ public void stop(Task task, Status result) {
         Task parent = task.getParent();
         if (parent != null) {
             parent.handle(result);
+            List<Task> siblings = startedTasks.get(parent);
+            if (siblings != null) {
+                siblings.remove(task);
+            }
         }
         stopStartedTasks(task);
         if (debugger != null) {
@@ -145,6 +164,24 @@ private void stopStartedTasks(Task parent) {
             if (subTasks != null) {
                 open.addAll(subTasks);
             }
+            release(current);
+        }
+    }
+
+    /**
+     * Returns a stopped task to the pool of its node. Root tasks are handed out by start(), so they are never reused.
+     */
+    private void release(Task task) {
+        if (task.getParent() == null || !task.isReusable()) {
+            return;
+        }
+        Deque<Task> pooled = taskPool.get(task.getNode());
+        if (pooled == null) {
+            pooled = Queues.newArrayDeque();
+            taskPool.put(task.getNode(), pooled);
+        }
+        if (pooled.size() < MAX_POOLED_TASKS_PER_NODE && !pooled.contains(task)) {
+            pooled.addFirst(task);
         }
     }
 
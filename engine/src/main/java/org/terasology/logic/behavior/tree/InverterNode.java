@@ -49,5 +49,10 @@ public void handle(Status result) {
         public Status update(float dt) {
             return Status.RUNNING;
         }
+
+        @Override
+        public boolean isReusable() {
+            return true;
+        }
     }
 }
@@ -61,5 +61,10 @@ public void handle(Status result) {
         public LookupNode getNode() {
             return (LookupNode) super.getNode();
         }
+
+        @Override
+        public boolean isReusable() {
+            return true;
+        }
     }
 }
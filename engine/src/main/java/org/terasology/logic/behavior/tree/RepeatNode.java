@@ -72,6 +72,11 @@ public void handle(Status result) {
         public RepeatNode getNode() {
             return (RepeatNode) super.getNode();
         }
+
+        @Override
+        public boolean isReusable() {
+            return true;
+        }
     }
 
 }
@@ -76,5 +76,10 @@ public Status update(float dt) {
         public SelectorNode getNode() {
             return (SelectorNode) super.getNode();
         }
+
+        @Override
+        public boolean isReusable() {
+            return true;
+        }
     }
 }
@@ -78,6 +78,11 @@ public SequenceNode getNode() {
             return (SequenceNode) super.getNode();
         }
 
+        @Override
+        public boolean isReusable() {
+            return true;
+        }
+
     }
 
 }
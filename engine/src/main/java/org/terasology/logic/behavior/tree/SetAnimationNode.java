@@ -94,5 +94,10 @@ public SetAnimationNode getNode() {
             return (SetAnimationNode) super.getNode();
         }
 
+        @Override
+        public boolean isReusable() {
+            return true;
+        }
+
     }
 }
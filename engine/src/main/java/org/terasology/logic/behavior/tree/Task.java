@@ -77,6 +77,22 @@ public void stop(Status result) {
         interpreter().stop(this, result);
     }
 
+    /**
+     * Whether the interpreter may reuse this task for another run of its node once it is finished. A reusable task
+     * must set up all of its state in onInitialize() and must not expect callbacks after it terminated.
+     */
+    public boolean isReusable() {
+        return false;
+    }
+
+    /**
+     * Prepares a finished task to be started again.
+     */
+    void recycle() {
+        status = Status.INVALID;
+        parent = null;
+    }
+
     public Status getStatus() {
         return status;
     }
@@ -69,5 +69,10 @@ public void handle(Status result) {
         public TimerNode getNode() {
             return (TimerNode) super.getNode();
         }
+
+        @Override
+        public boolean isReusable() {
+            return true;
+        }
     }
 }
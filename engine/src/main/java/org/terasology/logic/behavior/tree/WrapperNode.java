@@ -47,5 +47,10 @@ public Status update(float dt) {
         public void handle(Status result) {
             stop(Status.SUCCESS);
         }
+
+        @Override
+        public boolean isReusable() {
+            return true;
+        }
     }
 }
@@ -200,6 +200,29 @@ public static void setToState(EntityRef entity, CharacterStateEvent state) {
         setPhysicsLocation(entity, state.getPosition());
     }
 
+    /**
+     * Moves the character to the given state without saving its components, so that a following movement step starts
+     * from it. The components should be saved with {@link #setToState(EntityRef, CharacterStateEvent)} once the last
+     * of a series of states is reached.
+     */
+    static void setToUnsavedState(EntityRef entity, CharacterStateEvent state) {
+        LocationComponent location = entity.getComponent(LocationComponent.class);
+        CharacterMovementComponent movementComp = entity.getComponent(CharacterMovementComponent.class);
+        CharacterComponent characterComponent = entity.getComponent(CharacterComponent.class);
+        if (location == null || movementComp == null || characterComponent == null) {
+            return;
+        }
+        location.setWorldPosition(state.getPosition());
+        location.setWorldRotation(state.getRotation());
+        movementComp.mode = state.getMode();
+        movementComp.setVelocity(state.getVelocity());
+        movementComp.grounded = state.isGrounded();
+        movementComp.footstepDelta = state.getFootstepDelta();
+        characterComponent.pitch = state.pitch;
+        characterComponent.yaw = state.yaw;
+        setPhysicsLocation(entity, state.getPosition());
+    }
+
     public static void setToInterpolateState(EntityRef entity, CharacterStateEvent a, CharacterStateEvent b, long time) {
         float t = (float) (time - a.getTime()) / (b.getTime() - a.getTime());
         Vector3f newPos = BaseVector3f.lerp(a.getPosition(), b.getPosition(), t);
@@ -16,6 +16,7 @@
 
 package org.terasology.logic.characters;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 
 import org.slf4j.Logger;
@@ -41,9 +42,15 @@
 import org.terasology.utilities.collection.CircularBuffer;
 import org.terasology.world.WorldProvider;
 
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 
 /**
+ * Input received from remote clients and AI is queued, and applied once per update. All the queued input of a character is
+ * stepped in one go, and only its final state is saved to the character's components.
+ * Input for the local player is applied immediately.
+ *
  * @author Immortius
  */
 @RegisterSystem(RegisterMode.AUTHORITY)
@@ -76,6 +83,7 @@ public class ServerCharacterPredictionSystem extends BaseComponentSystem impleme
     private CharacterMover characterMover;
     private Map<EntityRef, CircularBuffer<CharacterStateEvent>> characterStates = Maps.newHashMap();
     private Map<EntityRef, CharacterMoveInputEvent> lastInputEvent = Maps.newHashMap();
+    private Map<EntityRef, PendingInput> pendingInputs = Maps.newLinkedHashMap();
     private long nextSendState;
 
     @Override
@@ -97,10 +105,12 @@ public void onDestroy(final BeforeDeactivateComponent event, final EntityRef ent
         physics.removeCharacterCollider(entity);
         characterStates.remove(entity);
         lastInputEvent.remove(entity);
+        pendingInputs.remove(entity);
     }
 
     @ReceiveEvent
     public void onSetMovementModeEvent(SetMovementModeEvent event, EntityRef character, CharacterMovementComponent movementComponent) {
+        processPendingInput(character);
         CircularBuffer<CharacterStateEvent> stateBuffer = characterStates.get(character);
         CharacterStateEvent lastState = stateBuffer.getLast();
         CharacterStateEvent newState = new CharacterStateEvent(lastState);
@@ -122,18 +132,62 @@ public void onPlayerInput(CharacterMoveInputEvent input, EntityRef entity) {
             return;
         }
         CircularBuffer<CharacterStateEvent> stateBuffer = characterStates.get(entity);
-        CharacterStateEvent lastState = stateBuffer.getLast();
-        if (input.getDelta() + lastState.getTime() < time.getGameTimeInMs() + MAX_INPUT_OVERFLOW) {
-            CharacterStateEvent newState = stepState(input, lastState, entity);
-            stateBuffer.add(newState);
+        PendingInput pending = pendingInputs.get(entity);
+        long lastTime = (pending != null) ? pending.endTime : stateBuffer.getLast().getTime();
+        if (input.getDelta() + lastTime < time.getGameTimeInMs() + MAX_INPUT_OVERFLOW) {
+            if (entity.equals(localPlayer.getCharacterEntity())) {
+                processPendingInput(entity);
+                CharacterStateEvent newState = stepState(input, stateBuffer.getLast(), entity);
+                stateBuffer.add(newState);
 
-            CharacterStateEvent.setToState(entity, newState);
-            lastInputEvent.put(entity, input);
+                CharacterStateEvent.setToState(entity, newState);
+                lastInputEvent.put(entity, input);
+            } else {
+                if (pending == null) {
+                    pending = new PendingInput(lastTime);
+                    pendingInputs.put(entity, pending);
+                }
+                pending.add(input);
+            }
         } else {
             logger.warn("Received too much input from {}, dropping input.", entity);
         }
     }
 
+    private void processPendingInputs() {
+        Iterator<Map.Entry<EntityRef, PendingInput>> iterator = pendingInputs.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<EntityRef, PendingInput> entry = iterator.next();
+            iterator.remove();
+            stepPendingInput(entry.getKey(), entry.getValue());
+        }
+    }
+
+    private void processPendingInput(EntityRef entity) {
+        PendingInput pending = pendingInputs.remove(entity);
+        if (pending != null) {
+            stepPendingInput(entity, pending);
+        }
+    }
+
+    private void stepPendingInput(EntityRef entity, PendingInput pending) {
+        CircularBuffer<CharacterStateEvent> stateBuffer = characterStates.get(entity);
+        if (stateBuffer == null || !entity.exists()) {
+            return;
+        }
+        CharacterStateEvent newState = stateBuffer.getLast();
+        for (int i = 0; i < pending.inputs.size(); ++i) {
+            CharacterMoveInputEvent input = pending.inputs.get(i);
+            newState = stepState(input, newState, entity);
+            stateBuffer.add(newState);
+            if (i < pending.inputs.size() - 1) {
+                CharacterStateEvent.setToUnsavedState(entity, newState);
+            }
+        }
+        CharacterStateEvent.setToState(entity, newState);
+        lastInputEvent.put(entity, pending.inputs.get(pending.inputs.size() - 1));
+    }
+
     private CharacterStateEvent createInitialState(EntityRef entity) {
         LocationComponent location = entity.getComponent(LocationComponent.class);
         return new CharacterStateEvent(time.getGameTimeInMs(), 0, location.getWorldPosition(), location.getWorldRotation(), new Vector3f(), 0, 0, MovementMode.WALKING, false);
@@ -145,6 +199,7 @@ private CharacterStateEvent stepState(CharacterMoveInputEvent input, CharacterSt
 
     @Override
     public void update(float delta) {
+        processPendingInputs();
         if (nextSendState < time.getGameTimeInMs()) {
             long lastSendTime = nextSendState - TIME_BETWEEN_STATE_REPLICATE;
             for (Map.Entry<EntityRef, CircularBuffer<CharacterStateEvent>> entry : characterStates.entrySet()) {
@@ -164,6 +219,7 @@ public void update(float delta) {
                 }
             }
             nextSendState += TIME_BETWEEN_STATE_REPLICATE;
+            processPendingInputs();
         }
         long renderTime = time.getGameTimeInMs() - RENDER_DELAY;
         for (Map.Entry<EntityRef, CircularBuffer<CharacterStateEvent>> entry : characterStates.entrySet()) {
@@ -197,6 +253,7 @@ private void setToTime(long renderTime, EntityRef entity, CircularBuffer<Charact
 
     @Override
     public void lagCompensate(EntityRef client, long timeMs) {
+        processPendingInputs();
         for (Map.Entry<EntityRef, CircularBuffer<CharacterStateEvent>> entry : characterStates.entrySet()) {
             if (networkSystem.getOwnerEntity(entry.getKey()).equals(client)) {
                 CharacterStateEvent.setToState(entry.getKey(), entry.getValue().getLast());
@@ -213,4 +270,21 @@ public void restoreToPresent() {
             setToTime(renderTime, entry.getKey(), entry.getValue());
         }
     }
+
+    /**
+     * The input received for a character since the last update.
+     */
+    private static final class PendingInput {
+        private final List<CharacterMoveInputEvent> inputs = Lists.newArrayListWithCapacity(4);
+        private long endTime;
+
+        private PendingInput(long startTime) {
+            this.endTime = startTime;
+        }
+
+        private void add(CharacterMoveInputEvent input) {
+            inputs.add(input);
+            endTime += input.getDeltaMs();
+        }
+    }
 }
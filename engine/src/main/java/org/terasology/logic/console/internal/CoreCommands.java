@@ -272,6 +272,15 @@ public void dumpEntities() throws IOException {
         worldDumper.save(PathManager.getInstance().getHomePath().resolve("entityDump.txt"));
     }
 
+    @Command(shortDescription = "Writes out all persistent entities to a compressed binary file",
+            helpText = "Writes the persistent entities out into a file named \"entityDump.bin.gz\", e.g. for backups.")
+    public void dumpEntitiesBinary() throws IOException {
+        EngineEntityManager engineEntityManager = (EngineEntityManager) entityManager;
+        PrefabSerializer prefabSerializer = new PrefabSerializer(engineEntityManager.getComponentLibrary(), engineEntityManager.getTypeSerializerLibrary());
+        WorldDumper worldDumper = new WorldDumper(engineEntityManager, prefabSerializer);
+        worldDumper.saveBinary(PathManager.getInstance().getHomePath().resolve("entityDump.bin.gz"));
+    }
+
     // TODO: Fix this up for multiplayer (cannot at the moment due to the use of the camera)
     @Command(shortDescription = "Spawns an instance of a prefab in the world")
     public String spawnPrefab(@CommandParam("prefabId") String prefabName, EntityRef entity) {
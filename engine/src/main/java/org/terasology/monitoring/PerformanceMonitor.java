@@ -59,6 +59,17 @@ public static void endActivity() {
         instance.endActivity();
     }
 
+    /**
+     * Adds time spent on an activity. Unlike startActivity() and endActivity(), this may be called from any thread,
+     * so that work done by worker threads can be reported. The time counts towards the current cycle.
+     *
+     * @param activity The name of the activity.
+     * @param nanos    The time spent on the activity, in nanoseconds.
+     */
+    public static void recordActivityTime(String activity, long nanos) {
+        instance.recordActivityTime(activity, nanos);
+    }
+
     /**
      * Should be called once per frame, drops old information and updates the metrics.
      */
@@ -25,12 +25,18 @@
 
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
 
 public final class ChunkMonitor {
 
     private static final EventBus EVENT_BUS = new EventBus("ChunkMonitor");
     private static final Map<Vector3i, ChunkMonitorEntry> CHUNKS = Maps.newConcurrentMap();
 
+    private static final AtomicLong UNLOADED_CACHE_HITS = new AtomicLong();
+    private static final AtomicLong UNLOADED_CACHE_MISSES = new AtomicLong();
+    private static volatile int unloadedCacheChunks;
+    private static volatile long unloadedCacheBytes;
+
     private ChunkMonitor() {
     }
 
@@ -61,6 +67,8 @@ public static void fireChunkProviderInitialized(ChunkProvider provider) {
 
     public static void fireChunkProviderDisposed(ChunkProvider provider) {
         CHUNKS.clear();
+        UNLOADED_CACHE_HITS.set(0);
+        UNLOADED_CACHE_MISSES.set(0);
         post(new ChunkMonitorEvent.ChunkProviderDisposed(provider));
     }
 
@@ -92,6 +100,49 @@ public static void fireChunkTessellated(Vector3i chunkPos, ChunkMesh[] mesh) {
         post(new ChunkMonitorEvent.Tessellated(chunkPos, mesh));
     }
 
+    /**
+     * Records a lookup in the cache of recently unloaded chunks.
+     *
+     * @param hit Whether the chunk was restored from the cache, rather than loaded from storage
+     */
+    public static void fireUnloadedChunkCacheLookup(boolean hit) {
+        if (hit) {
+            UNLOADED_CACHE_HITS.incrementAndGet();
+        } else {
+            UNLOADED_CACHE_MISSES.incrementAndGet();
+        }
+    }
+
+    public static void fireUnloadedChunkCacheResized(int chunkCount, long sizeInBytes) {
+        unloadedCacheChunks = chunkCount;
+        unloadedCacheBytes = sizeInBytes;
+    }
+
+    public static long getUnloadedChunkCacheHits() {
+        return UNLOADED_CACHE_HITS.get();
+    }
+
+    public static long getUnloadedChunkCacheMisses() {
+        return UNLOADED_CACHE_MISSES.get();
+    }
+
+    /**
+     * @return The fraction of lookups in the cache of recently unloaded chunks that were hits, or 0 if there were none
+     */
+    public static float getUnloadedChunkCacheHitRate() {
+        long hits = UNLOADED_CACHE_HITS.get();
+        long total = hits + UNLOADED_CACHE_MISSES.get();
+        return (total == 0) ? 0 : (float) hits / total;
+    }
+
+    public static int getUnloadedChunkCacheChunkCount() {
+        return unloadedCacheChunks;
+    }
+
+    public static long getUnloadedChunkCacheSizeInBytes() {
+        return unloadedCacheBytes;
+    }
+
     public static synchronized void getChunks(List<ChunkMonitorEntry> output) {
         Preconditions.checkNotNull(output, "The parameter 'output' must not be null");
         output.addAll(CHUNKS.values());
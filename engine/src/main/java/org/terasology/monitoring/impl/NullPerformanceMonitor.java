@@ -39,6 +39,10 @@ public Activity startActivity(String activity) {
     public void endActivity() {
     }
 
+    @Override
+    public void recordActivityTime(String activity, long nanos) {
+    }
+
     @Override
     public TObjectDoubleMap<String> getRunningMean() {
         return metrics;
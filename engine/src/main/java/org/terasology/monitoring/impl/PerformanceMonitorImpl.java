@@ -16,6 +16,7 @@
 package org.terasology.monitoring.impl;
 
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Queues;
 import gnu.trove.map.TObjectDoubleMap;
 import gnu.trove.map.TObjectLongMap;
@@ -30,6 +31,9 @@
 
 import java.util.Deque;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Active implementation of Performance Monitor
@@ -41,6 +45,7 @@
 public class PerformanceMonitorImpl implements PerformanceMonitorInternal {
     private static final int RETAINED_CYCLES = 60;
     private static final double DECAY_RATE = 0.98;
+    private static final long NANOS_PER_MS = 1000000;
     private static final Activity OFF_THREAD_ACTIVITY = new NullActivity();
     // NullActivity instances are used by the NullPerformanceMonitor and for processes NOT running
     // on the main thread. Not strictly necessary (these processes are ignored by the PerformanceMonitor
@@ -58,6 +63,8 @@ public class PerformanceMonitorImpl implements PerformanceMonitorInternal {
     private TObjectLongMap<String> runningAllocationTotals;
     private long timerTicksPerSecond;
     private TObjectDoubleMap<String> spikeData;
+    // nanoseconds recorded by any thread, moved into the current data by the main thread once per cycle
+    private final ConcurrentMap<String, AtomicLong> recordedNanos = Maps.newConcurrentMap();
     private double timeFactor;
 
     private Thread mainThread;
@@ -80,6 +87,7 @@ public PerformanceMonitorImpl() {
     }
 
     public void rollCycle() {
+        collectRecordedTimes();
         metricData.add(currentData);
         allocationData.add(currentMemData);
         spikeData.forEachEntry(new TObjectDoubleProcedure<String>() {
@@ -168,6 +176,32 @@ public void endActivity() {
         }
     }
 
+    @Override
+    public void recordActivityTime(String activity, long nanos) {
+        AtomicLong total = recordedNanos.get(activity);
+        if (total == null) {
+            AtomicLong newTotal = new AtomicLong();
+            total = recordedNanos.putIfAbsent(activity, newTotal);
+            if (total == null) {
+                total = newTotal;
+            }
+        }
+        total.addAndGet(nanos);
+    }
+
+    /**
+     * Moves the whole milliseconds of the recorded times into the current data, keeping the remainders for later cycles.
+     */
+    private void collectRecordedTimes() {
+        for (Map.Entry<String, AtomicLong> entry : recordedNanos.entrySet()) {
+            long millis = entry.getValue().get() / NANOS_PER_MS;
+            if (millis > 0) {
+                entry.getValue().addAndGet(-millis * NANOS_PER_MS);
+                currentData.adjustOrPutValue(entry.getKey(), millis, millis);
+            }
+        }
+    }
+
     public TObjectDoubleMap<String> getRunningMean() {
         final TObjectDoubleMap<String> result = new TObjectDoubleHashMap<String>();
         final double factor = timeFactor / metricData.size();
@@ -30,6 +30,8 @@ public interface PerformanceMonitorInternal {
 
     void endActivity();
 
+    void recordActivityTime(String activity, long nanos);
+
     TObjectDoubleMap<String> getRunningMean();
 
     TObjectDoubleMap<String> getDecayingSpikes();
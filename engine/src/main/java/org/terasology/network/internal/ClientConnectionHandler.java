@@ -15,7 +15,10 @@
  */
 package org.terasology.network.internal;
 
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashingOutputStream;
 import org.jboss.netty.channel.ChannelHandlerContext;
 import org.jboss.netty.channel.MessageEvent;
 import org.jboss.netty.channel.SimpleChannelUpstreamHandler;
@@ -27,6 +30,7 @@
 import org.terasology.engine.Time;
 import org.terasology.engine.module.ModuleManager;
 import org.terasology.engine.paths.PathManager;
+import org.terasology.module.Module;
 import org.terasology.module.ModuleLoader;
 import org.terasology.naming.Name;
 import org.terasology.naming.Version;
@@ -40,6 +44,7 @@
 import java.nio.file.Path;
 import java.nio.file.StandardOpenOption;
 import java.util.Locale;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -49,22 +54,28 @@ public class ClientConnectionHandler extends SimpleChannelUpstreamHandler {
 
     private static final Logger logger = LoggerFactory.getLogger(ClientConnectionHandler.class);
 
+    private static final String MODULE_CACHE_DIR = "modules";
+
     private final JoinStatusImpl joinStatus;
     private NetworkSystemImpl networkSystem;
     private ServerImpl server;
     private ChannelHandlerContext channelHandlerContext;
     private ModuleManager moduleManager;
 
+    private final ModuleArchiveCache moduleArchiveCache;
+
     private Set<String> missingModules = Sets.newHashSet();
+    private Map<String, HashCode> expectedModuleHashes = Maps.newHashMap();
     private NetData.ModuleDataHeader receivingModule;
     private Path tempModuleLocation;
-    private BufferedOutputStream downloadingModule;
+    private HashingOutputStream downloadingModule;
     private long lengthReceived;
 
     public ClientConnectionHandler(JoinStatusImpl joinStatus, NetworkSystemImpl networkSystem) {
         this.networkSystem = networkSystem;
         this.joinStatus = joinStatus;
         this.moduleManager = CoreRegistry.get(ModuleManager.class);
+        this.moduleArchiveCache = new ModuleArchiveCache(PathManager.getInstance().getCachePath().resolve(MODULE_CACHE_DIR));
     }
 
     @Override
@@ -102,7 +113,8 @@ private void receiveModuleStart(NetData.ModuleDataHeader moduleDataHeader) {
                 try {
                     tempModuleLocation = Files.createTempFile("terasologyDownload", ".tmp");
                     tempModuleLocation.toFile().deleteOnExit();
-                    downloadingModule = new BufferedOutputStream(Files.newOutputStream(tempModuleLocation, StandardOpenOption.WRITE));
+                    downloadingModule = new HashingOutputStream(ModuleArchiveCache.getContentHashFunction(),
+                            new BufferedOutputStream(Files.newOutputStream(tempModuleLocation, StandardOpenOption.WRITE)));
                 } catch (IOException e) {
                     logger.error("Failed to write received module", e);
                     joinStatus.setErrorMessage("Module download error");
@@ -134,36 +146,31 @@ private void receiveModule(NetData.ModuleData moduleData) {
         }
 
         try {
-            downloadingModule.write(moduleData.getModule().toByteArray());
+            moduleData.getModule().writeTo(downloadingModule);
             lengthReceived += moduleData.getModule().size();
             joinStatus.setCurrentProgress((float) lengthReceived / receivingModule.getSize());
             if (lengthReceived == receivingModule.getSize()) {
                 // finished
                 downloadingModule.close();
-                String moduleName = String.format("%s-%s.jar", receivingModule.getId(), receivingModule.getVersion());
-                Path finalPath = PathManager.getInstance().getHomeModPath().normalize().resolve(moduleName);
-                if (finalPath.normalize().startsWith(PathManager.getInstance().getHomeModPath())) {
-                    if (Files.exists(finalPath)) {
-                        logger.error("File already exists at {}", finalPath);
-                        joinStatus.setErrorMessage("Module download error");
-                        channelHandlerContext.getChannel().close();
-                        return;
-                    }
-
-                    Files.copy(tempModuleLocation, finalPath);
-                    ModuleLoader loader = new ModuleLoader(moduleManager.getModuleMetadataReader());
-                    loader.setModuleInfoPath(TerasologyConstants.MODULE_INFO_FILENAME);
-
-                    moduleManager.getRegistry().add(loader.load(finalPath));
-                    receivingModule = null;
+                HashCode hash = downloadingModule.hash();
+                HashCode expectedHash = expectedModuleHashes.get(receivingModule.getId().toLowerCase(Locale.ENGLISH));
+                if (expectedHash != null && !expectedHash.equals(hash)) {
+                    logger.error("Received module {}:{} does not match its content hash", receivingModule.getId(), receivingModule.getVersion());
+                    joinStatus.setErrorMessage("Module download error");
+                    channelHandlerContext.getChannel().close();
+                    return;
+                }
 
-                    if (missingModules.isEmpty()) {
-                        sendJoin();
-                    }
-                } else {
-                    logger.error("Module rejected");
+                Path archive = moduleArchiveCache.store(tempModuleLocation, hash);
+                if (!loadModule(archive, receivingModule.getId(), receivingModule.getVersion())) {
                     joinStatus.setErrorMessage("Module download error");
                     channelHandlerContext.getChannel().close();
+                    return;
+                }
+                receivingModule = null;
+
+                if (missingModules.isEmpty()) {
+                    sendJoin();
                 }
             }
         } catch (IOException e) {
@@ -173,6 +180,26 @@ private void receiveModule(NetData.ModuleData moduleData) {
         }
     }
 
+    /**
+     * Loads a downloaded module archive into the module registry, if it contains the expected module.
+     */
+    private boolean loadModule(Path archive, String id, String version) {
+        try {
+            ModuleLoader loader = new ModuleLoader(moduleManager.getModuleMetadataReader());
+            loader.setModuleInfoPath(TerasologyConstants.MODULE_INFO_FILENAME);
+            Module module = loader.load(archive);
+            if (module == null || !module.getId().equals(new Name(id)) || !module.getVersion().equals(new Version(version))) {
+                logger.error("Module archive {} does not contain {}:{}", archive, id, version);
+                return false;
+            }
+            moduleManager.getRegistry().add(module);
+            return true;
+        } catch (IOException e) {
+            logger.error("Failed to load module archive {}", archive, e);
+            return false;
+        }
+    }
+
     private void completeJoin(NetData.JoinCompleteMessage joinComplete) {
         logger.info("Join complete received");
         server.setClientId(joinComplete.getClientId());
@@ -191,6 +218,15 @@ private void receivedServerInfo(NetData.ServerInfoMessage message) {
         // Request missing modules
         for (NetData.ModuleInfo info : message.getModuleList()) {
             if (null == moduleManager.getRegistry().getModule(new Name(info.getModuleId()), new Version(info.getModuleVersion()))) {
+                HashCode hash = ModuleArchiveCache.getContentHash(info);
+                if (hash != null) {
+                    Path cachedArchive = moduleArchiveCache.getArchive(hash);
+                    if (cachedArchive != null && loadModule(cachedArchive, info.getModuleId(), info.getModuleVersion())) {
+                        logger.info("Using cached archive of module {}:{}", info.getModuleId(), info.getModuleVersion());
+                        continue;
+                    }
+                    expectedModuleHashes.put(info.getModuleId().toLowerCase(Locale.ENGLISH), hash);
+                }
                 missingModules.add(info.getModuleId().toLowerCase(Locale.ENGLISH));
             }
         }
@@ -0,0 +1,108 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelEvent;
+import org.jboss.netty.channel.ChannelHandlerContext;
+import org.jboss.netty.channel.ChannelState;
+import org.jboss.netty.channel.ChannelStateEvent;
+import org.jboss.netty.channel.ChannelUpstreamHandler;
+import org.jboss.netty.handler.codec.oneone.OneToOneEncoder;
+
+import java.util.zip.Deflater;
+
+/**
+ * Compresses outgoing frames into a single zlib stream, flushing after each frame so that it can be decoded as soon
+ * as it arrives. This is compatible with the zlib decoder on the receiving side, but unlike a plain zlib encoder it
+ * stores {@link IncompressibleFrame}s without compressing them, as compressing data that is already compressed
+ * costs time without reducing its size.
+ */
+public class DeflateEncoder extends OneToOneEncoder implements ChannelUpstreamHandler {
+
+    private static final int OUTPUT_BLOCK_SIZE = 8192;
+
+    private final Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+    private final byte[] outputBlock = new byte[OUTPUT_BLOCK_SIZE];
+    private int level = Deflater.DEFAULT_COMPRESSION;
+    private boolean finished;
+
+    @Override
+    protected synchronized Object encode(ChannelHandlerContext ctx, Channel channel, Object msg) throws Exception {
+        ChannelBuffer input;
+        int frameLevel;
+        if (msg instanceof IncompressibleFrame) {
+            input = ((IncompressibleFrame) msg).getBuffer();
+            frameLevel = Deflater.NO_COMPRESSION;
+        } else if (msg instanceof ChannelBuffer) {
+            input = (ChannelBuffer) msg;
+            frameLevel = Deflater.DEFAULT_COMPRESSION;
+        } else {
+            return msg;
+        }
+        if (finished) {
+            return msg;
+        }
+
+        if (frameLevel != level) {
+            // Takes effect with the next call to deflate, as nothing is pending after the previous flush
+            deflater.setLevel(frameLevel);
+            level = frameLevel;
+        }
+
+        byte[] data;
+        int offset;
+        int length = input.readableBytes();
+        if (input.hasArray()) {
+            data = input.array();
+            offset = input.arrayOffset() + input.readerIndex();
+        } else {
+            data = new byte[length];
+            input.getBytes(input.readerIndex(), data);
+            offset = 0;
+        }
+        deflater.setInput(data, offset, length);
+
+        int estimatedSize = (frameLevel == Deflater.NO_COMPRESSION) ? length + length / 1000 + 32 : length / 2 + 32;
+        ChannelBuffer result = ChannelBuffers.dynamicBuffer(estimatedSize, channel.getConfig().getBufferFactory());
+        int written;
+        do {
+            written = deflater.deflate(outputBlock, 0, outputBlock.length, Deflater.SYNC_FLUSH);
+            result.writeBytes(outputBlock, 0, written);
+        } while (written > 0 || !deflater.needsInput());
+        return result;
+    }
+
+    @Override
+    public void handleUpstream(ChannelHandlerContext ctx, ChannelEvent e) throws Exception {
+        if (e instanceof ChannelStateEvent) {
+            ChannelStateEvent stateEvent = (ChannelStateEvent) e;
+            if (stateEvent.getState() == ChannelState.OPEN && Boolean.FALSE.equals(stateEvent.getValue())) {
+                end();
+            }
+        }
+        ctx.sendUpstream(e);
+    }
+
+    private synchronized void end() {
+        if (!finished) {
+            finished = true;
+            deflater.end();
+        }
+    }
+}
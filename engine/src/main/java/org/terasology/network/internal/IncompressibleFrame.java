@@ -0,0 +1,36 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import org.jboss.netty.buffer.ChannelBuffer;
+
+/**
+ * An already framed and encoded message whose content does not benefit from compression, such as a piece of a
+ * module archive. The {@link DeflateEncoder} stores it without compressing it, but still within the compressed
+ * stream, so the receiving side decodes it like any other message.
+ */
+final class IncompressibleFrame {
+
+    private final ChannelBuffer buffer;
+
+    IncompressibleFrame(ChannelBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    public ChannelBuffer getBuffer() {
+        return buffer;
+    }
+}
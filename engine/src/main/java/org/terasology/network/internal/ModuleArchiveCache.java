@@ -0,0 +1,115 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.common.hash.HashCode;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.UnknownFieldSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.protobuf.NetData;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * Keeps module archives downloaded from servers, named by the hash of their content, so that joining a server that
+ * provides an already downloaded archive does not require downloading it again.
+ * <p>
+ * Servers advertise the content hash of each downloadable module in the extension range of its
+ * {@link NetData.ModuleInfo}, so clients that do not know the field ignore it.
+ */
+final class ModuleArchiveCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(ModuleArchiveCache.class);
+
+    private static final int CONTENT_HASH_FIELD_NUMBER = 5000;
+    private static final HashFunction CONTENT_HASH = Hashing.sha256();
+    private static final String ARCHIVE_EXTENSION = ".jar";
+
+    private final Path directory;
+
+    ModuleArchiveCache(Path directory) {
+        this.directory = directory;
+    }
+
+    public static HashCode hashArchive(Path archive) throws IOException {
+        return com.google.common.io.Files.asByteSource(archive.toFile()).hash(CONTENT_HASH);
+    }
+
+    public static HashFunction getContentHashFunction() {
+        return CONTENT_HASH;
+    }
+
+    public static void setContentHash(NetData.ModuleInfo.Builder moduleInfo, HashCode hash) {
+        moduleInfo.mergeUnknownFields(UnknownFieldSet.newBuilder()
+                .addField(CONTENT_HASH_FIELD_NUMBER, UnknownFieldSet.Field.newBuilder()
+                        .addLengthDelimited(ByteString.copyFrom(hash.asBytes())).build())
+                .build());
+    }
+
+    /**
+     * @return The content hash advertised for the module, or null if the server did not provide one
+     */
+    public static HashCode getContentHash(NetData.ModuleInfo moduleInfo) {
+        UnknownFieldSet.Field field = moduleInfo.getUnknownFields().getField(CONTENT_HASH_FIELD_NUMBER);
+        List<ByteString> values = field.getLengthDelimitedList();
+        if (values.size() != 1 || values.get(0).size() != CONTENT_HASH.bits() / Byte.SIZE) {
+            return null;
+        }
+        return HashCode.fromBytes(values.get(0).toByteArray());
+    }
+
+    /**
+     * @return The cached archive with the given content hash, or null if it is not cached
+     */
+    public Path getArchive(HashCode hash) {
+        Path archive = directory.resolve(hash.toString() + ARCHIVE_EXTENSION);
+        if (!Files.isRegularFile(archive)) {
+            return null;
+        }
+        try {
+            if (hashArchive(archive).equals(hash)) {
+                return archive;
+            }
+            logger.warn("Discarding corrupted cached module archive {}", archive);
+            Files.delete(archive);
+        } catch (IOException e) {
+            logger.warn("Failed to read cached module archive {}", archive, e);
+        }
+        return null;
+    }
+
+    /**
+     * Moves a downloaded archive into the cache.
+     *
+     * @return The location of the archive in the cache
+     */
+    public Path store(Path downloadedArchive, HashCode hash) throws IOException {
+        Files.createDirectories(directory);
+        Path archive = directory.resolve(hash.toString() + ARCHIVE_EXTENSION);
+        Path temp = Files.createTempFile(directory, hash.toString(), ".tmp");
+        Files.copy(downloadedArchive, temp, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(temp, archive, StandardCopyOption.REPLACE_EXISTING);
+        Files.deleteIfExists(downloadedArchive);
+        return archive;
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.network.internal;
+
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import org.jboss.netty.buffer.ChannelBuffer;
+import org.jboss.netty.buffer.ChannelBuffers;
+import org.jboss.netty.handler.stream.ChunkedInput;
+import org.terasology.protobuf.NetData;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Streams a module archive as a sequence of {@link NetData.ModuleData} messages, for use with a
+ * {@link org.jboss.netty.handler.stream.ChunkedWriteHandler}, which only requests the next piece once the channel is
+ * writable again.
+ * <p>
+ * Each piece is read straight from the file into its own buffer, and the message and frame headers are written around
+ * it rather than copying it into a protobuf message. As archives are already compressed, the pieces are produced as
+ * {@link IncompressibleFrame}s.
+ */
+class ModuleDataChunkedInput implements ChunkedInput {
+
+    private static final int CHUNK_SIZE = 65536;
+
+    private final FileChannel channel;
+    private final long size;
+    private long position;
+
+    public ModuleDataChunkedInput(Path location) throws IOException {
+        this.channel = FileChannel.open(location, StandardOpenOption.READ);
+        this.size = channel.size();
+    }
+
+    /**
+     * @return The number of bytes that will be sent
+     */
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public boolean hasNextChunk() {
+        return position < size;
+    }
+
+    @Override
+    public Object nextChunk() throws IOException {
+        if (position >= size) {
+            return null;
+        }
+        int length = (int) Math.min(CHUNK_SIZE, size - position);
+        ByteBuffer data = ByteBuffer.allocate(length);
+        while (data.hasRemaining()) {
+            if (channel.read(data, position + data.position()) < 0) {
+                throw new EOFException("Module archive shrank while being sent");
+            }
+        }
+        data.flip();
+        position += length;
+        return new IncompressibleFrame(ChannelBuffers.wrappedBuffer(createHeader(length), ChannelBuffers.wrappedBuffer(data)));
+    }
+
+    /**
+     * Writes the varint frame length, followed by the tags and lengths of the NetMessage.moduleData and
+     * ModuleData.module fields, so that the header and the data form a framed NetMessage.
+     */
+    private static ChannelBuffer createHeader(int dataLength) throws IOException {
+        int moduleDataLength = CodedOutputStream.computeTagSize(NetData.ModuleData.MODULE_FIELD_NUMBER)
+                + CodedOutputStream.computeRawVarint32Size(dataLength) + dataLength;
+        int messageLength = CodedOutputStream.computeTagSize(NetData.NetMessage.MODULEDATA_FIELD_NUMBER)
+                + CodedOutputStream.computeRawVarint32Size(moduleDataLength) + moduleDataLength;
+        int headerLength = CodedOutputStream.computeRawVarint32Size(messageLength) + messageLength - dataLength;
+
+        byte[] header = new byte[headerLength];
+        CodedOutputStream output = CodedOutputStream.newInstance(header);
+        output.writeRawVarint32(messageLength);
+        output.writeTag(NetData.NetMessage.MODULEDATA_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeRawVarint32(moduleDataLength);
+        output.writeTag(NetData.ModuleData.MODULE_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+        output.writeRawVarint32(dataLength);
+        output.checkNoSpaceLeft();
+        return ChannelBuffers.wrappedBuffer(header);
+    }
+
+    @Override
+    public boolean isEndOfInput() {
+        return position >= size;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+}
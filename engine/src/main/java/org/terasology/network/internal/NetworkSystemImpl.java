@@ -23,6 +23,7 @@
 import com.google.common.collect.Queues;
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
+import com.google.common.hash.HashCode;
 import com.google.protobuf.ByteString;
 import gnu.trove.map.TIntLongMap;
 import gnu.trove.map.hash.TIntLongHashMap;
@@ -88,12 +89,14 @@
 import org.terasology.world.chunks.remoteChunkProvider.RemoteChunkProvider;
 import org.terasology.world.generator.WorldGenerator;
 
+import java.io.IOException;
 import java.net.BindException;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.InterfaceAddress;
 import java.net.NetworkInterface;
 import java.net.SocketException;
+import java.nio.file.Path;
 import java.util.Collection;
 import java.util.Enumeration;
 import java.util.List;
@@ -139,6 +142,7 @@ public class NetworkSystemImpl implements EntityChangeSubscriber, NetworkSystem
     private final Set<Client> clientList = Sets.newLinkedHashSet();
     private final Set<NetClient> netClientList = Sets.newLinkedHashSet();
     private Map<EntityRef, Client> clientPlayerLookup = Maps.newHashMap();
+    private Map<Path, HashCode> moduleArchiveHashes = Maps.newConcurrentMap();
     private Map<EntityRef, EntityRef> ownerLookup = Maps.newHashMap();
     private SetMultimap<EntityRef, EntityRef> ownedLookup = HashMultimap.create();
     private StorageManager storageManager;
@@ -815,9 +819,14 @@ NetData.ServerInfoMessage getServerInfoMessage() {
         for (Module module : CoreRegistry.get(ModuleManager.class).getEnvironment()) {
             Boolean serverSideOnly = module.getMetadata().getExtension(ModuleManager.SERVER_SIDE_ONLY_EXT, Boolean.class);
             if (serverSideOnly == null || !serverSideOnly) {
-                serverInfoMessageBuilder.addModule(NetData.ModuleInfo.newBuilder()
+                NetData.ModuleInfo.Builder moduleInfo = NetData.ModuleInfo.newBuilder()
                         .setModuleId(module.getId().toString())
-                        .setModuleVersion(module.getVersion().toString()).build());
+                        .setModuleVersion(module.getVersion().toString());
+                HashCode archiveHash = getModuleArchiveHash(module);
+                if (archiveHash != null) {
+                    ModuleArchiveCache.setContentHash(moduleInfo, archiveHash);
+                }
+                serverInfoMessageBuilder.addModule(moduleInfo.build());
             }
         }
         for (Map.Entry<String, Short> blockMapping : blockManager.getBlockIdMap().entrySet()) {
@@ -882,6 +891,27 @@ private void generateSerializationTables() {
         eventSerializer.setIdMapping(generateIds(entitySystemLibrary.getEventLibrary()));
     }
 
+    /**
+     * @return The content hash of the module's archive, which clients use to find already downloaded archives, or null
+     * if the module cannot be downloaded
+     */
+    private HashCode getModuleArchiveHash(Module module) {
+        Path archive = ServerConnectionHandler.getDownloadableArchive(module);
+        if (archive == null) {
+            return null;
+        }
+        HashCode hash = moduleArchiveHashes.get(archive);
+        if (hash == null) {
+            try {
+                hash = ModuleArchiveCache.hashArchive(archive);
+                moduleArchiveHashes.put(archive, hash);
+            } catch (IOException e) {
+                logger.warn("Failed to hash module archive {}", archive, e);
+            }
+        }
+        return hash;
+    }
+
     private <T> Map<Class<? extends T>, Integer> generateIds(ClassLibrary<T> classLibrary) {
         Map<Class<? extends T>, Integer> result = Maps.newHashMap();
         for (ClassMetadata<? extends T, ?> metadata : classLibrary) {
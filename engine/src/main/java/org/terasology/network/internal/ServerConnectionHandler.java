@@ -15,8 +15,8 @@
  */
 package org.terasology.network.internal;
 
-import com.google.common.io.ByteStreams;
-import com.google.protobuf.ByteString;
+import org.jboss.netty.channel.Channel;
+import org.jboss.netty.channel.ChannelFutureListener;
 import org.jboss.netty.channel.ChannelHandlerContext;
 import org.jboss.netty.channel.ChannelStateEvent;
 import org.jboss.netty.channel.MessageEvent;
@@ -32,9 +32,7 @@
 import org.terasology.rendering.nui.Color;
 import org.terasology.rendering.world.ViewDistance;
 
-import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.List;
@@ -85,46 +83,46 @@ public void messageReceived(ChannelHandlerContext ctx, MessageEvent e) {
     }
 
     private void sendModules(List<NetData.ModuleRequest> moduleRequestList) {
+        Channel channel = channelHandlerContext.getChannel();
         for (NetData.ModuleRequest request : moduleRequestList) {
             NetData.ModuleDataHeader.Builder result = NetData.ModuleDataHeader.newBuilder();
             result.setId(request.getModuleId());
             Module module = moduleManager.getEnvironment().get(new Name(request.getModuleId()));
-            if (module.isOnClasspath() || module.getLocations().size() != 1 || !Files.isReadable(module.getLocations().get(0))) {
+            Path location = getDownloadableArchive(module);
+            if (location == null) {
                 result.setError("Module not available for download");
-            } else {
-                Path location = module.getLocations().get(0);
-                try {
-                    result.setVersion(module.getVersion().toString());
-                    result.setSize(Files.size(location));
-                    channelHandlerContext.getChannel().write(NetData.NetMessage.newBuilder().setModuleDataHeader(result).build());
-                } catch (IOException e) {
-                    logger.error("Error sending module data header", e);
-                    channelHandlerContext.getChannel().close();
-                    break;
-                }
-
-                try (InputStream stream = new BufferedInputStream(Files.newInputStream(location))) {
-
-
-                    long remainingData = Files.size(location);
-                    byte[] data = new byte[1024];
-                    while (remainingData > 0) {
-                        int nextBlock = (int) Math.min(remainingData, 1024);
-                        ByteStreams.read(stream, data, 0, nextBlock);
-                        channelHandlerContext.getChannel().write(
-                                NetData.NetMessage.newBuilder().setModuleData(
-                                        NetData.ModuleData.newBuilder().setModule(ByteString.copyFrom(data, 0, nextBlock))
-                                ).build()
-                        );
-                        remainingData -= nextBlock;
-                    }
-                } catch (IOException e) {
-                    logger.error("Error sending module", e);
-                    channelHandlerContext.getChannel().close();
-                    break;
-                }
+                channel.write(NetData.NetMessage.newBuilder().setModuleDataHeader(result).build());
+                continue;
             }
+
+            ModuleDataChunkedInput moduleData;
+            try {
+                moduleData = new ModuleDataChunkedInput(location);
+            } catch (IOException e) {
+                logger.error("Error sending module", e);
+                channel.close();
+                break;
+            }
+            result.setVersion(module.getVersion().toString());
+            result.setSize(moduleData.getSize());
+            channel.write(NetData.NetMessage.newBuilder().setModuleDataHeader(result).build());
+            // Written by the chunked write handler as the channel becomes writable, so the archive is not buffered
+            channel.write(moduleData).addListener(ChannelFutureListener.CLOSE_ON_FAILURE);
+        }
+    }
+
+    /**
+     * @return The archive of the module, if it can be sent to clients, otherwise null
+     */
+    static Path getDownloadableArchive(Module module) {
+        if (module == null || module.isOnClasspath() || module.getLocations().size() != 1) {
+            return null;
+        }
+        Path location = module.getLocations().get(0);
+        if (!Files.isRegularFile(location) || !Files.isReadable(location)) {
+            return null;
         }
+        return location;
     }
 
     private void receivedConnect(NetData.JoinMessage message) {
@@ -18,12 +18,13 @@
 
 import org.jboss.netty.channel.ChannelPipeline;
 import org.jboss.netty.channel.ChannelPipelineFactory;
-import org.jboss.netty.handler.codec.compression.ZlibEncoder;
 import org.jboss.netty.handler.codec.frame.LengthFieldPrepender;
 import org.jboss.netty.handler.codec.protobuf.ProtobufDecoder;
 import org.jboss.netty.handler.codec.protobuf.ProtobufEncoder;
 import org.jboss.netty.handler.codec.protobuf.ProtobufVarint32FrameDecoder;
 import org.jboss.netty.handler.codec.protobuf.ProtobufVarint32LengthFieldPrepender;
+import org.jboss.netty.handler.stream.ChunkedWriteHandler;
+import org.terasology.network.internal.DeflateEncoder;
 import org.terasology.network.internal.MetricRecordingHandler;
 import org.terasology.network.internal.NetworkSystemImpl;
 import org.terasology.network.internal.ServerConnectionHandler;
@@ -55,9 +56,10 @@ public ChannelPipeline getPipeline() throws Exception {
         p.addLast("protobufDecoder", new ProtobufDecoder(NetData.NetMessage.getDefaultInstance()));
 
         p.addLast("frameLengthEncoder", new LengthFieldPrepender(3));
-        p.addLast("deflateEncoder", new ZlibEncoder());
+        p.addLast("deflateEncoder", new DeflateEncoder());
         p.addLast("frameEncoder", new ProtobufVarint32LengthFieldPrepender());
         p.addLast("protobufEncoder", new ProtobufEncoder());
+        p.addLast("chunkedWriter", new ChunkedWriteHandler());
 
         p.addLast("authenticationHandler", new ServerHandshakeHandler());
         p.addLast("connectionHandler", new ServerConnectionHandler(networkSystem));
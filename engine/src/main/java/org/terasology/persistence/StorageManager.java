@@ -69,6 +69,20 @@ public interface StorageManager {
      */
     void deactivateChunk(Chunk chunk);
 
+    /**
+     * @return Whether a version of the chunk is stored, or waiting to be saved
+     */
+    boolean isChunkStored(Vector3i chunkPos);
+
+    /**
+     * Stores a chunk that was generated but never activated, such as a pregenerated chunk, at the next possible time.
+     * The chunk must not be modified afterwards.
+     *
+     * @return Whether the chunk will be stored. False if another version of the chunk is already stored or waiting to
+     * be saved, or if this storage manager does not write.
+     */
+    boolean storeGeneratedChunk(Chunk chunk);
+
     boolean isSaving();
 
     void checkAndRepairSaveIfNecessary() throws IOException;
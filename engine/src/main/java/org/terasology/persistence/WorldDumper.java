@@ -17,19 +17,26 @@
 
 import org.terasology.engine.TerasologyConstants;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.persistence.serializers.EntityDataBinaryFormat;
 import org.terasology.persistence.serializers.EntityDataJSONFormat;
 import org.terasology.persistence.serializers.PrefabSerializer;
+import org.terasology.persistence.serializers.WorldDataReader;
+import org.terasology.persistence.serializers.WorldDataWriter;
 import org.terasology.persistence.serializers.WorldSerializer;
 import org.terasology.persistence.serializers.WorldSerializerImpl;
-import org.terasology.protobuf.EntityData;
 
-import java.io.BufferedWriter;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
 
 /**
- * Used to create a dump of the current state of the world (specifically, entities)
+ * Used to create a dump of the current state of the world (specifically, entities), and to load it again.
+ * <p>
+ * The entities are streamed one at a time, so dumps of large worlds don't need to fit into memory.
  *
  * @author Immortius <immortius@gmail.com>
  */
@@ -41,16 +48,50 @@ public WorldDumper(EngineEntityManager entityManager, PrefabSerializer prefabSer
         this.persisterHelper = new WorldSerializerImpl(entityManager, prefabSerializer);
     }
 
+    /**
+     * Writes a human readable JSON dump of all entities.
+     */
     public void save(Path file) throws IOException {
-        final EntityData.GlobalStore world = persisterHelper.serializeWorld(true);
+        createParentDirectories(file);
+        try (WorldDataWriter writer = EntityDataJSONFormat.newWorldWriter(Files.newBufferedWriter(file, TerasologyConstants.CHARSET))) {
+            persisterHelper.serializeWorld(true, writer);
+        }
+    }
 
+    /**
+     * Writes a compressed binary dump of the persistent entities, suitable for backups.
+     */
+    public void saveBinary(Path file) throws IOException {
+        createParentDirectories(file);
+        try (WorldDataWriter writer = EntityDataBinaryFormat.newWorldWriter(
+                new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(file))))) {
+            persisterHelper.serializeWorld(false, writer);
+        }
+    }
+
+    /**
+     * Adds the entities of a JSON dump to the entity manager.
+     */
+    public void load(Path file) throws IOException {
+        try (WorldDataReader reader = EntityDataJSONFormat.newWorldReader(Files.newBufferedReader(file, TerasologyConstants.CHARSET))) {
+            persisterHelper.deserializeWorld(reader);
+        }
+    }
+
+    /**
+     * Adds the entities of a binary dump to the entity manager.
+     */
+    public void loadBinary(Path file) throws IOException {
+        try (WorldDataReader reader = EntityDataBinaryFormat.newWorldReader(
+                new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file))))) {
+            persisterHelper.deserializeWorld(reader);
+        }
+    }
+
+    private void createParentDirectories(Path file) throws IOException {
         Path parentFile = file.toAbsolutePath().getParent();
         if (!Files.isDirectory(parentFile)) {
             Files.createDirectories(parentFile);
         }
-
-        try (BufferedWriter writer = Files.newBufferedWriter(file, TerasologyConstants.CHARSET)) {
-            EntityDataJSONFormat.write(world, writer);
-        }
     }
 }
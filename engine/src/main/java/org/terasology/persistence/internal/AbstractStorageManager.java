@@ -33,18 +33,28 @@
 import org.terasology.protobuf.EntityData;
 import org.terasology.world.chunks.Chunk;
 
+import com.google.common.base.Objects;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 import java.io.BufferedInputStream;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.DirectoryStream;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
 import java.util.zip.GZIPInputStream;
 
 /**
@@ -67,6 +77,7 @@ public abstract class AbstractStorageManager implements StorageManager {
     private final OwnershipHelper helper;
 
     private boolean storeChunksInZips = true;
+    private final ConcurrentMap<Vector3i, StoredChunkNames> storedChunkNames = Maps.newConcurrentMap();
 
     public AbstractStorageManager(Path savePath, ModuleEnvironment environment, EngineEntityManager entityManager, boolean storeChunksInZips) {
         this.entityManager = entityManager;
@@ -99,6 +110,55 @@ public PlayerStore loadPlayerStore(String playerId) {
         return new PlayerStoreInternal(playerId, this, entityManager);
     }
 
+    @Override
+    public boolean isChunkStored(Vector3i chunkPos) {
+        if (isStoreChunksInZips()) {
+            Set<String> storedChunks = getStoredChunkNames(storagePathProvider.getChunkZipPosition(chunkPos));
+            return storedChunks.contains(storagePathProvider.getChunkFilename(chunkPos));
+        }
+        return Files.isRegularFile(storagePathProvider.getChunkPath(chunkPos));
+    }
+
+    /**
+     * Lists the chunk files of a chunk zip. The listing is cached per zip until the zip file is replaced or modified,
+     * so that checking many chunks of the same zip (e.g. during pregeneration) opens it only once.
+     *
+     * @return The file names of the chunks stored in the zip, empty if there is no such zip
+     */
+    private Set<String> getStoredChunkNames(Vector3i chunkZipPos) {
+        Path chunkPath = storagePathProvider.getChunkZipPath(chunkZipPos);
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(chunkPath, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            storedChunkNames.remove(chunkZipPos);
+            return Collections.emptySet();
+        } catch (IOException e) {
+            logger.error("Failed to read chunk zip {}", chunkPath, e);
+            return Collections.emptySet();
+        }
+
+        StoredChunkNames cached = storedChunkNames.get(chunkZipPos);
+        if (cached != null && cached.isListingOf(attributes)) {
+            return cached.names;
+        }
+        Set<String> names = Sets.newHashSet();
+        try (FileSystem chunkZip = FileSystems.newFileSystem(chunkPath, null)) {
+            for (Path root : chunkZip.getRootDirectories()) {
+                try (DirectoryStream<Path> entries = Files.newDirectoryStream(root)) {
+                    for (Path entry : entries) {
+                        names.add(entry.getFileName().toString());
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.error("Failed to read chunk zip {}", chunkPath, e);
+            return Collections.emptySet();
+        }
+        storedChunkNames.put(chunkZipPos, new StoredChunkNames(attributes, names));
+        return names;
+    }
+
     @Override
     public ChunkStore loadChunkStore(Vector3i chunkPos) {
         byte[] chunkData = loadCompressedChunk(chunkPos);
@@ -225,4 +285,26 @@ protected EngineEntityManager getEntityManager() {
     protected PrefabSerializer getPrefabSerializer() {
         return prefabSerializer;
     }
+
+    /**
+     * The chunk files of a chunk zip, along with the attributes of the zip file when it was listed.
+     */
+    private static final class StoredChunkNames {
+        private final Object fileKey;
+        private final FileTime lastModified;
+        private final long size;
+        private final Set<String> names;
+
+        StoredChunkNames(BasicFileAttributes attributes, Set<String> names) {
+            this.fileKey = attributes.fileKey();
+            this.lastModified = attributes.lastModifiedTime();
+            this.size = attributes.size();
+            this.names = names;
+        }
+
+        boolean isListingOf(BasicFileAttributes attributes) {
+            return Objects.equal(fileKey, attributes.fileKey()) && lastModified.equals(attributes.lastModifiedTime())
+                    && size == attributes.size();
+        }
+    }
 }
@@ -42,6 +42,11 @@ public ChunkStoreInternal(Chunk chunk, StorageManager storageManager, EngineEnti
         this.entityManager = entityManager;
     }
 
+    public ChunkStoreInternal(Chunk chunk, EntityData.EntityStore entityStore, StorageManager storageManager, EngineEntityManager entityManager) {
+        this(chunk, storageManager, entityManager);
+        this.entityStore = entityStore;
+    }
+
     public ChunkStoreInternal(EntityData.ChunkStore chunkData, StorageManager storageManager, EngineEntityManager entityManager) {
         this.chunkPosition = new Vector3i(chunkData.getX(), chunkData.getY(), chunkData.getZ());
         this.storageManager = storageManager;
@@ -104,6 +104,10 @@ private byte[] compressChunkStore(EntityData.ChunkStore store) {
         return baos.toByteArray();
     }
 
+    public EntityData.EntityStore getEntityStore() {
+        return entityStore;
+    }
+
     public Set<EntityRef> getStoredEntities() {
         return storedEntities;
     }
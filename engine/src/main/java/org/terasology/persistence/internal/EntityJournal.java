@@ -0,0 +1,341 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Lists;
+import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import gnu.trove.iterator.TLongIterator;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.persistence.serializers.EntitySerializer;
+import org.terasology.protobuf.EntityData;
+import org.terasology.utilities.concurrency.AbstractTask;
+import org.terasology.utilities.concurrency.ShutdownTask;
+import org.terasology.utilities.concurrency.Task;
+import org.terasology.utilities.concurrency.TaskMaster;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.CRC32;
+
+/**
+ * Continuously records the changes made to persistent entities, so that they survive a crash between two saves.
+ * <p>
+ * The entities changed since the last flush are serialized on the main thread, which keeps the cost proportional to
+ * the number of changes rather than to the number of entities. The records are appended to the current journal
+ * segment and synced to the disk by a background thread.
+ * <p>
+ * A save starts a new segment. Once the save has been written, the segments it covers are deleted, so the remaining
+ * segments describe the changes since the last complete save. They are replayed onto the save game by
+ * {@link EntityJournalRecovery}.
+ * <p>
+ * Each record consists of the payload length, a CRC32 checksum of the payload and the payload: the number of destroyed
+ * entities, their ids and a serialized {@link EntityData.EntityStore} with the changed entities.
+ */
+final class EntityJournal {
+    private static final Logger logger = LoggerFactory.getLogger(EntityJournal.class);
+
+    static final int RECORD_HEADER_SIZE = 12;
+
+    private final StoragePathProvider storagePathProvider;
+    private final EngineEntityManager entityManager;
+    private final EntitySerializer serializer;
+    private final TaskMaster<Task> writer;
+    private final long syncIntervalMs;
+
+    private TLongSet changedEntities = new TLongHashSet();
+    private TLongSet destroyedEntities = new TLongHashSet();
+    /**
+     * The changed entities serialized since the last flush, in the wire format of an {@link EntityData.EntityStore}
+     */
+    private ByteString.Output pendingEntities = ByteString.newOutput();
+    private CodedOutputStream pendingEntitiesOut = CodedOutputStream.newInstance(pendingEntities);
+    private int pendingEntityCount;
+    private long nextSync;
+
+    /**
+     * The segment that records flushed from now on belong to. Only accessed by the thread recording the changes; each
+     * write task carries the segment of its record.
+     */
+    private long segment;
+
+    /**
+     * Only accessed by the writer thread
+     */
+    private FileChannel segmentChannel;
+    private long segmentChannelSegment;
+
+    EntityJournal(StoragePathProvider storagePathProvider, EngineEntityManager entityManager, long syncIntervalMs) {
+        this.storagePathProvider = storagePathProvider;
+        this.entityManager = entityManager;
+        this.serializer = new EntitySerializer(entityManager);
+        this.syncIntervalMs = syncIntervalMs;
+        this.writer = TaskMaster.createFIFOTaskMaster("Entity journal", 1);
+        this.segment = findLastSegment(storagePathProvider) + 1;
+        this.nextSync = System.currentTimeMillis() + syncIntervalMs;
+    }
+
+    public void onEntityChanged(EntityRef entity) {
+        long id = entity.getId();
+        changedEntities.add(id);
+        destroyedEntities.remove(id);
+    }
+
+    public void onEntityDestroyed(long entityId) {
+        changedEntities.remove(entityId);
+        destroyedEntities.add(entityId);
+    }
+
+    /**
+     * Entities that are about to be deactivated are serialized right away, as they can't be accessed afterwards.
+     */
+    public void onBeforeDeactivation(EntityRef entity) {
+        if (changedEntities.remove(entity.getId())) {
+            serialize(entity);
+        }
+    }
+
+    /**
+     * Flushes the recorded changes, if the sync interval has passed.
+     */
+    public void update() {
+        long now = System.currentTimeMillis();
+        if (now >= nextSync) {
+            flush();
+            nextSync = now + syncIntervalMs;
+        }
+    }
+
+    /**
+     * Serializes the changes recorded since the last flush and passes them to the writer thread.
+     */
+    public void flush() {
+        TLongIterator iterator = changedEntities.iterator();
+        while (iterator.hasNext()) {
+            serialize(entityManager.getEntity(iterator.next()));
+        }
+        changedEntities.clear();
+        if (pendingEntityCount == 0 && destroyedEntities.isEmpty()) {
+            return;
+        }
+
+        try {
+            pendingEntitiesOut.flush();
+        } catch (IOException e) {
+            // as no real IO is involved this should not happen
+            throw new RuntimeException(e);
+        }
+        final byte[] record = encodeRecord(destroyedEntities, pendingEntities.toByteString());
+        final long recordSegment = segment;
+        destroyedEntities = new TLongHashSet();
+        pendingEntities.reset();
+        pendingEntityCount = 0;
+        writer.offer(new AbstractTask() {
+            @Override
+            public String getName() {
+                return "Writing entity journal";
+            }
+
+            @Override
+            public void run() {
+                write(recordSegment, record);
+            }
+        });
+    }
+
+    /**
+     * Flushes the recorded changes and starts a new segment for the changes that follow. Should be called when the
+     * snapshot of a save gets created.
+     *
+     * @return The last segment whose changes are contained in the snapshot
+     */
+    public long startNewSegment() {
+        flush();
+        final long completedSegment = segment;
+        segment++;
+        writer.offer(new AbstractTask() {
+            @Override
+            public String getName() {
+                return "Starting entity journal segment";
+            }
+
+            @Override
+            public void run() {
+                closeSegment();
+            }
+        });
+        return completedSegment;
+    }
+
+    /**
+     * Deletes the segments up to the given one, after their changes have been saved.
+     */
+    public void deleteSegmentsUpTo(final long lastSavedSegment) {
+        writer.offer(new AbstractTask() {
+            @Override
+            public String getName() {
+                return "Deleting entity journal segments";
+            }
+
+            @Override
+            public void run() {
+                try {
+                    for (Path segmentPath : listSegments(storagePathProvider)) {
+                        if (storagePathProvider.getEntityJournalSegment(segmentPath) <= lastSavedSegment) {
+                            Files.delete(segmentPath);
+                        }
+                    }
+                } catch (IOException e) {
+                    logger.warn("Failed to delete saved entity journal segments", e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Flushes the recorded changes and waits for them to be written.
+     */
+    public void close() {
+        flush();
+        writer.shutdown(new ShutdownTask(), true);
+        closeSegment();
+    }
+
+    private void serialize(EntityRef entity) {
+        if (entity.isActive() && entity.isPersistent()) {
+            try {
+                pendingEntitiesOut.writeTag(EntityData.EntityStore.ENTITY_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                serializer.serialize(entity, pendingEntitiesOut);
+            } catch (IOException e) {
+                // as no real IO is involved this should not happen
+                throw new RuntimeException(e);
+            }
+            pendingEntityCount++;
+        }
+    }
+
+    private void write(long recordSegment, byte[] record) {
+        try {
+            if (segmentChannel != null && segmentChannelSegment != recordSegment) {
+                closeSegment();
+            }
+            if (segmentChannel == null) {
+                Files.createDirectories(storagePathProvider.getEntityJournalPath());
+                segmentChannel = FileChannel.open(storagePathProvider.getEntityJournalSegmentPath(recordSegment),
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+                segmentChannelSegment = recordSegment;
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(record);
+            while (buffer.hasRemaining()) {
+                segmentChannel.write(buffer);
+            }
+            segmentChannel.force(false);
+        } catch (IOException e) {
+            logger.error("Failed to write entity journal", e);
+        }
+    }
+
+    private void closeSegment() {
+        if (segmentChannel != null) {
+            try {
+                segmentChannel.close();
+            } catch (IOException e) {
+                logger.warn("Failed to close entity journal segment", e);
+            }
+            segmentChannel = null;
+        }
+    }
+
+    /**
+     * @param changed A serialized {@link EntityData.EntityStore} with the changed entities
+     */
+    static byte[] encodeRecord(TLongSet destroyed, ByteString changed) {
+        ByteArrayOutputStream payloadBytes = new ByteArrayOutputStream();
+        try (DataOutputStream payload = new DataOutputStream(payloadBytes)) {
+            payload.writeInt(destroyed.size());
+            TLongIterator iterator = destroyed.iterator();
+            while (iterator.hasNext()) {
+                payload.writeLong(iterator.next());
+            }
+            changed.writeTo(payload);
+        } catch (IOException e) {
+            // as no real IO is involved this should not happen
+            throw new RuntimeException(e);
+        }
+        byte[] data = payloadBytes.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(data);
+
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + data.length);
+        record.putInt(data.length);
+        record.putLong(crc.getValue());
+        record.put(data);
+        return record.array();
+    }
+
+    /**
+     * @return The journal segments in the order they were written
+     */
+    static List<Path> listSegments(final StoragePathProvider storagePathProvider) throws IOException {
+        List<Path> segments = Lists.newArrayList();
+        Path journalPath = storagePathProvider.getEntityJournalPath();
+        if (!Files.isDirectory(journalPath)) {
+            return segments;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(journalPath)) {
+            for (Path path : stream) {
+                if (storagePathProvider.getEntityJournalSegment(path) >= 0) {
+                    segments.add(path);
+                }
+            }
+        }
+        Collections.sort(segments, new Comparator<Path>() {
+            @Override
+            public int compare(Path o1, Path o2) {
+                return Long.compare(storagePathProvider.getEntityJournalSegment(o1), storagePathProvider.getEntityJournalSegment(o2));
+            }
+        });
+        return segments;
+    }
+
+    private static long findLastSegment(StoragePathProvider storagePathProvider) {
+        try {
+            List<Path> segments = listSegments(storagePathProvider);
+            if (!segments.isEmpty()) {
+                return storagePathProvider.getEntityJournalSegment(segments.get(segments.size() - 1));
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to list entity journal segments", e);
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,298 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import com.google.common.collect.Maps;
+import gnu.trove.map.TLongObjectMap;
+import gnu.trove.map.hash.TLongObjectHashMap;
+import gnu.trove.set.TLongSet;
+import gnu.trove.set.hash.TLongHashSet;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.protobuf.EntityData;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Replays the segments of the {@link EntityJournal} onto the save game, after the game ended without saving the
+ * journaled changes.
+ * <p>
+ * The journaled entities replace their stored versions in the global, player and chunk stores, so that they stay where
+ * the last save put them. Entities created after the last save are added to the global store. The patched stores are
+ * written and merged like a save transaction, so the recovery can be repeated if it gets interrupted. The segments are
+ * deleted once the changes have been merged.
+ */
+final class EntityJournalRecovery {
+    private static final Logger logger = LoggerFactory.getLogger(EntityJournalRecovery.class);
+
+    private final StoragePathProvider storagePathProvider;
+    private final SaveTransactionHelper saveTransactionHelper;
+
+    private TLongObjectMap<EntityData.Entity> changedEntities = new TLongObjectHashMap<>();
+    private TLongSet destroyedEntities = new TLongHashSet();
+    private TLongSet storedEntities = new TLongHashSet();
+    private long maxEntityId;
+
+    EntityJournalRecovery(StoragePathProvider storagePathProvider, SaveTransactionHelper saveTransactionHelper) {
+        this.storagePathProvider = storagePathProvider;
+        this.saveTransactionHelper = saveTransactionHelper;
+    }
+
+    /**
+     * Applies the journaled changes to the save game, if there are any.
+     */
+    public void recover() throws IOException {
+        List<Path> segments = EntityJournal.listSegments(storagePathProvider);
+        if (segments.isEmpty()) {
+            return;
+        }
+        for (Path segment : segments) {
+            readSegment(segment);
+        }
+        logger.info("Recovering {} changed and {} destroyed entities from the entity journal", changedEntities.size(),
+                destroyedEntities.size());
+
+        saveTransactionHelper.cleanupSaveTransactionDirectory();
+        Files.createDirectories(storagePathProvider.getUnfinishedSaveTransactionPath());
+        patchChunkStores();
+        patchPlayerStores();
+        patchGlobalStore();
+        saveTransactionHelper.prepareChangesForMerge();
+        saveTransactionHelper.mergeChanges();
+
+        for (Path segment : segments) {
+            Files.delete(segment);
+        }
+    }
+
+    private void readSegment(Path segment) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(segment));
+        while (buffer.remaining() >= EntityJournal.RECORD_HEADER_SIZE) {
+            int length = buffer.getInt();
+            long checksum = buffer.getLong();
+            if (length < 0 || length > buffer.remaining()) {
+                logger.warn("Discarding incomplete record at the end of entity journal segment {}", segment);
+                return;
+            }
+            byte[] payload = new byte[length];
+            buffer.get(payload);
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            if (crc.getValue() != checksum) {
+                logger.warn("Discarding corrupt records at the end of entity journal segment {}", segment);
+                return;
+            }
+            applyRecord(payload);
+        }
+        if (buffer.hasRemaining()) {
+            logger.warn("Discarding incomplete record at the end of entity journal segment {}", segment);
+        }
+    }
+
+    private void applyRecord(byte[] payload) throws IOException {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload))) {
+            int destroyedCount = in.readInt();
+            long[] destroyed = new long[destroyedCount];
+            for (int i = 0; i < destroyedCount; ++i) {
+                destroyed[i] = in.readLong();
+            }
+            // Entities serialized before their deactivation may have been destroyed later on, so destruction comes last
+            for (EntityData.Entity entity : EntityData.EntityStore.parseFrom(in).getEntityList()) {
+                changedEntities.put(entity.getId(), entity);
+                destroyedEntities.remove(entity.getId());
+                maxEntityId = Math.max(maxEntityId, entity.getId());
+            }
+            for (long id : destroyed) {
+                changedEntities.remove(id);
+                destroyedEntities.add(id);
+                maxEntityId = Math.max(maxEntityId, id);
+            }
+        }
+    }
+
+    private void patchChunkStores() throws IOException {
+        Path worldPath = storagePathProvider.getWorldPath();
+        if (!Files.isDirectory(worldPath)) {
+            return;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(worldPath)) {
+            for (Path path : stream) {
+                if (storagePathProvider.isChunkZipPath(path)) {
+                    patchChunkZip(path);
+                } else if (storagePathProvider.isChunkPath(path)) {
+                    byte[] patchedChunk = patchChunk(Files.readAllBytes(path));
+                    if (patchedChunk != null) {
+                        Path target = storagePathProvider.getWorldTempPath().resolve(path.getFileName().toString());
+                        Files.createDirectories(target.getParent());
+                        Files.write(target, patchedChunk);
+                    }
+                }
+            }
+        }
+    }
+
+    private void patchChunkZip(Path chunkZipPath) throws IOException {
+        Map<String, byte[]> patchedChunks = Maps.newHashMap();
+        try (FileSystem chunkZip = FileSystems.newFileSystem(chunkZipPath, null)) {
+            for (Path root : chunkZip.getRootDirectories()) {
+                try (DirectoryStream<Path> stream = Files.newDirectoryStream(root)) {
+                    for (Path chunkPath : stream) {
+                        byte[] patchedChunk = patchChunk(Files.readAllBytes(chunkPath));
+                        if (patchedChunk != null) {
+                            patchedChunks.put(chunkPath.toString(), patchedChunk);
+                        }
+                    }
+                }
+            }
+        }
+        if (patchedChunks.isEmpty()) {
+            return;
+        }
+
+        Path target = storagePathProvider.getWorldTempPath().resolve(chunkZipPath.getFileName().toString());
+        Files.createDirectories(target.getParent());
+        Files.copy(chunkZipPath, target);
+        try (FileSystem chunkZip = FileSystems.newFileSystem(target, null)) {
+            for (Map.Entry<String, byte[]> entry : patchedChunks.entrySet()) {
+                Files.write(chunkZip.getPath(entry.getKey()), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * @return The compressed patched chunk, or null if the chunk contains no journaled entity
+     */
+    private byte[] patchChunk(byte[] compressedChunk) throws IOException {
+        EntityData.ChunkStore chunkStore;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressedChunk))) {
+            chunkStore = EntityData.ChunkStore.parseFrom(in);
+        }
+        EntityData.EntityStore patchedStore = patchEntityStore(chunkStore.getStore());
+        if (patchedStore == null) {
+            return null;
+        }
+
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(baos)) {
+            chunkStore.toBuilder().setStore(patchedStore).build().writeTo(out);
+        }
+        return baos.toByteArray();
+    }
+
+    private void patchPlayerStores() throws IOException {
+        Path playersPath = storagePathProvider.getPlayersPath();
+        if (!Files.isDirectory(playersPath)) {
+            return;
+        }
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(playersPath)) {
+            for (Path path : stream) {
+                if (!storagePathProvider.isPlayerFilePath(path)) {
+                    continue;
+                }
+                EntityData.PlayerStore playerStore;
+                try (InputStream in = new BufferedInputStream(Files.newInputStream(path))) {
+                    playerStore = EntityData.PlayerStore.parseFrom(in);
+                }
+                EntityData.EntityStore patchedStore = patchEntityStore(playerStore.getStore());
+                if (patchedStore != null) {
+                    Path target = storagePathProvider.getPlayersTempPath().resolve(path.getFileName().toString());
+                    Files.createDirectories(target.getParent());
+                    try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(target))) {
+                        playerStore.toBuilder().setStore(patchedStore).build().writeTo(out);
+                    }
+                }
+            }
+        }
+    }
+
+    private void patchGlobalStore() throws IOException {
+        EntityData.GlobalStore globalStore = EntityData.GlobalStore.getDefaultInstance();
+        Path globalStorePath = storagePathProvider.getGlobalEntityStorePath();
+        if (Files.isRegularFile(globalStorePath)) {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(globalStorePath))) {
+                globalStore = EntityData.GlobalStore.parseFrom(in);
+            }
+        }
+
+        EntityData.GlobalStore.Builder patchedStore = globalStore.toBuilder().clearEntity();
+        for (EntityData.Entity entity : globalStore.getEntityList()) {
+            EntityData.Entity patchedEntity = patchEntity(entity);
+            if (patchedEntity != null) {
+                patchedStore.addEntity(patchedEntity);
+            }
+        }
+        for (EntityData.Entity entity : changedEntities.valueCollection()) {
+            if (!storedEntities.contains(entity.getId())) {
+                patchedStore.addEntity(entity);
+            }
+        }
+        patchedStore.setNextEntityId(Math.max(globalStore.getNextEntityId(), maxEntityId + 1));
+
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(storagePathProvider.getGlobalEntityStoreTempPath()))) {
+            patchedStore.build().writeTo(out);
+        }
+    }
+
+    /**
+     * @return The patched store, or null if the store contains no journaled entity
+     */
+    private EntityData.EntityStore patchEntityStore(EntityData.EntityStore store) {
+        boolean modified = false;
+        EntityData.EntityStore.Builder patchedStore = store.toBuilder().clearEntity();
+        for (EntityData.Entity entity : store.getEntityList()) {
+            EntityData.Entity patchedEntity = patchEntity(entity);
+            if (patchedEntity != entity) {
+                modified = true;
+            }
+            if (patchedEntity != null) {
+                patchedStore.addEntity(patchedEntity);
+            }
+        }
+        return modified ? patchedStore.build() : null;
+    }
+
+    /**
+     * @return The journaled version of the stored entity, the stored entity if it was not journaled or null if it was
+     * destroyed
+     */
+    private EntityData.Entity patchEntity(EntityData.Entity entity) {
+        long id = entity.getId();
+        storedEntities.add(id);
+        if (destroyedEntities.contains(id)) {
+            return null;
+        }
+        EntityData.Entity changedEntity = changedEntities.get(id);
+        return (changedEntity != null) ? changedEntity : entity;
+    }
+}
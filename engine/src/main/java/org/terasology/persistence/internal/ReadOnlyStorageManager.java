@@ -41,6 +41,11 @@ public ReadOnlyStorageManager(Path savePath, ModuleEnvironment environment, Engi
         super(savePath, environment, entityManager, storeChunksInZips);
     }
 
+    @Override
+    public boolean storeGeneratedChunk(Chunk chunk) {
+        return false;
+    }
+
     @Override
     public void finishSavingAndShutdown() {
         // don't care
@@ -43,6 +43,7 @@
 import org.terasology.network.Client;
 import org.terasology.network.ClientComponent;
 import org.terasology.network.NetworkSystem;
+import org.terasology.persistence.ChunkStore;
 import org.terasology.persistence.typeHandling.TypeSerializationLibrary;
 import org.terasology.protobuf.EntityData;
 import org.terasology.reflection.copy.CopyStrategyLibrary;
@@ -109,6 +110,16 @@ public final class ReadWriteStorageManager extends AbstractStorageManager implem
     private ConcurrentMap<Vector3i, CompressedChunkBuilder> unloadedAndSavingChunkMap = Maps.newConcurrentMap();
     private ConcurrentMap<String, EntityData.PlayerStore> unloadedAndUnsavedPlayerMap = Maps.newConcurrentMap();
     private ConcurrentMap<String, EntityData.PlayerStore> unloadedAndSavingPlayerMap = Maps.newConcurrentMap();
+    private final UnloadedChunkCache unloadedChunkCache;
+
+    /**
+     * Null, unless entity changes are journaled.
+     */
+    private EntityJournal entityJournal;
+    /**
+     * The last journal segment contained in the running save transaction.
+     */
+    private long journalSegmentOfSave;
 
 
     private EngineEntityManager privateEntityManager;
@@ -134,10 +145,14 @@ public ReadWriteStorageManager(Path savePath, ModuleEnvironment environment, Eng
         this.saveTransactionHelper = new SaveTransactionHelper(getStoragePathProvider());
         this.saveThreadManager = TaskMaster.createFIFOTaskMaster("Saving", 1);
         this.config = CoreRegistry.get(Config.class);
+        this.unloadedChunkCache = new UnloadedChunkCache(1024L * 1024L * config.getSystem().getUnloadedChunkCacheSizeMb());
         this.entityRefReplacingComponentLibrary = privateEntityManager.getComponentLibrary()
                 .createCopyUsingCopyStrategy(EntityRef.class, new DelayedEntityRefCopyStrategy(this));
         this.entitySetDeltaRecorder = new EntitySetDeltaRecorder(this.entityRefReplacingComponentLibrary);
-
+        if (config.getSystem().isEntityJournalEnabled()) {
+            this.entityJournal = new EntityJournal(getStoragePathProvider(), entityManager,
+                    config.getSystem().getEntityJournalSyncIntervalMs());
+        }
     }
 
     private static EngineEntityManager createPrivateEntityManager(ComponentLibrary componentLibrary) {
@@ -155,6 +170,9 @@ private static EngineEntityManager createPrivateEntityManager(ComponentLibrary c
     public void finishSavingAndShutdown() {
         saveThreadManager.shutdown(new ShutdownTask(), true);
         checkSaveTransactionAndClearUpIfItIsDone();
+        if (entityJournal != null) {
+            entityJournal.close();
+        }
     }
 
     private void checkSaveTransactionAndClearUpIfItIsDone() {
@@ -165,6 +183,9 @@ private void checkSaveTransactionAndClearUpIfItIsDone() {
                 if (t != null) {
                     throw new RuntimeException("Saving failed", t);
                 }
+                if (entityJournal != null) {
+                    entityJournal.deleteSegmentsUpTo(journalSegmentOfSave);
+                }
                 saveTransaction = null;
             }
             unloadedAndSavingChunkMap.clear();
@@ -318,14 +339,61 @@ private PlayerStoreBuilder createPlayerStore(Client client, EntityRef character)
     public void deactivateChunk(Chunk chunk) {
         Collection<EntityRef> entitiesOfChunk = getEntitiesOfChunk(chunk);
         ChunkImpl chunkImpl = (ChunkImpl) chunk; // storage manager only works with ChunkImpl
-        unloadedAndUnsavedChunkMap.put(chunk.getPosition(), new CompressedChunkBuilder(getEntityManager(), chunkImpl,
-                entitiesOfChunk, true));
+        CompressedChunkBuilder compressedChunkBuilder = new CompressedChunkBuilder(getEntityManager(), chunkImpl, entitiesOfChunk, true);
+        unloadedAndUnsavedChunkMap.put(chunk.getPosition(), compressedChunkBuilder);
+        unloadedChunkCache.put(chunkImpl, compressedChunkBuilder.getEntityStore());
 
         for (EntityRef entity: entitiesOfChunk) {
             deactivateOrDestroyEntityRecursive(entity);
         }
     }
 
+    @Override
+    public boolean isChunkStored(Vector3i chunkPos) {
+        if (unloadedAndUnsavedChunkMap.containsKey(chunkPos) || unloadedAndSavingChunkMap.containsKey(chunkPos)) {
+            return true;
+        }
+        worldDirectoryReadLock.lock();
+        try {
+            return super.isChunkStored(chunkPos);
+        } finally {
+            worldDirectoryReadLock.unlock();
+        }
+    }
+
+    @Override
+    public boolean storeGeneratedChunk(Chunk chunk) {
+        Vector3i chunkPos = chunk.getPosition();
+        /*
+         * The chunk may have been stored since the caller last checked, e.g. modified, unloaded and saved while it was
+         * being generated. The check and the insert are done under the lock, so a save can't move a chunk from the
+         * maps to the disk in between.
+         */
+        worldDirectoryReadLock.lock();
+        try {
+            if (unloadedAndSavingChunkMap.containsKey(chunkPos) || super.isChunkStored(chunkPos)) {
+                return false;
+            }
+            CompressedChunkBuilder compressedChunkBuilder = new CompressedChunkBuilder(EntityData.EntityStore.getDefaultInstance(),
+                    (ChunkImpl) chunk, false);
+            return unloadedAndUnsavedChunkMap.putIfAbsent(chunkPos, compressedChunkBuilder) == null;
+        } finally {
+            worldDirectoryReadLock.unlock();
+        }
+    }
+
+    /**
+     * Recently unloaded chunks are restored from memory, without decoding them.
+     */
+    @Override
+    public ChunkStore loadChunkStore(Vector3i chunkPos) {
+        UnloadedChunkCache.Entry cached = unloadedChunkCache.take(chunkPos);
+        if (cached != null) {
+            return new ChunkStoreInternal(cached.restoreChunk(), cached.getEntityStore(), this, getEntityManager());
+        }
+        return super.loadChunkStore(chunkPos);
+    }
+
     @Override
     protected byte[] loadCompressedChunk(Vector3i chunkPos) {
         CompressedChunkBuilder disposedUnsavedChunk = unloadedAndUnsavedChunkMap.get(chunkPos);
@@ -348,6 +416,9 @@ protected byte[] loadCompressedChunk(Vector3i chunkPos) {
     @Override
     public void onEntityDestroyed(long entityId) {
         entitySetDeltaRecorder.onEntityDestroyed(entityId);
+        if (entityJournal != null) {
+            entityJournal.onEntityDestroyed(entityId);
+        }
     }
 
     private void addGameManifestToSaveTransaction(SaveTransactionBuilder saveTransactionBuilder) {
@@ -384,6 +455,9 @@ public void update() {
         if (!isRunModeAllowSaving()) {
             return;
         }
+        if (entityJournal != null) {
+            entityJournal.update();
+        }
         if (isSaving()) {
             return;
         }
@@ -408,6 +482,9 @@ private void startSaving() {
         }
 
         saveRequested = false;
+        if (entityJournal != null) {
+            journalSegmentOfSave = entityJournal.startNewSegment();
+        }
         saveTransaction = createSaveTransaction();
         saveThreadManager.offer(saveTransaction);
 
@@ -440,7 +517,8 @@ private boolean isSavingNecessary() {
     }
 
     private void scheduleNextAutoSave() {
-        long msBetweenAutoSave = config.getSystem().getMaxSecondsBetweenSaves() * 1000;
+        // Block changes are not journaled, so the journal does not make saves any less urgent
+        long msBetweenAutoSave = config.getSystem().getMaxSecondsBetweenSaves() * 1000L;
         nextAutoSave = System.currentTimeMillis() + msBetweenAutoSave;
     }
 
@@ -455,12 +533,14 @@ public void checkAndRepairSaveIfNecessary() throws IOException {
         if (Files.exists(getStoragePathProvider().getUnmergedChangesPath())) {
             saveTransactionHelper.mergeChanges();
         }
+        new EntityJournalRecovery(getStoragePathProvider(), saveTransactionHelper).recover();
     }
 
 
     @Override
     public void deleteWorld() {
         waitForCompletionOfPreviousSave();
+        unloadedChunkCache.clear();
         unloadedAndUnsavedChunkMap.clear();
         unloadedAndSavingChunkMap.clear();
         unloadedAndUnsavedPlayerMap.clear();
@@ -475,16 +555,25 @@ public void deleteWorld() {
 
     public void onEntityComponentAdded(EntityRef entity, Class<? extends Component> component) {
         entitySetDeltaRecorder.onEntityComponentAdded(entity, component);
+        if (entityJournal != null) {
+            entityJournal.onEntityChanged(entity);
+        }
     }
 
     @Override
     public void onEntityComponentChange(EntityRef entity, Class<? extends Component> component) {
         entitySetDeltaRecorder.onEntityComponentChange(entity, component);
+        if (entityJournal != null) {
+            entityJournal.onEntityChanged(entity);
+        }
     }
 
     @Override
     public void onEntityComponentRemoved(EntityRef entity, Class<? extends Component> component) {
         entitySetDeltaRecorder.onEntityComponentRemoved(entity, component);
+        if (entityJournal != null) {
+            entityJournal.onEntityChanged(entity);
+        }
     }
 
     @Override
@@ -496,6 +585,9 @@ public void onReactivation(EntityRef entity, Collection<Component> components) {
     @Override
     public void onBeforeDeactivation(EntityRef entity, Collection<Component> components) {
         entitySetDeltaRecorder.onBeforeDeactivation(entity, components);
+        if (entityJournal != null) {
+            entityJournal.onBeforeDeactivation(entity);
+        }
 
     }
 
@@ -41,15 +41,12 @@
 import java.io.BufferedOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.nio.file.AccessDeniedException;
-import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.FileSystem;
 import java.nio.file.FileSystems;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.SimpleFileVisitor;
-import java.nio.file.StandardCopyOption;
 import java.nio.file.attribute.BasicFileAttributes;
 import java.nio.file.spi.FileSystemProvider;
 import java.util.Collection;
@@ -138,7 +135,7 @@ public void run() {
             writeGlobalStore();
             writeChunkStores();
             saveGameManifest();
-            perpareChangesForMerge();
+            saveTransactionHelper.prepareChangesForMerge();
             mergeChanges();
             result = SaveTransactionResult.createSuccessResult();
             logger.info("Save game finished");
@@ -323,37 +320,6 @@ private void createSaveTransactionDirectory() throws IOException {
         Files.createDirectories(directory);
     }
 
-    private void perpareChangesForMerge() throws IOException {
-        try {
-            renameMergeFolder();
-        } catch (AccessDeniedException e) {
-            /*
-             * On some windows systems the rename fails sometimes with a AccessDeniedException, The exact cause is
-             * unknown, but it is propablz a virus scanner. Renaming the folder 1 second later works.
-             */
-            logger.warn("Rename of merge folder failed, retrying in one second");
-            try {
-                Thread.sleep(1000);
-            } catch (InterruptedException e1) {
-                Thread.currentThread().interrupt();
-            }
-            renameMergeFolder();
-        }
-    }
-
-    private void renameMergeFolder() throws IOException {
-        Path directoryForUnfinishedFiles = storagePathProvider.getUnfinishedSaveTransactionPath();
-        Path directoryForFinishedFiles = storagePathProvider.getUnmergedChangesPath();
-
-        try {
-            Files.move(directoryForUnfinishedFiles, directoryForFinishedFiles, StandardCopyOption.ATOMIC_MOVE);
-        } catch (AtomicMoveNotSupportedException e) {
-            logger.warn("Atomic rename of merge folder was not possible, doing it non atomically...");
-            Files.move(directoryForUnfinishedFiles, directoryForFinishedFiles);
-        }
-    }
-
-
     private void writePlayerStores() throws IOException {
         Files.createDirectories(storagePathProvider.getPlayersTempPath());
         for (Map.Entry<String, EntityData.PlayerStore> playerStoreEntry : allPlayers.entrySet()) {
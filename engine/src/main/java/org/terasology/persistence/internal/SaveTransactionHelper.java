@@ -19,6 +19,7 @@
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.file.AccessDeniedException;
 import java.nio.file.AtomicMoveNotSupportedException;
 import java.nio.file.FileVisitResult;
 import java.nio.file.Files;
@@ -106,4 +107,38 @@ public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOEx
             }
         });
     }
+
+    /**
+     * Marks the files of a completely written save transaction as ready to be merged, by renaming the directory with
+     * the unfinished save transaction.
+     */
+    public void prepareChangesForMerge() throws IOException {
+        try {
+            renameMergeFolder();
+        } catch (AccessDeniedException e) {
+            /*
+             * On some windows systems the rename fails sometimes with a AccessDeniedException, The exact cause is
+             * unknown, but it is propablz a virus scanner. Renaming the folder 1 second later works.
+             */
+            logger.warn("Rename of merge folder failed, retrying in one second");
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e1) {
+                Thread.currentThread().interrupt();
+            }
+            renameMergeFolder();
+        }
+    }
+
+    private void renameMergeFolder() throws IOException {
+        Path directoryForUnfinishedFiles = storagePathProvider.getUnfinishedSaveTransactionPath();
+        Path directoryForFinishedFiles = storagePathProvider.getUnmergedChangesPath();
+
+        try {
+            Files.move(directoryForUnfinishedFiles, directoryForFinishedFiles, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            logger.warn("Atomic rename of merge folder was not possible, doing it non atomically...");
+            Files.move(directoryForUnfinishedFiles, directoryForFinishedFiles);
+        }
+    }
 }
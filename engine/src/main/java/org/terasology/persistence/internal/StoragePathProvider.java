@@ -28,9 +28,13 @@ public class StoragePathProvider {
     private static final String PLAYERS_PATH = "players";
     private static final String WORLDS_PATH = "worlds";
     private static final String PLAYER_STORE_EXTENSION = ".player";
+    private static final String CHUNK_EXTENSION = ".chunk";
+    private static final String CHUNK_ZIP_EXTENSION = ".chunks.zip";
     private static final String GLOBAL_ENTITY_STORE = "global.dat";
     private static final String UNFINISHED_SAVE_TRANSACTION = "unfinished-save-transaction";
     private static final String UNMERGED_CHANGED = "unmerged-changes";
+    private static final String ENTITY_JOURNAL = "entity-journal";
+    private static final String JOURNAL_SEGMENT_EXTENSION = ".journal";
     private static final int CHUNK_ZIP_DIM = 32;
 
     private final Path storagePathDirectory;
@@ -40,6 +44,7 @@ public class StoragePathProvider {
     private Path globalEntityStorePath;
     private Path unfinishedSaveTransactionPath;
     private Path unmergedChangesPath;
+    private Path entityJournalPath;
 
 
     public StoragePathProvider(Path storagePathDirectory) {
@@ -50,6 +55,7 @@ public StoragePathProvider(Path storagePathDirectory) {
         this.globalEntityStorePath = storagePathDirectory.resolve(GLOBAL_ENTITY_STORE);
         this.unfinishedSaveTransactionPath = storagePathDirectory.resolve(UNFINISHED_SAVE_TRANSACTION);
         this.unmergedChangesPath = storagePathDirectory.resolve(UNMERGED_CHANGED);
+        this.entityJournalPath = storagePathDirectory.resolve(ENTITY_JOURNAL);
     }
 
 
@@ -100,12 +106,24 @@ public Path getGlobalEntityStoreTempPath() {
     }
 
     public String getChunkFilename(Vector3i pos) {
-        return String.format("%d.%d.%d.chunk", pos.x, pos.y, pos.z);
+        return String.format("%d.%d.%d" + CHUNK_EXTENSION, pos.x, pos.y, pos.z);
     }
 
 
     private String getChunkZipFilename(Vector3i pos) {
-        return String.format("%d.%d.%d.chunks.zip", pos.x, pos.y, pos.z);
+        return String.format("%d.%d.%d" + CHUNK_ZIP_EXTENSION, pos.x, pos.y, pos.z);
+    }
+
+    public boolean isChunkPath(Path path) {
+        return path.getFileName().toString().endsWith(CHUNK_EXTENSION);
+    }
+
+    public boolean isChunkZipPath(Path path) {
+        return path.getFileName().toString().endsWith(CHUNK_ZIP_EXTENSION);
+    }
+
+    public boolean isPlayerFilePath(Path path) {
+        return path.getFileName().toString().endsWith(PLAYER_STORE_EXTENSION);
     }
 
     public Vector3i getChunkZipPosition(Vector3i chunkPos) {
@@ -144,6 +162,29 @@ public Path getUnmergedChangesPath() {
         return unmergedChangesPath;
     }
 
+    public Path getEntityJournalPath() {
+        return entityJournalPath;
+    }
+
+    public Path getEntityJournalSegmentPath(long segment) {
+        return entityJournalPath.resolve(segment + JOURNAL_SEGMENT_EXTENSION);
+    }
+
+    /**
+     * @return The number of the journal segment at the given path, or -1 if the path is not a journal segment
+     */
+    public long getEntityJournalSegment(Path path) {
+        String filename = path.getFileName().toString();
+        if (filename.endsWith(JOURNAL_SEGMENT_EXTENSION)) {
+            try {
+                return Long.parseLong(filename.substring(0, filename.length() - JOURNAL_SEGMENT_EXTENSION.length()));
+            } catch (NumberFormatException e) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
     public Path getStoragePathDirectory() {
         return storagePathDirectory;
     }
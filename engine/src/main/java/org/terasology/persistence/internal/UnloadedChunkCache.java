@@ -0,0 +1,130 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.internal;
+
+import org.terasology.math.Vector3i;
+import org.terasology.monitoring.chunk.ChunkMonitor;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.chunks.internal.ChunkImpl;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps recently unloaded chunks in memory, so that they can be reactivated without being encoded, compressed,
+ * decompressed and decoded again. The chunks are kept as they were unloaded, with their block data still deflated,
+ * together with the stored entities of the chunk.
+ * <p>
+ * The cache is bounded by the estimated memory of the retained data, evicting the least recently unloaded chunks first.
+ * An entry is removed once taken, as the reactivated chunk becomes the current version of the chunk.
+ * <p>
+ * This class is thread safe.
+ */
+final class UnloadedChunkCache {
+
+    private final Map<Vector3i, Entry> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private final long maxSizeInBytes;
+    private long sizeInBytes;
+
+    /**
+     * @param maxSizeInBytes The maximum estimated memory to retain. 0 disables the cache.
+     */
+    UnloadedChunkCache(long maxSizeInBytes) {
+        this.maxSizeInBytes = maxSizeInBytes;
+    }
+
+    /**
+     * @param chunk       The unloaded chunk, which must no longer be modified
+     * @param entityStore The entities stored with the chunk
+     */
+    public synchronized void put(ChunkImpl chunk, EntityData.EntityStore entityStore) {
+        Entry entry = new Entry(chunk, entityStore);
+        if (entry.sizeInBytes > maxSizeInBytes) {
+            removeEntry(chunk.getPosition());
+            return;
+        }
+        Entry previous = entries.put(new Vector3i(chunk.getPosition()), entry);
+        if (previous != null) {
+            sizeInBytes -= previous.sizeInBytes;
+        }
+        sizeInBytes += entry.sizeInBytes;
+
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (sizeInBytes > maxSizeInBytes && iterator.hasNext()) {
+            sizeInBytes -= iterator.next().sizeInBytes;
+            iterator.remove();
+        }
+        ChunkMonitor.fireUnloadedChunkCacheResized(entries.size(), sizeInBytes);
+    }
+
+    /**
+     * Removes the chunk at the given position from the cache.
+     *
+     * @return The removed entry, or null if the chunk was not cached
+     */
+    public synchronized Entry take(Vector3i chunkPos) {
+        Entry entry = removeEntry(chunkPos);
+        ChunkMonitor.fireUnloadedChunkCacheLookup(entry != null);
+        return entry;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        sizeInBytes = 0;
+        ChunkMonitor.fireUnloadedChunkCacheResized(0, 0);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public synchronized long getSizeInBytes() {
+        return sizeInBytes;
+    }
+
+    private Entry removeEntry(Vector3i chunkPos) {
+        Entry entry = entries.remove(chunkPos);
+        if (entry != null) {
+            sizeInBytes -= entry.sizeInBytes;
+            ChunkMonitor.fireUnloadedChunkCacheResized(entries.size(), sizeInBytes);
+        }
+        return entry;
+    }
+
+    static final class Entry {
+        private final ChunkImpl chunk;
+        private final EntityData.EntityStore entityStore;
+        private final long sizeInBytes;
+
+        private Entry(ChunkImpl chunk, EntityData.EntityStore entityStore) {
+            this.chunk = chunk;
+            this.entityStore = entityStore;
+            this.sizeInBytes = chunk.getEstimatedBlockDataMemoryConsumptionInBytes() + entityStore.getSerializedSize();
+        }
+
+        /**
+         * @return A new chunk with a copy of the unloaded chunk's data
+         */
+        public ChunkImpl restoreChunk() {
+            return chunk.copyBlockData();
+        }
+
+        public EntityData.EntityStore getEntityStore() {
+            return entityStore;
+        }
+    }
+}
@@ -48,6 +48,9 @@
  * than the names of each component, saving some space.
  * <p/>
  * When serializing, a FieldSerializeCheck can be provided to determine whether each field should be serialized or not
+ * <p/>
+ * Components can also be encoded for writing straight to a protobuf stream, which produces the same bytes as writing
+ * the EntityData.Component message but avoids building it (see {@link DirectComponentSerializer}).
  *
  * @author Immortius
  */
@@ -61,6 +64,7 @@ public class ComponentSerializer {
     private TypeSerializationLibrary typeSerializationLibrary;
     private ProtobufSerializationContext serializationContext;
     private ProtobufDeserializationContext deserializationContext;
+    private Map<Class<? extends Component>, DirectComponentSerializer<?>> directSerializers = Maps.newConcurrentMap();
 
     /**
      * Creates the component serializer.
@@ -316,6 +320,64 @@ public EntityData.Component serialize(Component base, Component delta, FieldSeri
         return null;
     }
 
+    /**
+     * Encodes a component for writing straight to a stream, without building the EntityData.Component.
+     *
+     * @param component
+     * @param check     A check to use to see if each field should be serialized.
+     * @return The encoded component, or null if it could not be serialized
+     */
+    public DirectComponentSerializer<?>.EncodedComponent encode(Component component, FieldSerializeCheck<Component> check) {
+        ComponentMetadata<?> componentMetadata = componentLibrary.getMetadata(component.getClass());
+        if (componentMetadata == null) {
+            logger.error("Unregistered component type: {}", component.getClass());
+            return null;
+        }
+        return encode(getDirectSerializer(componentMetadata), component, check);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Component> DirectComponentSerializer<T>.EncodedComponent encode(DirectComponentSerializer<T> directSerializer, Component component,
+                                                                                     FieldSerializeCheck<Component> check) {
+        Integer typeIndex = idTable.get(directSerializer.getMetadata().getType());
+        return directSerializer.encode((T) component, typeIndex, usingFieldIds, check, serializationContext);
+    }
+
+    /**
+     * Encodes the differences between two components for writing straight to a stream, without building the
+     * EntityData.Component.
+     *
+     * @param base  The base component to compare against.
+     * @param delta The component whose differences will be serialized
+     * @param check A check to use to see if each field should be serialized.
+     * @return The encoded component, or null if it could not be serialized or there are no differences
+     */
+    public DirectComponentSerializer<?>.EncodedComponent encode(Component base, Component delta, FieldSerializeCheck<Component> check) {
+        ComponentMetadata<?> componentMetadata = componentLibrary.getMetadata(base.getClass());
+        if (componentMetadata == null) {
+            logger.error("Unregistered component type: {}", base.getClass());
+            return null;
+        }
+        return encodeDelta(getDirectSerializer(componentMetadata), base, delta, check);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Component> DirectComponentSerializer<T>.EncodedComponent encodeDelta(DirectComponentSerializer<T> directSerializer, Component base,
+                                                                                          Component delta, FieldSerializeCheck<Component> check) {
+        Integer typeIndex = idTable.get(directSerializer.getMetadata().getType());
+        return directSerializer.encodeDelta((T) base, (T) delta, typeIndex, usingFieldIds, check, serializationContext);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Component> DirectComponentSerializer<T> getDirectSerializer(ComponentMetadata<T> componentMetadata) {
+        DirectComponentSerializer<T> result = (DirectComponentSerializer<T>) directSerializers.get(componentMetadata.getType());
+        if (result == null || result.getMetadata() != componentMetadata) {
+            result = new DirectComponentSerializer<>(componentMetadata, typeSerializationLibrary.getSerializerFor(componentMetadata));
+            directSerializers.put(componentMetadata.getType(), result);
+        }
+        return result;
+    }
+
     /**
      * Determines the component class that the serialized component is for.
      *
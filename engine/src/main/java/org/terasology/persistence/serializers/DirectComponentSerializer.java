@@ -0,0 +1,570 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.serializers;
+
+import com.google.common.base.Objects;
+import com.google.common.collect.Maps;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import org.terasology.entitySystem.Component;
+import org.terasology.entitySystem.metadata.ComponentFieldMetadata;
+import org.terasology.entitySystem.metadata.ComponentMetadata;
+import org.terasology.math.geom.Quat4f;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.persistence.typeHandling.DeserializationContext;
+import org.terasology.persistence.typeHandling.PersistedData;
+import org.terasology.persistence.typeHandling.SerializationContext;
+import org.terasology.persistence.typeHandling.Serializer;
+import org.terasology.persistence.typeHandling.TypeHandler;
+import org.terasology.persistence.typeHandling.coreTypes.BooleanTypeHandler;
+import org.terasology.persistence.typeHandling.coreTypes.DoubleTypeHandler;
+import org.terasology.persistence.typeHandling.coreTypes.FloatTypeHandler;
+import org.terasology.persistence.typeHandling.coreTypes.IntTypeHandler;
+import org.terasology.persistence.typeHandling.coreTypes.LongTypeHandler;
+import org.terasology.persistence.typeHandling.coreTypes.StringTypeHandler;
+import org.terasology.persistence.typeHandling.mathTypes.Quat4fTypeHandler;
+import org.terasology.persistence.typeHandling.mathTypes.Vector3fTypeHandler;
+import org.terasology.persistence.typeHandling.protobuf.ProtobufPersistedData;
+import org.terasology.protobuf.EntityData;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Serializes a single component type straight to the protobuf wire format of EntityData.Component and
+ * EntityData.Value, without building intermediate messages or PersistedData.
+ * <p/>
+ * A codec is chosen per field when the serializer is built. Fields handled by the core boolean, int, long, float,
+ * double, String, Vector3f and Quat4f type handlers are encoded directly; every other field falls back to its
+ * TypeHandler. The encoding is the same as the TypeHandler's, so the result is byte-identical to writing the message.
+ * <p/>
+ * Reading works on EntityData.Value messages. Values that were written in a different (but still valid) form are
+ * handed to the TypeHandler, so anything the TypeHandler can read can be read here too.
+ *
+ * @see ComponentSerializer
+ * @see NetworkEntitySerializer
+ */
+public final class DirectComponentSerializer<T extends Component> {
+
+    private final ComponentMetadata<T> metadata;
+    private final Serializer serializer;
+    private final ComponentFieldMetadata<T, ?>[] fields;
+    private final FieldCodec[] codecs;
+    private final Map<ComponentFieldMetadata<T, ?>, FieldCodec> codecsByField = Maps.newIdentityHashMap();
+
+    @SuppressWarnings("unchecked")
+    public DirectComponentSerializer(ComponentMetadata<T> metadata, Serializer serializer) {
+        this.metadata = metadata;
+        this.serializer = serializer;
+        this.fields = metadata.getFields().toArray(new ComponentFieldMetadata[metadata.getFieldCount()]);
+        this.codecs = new FieldCodec[fields.length];
+        for (int i = 0; i < fields.length; ++i) {
+            codecs[i] = codecFor(serializer.getHandlerFor(fields[i]));
+            if (codecs[i] != null) {
+                codecsByField.put(fields[i], codecs[i]);
+            }
+        }
+    }
+
+    private static FieldCodec codecFor(TypeHandler<?> handler) {
+        if (handler == null) {
+            return null;
+        }
+        Class<?> handlerType = handler.getClass();
+        if (handlerType == FloatTypeHandler.class) {
+            return FloatCodec.INSTANCE;
+        } else if (handlerType == IntTypeHandler.class) {
+            return IntCodec.INSTANCE;
+        } else if (handlerType == LongTypeHandler.class) {
+            return LongCodec.INSTANCE;
+        } else if (handlerType == DoubleTypeHandler.class) {
+            return DoubleCodec.INSTANCE;
+        } else if (handlerType == BooleanTypeHandler.class) {
+            return BooleanCodec.INSTANCE;
+        } else if (handlerType == StringTypeHandler.class) {
+            return StringCodec.INSTANCE;
+        } else if (handlerType == Vector3fTypeHandler.class) {
+            return Vector3fCodec.INSTANCE;
+        } else if (handlerType == Quat4fTypeHandler.class) {
+            return Quat4fCodec.INSTANCE;
+        }
+        return null;
+    }
+
+    public ComponentMetadata<T> getMetadata() {
+        return metadata;
+    }
+
+    /**
+     * Encodes the fields of a component.
+     *
+     * @param component     The component to encode
+     * @param typeIndex     The id of the component type, or null to write the type's uri instead
+     * @param usingFieldIds Whether fields are identified by id rather than name
+     * @param check         Determines which fields are written
+     * @param context       The context used by fields that fall back to their TypeHandler
+     * @return The encoded component, ready to be written
+     */
+    public EncodedComponent encode(T component, Integer typeIndex, boolean usingFieldIds, FieldSerializeCheck<Component> check,
+                                   SerializationContext context) {
+        EncodedComponent result = new EncodedComponent(typeIndex, usingFieldIds);
+        for (int i = 0; i < fields.length; ++i) {
+            if (check.shouldSerializeField(fields[i], component)) {
+                result.add(i, fields[i].getValue(component), context);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Encodes the fields of a component that differ from a base component.
+     *
+     * @param base          The component to compare against
+     * @param delta         The component whose differences are encoded
+     * @param typeIndex     The id of the component type, or null to write the type's uri instead
+     * @param usingFieldIds Whether fields are identified by id rather than name
+     * @param check         Determines which fields are written
+     * @param context       The context used by fields that fall back to their TypeHandler
+     * @return The encoded component, or null if no field differs
+     */
+    public EncodedComponent encodeDelta(T base, T delta, Integer typeIndex, boolean usingFieldIds, FieldSerializeCheck<Component> check,
+                                        SerializationContext context) {
+        EncodedComponent result = new EncodedComponent(typeIndex, usingFieldIds);
+        boolean changed = false;
+        for (int i = 0; i < fields.length; ++i) {
+            if (check.shouldSerializeField(fields[i], delta)) {
+                Object deltaValue = fields[i].getValue(delta);
+                if (!Objects.equal(fields[i].getValue(base), deltaValue)) {
+                    changed |= result.add(i, deltaValue, context);
+                }
+            }
+        }
+        return (changed) ? result : null;
+    }
+
+    /**
+     * Writes a field value as the content of an EntityData.Value, without its length, using the direct codec for the
+     * field if there is one.
+     *
+     * @return The number of bytes written, or -1 if the value is null or could not be serialized
+     */
+    public int writeValue(ComponentFieldMetadata<T, ?> field, Object value, SerializationContext context, CodedOutputStream out) throws IOException {
+        if (value == null) {
+            return -1;
+        }
+        FieldCodec codec = codecsByField.get(field);
+        if (codec != null) {
+            codec.write(value, out);
+            return codec.computeSize(value);
+        }
+        EntityData.Value message = serializeFallback(field, value, context);
+        if (message == null) {
+            return -1;
+        }
+        message.writeTo(out);
+        return message.getSerializedSize();
+    }
+
+    /**
+     * Applies an EntityData.Value onto a field of the target, using the direct codec for the field if there is one.
+     */
+    public void deserializeValueOnto(T target, ComponentFieldMetadata<T, ?> field, EntityData.Value value, DeserializationContext context) {
+        FieldCodec codec = codecsByField.get(field);
+        Object result = null;
+        if (codec != null) {
+            result = codec.fromValue(value);
+        }
+        if (result != null) {
+            field.setValue(target, result);
+        } else {
+            serializer.deserializeOnto(target, field, new ProtobufPersistedData(value), context);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private EntityData.Value serializeFallback(ComponentFieldMetadata<T, ?> field, Object value, SerializationContext context) {
+        if (serializer.getHandlerFor(field) == null) {
+            return null;
+        }
+        PersistedData data = serializer.serializeValue(field, value, context);
+        if (data.isNull()) {
+            return null;
+        }
+        return ((ProtobufPersistedData) data).getValue();
+    }
+
+    private static int computeDelimitedSize(int size) {
+        return CodedOutputStream.computeRawVarint32Size(size) + size;
+    }
+
+    /**
+     * A component whose field values have been encoded and measured, so it can be written as an EntityData.Component
+     * without building the message. Produces the same bytes as the message.
+     */
+    public final class EncodedComponent {
+        private final Integer typeIndex;
+        private final String typeUri;
+        private final boolean usingFieldIds;
+        private final Object[] values = new Object[fields.length];
+        private final int[] valueSizes = new int[fields.length];
+        private int size;
+
+        private EncodedComponent(Integer typeIndex, boolean usingFieldIds) {
+            this.typeIndex = typeIndex;
+            this.usingFieldIds = usingFieldIds;
+            if (typeIndex != null) {
+                typeUri = null;
+                size = CodedOutputStream.computeInt32Size(EntityData.Component.TYPE_INDEX_FIELD_NUMBER, typeIndex);
+            } else {
+                typeUri = metadata.getUri().toString();
+                size = CodedOutputStream.computeStringSize(EntityData.Component.TYPE_FIELD_NUMBER, typeUri);
+            }
+        }
+
+        /**
+         * @return Whether the value was added, false if it is null or could not be serialized
+         */
+        private boolean add(int fieldIndex, Object value, SerializationContext context) {
+            if (value == null) {
+                return false;
+            }
+            Object encodedValue = value;
+            int valueSize;
+            if (codecs[fieldIndex] != null) {
+                valueSize = codecs[fieldIndex].computeSize(value);
+            } else {
+                EntityData.Value message = serializeFallback(fields[fieldIndex], value, context);
+                if (message == null) {
+                    return false;
+                }
+                encodedValue = message;
+                valueSize = message.getSerializedSize();
+            }
+            values[fieldIndex] = encodedValue;
+            valueSizes[fieldIndex] = valueSize;
+            size += CodedOutputStream.computeTagSize(EntityData.Component.FIELD_FIELD_NUMBER)
+                    + computeDelimitedSize(computeNameValueSize(fieldIndex));
+            return true;
+        }
+
+        private int computeNameValueSize(int fieldIndex) {
+            int nameValueSize = CodedOutputStream.computeTagSize(EntityData.NameValue.VALUE_FIELD_NUMBER) + computeDelimitedSize(valueSizes[fieldIndex]);
+            if (usingFieldIds) {
+                nameValueSize += CodedOutputStream.computeInt32Size(EntityData.NameValue.NAME_INDEX_FIELD_NUMBER, fields[fieldIndex].getId());
+            } else {
+                nameValueSize += CodedOutputStream.computeStringSize(EntityData.NameValue.NAME_FIELD_NUMBER, fields[fieldIndex].getName());
+            }
+            return nameValueSize;
+        }
+
+        /**
+         * @return The size of the EntityData.Component, without its length
+         */
+        public int getSerializedSize() {
+            return size;
+        }
+
+        /**
+         * Writes the component the way EntityData.Component.writeTo would.
+         */
+        public void writeTo(CodedOutputStream out) throws IOException {
+            if (typeIndex != null) {
+                out.writeInt32(EntityData.Component.TYPE_INDEX_FIELD_NUMBER, typeIndex);
+            }
+            for (int i = 0; i < fields.length; ++i) {
+                Object value = values[i];
+                if (value == null) {
+                    continue;
+                }
+                out.writeTag(EntityData.Component.FIELD_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                out.writeRawVarint32(computeNameValueSize(i));
+                if (!usingFieldIds) {
+                    out.writeString(EntityData.NameValue.NAME_FIELD_NUMBER, fields[i].getName());
+                }
+                out.writeTag(EntityData.NameValue.VALUE_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+                out.writeRawVarint32(valueSizes[i]);
+                if (codecs[i] != null) {
+                    codecs[i].write(value, out);
+                } else {
+                    ((EntityData.Value) value).writeTo(out);
+                }
+                if (usingFieldIds) {
+                    out.writeInt32(EntityData.NameValue.NAME_INDEX_FIELD_NUMBER, fields[i].getId());
+                }
+            }
+            if (typeUri != null) {
+                out.writeString(EntityData.Component.TYPE_FIELD_NUMBER, typeUri);
+            }
+        }
+
+        /**
+         * Writes the component the way EntityData.Component.writeDelimitedTo would.
+         */
+        public void writeDelimitedTo(CodedOutputStream out) throws IOException {
+            out.writeRawVarint32(size);
+            writeTo(out);
+        }
+    }
+
+    /**
+     * Writes the content of an EntityData.Value holding a value of one type, and converts it back from the message.
+     */
+    private abstract static class FieldCodec {
+
+        abstract int computeSize(Object value);
+
+        abstract void write(Object value, CodedOutputStream out) throws IOException;
+
+        /**
+         * @return The value, or null if the data is not in the form this codec writes
+         */
+        abstract Object fromValue(EntityData.Value value);
+    }
+
+    private static final class FloatCodec extends FieldCodec {
+        static final FloatCodec INSTANCE = new FloatCodec();
+
+        @Override
+        int computeSize(Object value) {
+            return CodedOutputStream.computeTagSize(EntityData.Value.FLOAT_FIELD_NUMBER) + computeDelimitedSize(CodedOutputStream.computeFloatSizeNoTag((Float) value));
+        }
+
+        @Override
+        void write(Object value, CodedOutputStream out) throws IOException {
+            float floatValue = (Float) value;
+            out.writeTag(EntityData.Value.FLOAT_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeRawVarint32(CodedOutputStream.computeFloatSizeNoTag(floatValue));
+            out.writeFloatNoTag(floatValue);
+        }
+
+        @Override
+        Object fromValue(EntityData.Value value) {
+            if (value.getFloatCount() == 1) {
+                return value.getFloat(0);
+            }
+            return null;
+        }
+    }
+
+    private static final class DoubleCodec extends FieldCodec {
+        static final DoubleCodec INSTANCE = new DoubleCodec();
+
+        @Override
+        int computeSize(Object value) {
+            return CodedOutputStream.computeTagSize(EntityData.Value.DOUBLE_FIELD_NUMBER) + computeDelimitedSize(CodedOutputStream.computeDoubleSizeNoTag((Double) value));
+        }
+
+        @Override
+        void write(Object value, CodedOutputStream out) throws IOException {
+            double doubleValue = (Double) value;
+            out.writeTag(EntityData.Value.DOUBLE_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeRawVarint32(CodedOutputStream.computeDoubleSizeNoTag(doubleValue));
+            out.writeDoubleNoTag(doubleValue);
+        }
+
+        @Override
+        Object fromValue(EntityData.Value value) {
+            if (value.getDoubleCount() == 1) {
+                return value.getDouble(0);
+            }
+            return null;
+        }
+    }
+
+    private static final class IntCodec extends FieldCodec {
+        static final IntCodec INSTANCE = new IntCodec();
+
+        @Override
+        int computeSize(Object value) {
+            return CodedOutputStream.computeTagSize(EntityData.Value.INTEGER_FIELD_NUMBER) + computeDelimitedSize(CodedOutputStream.computeSInt32SizeNoTag((Integer) value));
+        }
+
+        @Override
+        void write(Object value, CodedOutputStream out) throws IOException {
+            int intValue = (Integer) value;
+            out.writeTag(EntityData.Value.INTEGER_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeRawVarint32(CodedOutputStream.computeSInt32SizeNoTag(intValue));
+            out.writeSInt32NoTag(intValue);
+        }
+
+        @Override
+        Object fromValue(EntityData.Value value) {
+            if (value.getIntegerCount() == 1) {
+                return value.getInteger(0);
+            }
+            return null;
+        }
+    }
+
+    private static final class LongCodec extends FieldCodec {
+        static final LongCodec INSTANCE = new LongCodec();
+
+        @Override
+        int computeSize(Object value) {
+            return CodedOutputStream.computeTagSize(EntityData.Value.LONG_FIELD_NUMBER) + computeDelimitedSize(CodedOutputStream.computeSInt64SizeNoTag((Long) value));
+        }
+
+        @Override
+        void write(Object value, CodedOutputStream out) throws IOException {
+            long longValue = (Long) value;
+            out.writeTag(EntityData.Value.LONG_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeRawVarint32(CodedOutputStream.computeSInt64SizeNoTag(longValue));
+            out.writeSInt64NoTag(longValue);
+        }
+
+        @Override
+        Object fromValue(EntityData.Value value) {
+            if (value.getLongCount() == 1) {
+                return value.getLong(0);
+            }
+            return null;
+        }
+    }
+
+    private static final class BooleanCodec extends FieldCodec {
+        static final BooleanCodec INSTANCE = new BooleanCodec();
+
+        @Override
+        int computeSize(Object value) {
+            return CodedOutputStream.computeTagSize(EntityData.Value.BOOLEAN_FIELD_NUMBER) + computeDelimitedSize(CodedOutputStream.computeBoolSizeNoTag((Boolean) value));
+        }
+
+        @Override
+        void write(Object value, CodedOutputStream out) throws IOException {
+            boolean boolValue = (Boolean) value;
+            out.writeTag(EntityData.Value.BOOLEAN_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeRawVarint32(CodedOutputStream.computeBoolSizeNoTag(boolValue));
+            out.writeBoolNoTag(boolValue);
+        }
+
+        @Override
+        Object fromValue(EntityData.Value value) {
+            if (value.getBooleanCount() == 1) {
+                return value.getBoolean(0);
+            }
+            return null;
+        }
+    }
+
+    private static final class StringCodec extends FieldCodec {
+        static final StringCodec INSTANCE = new StringCodec();
+
+        @Override
+        int computeSize(Object value) {
+            return CodedOutputStream.computeStringSize(EntityData.Value.STRING_FIELD_NUMBER, (String) value);
+        }
+
+        @Override
+        void write(Object value, CodedOutputStream out) throws IOException {
+            out.writeString(EntityData.Value.STRING_FIELD_NUMBER, (String) value);
+        }
+
+        @Override
+        Object fromValue(EntityData.Value value) {
+            if (value.getStringCount() == 1) {
+                return value.getString(0);
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A codec for values the TypeHandler writes as a fixed number of floats.
+     */
+    private abstract static class FloatArrayCodec extends FieldCodec {
+        private final int length;
+
+        FloatArrayCodec(int length) {
+            this.length = length;
+        }
+
+        abstract float get(Object value, int index);
+
+        @Override
+        int computeSize(Object value) {
+            return CodedOutputStream.computeTagSize(EntityData.Value.FLOAT_FIELD_NUMBER) + computeDelimitedSize(length * CodedOutputStream.LITTLE_ENDIAN_32_SIZE);
+        }
+
+        @Override
+        void write(Object value, CodedOutputStream out) throws IOException {
+            out.writeTag(EntityData.Value.FLOAT_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            out.writeRawVarint32(length * CodedOutputStream.LITTLE_ENDIAN_32_SIZE);
+            for (int i = 0; i < length; ++i) {
+                out.writeFloatNoTag(get(value, i));
+            }
+        }
+    }
+
+    private static final class Vector3fCodec extends FloatArrayCodec {
+        static final Vector3fCodec INSTANCE = new Vector3fCodec();
+
+        private Vector3fCodec() {
+            super(3);
+        }
+
+        @Override
+        float get(Object value, int index) {
+            Vector3f vector = (Vector3f) value;
+            switch (index) {
+                case 0:
+                    return vector.x;
+                case 1:
+                    return vector.y;
+                default:
+                    return vector.z;
+            }
+        }
+
+        @Override
+        Object fromValue(EntityData.Value value) {
+            if (value.getFloatCount() == 3) {
+                return new Vector3f(value.getFloat(0), value.getFloat(1), value.getFloat(2));
+            }
+            return null;
+        }
+    }
+
+    private static final class Quat4fCodec extends FloatArrayCodec {
+        static final Quat4fCodec INSTANCE = new Quat4fCodec();
+
+        private Quat4fCodec() {
+            super(4);
+        }
+
+        @Override
+        float get(Object value, int index) {
+            Quat4f quat = (Quat4f) value;
+            switch (index) {
+                case 0:
+                    return quat.x;
+                case 1:
+                    return quat.y;
+                case 2:
+                    return quat.z;
+                default:
+                    return quat.w;
+            }
+        }
+
+        @Override
+        Object fromValue(EntityData.Value value) {
+            if (value.getFloatCount() == 4) {
+                return new Quat4f(value.getFloat(0), value.getFloat(1), value.getFloat(2), value.getFloat(3));
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.serializers;
+
+import org.terasology.protobuf.EntityData;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Streams worlds in a compact binary form, suitable for backups: a format version byte is followed by the header and
+ * each entity, written as length delimited protobuf messages.
+ */
+public final class EntityDataBinaryFormat {
+
+    /**
+     * The version of the binary world format, written before the header.
+     */
+    public static final int FORMAT_VERSION = 1;
+
+    private EntityDataBinaryFormat() {
+    }
+
+    public static WorldDataWriter newWorldWriter(OutputStream out) {
+        return new BinaryWorldWriter(out);
+    }
+
+    public static WorldDataReader newWorldReader(InputStream in) {
+        return new BinaryWorldReader(in);
+    }
+
+    private static class BinaryWorldWriter implements WorldDataWriter {
+        private final OutputStream out;
+
+        public BinaryWorldWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void writeHeader(EntityData.GlobalStore header) throws IOException {
+            if (header.getEntityCount() > 0) {
+                throw new IllegalArgumentException("The header must not contain entities");
+            }
+            out.write(FORMAT_VERSION);
+            header.writeDelimitedTo(out);
+        }
+
+        @Override
+        public void writeEntity(EntityData.Entity entity) throws IOException {
+            entity.writeDelimitedTo(out);
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    private static class BinaryWorldReader implements WorldDataReader {
+        private final InputStream in;
+
+        public BinaryWorldReader(InputStream in) {
+            this.in = in;
+        }
+
+        @Override
+        public EntityData.GlobalStore readHeader() throws IOException {
+            int version = in.read();
+            if (version == -1) {
+                throw new IOException("Failed to load world, the data is empty");
+            }
+            if (version != FORMAT_VERSION) {
+                throw new IOException("Failed to load world, unsupported format version " + version);
+            }
+            EntityData.GlobalStore header = EntityData.GlobalStore.parseDelimitedFrom(in);
+            if (header == null) {
+                throw new IOException("Failed to load world, the data is empty");
+            }
+            return header;
+        }
+
+        @Override
+        public EntityData.Entity readEntity() throws IOException {
+            return EntityData.Entity.parseDelimitedFrom(in);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
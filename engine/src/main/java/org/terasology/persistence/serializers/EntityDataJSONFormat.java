@@ -28,6 +28,8 @@
 import com.google.gson.JsonSerializationContext;
 import com.google.gson.JsonSerializer;
 import com.google.gson.JsonSyntaxException;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonWriter;
 import com.google.protobuf.ByteString;
 import com.google.protobuf.Descriptors;
 import gnu.trove.list.TByteList;
@@ -37,7 +39,11 @@
 import java.io.BufferedReader;
 import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
 import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.Deque;
 import java.util.Locale;
 import java.util.Map;
 
@@ -54,6 +60,12 @@
 // TODO: More javadoc
 public final class EntityDataJSONFormat {
 
+    /**
+     * Written first by {@link #newWorldWriter(Writer)}, marking a world whose entities come after its header.
+     */
+    private static final String STREAM_FORMAT_VERSION_FIELD = "stream_format_version";
+    private static final int STREAM_FORMAT_VERSION = 1;
+
     private EntityDataJSONFormat() {
     }
 
@@ -77,6 +89,22 @@ public static EntityData.GlobalStore readWorld(BufferedReader reader) throws IOE
         }
     }
 
+    /**
+     * Creates a writer that streams a world out as JSON, in the format read by {@link #readWorld(BufferedReader)}.
+     * The entities are written last.
+     */
+    public static WorldDataWriter newWorldWriter(Writer writer) {
+        return new JsonWorldWriter(newGson(), writer);
+    }
+
+    /**
+     * Creates a reader that streams in a world written as JSON. Entities are only buffered if the world was written
+     * with its entities before its header, as done by {@link #write(EntityData.GlobalStore, BufferedWriter)}.
+     */
+    public static WorldDataReader newWorldReader(Reader reader) {
+        return new JsonWorldReader(newGson(), reader);
+    }
+
     public static EntityData.Prefab readPrefab(BufferedReader reader) throws IOException {
         try {
             return newGson().fromJson(reader, EntityData.Prefab.class);
@@ -135,6 +163,132 @@ public EntityData.GlobalStore deserialize(JsonElement json, Type typeOfT, JsonDe
         }
     }
 
+    private static class JsonWorldWriter implements WorldDataWriter {
+        private final Gson gson;
+        private final JsonWriter out;
+        private boolean headerWritten;
+
+        public JsonWorldWriter(Gson gson, Writer writer) {
+            this.gson = gson;
+            this.out = new JsonWriter(writer);
+            out.setIndent("  ");
+        }
+
+        @Override
+        public void writeHeader(EntityData.GlobalStore header) throws IOException {
+            if (header.getEntityCount() > 0) {
+                throw new IllegalArgumentException("The header must not contain entities");
+            }
+            out.beginObject();
+            out.name(STREAM_FORMAT_VERSION_FIELD).value(STREAM_FORMAT_VERSION);
+            JsonObject headerJson = gson.toJsonTree(header, EntityData.GlobalStore.class).getAsJsonObject();
+            for (Map.Entry<String, JsonElement> field : headerJson.entrySet()) {
+                out.name(field.getKey());
+                gson.toJson(field.getValue(), out);
+            }
+            out.name("entity");
+            out.beginArray();
+            headerWritten = true;
+        }
+
+        @Override
+        public void writeEntity(EntityData.Entity entity) throws IOException {
+            gson.toJson(entity, EntityData.Entity.class, out);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (headerWritten) {
+                out.endArray();
+                out.endObject();
+            }
+            out.close();
+        }
+    }
+
+    private static class JsonWorldReader implements WorldDataReader {
+        private final Gson gson;
+        private final JsonReader in;
+        private final Deque<EntityData.Entity> bufferedEntities = new ArrayDeque<>();
+        private int streamFormatVersion;
+        private boolean readingEntities;
+
+        public JsonWorldReader(Gson gson, Reader reader) {
+            this.gson = gson;
+            this.in = new JsonReader(reader);
+        }
+
+        @Override
+        public EntityData.GlobalStore readHeader() throws IOException {
+            try {
+                JsonObject header = new JsonObject();
+                in.beginObject();
+                while (in.hasNext()) {
+                    String name = in.nextName();
+                    if (STREAM_FORMAT_VERSION_FIELD.equals(name)) {
+                        streamFormatVersion = in.nextInt();
+                        if (streamFormatVersion != STREAM_FORMAT_VERSION) {
+                            throw new IOException("Failed to load world, unsupported stream format version " + streamFormatVersion);
+                        }
+                    } else if ("entity".equals(name)) {
+                        in.beginArray();
+                        if (streamFormatVersion != 0) {
+                            // Written by a streaming writer, the rest of the world consists of the entities
+                            readingEntities = true;
+                            break;
+                        }
+                        while (in.hasNext()) {
+                            bufferedEntities.add(readEntityData());
+                        }
+                        in.endArray();
+                    } else {
+                        header.add(name, gson.fromJson(in, JsonElement.class));
+                    }
+                }
+                if (!readingEntities) {
+                    in.endObject();
+                }
+                return gson.fromJson(header, EntityData.GlobalStore.class);
+            } catch (JsonParseException | IllegalStateException e) {
+                throw new IOException("Failed to load world", e);
+            }
+        }
+
+        @Override
+        public EntityData.Entity readEntity() throws IOException {
+            if (!bufferedEntities.isEmpty()) {
+                return bufferedEntities.poll();
+            }
+            if (!readingEntities) {
+                return null;
+            }
+            try {
+                if (in.hasNext()) {
+                    return readEntityData();
+                }
+                in.endArray();
+                readingEntities = false;
+                while (in.hasNext()) {
+                    in.nextName();
+                    in.skipValue();
+                }
+                in.endObject();
+                return null;
+            } catch (JsonParseException | IllegalStateException e) {
+                throw new IOException("Failed to load world", e);
+            }
+        }
+
+        private EntityData.Entity readEntityData() {
+            return gson.fromJson(in, EntityData.Entity.class);
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
     private static class ComponentHandler implements JsonSerializer<EntityData.Component> {
 
         @Override
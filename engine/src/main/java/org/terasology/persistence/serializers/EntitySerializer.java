@@ -16,8 +16,11 @@
 
 package org.terasology.persistence.serializers;
 
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
 import org.terasology.entitySystem.Component;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
@@ -29,6 +32,8 @@
 import org.terasology.persistence.typeHandling.TypeSerializationLibrary;
 import org.terasology.protobuf.EntityData;
 
+import java.io.IOException;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
@@ -40,6 +45,8 @@
  * <p/>
  * It is also possible to set whether entity ids will be handled or ignored - if ignored then deserialized entities will
  * be given new ids.
+ * <p/>
+ * Entities can also be written straight to a protobuf stream, without building the messages.
  *
  * @author Immortius
  */
@@ -160,6 +167,90 @@ public EntityData.Entity serialize(EntityRef entityRef, boolean deltaAgainstPref
         }
     }
 
+    /**
+     * Writes an entity straight to a stream, as a length-delimited EntityData.Entity. Produces the same bytes as
+     * serialize(entityRef).writeDelimitedTo(out), without building the messages.
+     *
+     * @param entityRef
+     * @param out       The stream to write to
+     */
+    public void serialize(EntityRef entityRef, CodedOutputStream out) throws IOException {
+        FieldSerializeCheck<Component> fieldCheck = FieldSerializeCheck.NullCheck.newInstance();
+        Prefab prefab = entityRef.getParentPrefab();
+        List<DirectComponentSerializer<?>.EncodedComponent> components = Lists.newArrayList();
+        List<String> removedComponents = Lists.newArrayList();
+        for (Component component : entityRef.iterateComponents()) {
+            if (!componentSerializeCheck.serialize(componentLibrary.getMetadata(component.getClass()))) {
+                continue;
+            }
+
+            Component prefabComponent = (prefab != null) ? prefab.getComponent(component.getClass()) : null;
+            DirectComponentSerializer<?>.EncodedComponent componentData;
+            if (prefabComponent == null) {
+                componentData = componentSerializer.encode(component, fieldCheck);
+            } else {
+                componentData = componentSerializer.encode(prefabComponent, component, fieldCheck);
+            }
+            if (componentData != null) {
+                components.add(componentData);
+            }
+        }
+        if (prefab != null) {
+            for (Component prefabComponent : prefab.iterateComponents()) {
+                ComponentMetadata<?> metadata = componentLibrary.getMetadata(prefabComponent.getClass());
+                if (entityRef.getComponent(prefabComponent.getClass()) == null && componentSerializeCheck.serialize(metadata)) {
+                    removedComponents.add(metadata.getUri().toString());
+                }
+            }
+        }
+        boolean writeAlwaysRelevant = prefab == null || entityRef.isAlwaysRelevant() != prefab.isAlwaysRelevant();
+        EntityRef owner = entityRef.getOwner();
+
+        // Fields in the order of their numbers, as the message would write them
+        int size = 0;
+        if (!ignoringEntityId) {
+            size += CodedOutputStream.computeInt64Size(EntityData.Entity.ID_FIELD_NUMBER, entityRef.getId());
+        }
+        for (DirectComponentSerializer<?>.EncodedComponent component : components) {
+            int componentSize = component.getSerializedSize();
+            size += CodedOutputStream.computeTagSize(EntityData.Entity.COMPONENT_FIELD_NUMBER) + CodedOutputStream.computeRawVarint32Size(componentSize)
+                    + componentSize;
+        }
+        if (prefab != null) {
+            size += CodedOutputStream.computeStringSize(EntityData.Entity.PARENT_PREFAB_FIELD_NUMBER, prefab.getName());
+        }
+        if (writeAlwaysRelevant) {
+            size += CodedOutputStream.computeBoolSize(EntityData.Entity.ALWAYSRELEVANT_FIELD_NUMBER, entityRef.isAlwaysRelevant());
+        }
+        if (owner.exists()) {
+            size += CodedOutputStream.computeInt64Size(EntityData.Entity.OWNER_FIELD_NUMBER, owner.getId());
+        }
+        for (String removedComponent : removedComponents) {
+            size += CodedOutputStream.computeStringSize(EntityData.Entity.REMOVED_COMPONENT_FIELD_NUMBER, removedComponent);
+        }
+
+        out.writeRawVarint32(size);
+        if (!ignoringEntityId) {
+            out.writeInt64(EntityData.Entity.ID_FIELD_NUMBER, entityRef.getId());
+        }
+        for (DirectComponentSerializer<?>.EncodedComponent component : components) {
+            out.writeTag(EntityData.Entity.COMPONENT_FIELD_NUMBER, WireFormat.WIRETYPE_LENGTH_DELIMITED);
+            component.writeDelimitedTo(out);
+        }
+        if (prefab != null) {
+            out.writeString(EntityData.Entity.PARENT_PREFAB_FIELD_NUMBER, prefab.getName());
+        }
+        if (writeAlwaysRelevant) {
+            out.writeBool(EntityData.Entity.ALWAYSRELEVANT_FIELD_NUMBER, entityRef.isAlwaysRelevant());
+        }
+        if (owner.exists()) {
+            out.writeInt64(EntityData.Entity.OWNER_FIELD_NUMBER, owner.getId());
+        }
+        for (String removedComponent : removedComponents) {
+            out.writeString(EntityData.Entity.REMOVED_COMPONENT_FIELD_NUMBER, removedComponent);
+        }
+    }
+
     /**
      * @param entityData
      * @return The deserialized entity
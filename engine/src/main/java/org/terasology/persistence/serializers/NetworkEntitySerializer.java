@@ -20,9 +20,14 @@
 import com.google.common.collect.BiMap;
 import com.google.common.collect.ImmutableBiMap;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.primitives.UnsignedBytes;
 import com.google.protobuf.ByteString;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.UnknownFieldSet;
+import gnu.trove.list.TIntList;
+import gnu.trove.list.array.TIntArrayList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.entitySystem.Component;
@@ -30,22 +35,27 @@
 import org.terasology.entitySystem.entity.EntityBuilder;
 import org.terasology.entitySystem.entity.EntityRef;
 import org.terasology.entitySystem.entity.internal.EngineEntityManager;
+import org.terasology.entitySystem.metadata.ComponentFieldMetadata;
 import org.terasology.entitySystem.metadata.ComponentLibrary;
 import org.terasology.entitySystem.metadata.ComponentMetadata;
-import org.terasology.entitySystem.metadata.ReplicatedFieldMetadata;
 import org.terasology.entitySystem.prefab.Prefab;
-import org.terasology.persistence.typeHandling.PersistedData;
-import org.terasology.persistence.typeHandling.Serializer;
+import org.terasology.persistence.typeHandling.SerializationContext;
 import org.terasology.persistence.typeHandling.TypeSerializationLibrary;
 import org.terasology.persistence.typeHandling.protobuf.ProtobufDeserializationContext;
-import org.terasology.persistence.typeHandling.protobuf.ProtobufPersistedData;
 import org.terasology.persistence.typeHandling.protobuf.ProtobufSerializationContext;
 import org.terasology.protobuf.EntityData;
 
+import java.io.IOException;
 import java.util.Map;
 import java.util.Set;
 
 /**
+ * Serializes entities to and from EntityData.PackedEntity for replication.
+ * <p/>
+ * Field values are written straight to the protobuf wire format by a {@link DirectComponentSerializer} and attached to
+ * the PackedEntity in that form, so no EntityData.Value is built for them. They only show up as fieldValue once the
+ * message has been sent and parsed.
+ *
  * @author Immortius
  */
 public class NetworkEntitySerializer {
@@ -58,6 +68,7 @@ public class NetworkEntitySerializer {
     private ProtobufSerializationContext serializationContext;
     private ProtobufDeserializationContext deserializationContext;
     private BiMap<Class<? extends Component>, Integer> idTable = ImmutableBiMap.<Class<? extends Component>, Integer>builder().build();
+    private Map<Class<? extends Component>, DirectComponentSerializer<?>> directSerializers = Maps.newConcurrentMap();
 
     public NetworkEntitySerializer(EngineEntityManager entityManager, ComponentLibrary componentLibrary, TypeSerializationLibrary typeSerializationLibrary) {
         this.entityManager = entityManager;
@@ -96,15 +107,17 @@ private EntityData.PackedEntity.Builder serializeEntityFull(EntityRef entityRef,
         EntityData.PackedEntity.Builder entity = EntityData.PackedEntity.newBuilder();
         ByteString.Output fieldIds = ByteString.newOutput();
         ByteString.Output componentFieldCounts = ByteString.newOutput();
+        EncodedFieldValues fieldValues = new EncodedFieldValues();
         for (Component component : entityRef.iterateComponents()) {
             if (!componentSerializeCheck.serialize(componentLibrary.getMetadata(component.getClass()))) {
                 continue;
             }
 
-            serializeComponentFull(component, false, fieldCheck, entity, fieldIds, componentFieldCounts, true);
+            serializeComponentFull(component, false, fieldCheck, entity, fieldIds, fieldValues, componentFieldCounts, true);
         }
         entity.setFieldIds(fieldIds.toByteString());
         entity.setComponentFieldCounts(componentFieldCounts.toByteString());
+        fieldValues.applyTo(entity);
 
         return entity;
     }
@@ -116,6 +129,7 @@ private EntityData.PackedEntity.Builder serializeEntityDelta(EntityRef entityRef
 
         ByteString.Output fieldIds = ByteString.newOutput();
         ByteString.Output componentFieldCounts = ByteString.newOutput();
+        EncodedFieldValues fieldValues = new EncodedFieldValues();
         for (Component component : entityRef.iterateComponents()) {
             if (!componentSerializeCheck.serialize(componentLibrary.getMetadata(component.getClass()))) {
                 continue;
@@ -126,13 +140,14 @@ private EntityData.PackedEntity.Builder serializeEntityDelta(EntityRef entityRef
             Component prefabComponent = prefab.getComponent(component.getClass());
 
             if (prefabComponent == null) {
-                serializeComponentFull(component, false, fieldCheck, entity, fieldIds, componentFieldCounts, true);
+                serializeComponentFull(component, false, fieldCheck, entity, fieldIds, fieldValues, componentFieldCounts, true);
             } else {
-                serializeComponentDelta(prefabComponent, component, fieldCheck, entity, fieldIds, componentFieldCounts, true);
+                serializeComponentDelta(prefabComponent, component, fieldCheck, entity, fieldIds, fieldValues, componentFieldCounts, true);
             }
         }
         entity.setFieldIds(fieldIds.toByteString());
         entity.setComponentFieldCounts(componentFieldCounts.toByteString());
+        fieldValues.applyTo(entity);
 
         for (Component prefabComponent : prefab.iterateComponents()) {
             if (!presentClasses.contains(prefabComponent.getClass()) && componentSerializeCheck.serialize(componentLibrary.getMetadata(prefabComponent.getClass()))) {
@@ -143,25 +158,30 @@ private EntityData.PackedEntity.Builder serializeEntityDelta(EntityRef entityRef
     }
 
     private void serializeComponentDelta(Component oldComponent, Component newComponent, FieldSerializeCheck<Component> fieldCheck,
-                                         EntityData.PackedEntity.Builder entityData, ByteString.Output entityFieldIds, ByteString.Output componentFieldCounts,
-                                         boolean componentInitial) {
+                                         EntityData.PackedEntity.Builder entityData, ByteString.Output entityFieldIds, EncodedFieldValues fieldValues,
+                                         ByteString.Output componentFieldCounts, boolean componentInitial) {
         ComponentMetadata<?> componentMetadata = componentLibrary.getMetadata(oldComponent.getClass());
         if (componentMetadata == null) {
             logger.error("Unregistered component type: {}", oldComponent.getClass());
             return;
         }
+        serializeComponentDelta(getDirectSerializer(componentMetadata), oldComponent, newComponent, fieldCheck, entityData, entityFieldIds,
+                fieldValues, componentFieldCounts, componentInitial);
+    }
 
+    private <T extends Component> void serializeComponentDelta(DirectComponentSerializer<T> directSerializer, Component oldComponent, Component newComponent,
+                                                               FieldSerializeCheck<Component> fieldCheck, EntityData.PackedEntity.Builder entityData,
+                                                               ByteString.Output entityFieldIds, EncodedFieldValues fieldValues, ByteString.Output componentFieldCounts,
+                                                               boolean componentInitial) {
+        ComponentMetadata<T> componentMetadata = directSerializer.getMetadata();
         byte fieldCount = 0;
-        Serializer serializer = typeSerializationLibrary.getSerializerFor(componentMetadata);
-        for (ReplicatedFieldMetadata field : componentMetadata.getFields()) {
+        for (ComponentFieldMetadata<T, ?> field : componentMetadata.getFields()) {
             if (fieldCheck.shouldSerializeField(field, newComponent, componentInitial)) {
                 Object oldValue = field.getValue(oldComponent);
                 Object newValue = field.getValue(newComponent);
                 if (!Objects.equal(oldValue, newValue)) {
-                    PersistedData data = serializer.serializeValue(field, newValue, serializationContext);
-                    if (!data.isNull()) {
+                    if (fieldValues.add(directSerializer, field, newValue, serializationContext)) {
                         entityFieldIds.write(field.getId());
-                        entityData.addFieldValue(((ProtobufPersistedData) data).getValue());
                         fieldCount++;
                     } else {
                         logger.error("Exception serializing component type: {}, field: {} - returned null", componentMetadata, field);
@@ -177,22 +197,29 @@ private void serializeComponentDelta(Component oldComponent, Component newCompon
     }
 
     private void serializeComponentFull(Component component, boolean ignoreIfNoFields, FieldSerializeCheck<Component> fieldCheck,
-                                        EntityData.PackedEntity.Builder entityData, ByteString.Output entityFieldIds, ByteString.Output componentFieldCounts,
-                                        boolean componentInitial) {
+                                        EntityData.PackedEntity.Builder entityData, ByteString.Output entityFieldIds, EncodedFieldValues fieldValues,
+                                        ByteString.Output componentFieldCounts, boolean componentInitial) {
         ComponentMetadata<?> componentMetadata = componentLibrary.getMetadata(component.getClass());
         if (componentMetadata == null) {
             logger.error("Unregistered component type: {}", component.getClass());
             return;
         }
 
-        Serializer serializer = typeSerializationLibrary.getSerializerFor(componentMetadata);
+        serializeComponentFull(getDirectSerializer(componentMetadata), component, ignoreIfNoFields, fieldCheck, entityData, entityFieldIds,
+                fieldValues, componentFieldCounts, componentInitial);
+    }
+
+    private <T extends Component> void serializeComponentFull(DirectComponentSerializer<T> directSerializer, Component component, boolean ignoreIfNoFields,
+                                                              FieldSerializeCheck<Component> fieldCheck, EntityData.PackedEntity.Builder entityData,
+                                                              ByteString.Output entityFieldIds, EncodedFieldValues fieldValues, ByteString.Output componentFieldCounts,
+                                                              boolean componentInitial) {
         byte fieldCount = 0;
-        for (ReplicatedFieldMetadata field : componentMetadata.getFields()) {
+        for (ComponentFieldMetadata<T, ?> field : directSerializer.getMetadata().getFields()) {
             if (fieldCheck.shouldSerializeField(field, component, componentInitial)) {
-                PersistedData fieldValue = serializer.serialize(field, component, serializationContext);
+                if (!fieldValues.add(directSerializer, field, field.getValue(component), serializationContext)) {
+                    fieldValues.addEmpty();
+                }
                 entityFieldIds.write(field.getId());
-
-                entityData.addFieldValue(((ProtobufPersistedData) fieldValue).getValue());
                 fieldCount++;
             }
         }
@@ -222,28 +249,7 @@ public void deserializeOnto(MutableComponentContainer entity, EntityData.PackedE
                 continue;
             }
 
-            Component component = entity.getComponent(metadata.getType());
-            boolean createdNewComponent = false;
-            if (component == null) {
-                createdNewComponent = true;
-                component = metadata.newInstance();
-            }
-            Serializer serializer = typeSerializationLibrary.getSerializerFor(metadata);
-            for (int fieldIndex = 0; fieldIndex < UnsignedBytes.toInt(entityData.getComponentFieldCounts().byteAt(componentIndex)); ++fieldIndex) {
-                byte fieldId = entityData.getFieldIds().byteAt(fieldPos);
-                ReplicatedFieldMetadata fieldMetadata = metadata.getField(fieldId);
-                if (fieldMetadata != null && fieldCheck.shouldDeserialize(metadata, fieldMetadata)) {
-                    logger.trace("Deserializing field {} of component {} as value {}", fieldMetadata, metadata, entityData.getFieldValue(fieldPos));
-                    serializer.deserializeOnto(component, fieldMetadata, new ProtobufPersistedData(entityData.getFieldValue(fieldPos)), deserializationContext);
-                }
-                fieldPos++;
-            }
-            if (createdNewComponent) {
-                entity.addComponent(component);
-            } else {
-                entity.saveComponent(component);
-            }
-
+            fieldPos = deserializeComponentOnto(entity, getDirectSerializer(metadata), entityData, componentIndex, fieldPos, fieldCheck);
         }
 
         for (int componentId : entityData.getRemovedComponentList()) {
@@ -255,6 +261,44 @@ public void deserializeOnto(MutableComponentContainer entity, EntityData.PackedE
         }
     }
 
+    private <T extends Component> int deserializeComponentOnto(MutableComponentContainer entity, DirectComponentSerializer<T> directSerializer,
+                                                               EntityData.PackedEntity entityData, int componentIndex, int startFieldPos,
+                                                               FieldSerializeCheck<Component> fieldCheck) {
+        ComponentMetadata<T> metadata = directSerializer.getMetadata();
+        T component = entity.getComponent(metadata.getType());
+        boolean createdNewComponent = false;
+        if (component == null) {
+            createdNewComponent = true;
+            component = metadata.newInstance();
+        }
+        int fieldPos = startFieldPos;
+        for (int fieldIndex = 0; fieldIndex < UnsignedBytes.toInt(entityData.getComponentFieldCounts().byteAt(componentIndex)); ++fieldIndex) {
+            byte fieldId = entityData.getFieldIds().byteAt(fieldPos);
+            ComponentFieldMetadata<T, ?> fieldMetadata = metadata.getField(fieldId);
+            if (fieldMetadata != null && fieldCheck.shouldDeserialize(metadata, fieldMetadata)) {
+                logger.trace("Deserializing field {} of component {} as value {}", fieldMetadata, metadata, entityData.getFieldValue(fieldPos));
+                directSerializer.deserializeValueOnto(component, fieldMetadata, entityData.getFieldValue(fieldPos), deserializationContext);
+            }
+            fieldPos++;
+        }
+        if (createdNewComponent) {
+            entity.addComponent(component);
+        } else {
+            entity.saveComponent(component);
+        }
+        return fieldPos;
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends Component> DirectComponentSerializer<T> getDirectSerializer(ComponentMetadata<T> componentMetadata) {
+        DirectComponentSerializer<T> result = (DirectComponentSerializer<T>) directSerializers.get(componentMetadata.getType());
+        if (result == null || result.getMetadata() != componentMetadata) {
+            result = new DirectComponentSerializer<>(componentMetadata, typeSerializationLibrary.getSerializerFor(componentMetadata));
+            directSerializers.put(componentMetadata.getType(), result);
+        }
+        return result;
+    }
+
     public EntityRef deserialize(EntityData.PackedEntity entityData) {
         EntityBuilder target;
         if (entityData.hasParentPrefabUri()) {
@@ -277,17 +321,18 @@ public EntityData.PackedEntity serialize(EntityRef entityRef, Set<Class<? extend
 
         ByteString.Output fieldIds = ByteString.newOutput();
         ByteString.Output componentFieldCounts = ByteString.newOutput();
+        EncodedFieldValues fieldValues = new EncodedFieldValues();
         for (Class<? extends Component> componentType : added) {
             Component component = entityRef.getComponent(componentType);
             if (component == null) {
                 logger.error("Non-existent component marked as added: {}", componentType);
             }
-            serializeComponentFull(entityRef.getComponent(componentType), false, fieldCheck, entity, fieldIds, componentFieldCounts, true);
+            serializeComponentFull(entityRef.getComponent(componentType), false, fieldCheck, entity, fieldIds, fieldValues, componentFieldCounts, true);
         }
         for (Class<? extends Component> componentType : changed) {
             Component comp = entityRef.getComponent(componentType);
             if (comp != null) {
-                serializeComponentFull(comp, true, fieldCheck, entity, fieldIds, componentFieldCounts, false);
+                serializeComponentFull(comp, true, fieldCheck, entity, fieldIds, fieldValues, componentFieldCounts, false);
             } else {
                 logger.error("Non-existent component marked as changed: {}", componentType);
             }
@@ -297,10 +342,64 @@ public EntityData.PackedEntity serialize(EntityRef entityRef, Set<Class<? extend
         }
         entity.setFieldIds(fieldIds.toByteString());
         entity.setComponentFieldCounts(componentFieldCounts.toByteString());
+        fieldValues.applyTo(entity);
         if (entity.getFieldIds().isEmpty() && entity.getRemovedComponentCount() == 0) {
             return null;
         } else {
             return entity.build();
         }
     }
+
+    /**
+     * Collects the encoded field values of a PackedEntity. They are attached to the message as unknown fields with the
+     * number of the fieldValue field, which puts them on the wire exactly like fieldValue entries.
+     */
+    private static final class EncodedFieldValues {
+        private final ByteString.Output data = ByteString.newOutput();
+        private final CodedOutputStream out = CodedOutputStream.newInstance(data);
+        private final TIntList valueSizes = new TIntArrayList();
+
+        /**
+         * @return Whether the value was added, false if it is null or could not be serialized
+         */
+        <T extends Component> boolean add(DirectComponentSerializer<T> directSerializer, ComponentFieldMetadata<T, ?> field, Object value,
+                                          SerializationContext context) {
+            try {
+                int size = directSerializer.writeValue(field, value, context, out);
+                if (size < 0) {
+                    return false;
+                }
+                valueSizes.add(size);
+                return true;
+            } catch (IOException e) {
+                // as no real IO is involved this should not happen
+                throw new RuntimeException(e);
+            }
+        }
+
+        void addEmpty() {
+            valueSizes.add(0);
+        }
+
+        void applyTo(EntityData.PackedEntity.Builder entity) {
+            if (valueSizes.isEmpty()) {
+                return;
+            }
+            try {
+                out.flush();
+            } catch (IOException e) {
+                // as no real IO is involved this should not happen
+                throw new RuntimeException(e);
+            }
+            ByteString bytes = data.toByteString();
+            UnknownFieldSet.Field.Builder values = UnknownFieldSet.Field.newBuilder();
+            int start = 0;
+            for (int i = 0; i < valueSizes.size(); ++i) {
+                int end = start + valueSizes.get(i);
+                values.addLengthDelimited(bytes.substring(start, end));
+                start = end;
+            }
+            entity.mergeUnknownFields(UnknownFieldSet.newBuilder().addField(EntityData.PackedEntity.FIELDVALUE_FIELD_NUMBER, values.build()).build());
+        }
+    }
 }
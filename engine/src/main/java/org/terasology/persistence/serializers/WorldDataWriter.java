@@ -0,0 +1,36 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.persistence.serializers;
+
+import org.terasology.protobuf.EntityData;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Writes a serialized world one entity at a time, so that the whole world never has to be held in memory.
+ * <p>
+ * The header has to be written first, followed by the entities. Closing the writer completes the world.
+ */
+public interface WorldDataWriter extends Closeable {
+
+    /**
+     * @param header The world without entities - its prefabs, component classes and next entity id
+     */
+    void writeHeader(EntityData.GlobalStore header) throws IOException;
+
+    void writeEntity(EntityData.Entity entity) throws IOException;
+}
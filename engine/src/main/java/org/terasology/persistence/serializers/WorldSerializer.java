@@ -17,6 +17,8 @@
 
 import org.terasology.protobuf.EntityData;
 
+import java.io.IOException;
+
 /**
  * Serializes an entity system, with all prefabs and entities.
  *
@@ -29,6 +31,14 @@ public interface WorldSerializer {
      */
     EntityData.GlobalStore serializeWorld(boolean verbose);
 
+    /**
+     * Serializes the current EntityManager's and PrefabManager's data one entity at a time, so that the memory used
+     * does not depend on the number of entities.
+     *
+     * @param writer The writer to stream the world to. It is not closed.
+     */
+    void serializeWorld(boolean verbose, WorldDataWriter writer) throws IOException;
+
     /**
      * Deserializes a world message, applying it to the current EntityManager
      *
@@ -36,4 +46,11 @@ public interface WorldSerializer {
      */
     void deserializeWorld(EntityData.GlobalStore world);
 
+    /**
+     * Deserializes a world one entity at a time, applying it to the current EntityManager
+     *
+     * @param reader The reader to stream the world from. It is not closed.
+     */
+    void deserializeWorld(WorldDataReader reader) throws IOException;
+
 }
@@ -37,6 +37,7 @@
 import org.terasology.protobuf.EntityData;
 import org.terasology.registry.CoreRegistry;
 
+import java.io.IOException;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.Map;
@@ -68,14 +69,7 @@ public WorldSerializerImpl(EngineEntityManager entityManager, PrefabSerializer p
     @Override
     public EntityData.GlobalStore serializeWorld(boolean verbose) {
         final EntityData.GlobalStore.Builder world = EntityData.GlobalStore.newBuilder();
-
-        if (!verbose) {
-            writeComponentTypeTable(world);
-        }
-
-        for (Prefab prefab : prefabManager.listPrefabs()) {
-            world.addPrefab(prefabSerializer.serialize(prefab));
-        }
+        writeHeader(world, verbose);
 
         for (EntityRef entity : entityManager.getAllEntities()) {
             if (verbose || entity.isPersistent()) {
@@ -83,16 +77,72 @@ public EntityData.GlobalStore serializeWorld(boolean verbose) {
             }
         }
 
-        writeIdInfo(world);
-
         entitySerializer.removeComponentIdMapping();
         prefabSerializer.removeComponentIdMapping();
         return world.build();
     }
 
+    @Override
+    public void serializeWorld(boolean verbose, WorldDataWriter writer) throws IOException {
+        final EntityData.GlobalStore.Builder header = EntityData.GlobalStore.newBuilder();
+        writeHeader(header, verbose);
+        try {
+            writer.writeHeader(header.build());
+            for (EntityRef entity : entityManager.getAllEntities()) {
+                if (verbose || entity.isPersistent()) {
+                    writer.writeEntity(entitySerializer.serialize(entity));
+                }
+            }
+        } finally {
+            entitySerializer.removeComponentIdMapping();
+            prefabSerializer.removeComponentIdMapping();
+        }
+    }
 
     @Override
     public void deserializeWorld(EntityData.GlobalStore world) {
+        readHeader(world);
+
+        for (EntityData.Entity entityData : world.getEntityList()) {
+            entitySerializer.deserialize(entityData);
+        }
+
+        entitySerializer.removeComponentIdMapping();
+        prefabSerializer.removeComponentIdMapping();
+    }
+
+    @Override
+    public void deserializeWorld(WorldDataReader reader) throws IOException {
+        readHeader(reader.readHeader());
+        try {
+            EntityData.Entity entityData = reader.readEntity();
+            while (entityData != null) {
+                entitySerializer.deserialize(entityData);
+                entityData = reader.readEntity();
+            }
+        } finally {
+            entitySerializer.removeComponentIdMapping();
+            prefabSerializer.removeComponentIdMapping();
+        }
+    }
+
+    private void writeHeader(EntityData.GlobalStore.Builder world, boolean verbose) {
+        if (!verbose) {
+            writeComponentTypeTable(world);
+        }
+
+        for (Prefab prefab : prefabManager.listPrefabs()) {
+            world.addPrefab(prefabSerializer.serialize(prefab));
+        }
+
+        writeIdInfo(world);
+    }
+
+    /**
+     * Applies everything but the entities of the given world: the next entity id, the component id table and the
+     * prefabs.
+     */
+    private void readHeader(EntityData.GlobalStore world) {
         entityManager.setNextId(world.getNextEntityId());
 
         Map<Class<? extends Component>, Integer> componentIdTable = Maps.newHashMap();
@@ -130,13 +180,6 @@ public void deserializeWorld(EntityData.GlobalStore world) {
                 }
             }
         }
-
-        for (EntityData.Entity entityData : world.getEntityList()) {
-            entitySerializer.deserialize(entityData);
-        }
-
-        entitySerializer.removeComponentIdMapping();
-        prefabSerializer.removeComponentIdMapping();
     }
 
 
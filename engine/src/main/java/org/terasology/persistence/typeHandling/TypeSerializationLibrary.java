@@ -100,12 +100,13 @@
 public class TypeSerializationLibrary {
     private static final Logger logger = LoggerFactory.getLogger(TypeSerializationLibrary.class);
 
-    private Map<Class<?>, TypeHandler<?>> typeHandlers = Maps.newHashMap();
+    // Concurrent, as handlers and serializers are created lazily while assets are deserialized on loading threads
+    private Map<Class<?>, TypeHandler<?>> typeHandlers = Maps.newConcurrentMap();
     private Set<Class<?>> coreTypeHandlers = Sets.newHashSet();
     private ReflectFactory reflectFactory;
     private CopyStrategyLibrary copyStrategies;
 
-    private Map<ClassMetadata<?, ?>, Serializer> serializerMap = Maps.newHashMap();
+    private Map<ClassMetadata<?, ?>, Serializer> serializerMap = Maps.newConcurrentMap();
 
     /**
      * @param factory        The factory providing reflect implementation.
@@ -59,6 +59,7 @@
 import org.terasology.registry.CoreRegistry;
 import org.terasology.world.BlockEntityRegistry;
 import org.terasology.world.WorldProvider;
+import org.terasology.world.chunks.ChunkProvider;
 
 import com.bulletphysics.BulletGlobals;
 import com.bulletphysics.collision.broadphase.BroadphaseInterface;
@@ -127,10 +128,16 @@ public BulletPhysics(WorldProvider world) {
         discreteDynamicsWorld.setGravity(new Vector3f(0f, -15f, 0f));
         blockEntityRegistry = CoreRegistry.get(BlockEntityRegistry.class);
 
-        wrapper = new PhysicsWorldWrapper(world);
+        ChunkProvider chunkProvider = CoreRegistry.get(ChunkProvider.class);
+        if (chunkProvider != null) {
+            wrapper = new PhysicsWorldWrapper(chunkProvider);
+            liquidWrapper = new PhysicsLiquidWrapper(chunkProvider);
+        } else {
+            wrapper = new PhysicsWorldWrapper(world);
+            liquidWrapper = new PhysicsLiquidWrapper(world);
+        }
         VoxelWorldShape worldShape = new VoxelWorldShape(wrapper);
 
-        liquidWrapper = new PhysicsLiquidWrapper(world);
         VoxelWorldShape liquidShape = new VoxelWorldShape(liquidWrapper);
 
         Matrix3f rot = new Matrix3f();
@@ -241,6 +248,8 @@ public HitResult rayTrace(org.terasology.math.geom.Vector3f from1, org.terasolog
 
     @Override
     public void update(float delta) {
+        wrapper.clearChunkCache();
+        liquidWrapper.clearChunkCache();
         processQueuedBodies();
         applyPendingImpulsesAndForces();
         try {
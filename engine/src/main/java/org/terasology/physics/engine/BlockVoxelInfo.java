@@ -0,0 +1,74 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.physics.engine;
+
+import com.bulletphysics.collision.shapes.CollisionShape;
+import com.bulletphysics.collision.shapes.voxel.VoxelInfo;
+import org.terasology.math.VecMath;
+import org.terasology.world.block.Block;
+
+/**
+ * The collision information shared by every voxel of one block type. Instances are returned directly for voxels that
+ * do not collide, so they carry no position.
+ */
+final class BlockVoxelInfo implements VoxelInfo {
+
+    private final Block block;
+    private final boolean colliding;
+    private final boolean blocking;
+    private final CollisionShape shape;
+    private final javax.vecmath.Vector3f offset;
+
+    BlockVoxelInfo(Block block, boolean colliding, boolean blocking) {
+        this.block = block;
+        this.shape = block.getCollisionShape();
+        this.offset = (block.getCollisionOffset() != null) ? VecMath.to(block.getCollisionOffset()) : new javax.vecmath.Vector3f();
+        this.colliding = colliding;
+        this.blocking = blocking;
+    }
+
+    public Block getBlock() {
+        return block;
+    }
+
+    @Override
+    public boolean isColliding() {
+        return colliding;
+    }
+
+    @Override
+    public Object getUserData() {
+        return null;
+    }
+
+    @Override
+    public CollisionShape getCollisionShape() {
+        return shape;
+    }
+
+    /**
+     * @return The collision offset of the block. This instance is shared and must not be modified.
+     */
+    @Override
+    public javax.vecmath.Vector3f getCollisionOffset() {
+        return offset;
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return blocking;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.physics.engine;
+
+import com.bulletphysics.collision.shapes.voxel.VoxelInfo;
+import com.bulletphysics.collision.shapes.voxel.VoxelPhysicsWorld;
+import org.terasology.math.ChunkMath;
+import org.terasology.world.WorldProvider;
+import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockManager;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.ChunkProvider;
+
+import java.util.Arrays;
+
+/**
+ * Base for the voxel worlds handed to the physics engine. Bullet probes every voxel overlapping the objects it tests,
+ * so this avoids allocating for each probe:
+ * <ul>
+ * <li>Voxels are read straight from the chunk, with the most recently used chunks cached by position.</li>
+ * <li>The collision information of each block type is created once, and shared by all voxels of that type.</li>
+ * <li>Only colliding voxels get an object of their own, as their position is needed to report hits.</li>
+ * </ul>
+ * This is not thread safe, and should only be queried from the thread that runs the physics.
+ */
+abstract class BlockVoxelWorld implements VoxelPhysicsWorld {
+
+    /**
+     * Direct mapped, so that the chunks around any one position never evict each other.
+     */
+    private static final int CHUNK_CACHE_SIZE = 8;
+
+    private WorldProvider world;
+    private ChunkProvider chunkProvider;
+
+    private final Chunk[] cachedChunks = new Chunk[CHUNK_CACHE_SIZE];
+    private final int[] cachedChunkPositions = new int[CHUNK_CACHE_SIZE * 3];
+    private BlockVoxelInfo[] blockInfos = new BlockVoxelInfo[0];
+
+    protected BlockVoxelWorld(WorldProvider world) {
+        this.world = world;
+    }
+
+    protected BlockVoxelWorld(ChunkProvider chunkProvider) {
+        this.chunkProvider = chunkProvider;
+    }
+
+    /**
+     * @param block The block type
+     * @return The collision information for voxels of the given block type
+     */
+    protected abstract BlockVoxelInfo createBlockInfo(Block block);
+
+    @Override
+    public VoxelInfo getCollisionShapeAt(int x, int y, int z) {
+        BlockVoxelInfo info = getBlockInfo(x, y, z);
+        if (info.isColliding()) {
+            return new PositionedVoxelInfo(info, x, y, z);
+        }
+        return info;
+    }
+
+    /**
+     * Forgets the cached chunks. Should be called at least once a frame, so that chunks that have since been replaced
+     * are not used.
+     */
+    public void clearChunkCache() {
+        Arrays.fill(cachedChunks, null);
+    }
+
+    public void dispose() {
+        clearChunkCache();
+        world = null;
+        chunkProvider = null;
+    }
+
+    private BlockVoxelInfo getBlockInfo(int x, int y, int z) {
+        if (chunkProvider == null) {
+            return getBlockInfo(world.getBlock(x, y, z));
+        }
+        Chunk chunk = getChunk(ChunkMath.calcChunkPosX(x, ChunkConstants.POWER_X), ChunkMath.calcChunkPosY(y, ChunkConstants.POWER_Y),
+                ChunkMath.calcChunkPosZ(z, ChunkConstants.POWER_Z));
+        if (chunk == null) {
+            return getBlockInfo(BlockManager.getAir());
+        }
+        int blockX = ChunkMath.calcBlockPosX(x, ChunkConstants.INNER_CHUNK_POS_FILTER_X);
+        int blockY = ChunkMath.calcBlockPosY(y, ChunkConstants.INNER_CHUNK_POS_FILTER_Y);
+        int blockZ = ChunkMath.calcBlockPosZ(z, ChunkConstants.INNER_CHUNK_POS_FILTER_Z);
+        int id = chunk.getBlockId(blockX, blockY, blockZ) & 0xFFFF;
+        if (id < blockInfos.length && blockInfos[id] != null) {
+            return blockInfos[id];
+        }
+        return getBlockInfo(chunk.getBlock(blockX, blockY, blockZ));
+    }
+
+    private BlockVoxelInfo getBlockInfo(Block block) {
+        int id = block.getId() & 0xFFFF;
+        if (id >= blockInfos.length) {
+            blockInfos = Arrays.copyOf(blockInfos, Math.max(id + 1, 2 * blockInfos.length));
+        }
+        BlockVoxelInfo info = blockInfos[id];
+        if (info == null || info.getBlock() != block) {
+            info = createBlockInfo(block);
+            blockInfos[id] = info;
+        }
+        return info;
+    }
+
+    private Chunk getChunk(int chunkX, int chunkY, int chunkZ) {
+        int slot = (chunkX & 1) | (chunkY & 1) << 1 | (chunkZ & 1) << 2;
+        Chunk chunk = cachedChunks[slot];
+        if (chunk != null && chunk.isReady() && cachedChunkPositions[3 * slot] == chunkX && cachedChunkPositions[3 * slot + 1] == chunkY
+                && cachedChunkPositions[3 * slot + 2] == chunkZ) {
+            return chunk;
+        }
+        chunk = chunkProvider.getChunk(chunkX, chunkY, chunkZ);
+        cachedChunks[slot] = chunk;
+        cachedChunkPositions[3 * slot] = chunkX;
+        cachedChunkPositions[3 * slot + 1] = chunkY;
+        cachedChunkPositions[3 * slot + 2] = chunkZ;
+        return chunk;
+    }
+}
@@ -15,75 +15,28 @@
  */
 package org.terasology.physics.engine;
 
-import com.bulletphysics.collision.shapes.CollisionShape;
-import com.bulletphysics.collision.shapes.voxel.VoxelInfo;
-import com.bulletphysics.collision.shapes.voxel.VoxelPhysicsWorld;
-
-import org.terasology.math.VecMath;
-import org.terasology.math.Vector3i;
-import org.terasology.math.geom.Vector3f;
 import org.terasology.world.WorldProvider;
 import org.terasology.world.block.Block;
+import org.terasology.world.chunks.ChunkProvider;
 
 /**
  * @author Immortius
  */
-public class PhysicsLiquidWrapper implements VoxelPhysicsWorld {
-    private WorldProvider world;
+public class PhysicsLiquidWrapper extends BlockVoxelWorld {
 
     public PhysicsLiquidWrapper(WorldProvider world) {
-        this.world = world;
-    }
-
-    @Override
-    public VoxelInfo getCollisionShapeAt(int x, int y, int z) {
-        Block block = world.getBlock(x, y, z);
-        return new LiquidVoxelInfo(block, new Vector3i(x, y, z));
+        super(world);
     }
 
-    public void dispose() {
-        world = null;
+    /**
+     * Reads blocks directly from the chunks of the given provider. Blocks in unavailable chunks are treated as air.
+     */
+    public PhysicsLiquidWrapper(ChunkProvider chunkProvider) {
+        super(chunkProvider);
     }
 
-    private static class LiquidVoxelInfo implements VoxelInfo {
-
-        private boolean colliding;
-        private boolean blocking;
-        private CollisionShape shape;
-        private Vector3i position;
-        private Vector3f offset;
-
-        public LiquidVoxelInfo(Block block, Vector3i position) {
-            this.shape = block.getCollisionShape();
-            this.offset = block.getCollisionOffset();
-            this.colliding = block.isLiquid();
-            this.blocking = false;
-            this.position = position;
-        }
-
-        @Override
-        public boolean isColliding() {
-            return colliding;
-        }
-
-        @Override
-        public Object getUserData() {
-            return position;
-        }
-
-        @Override
-        public CollisionShape getCollisionShape() {
-            return shape;
-        }
-
-        @Override
-        public javax.vecmath.Vector3f getCollisionOffset() {
-            return VecMath.to(offset);
-        }
-
-        @Override
-        public boolean isBlocking() {
-            return blocking;
-        }
+    @Override
+    protected BlockVoxelInfo createBlockInfo(Block block) {
+        return new BlockVoxelInfo(block, block.isLiquid(), false);
     }
 }
@@ -16,78 +16,31 @@
 
 package org.terasology.physics.engine;
 
-import com.bulletphysics.collision.shapes.CollisionShape;
-import com.bulletphysics.collision.shapes.voxel.VoxelInfo;
-import com.bulletphysics.collision.shapes.voxel.VoxelPhysicsWorld;
-
-import org.terasology.math.VecMath;
-import org.terasology.math.Vector3i;
-import org.terasology.math.geom.Vector3f;
 import org.terasology.world.WorldProvider;
 import org.terasology.world.block.Block;
+import org.terasology.world.chunks.ChunkProvider;
 
 /**
  * This class links Terasology's voxel world with the physics engine, providing it with the collision information for each block location.
  *
  * @author Immortius
  */
-public class PhysicsWorldWrapper implements VoxelPhysicsWorld {
-
-    private WorldProvider world;
+public class PhysicsWorldWrapper extends BlockVoxelWorld {
 
     public PhysicsWorldWrapper(WorldProvider world) {
-        this.world = world;
+        super(world);
     }
 
-    @Override
-    public VoxelInfo getCollisionShapeAt(int x, int y, int z) {
-        Block block = world.getBlock(x, y, z);
-        return new TeraVoxelInfo(block, block.isTargetable(), !block.isPenetrable(), new Vector3i(x, y, z));
+    /**
+     * Reads blocks directly from the chunks of the given provider. Blocks in unavailable chunks are treated as air.
+     */
+    public PhysicsWorldWrapper(ChunkProvider chunkProvider) {
+        super(chunkProvider);
     }
 
-    public void dispose() {
-        world = null;
-    }
-
-    private static class TeraVoxelInfo implements VoxelInfo {
-
-        private boolean colliding;
-        private boolean blocking;
-        private CollisionShape shape;
-        private Vector3i position;
-        private Vector3f offset;
-
-        public TeraVoxelInfo(Block block, boolean colliding, boolean blocking, Vector3i position) {
-            this.shape = block.getCollisionShape();
-            this.offset = block.getCollisionOffset();
-            this.colliding = shape != null && colliding;
-            this.blocking = shape != null && blocking;
-            this.position = position;
-        }
-
-        @Override
-        public boolean isColliding() {
-            return colliding;
-        }
-
-        @Override
-        public Object getUserData() {
-            return position;
-        }
-
-        @Override
-        public CollisionShape getCollisionShape() {
-            return shape;
-        }
-
-        @Override
-        public javax.vecmath.Vector3f getCollisionOffset() {
-            return VecMath.to(offset);
-        }
-
-        @Override
-        public boolean isBlocking() {
-            return blocking;
-        }
+    @Override
+    protected BlockVoxelInfo createBlockInfo(Block block) {
+        boolean hasShape = block.getCollisionShape() != null;
+        return new BlockVoxelInfo(block, hasShape && block.isTargetable(), hasShape && !block.isPenetrable());
     }
 }
@@ -0,0 +1,68 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.physics.engine;
+
+import com.bulletphysics.collision.shapes.CollisionShape;
+import com.bulletphysics.collision.shapes.voxel.VoxelInfo;
+import org.terasology.math.Vector3i;
+
+/**
+ * A colliding voxel. The block position is reported as user data, so that ray and sweep results can identify the
+ * block that was hit; it is only created when asked for.
+ */
+final class PositionedVoxelInfo implements VoxelInfo {
+
+    private final BlockVoxelInfo blockInfo;
+    private final int x;
+    private final int y;
+    private final int z;
+    private Vector3i position;
+
+    PositionedVoxelInfo(BlockVoxelInfo blockInfo, int x, int y, int z) {
+        this.blockInfo = blockInfo;
+        this.x = x;
+        this.y = y;
+        this.z = z;
+    }
+
+    @Override
+    public boolean isColliding() {
+        return blockInfo.isColliding();
+    }
+
+    @Override
+    public Object getUserData() {
+        if (position == null) {
+            position = new Vector3i(x, y, z);
+        }
+        return position;
+    }
+
+    @Override
+    public CollisionShape getCollisionShape() {
+        return blockInfo.getCollisionShape();
+    }
+
+    @Override
+    public javax.vecmath.Vector3f getCollisionOffset() {
+        return blockInfo.getCollisionOffset();
+    }
+
+    @Override
+    public boolean isBlocking() {
+        return blockInfo.isBlocking();
+    }
+}
@@ -57,6 +57,9 @@
     private final SimpleUri uri;
     private final Class<T> clazz;
     private final ObjectConstructor<T> constructor;
+    private final ReflectFactory reflectFactory;
+    private volatile boolean copyStrategyCreated;
+    private CopyStrategy<T> generatedCopyStrategy;
     private Map<String, FIELD> fields = Maps.newHashMap();
     private TIntObjectMap<FIELD> fieldsById = new TIntObjectHashMap<>();
 
@@ -83,6 +86,7 @@ public ClassMetadata(SimpleUri uri, Class<T> type, ReflectFactory factory, CopyS
             this.constructor = null;
         }
 
+        this.reflectFactory = factory;
         addFields(copyStrategyLibrary, factory, includedFieldPredicate);
     }
 
@@ -172,6 +176,10 @@ public T newInstance() {
      * @return A copy of the given object
      */
     public T copy(T object) {
+        CopyStrategy<T> copyStrategy = getGeneratedCopyStrategy();
+        if (copyStrategy != null) {
+            return copyStrategy.copy(object);
+        }
         T result = constructor.construct();
         if (result != null) {
             for (FieldMetadata field : fields.values()) {
@@ -181,6 +189,24 @@ public T copy(T object) {
         return result;
     }
 
+    /**
+     * The copy strategy is generated on first use rather than in the constructor, so that the factory only ever sees
+     * fully constructed metadata, including any state added by subclasses.
+     *
+     * @return The generated copy strategy, or null if copies are made field by field
+     */
+    private CopyStrategy<T> getGeneratedCopyStrategy() {
+        if (!copyStrategyCreated) {
+            synchronized (this) {
+                if (!copyStrategyCreated) {
+                    generatedCopyStrategy = (constructor != null) ? reflectFactory.createCopyStrategy(this) : null;
+                    copyStrategyCreated = true;
+                }
+            }
+        }
+        return generatedCopyStrategy;
+    }
+
     /**
      * This method is for use in situations where metadata is being used generically and the actual type of the value cannot be
      *
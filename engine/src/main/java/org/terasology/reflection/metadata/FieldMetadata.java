@@ -111,6 +111,13 @@ public Class<U> getType() {
         return type;
     }
 
+    /**
+     * @return The strategy used to copy values of this field
+     */
+    public CopyStrategy<U> getCopyStrategy() {
+        return copyStrategy;
+    }
+
     /**
      * @return The assigned id for this field, if any
      */
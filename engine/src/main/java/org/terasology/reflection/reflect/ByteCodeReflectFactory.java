@@ -17,20 +17,26 @@
 
 import com.esotericsoftware.reflectasm.FieldAccess;
 import com.esotericsoftware.reflectasm.MethodAccess;
+import com.google.common.collect.Lists;
 import javassist.CannotCompileException;
 import javassist.ClassPool;
 import javassist.CtClass;
+import javassist.CtField;
 import javassist.CtMethod;
 import javassist.CtNewMethod;
 import javassist.NotFoundException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.reflection.copy.CopyStrategy;
+import org.terasology.reflection.metadata.ClassMetadata;
+import org.terasology.reflection.metadata.FieldMetadata;
 import org.terasology.utilities.ReflectionUtil;
 
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.lang.reflect.Modifier;
+import java.util.List;
 
 /**
  * @author Immortius
@@ -40,6 +46,7 @@ public class ByteCodeReflectFactory implements ReflectFactory {
 
     private ClassPool pool;
     private CtClass objectConstructorInterface;
+    private CtClass copyStrategyInterface;
 
     private ReflectFactory backupFactory = new ReflectionReflectFactory();
 
@@ -48,6 +55,7 @@ public ByteCodeReflectFactory() {
             ClassPool.doPruning = true;
             pool = ClassPool.getDefault();
             objectConstructorInterface = pool.get(ObjectConstructor.class.getName());
+            copyStrategyInterface = pool.get(CopyStrategy.class.getName());
         } catch (NotFoundException e) {
             throw new RuntimeException("Error establishing reflection factory", e);
         }
@@ -99,6 +107,123 @@ public <T, U> FieldAccessor<T, U> createFieldAccessor(Class<T> ownerType, Field
         }
     }
 
+    /**
+     * Generates a class that copies instances of the described class with direct field and getter/setter access. Fields
+     * with a primitive type are assigned directly, all other fields are copied through their field's copy strategy.
+     * <p>
+     * Classes that are not public, have no public default constructor, or have fields that are neither public nor
+     * accessible via public getter and setter are not supported.
+     */
+    @Override
+    public <T> CopyStrategy<T> createCopyStrategy(ClassMetadata<T, ?> classMetadata) {
+        Class<T> type = classMetadata.getType();
+        if (!isGeneratedCopySupported(type)) {
+            return null;
+        }
+
+        List<FieldMetadata<T, ?>> fields = Lists.newArrayList();
+        StringBuilder signature = new StringBuilder();
+        for (FieldMetadata<T, ?> field : classMetadata.getFields()) {
+            fields.add(field);
+            signature.append(field.getField().getDeclaringClass().getName()).append('.').append(field.getName()).append(';');
+        }
+        CopyStrategy<?>[] fieldStrategies = new CopyStrategy<?>[fields.size()];
+        for (int i = 0; i < fields.size(); ++i) {
+            fieldStrategies[i] = fields.get(i).getCopyStrategy();
+        }
+
+        String copierClassName = type.getName() + "_CopyStrategy_" + Integer.toHexString(signature.toString().hashCode());
+        try {
+            Class<?> copierClass;
+            try {
+                copierClass = type.getClassLoader().loadClass(copierClassName);
+            } catch (ClassNotFoundException ignored) {
+                String body = createCopyMethodBody(type, fields);
+                if (body == null) {
+                    return null;
+                }
+                CtClass copierCtClass = pool.makeClass(copierClassName);
+                copierCtClass.setInterfaces(new CtClass[]{copyStrategyInterface});
+                copierCtClass.addField(CtField.make("public " + CopyStrategy.class.getName() + "[] strategies;", copierCtClass));
+                copierCtClass.addMethod(CtNewMethod.make(body, copierCtClass));
+                copierClass = copierCtClass.toClass(type.getClassLoader(), type.getProtectionDomain());
+            }
+            Object copier = copierClass.getConstructor().newInstance();
+            copierClass.getField("strategies").set(copier, fieldStrategies);
+            return (CopyStrategy<T>) copier;
+        } catch (CannotCompileException | InstantiationException | IllegalAccessException | InvocationTargetException
+                | NoSuchMethodException | NoSuchFieldException | LinkageError e) {
+            logger.warn("Failed to generate copy strategy for '{}', falling back on field by field copying", type, e);
+            return null;
+        }
+    }
+
+    private boolean isGeneratedCopySupported(Class<?> type) {
+        if (!Modifier.isPublic(type.getModifiers()) || Modifier.isAbstract(type.getModifiers()) || type.isInterface()
+                || type.getClassLoader() == null || (type.isMemberClass() && !Modifier.isStatic(type.getModifiers()))) {
+            return false;
+        }
+        try {
+            type.getConstructor();
+            return true;
+        } catch (NoSuchMethodException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return The source of the generated copy method, or null if any field cannot be accessed from generated code
+     */
+    private <T> String createCopyMethodBody(Class<T> type, List<FieldMetadata<T, ?>> fields) {
+        String typeName = getSourceName(type);
+        StringBuilder body = new StringBuilder();
+        body.append("public Object copy(Object value) {");
+        body.append("if (value == null) { return null; }");
+        body.append(typeName).append(" source = (").append(typeName).append(") value;");
+        body.append(typeName).append(" result = new ").append(typeName).append("();");
+        for (int i = 0; i < fields.size(); ++i) {
+            FieldMetadata<T, ?> fieldMetadata = fields.get(i);
+            Field field = fieldMetadata.getField();
+            Class<?> fieldType = fieldMetadata.getType();
+            Method getter = ReflectionUtil.findGetter(field.getName(), field.getDeclaringClass(), fieldType);
+            Method setter = ReflectionUtil.findSetter(field.getName(), field.getDeclaringClass(), fieldType);
+
+            String read;
+            String writePrefix;
+            String writeSuffix;
+            if (getter != null && setter != null && Modifier.isPublic(getter.getModifiers()) && Modifier.isPublic(setter.getModifiers())) {
+                read = "source." + getter.getName() + "()";
+                writePrefix = "result." + setter.getName() + "(";
+                writeSuffix = ");";
+            } else if (Modifier.isPublic(field.getModifiers()) && !Modifier.isFinal(field.getModifiers())
+                    && Modifier.isPublic(field.getDeclaringClass().getModifiers())) {
+                read = "source." + field.getName();
+                writePrefix = "result." + field.getName() + " = ";
+                writeSuffix = ";";
+            } else {
+                logger.debug("Field '{}' of '{}' is not accessible, not generating copy strategy", field.getName(), type);
+                return null;
+            }
+
+            body.append(writePrefix);
+            if (fieldType.isPrimitive()) {
+                body.append(read);
+            } else {
+                body.append("(").append(getSourceName(fieldType)).append(") strategies[").append(i).append("].copy(").append(read).append(")");
+            }
+            body.append(writeSuffix);
+        }
+        body.append("return result;}");
+        return body.toString();
+    }
+
+    private static String getSourceName(Class<?> type) {
+        if (type.isArray()) {
+            return getSourceName(type.getComponentType()) + "[]";
+        }
+        return type.getName();
+    }
+
     public void setClassPool(ClassPool classPool) {
         pool = classPool;
     }
@@ -15,6 +15,9 @@
  */
 package org.terasology.reflection.reflect;
 
+import org.terasology.reflection.copy.CopyStrategy;
+import org.terasology.reflection.metadata.ClassMetadata;
+
 import java.lang.reflect.Field;
 
 /**
@@ -29,4 +32,13 @@ public interface ReflectFactory {
     <T> FieldAccessor<T, ?> createFieldAccessor(Class<T> ownerType, Field field) throws InaccessibleFieldException;
 
     <T, U> FieldAccessor<T, U> createFieldAccessor(Class<T> ownerType, Field field, Class<U> fieldType) throws InaccessibleFieldException;
+
+    /**
+     * Creates a copy strategy specialised for the described class, copying all of its fields (using their copy strategies)
+     * into a new instance without going through field accessors.
+     *
+     * @param classMetadata The metadata of the class to copy
+     * @return A specialised copy strategy, or null if the factory cannot provide one - in which case the class should be copied field by field
+     */
+    <T> CopyStrategy<T> createCopyStrategy(ClassMetadata<T, ?> classMetadata);
 }
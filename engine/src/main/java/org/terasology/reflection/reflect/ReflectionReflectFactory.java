@@ -17,6 +17,8 @@
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.terasology.reflection.copy.CopyStrategy;
+import org.terasology.reflection.metadata.ClassMetadata;
 import org.terasology.utilities.ReflectionUtil;
 
 import java.lang.reflect.Constructor;
@@ -58,6 +60,11 @@ public <T, U> FieldAccessor<T, U> createFieldAccessor(Class<T> ownerType, Field
         return new ReflectionFieldAccessor<>(field, fieldType);
     }
 
+    @Override
+    public <T> CopyStrategy<T> createCopyStrategy(ClassMetadata<T, ?> classMetadata) {
+        return null;
+    }
+
     /**
      * ObjectConstructor using a Java Constructor instance to construct the object
      *
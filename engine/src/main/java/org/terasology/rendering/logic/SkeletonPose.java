@@ -0,0 +1,380 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.logic;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.geom.Quat4f;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.rendering.assets.animation.MeshAnimation;
+import org.terasology.rendering.assets.animation.MeshAnimationFrame;
+import org.terasology.rendering.assets.skeletalmesh.Bone;
+import org.terasology.rendering.assets.skeletalmesh.SkeletalMesh;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The current pose of a skeletal mesh, with the local and model space transform of each bone stored in flat float
+ * arrays in the order of {@link SkeletalMesh#getBones()}.
+ * <p/>
+ * Animation frames are interpolated straight into the arrays, so animating a skeleton neither allocates nor touches the
+ * bone entities. The bone entities are only brought up to date by {@link #syncBoneEntities(Map)}.
+ * <p/>
+ * A pose may be interpolated on any thread, but not by several threads at once.
+ */
+public final class SkeletonPose {
+    private static final float SLERP_EPSILON = 0.000001f;
+
+    private final SkeletalMesh mesh;
+    private final String[] boneNames;
+    private final int[] parents;
+    private final int[] childBoneCounts;
+    /**
+     * Bone indices ordered so that each bone comes after its parent.
+     */
+    private final int[] evaluationOrder;
+
+    private final float[] localPositions;
+    private final float[] localRotations;
+    private final float[] modelPositions;
+    private final float[] modelRotations;
+
+    private MeshAnimation mappedAnimation;
+    private int[] animationBones = new int[0];
+
+    private MeshAnimationFrame pendingFrameA;
+    private MeshAnimationFrame pendingFrameB;
+    private float pendingInterpolation;
+
+    private boolean boneEntitiesStale;
+
+    private final List<Vector3f> renderPositions;
+    private final List<Quat4f> renderRotations;
+
+    public SkeletonPose(SkeletalMesh mesh) {
+        this.mesh = mesh;
+        List<Bone> bones = Lists.newArrayList(mesh.getBones());
+        int boneCount = bones.size();
+        Map<Bone, Integer> indices = Maps.newHashMap();
+        for (int i = 0; i < boneCount; ++i) {
+            indices.put(bones.get(i), i);
+        }
+
+        boneNames = new String[boneCount];
+        parents = new int[boneCount];
+        childBoneCounts = new int[boneCount];
+        localPositions = new float[3 * boneCount];
+        localRotations = new float[4 * boneCount];
+        modelPositions = new float[3 * boneCount];
+        modelRotations = new float[4 * boneCount];
+        renderPositions = Lists.newArrayListWithCapacity(boneCount);
+        renderRotations = Lists.newArrayListWithCapacity(boneCount);
+
+        for (int i = 0; i < boneCount; ++i) {
+            Bone bone = bones.get(i);
+            boneNames[i] = bone.getName();
+            Integer parent = (bone.getParent() != null) ? indices.get(bone.getParent()) : null;
+            parents[i] = (parent != null) ? parent : -1;
+            childBoneCounts[i] = bone.getChildren().size();
+            setLocalPosition(i, bone.getLocalPosition());
+            setLocalRotation(i, bone.getLocalRotation());
+            renderPositions.add(new Vector3f());
+            renderRotations.add(new Quat4f(0, 0, 0, 1));
+        }
+
+        evaluationOrder = new int[boneCount];
+        int ordered = 0;
+        boolean[] placed = new boolean[boneCount];
+        while (ordered < boneCount) {
+            int placedThisPass = 0;
+            for (int i = 0; i < boneCount; ++i) {
+                if (!placed[i] && (parents[i] == -1 || placed[parents[i]])) {
+                    placed[i] = true;
+                    evaluationOrder[ordered++] = i;
+                    placedThisPass++;
+                }
+            }
+            if (placedThisPass == 0) {
+                throw new IllegalArgumentException("Skeleton of " + mesh + " contains a cycle");
+            }
+        }
+        updateModelSpace();
+    }
+
+    public SkeletalMesh getMesh() {
+        return mesh;
+    }
+
+    public int getBoneCount() {
+        return boneNames.length;
+    }
+
+    public String getBoneName(int bone) {
+        return boneNames[bone];
+    }
+
+    public int getChildBoneCount(int bone) {
+        return childBoneCounts[bone];
+    }
+
+    /**
+     * Sets the frames to interpolate between on the next call to {@link #applyPendingFrames()}. This is split from
+     * applying the frames so that all skeletons can be interpolated together, possibly in parallel.
+     */
+    public void setPendingFrames(MeshAnimation animation, MeshAnimationFrame frameA, MeshAnimationFrame frameB, float interpolation) {
+        if (animation != mappedAnimation) {
+            mapAnimationBones(animation);
+        }
+        pendingFrameA = frameA;
+        pendingFrameB = frameB;
+        pendingInterpolation = interpolation;
+    }
+
+    public boolean hasPendingFrames() {
+        return pendingFrameA != null;
+    }
+
+    /**
+     * Interpolates the pending frames, if any, into the pose.
+     */
+    public void applyPendingFrames() {
+        if (pendingFrameA == null) {
+            return;
+        }
+        interpolate(pendingFrameA, pendingFrameB, pendingInterpolation);
+        pendingFrameA = null;
+        pendingFrameB = null;
+    }
+
+    private void mapAnimationBones(MeshAnimation animation) {
+        Map<String, Integer> boneIndices = Maps.newHashMapWithExpectedSize(boneNames.length);
+        for (int i = 0; i < boneNames.length; ++i) {
+            boneIndices.put(boneNames[i], i);
+        }
+        animationBones = new int[animation.getBoneCount()];
+        for (int i = 0; i < animationBones.length; ++i) {
+            Integer bone = boneIndices.get(animation.getBoneName(i));
+            animationBones[i] = (bone != null) ? bone : -1;
+        }
+        mappedAnimation = animation;
+    }
+
+    private void interpolate(MeshAnimationFrame frameA, MeshAnimationFrame frameB, float t) {
+        for (int i = 0; i < animationBones.length; ++i) {
+            int bone = animationBones[i];
+            if (bone == -1) {
+                continue;
+            }
+            Vector3f posA = frameA.getPosition(i);
+            Vector3f posB = frameB.getPosition(i);
+            int p = 3 * bone;
+            localPositions[p] = posA.x + t * (posB.x - posA.x);
+            localPositions[p + 1] = posA.y + t * (posB.y - posA.y);
+            localPositions[p + 2] = posA.z + t * (posB.z - posA.z);
+            slerp(frameA.getRotation(i), frameB.getRotation(i), t, localRotations, 4 * bone);
+        }
+        updateModelSpace();
+        boneEntitiesStale = true;
+    }
+
+    /**
+     * Spherical interpolation between two rotations, normalized and written into the given array.
+     */
+    private static void slerp(Quat4f a, Quat4f b, float t, float[] out, int offset) {
+        float ax = a.x;
+        float ay = a.y;
+        float az = a.z;
+        float aw = a.w;
+        float dot = ax * b.x + ay * b.y + az * b.z + aw * b.w;
+        if (dot < 0) {
+            ax = -ax;
+            ay = -ay;
+            az = -az;
+            aw = -aw;
+            dot = -dot;
+        }
+        float scaleA;
+        float scaleB;
+        if (1 - dot > SLERP_EPSILON) {
+            double omega = Math.acos(dot);
+            double sinOmega = Math.sin(omega);
+            scaleA = (float) (Math.sin((1 - t) * omega) / sinOmega);
+            scaleB = (float) (Math.sin(t * omega) / sinOmega);
+        } else {
+            scaleA = 1 - t;
+            scaleB = t;
+        }
+        float x = scaleA * ax + scaleB * b.x;
+        float y = scaleA * ay + scaleB * b.y;
+        float z = scaleA * az + scaleB * b.z;
+        float w = scaleA * aw + scaleB * b.w;
+        float length = (float) Math.sqrt(x * x + y * y + z * z + w * w);
+        if (length > 0) {
+            x /= length;
+            y /= length;
+            z /= length;
+            w /= length;
+        }
+        out[offset] = x;
+        out[offset + 1] = y;
+        out[offset + 2] = z;
+        out[offset + 3] = w;
+    }
+
+    /**
+     * Concatenates the local transforms down the hierarchy. Root bones are relative to the skeleton's entity.
+     */
+    private void updateModelSpace() {
+        for (int bone : evaluationOrder) {
+            int p = 3 * bone;
+            int r = 4 * bone;
+            int parent = parents[bone];
+            if (parent == -1) {
+                System.arraycopy(localPositions, p, modelPositions, p, 3);
+                System.arraycopy(localRotations, r, modelRotations, r, 4);
+                continue;
+            }
+            int pp = 3 * parent;
+            int pr = 4 * parent;
+            float qx = modelRotations[pr];
+            float qy = modelRotations[pr + 1];
+            float qz = modelRotations[pr + 2];
+            float qw = modelRotations[pr + 3];
+
+            // Rotate the local position by the parent's rotation: v + 2w(q x v) + 2q x (q x v)
+            float vx = localPositions[p];
+            float vy = localPositions[p + 1];
+            float vz = localPositions[p + 2];
+            float tx = 2 * (qy * vz - qz * vy);
+            float ty = 2 * (qz * vx - qx * vz);
+            float tz = 2 * (qx * vy - qy * vx);
+            modelPositions[p] = modelPositions[pp] + vx + qw * tx + (qy * tz - qz * ty);
+            modelPositions[p + 1] = modelPositions[pp + 1] + vy + qw * ty + (qz * tx - qx * tz);
+            modelPositions[p + 2] = modelPositions[pp + 2] + vz + qw * tz + (qx * ty - qy * tx);
+
+            float bx = localRotations[r];
+            float by = localRotations[r + 1];
+            float bz = localRotations[r + 2];
+            float bw = localRotations[r + 3];
+            modelRotations[r] = qw * bx + qx * bw + qy * bz - qz * by;
+            modelRotations[r + 1] = qw * by - qx * bz + qy * bw + qz * bx;
+            modelRotations[r + 2] = qw * bz + qx * by - qy * bx + qz * bw;
+            modelRotations[r + 3] = qw * bw - qx * bx - qy * by - qz * bz;
+        }
+    }
+
+    private void setLocalPosition(int bone, Vector3f value) {
+        localPositions[3 * bone] = value.x;
+        localPositions[3 * bone + 1] = value.y;
+        localPositions[3 * bone + 2] = value.z;
+    }
+
+    private void setLocalRotation(int bone, Quat4f value) {
+        localRotations[4 * bone] = value.x;
+        localRotations[4 * bone + 1] = value.y;
+        localRotations[4 * bone + 2] = value.z;
+        localRotations[4 * bone + 3] = value.w;
+    }
+
+    public Vector3f getLocalPosition(int bone, Vector3f output) {
+        output.set(localPositions[3 * bone], localPositions[3 * bone + 1], localPositions[3 * bone + 2]);
+        return output;
+    }
+
+    public Quat4f getLocalRotation(int bone, Quat4f output) {
+        output.set(localRotations[4 * bone], localRotations[4 * bone + 1], localRotations[4 * bone + 2], localRotations[4 * bone + 3]);
+        return output;
+    }
+
+    /**
+     * @return The position of the bone relative to the skeleton's entity, ignoring the entity's scale
+     */
+    public Vector3f getModelPosition(int bone, Vector3f output) {
+        output.set(modelPositions[3 * bone], modelPositions[3 * bone + 1], modelPositions[3 * bone + 2]);
+        return output;
+    }
+
+    /**
+     * @return The rotation of the bone relative to the skeleton's entity
+     */
+    public Quat4f getModelRotation(int bone, Quat4f output) {
+        output.set(modelRotations[4 * bone], modelRotations[4 * bone + 1], modelRotations[4 * bone + 2], modelRotations[4 * bone + 3]);
+        return output;
+    }
+
+    /**
+     * Fills the reusable lists passed to the skeletal mesh for rendering: bone positions are scaled and offset, and
+     * rotations are in model space.
+     */
+    void fillRenderTransforms(float scale, Vector3f offset) {
+        for (int i = 0; i < boneNames.length; ++i) {
+            renderPositions.get(i).set(scale * modelPositions[3 * i] + offset.x,
+                    scale * modelPositions[3 * i + 1] + offset.y,
+                    scale * modelPositions[3 * i + 2] + offset.z);
+            getModelRotation(i, renderRotations.get(i));
+        }
+    }
+
+    List<Vector3f> getRenderPositions() {
+        return renderPositions;
+    }
+
+    List<Quat4f> getRenderRotations() {
+        return renderRotations;
+    }
+
+    /**
+     * @return Whether the pose has changed since the bone entities were last synced
+     */
+    public boolean isBoneEntitiesStale() {
+        return boneEntitiesStale;
+    }
+
+    /**
+     * Writes the local transform of each bone into its bone entity's LocationComponent. Bones whose transform did not
+     * change are not saved, so no change events are sent for them.
+     *
+     * @param boneEntities The bone entities by bone name
+     */
+    public void syncBoneEntities(Map<String, EntityRef> boneEntities) {
+        if (!boneEntitiesStale || boneEntities == null) {
+            return;
+        }
+        Vector3f position = new Vector3f();
+        Quat4f rotation = new Quat4f(0, 0, 0, 1);
+        for (int i = 0; i < boneNames.length; ++i) {
+            EntityRef boneEntity = boneEntities.get(boneNames[i]);
+            if (boneEntity == null) {
+                continue;
+            }
+            LocationComponent boneLoc = boneEntity.getComponent(LocationComponent.class);
+            if (boneLoc == null) {
+                continue;
+            }
+            getLocalPosition(i, position);
+            getLocalRotation(i, rotation);
+            if (!position.equals(boneLoc.getLocalPosition()) || !rotation.equals(boneLoc.getLocalRotation())) {
+                boneLoc.setLocalPosition(position);
+                boneLoc.setLocalRotation(rotation);
+                boneEntity.saveComponent(boneLoc);
+            }
+        }
+        boneEntitiesStale = false;
+    }
+}
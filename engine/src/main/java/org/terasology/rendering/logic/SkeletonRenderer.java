@@ -19,6 +19,7 @@
 import org.terasology.math.QuaternionUtil;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 import org.lwjgl.BufferUtils;
 import org.lwjgl.opengl.GL11;
@@ -28,6 +29,7 @@
 import org.terasology.config.Config;
 import org.terasology.entitySystem.entity.EntityManager;
 import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.entity.lifecycleEvents.BeforeDeactivateComponent;
 import org.terasology.entitySystem.entity.lifecycleEvents.OnActivatedComponent;
 import org.terasology.entitySystem.event.ReceiveEvent;
 import org.terasology.entitySystem.systems.BaseComponentSystem;
@@ -38,8 +40,6 @@
 import org.terasology.logic.location.Location;
 import org.terasology.logic.location.LocationComponent;
 import org.terasology.math.MatrixUtils;
-import org.terasology.math.geom.BaseQuat4f;
-import org.terasology.math.geom.BaseVector3f;
 import org.terasology.math.geom.Matrix4f;
 import org.terasology.math.geom.Quat4f;
 import org.terasology.math.geom.Vector3f;
@@ -53,7 +53,13 @@
 
 import java.nio.FloatBuffer;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.lwjgl.opengl.GL11.GL_DEPTH_TEST;
 import static org.lwjgl.opengl.GL11.glBegin;
@@ -72,6 +78,8 @@
 public class SkeletonRenderer extends BaseComponentSystem implements RenderSystem, UpdateSubscriberSystem {
 
     private static final Logger logger = LoggerFactory.getLogger(SkeletonRenderer.class);
+    private static final int MIN_POSES_PER_THREAD = 8;
+    private static final int MAX_POSE_THREADS = 4;
 
     @In
     private EntityManager entityManager;
@@ -84,6 +92,28 @@ public class SkeletonRenderer extends BaseComponentSystem implements RenderSyste
 
     private Random random = new Random();
 
+    private Map<EntityRef, SkeletonPose> poses = Maps.newHashMap();
+    private ExecutorService poseExecutor;
+    private int poseThreads;
+
+    @Override
+    public void initialise() {
+        poseThreads = Math.min(MAX_POSE_THREADS, Runtime.getRuntime().availableProcessors() - 1);
+        if (poseThreads > 0) {
+            poseExecutor = Executors.newFixedThreadPool(poseThreads,
+                    new ThreadFactoryBuilder().setNameFormat("Skeleton-Pose-%d").setDaemon(true).build());
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (poseExecutor != null) {
+            poseExecutor.shutdownNow();
+            poseExecutor = null;
+        }
+        poses.clear();
+    }
+
     @ReceiveEvent(components = {SkeletalMeshComponent.class, LocationComponent.class})
     public void newSkeleton(OnActivatedComponent event, EntityRef entity) {
         SkeletalMeshComponent skeleton = entity.getComponent(SkeletalMeshComponent.class);
@@ -110,26 +140,123 @@ public void newSkeleton(OnActivatedComponent event, EntityRef entity) {
         }
     }
 
+    @ReceiveEvent(components = SkeletalMeshComponent.class)
+    public void removeSkeleton(BeforeDeactivateComponent event, EntityRef entity) {
+        poses.remove(entity);
+    }
+
+    /**
+     * Advances the animation of every skeleton, then interpolates all their poses in one pass. Bone entities are only
+     * synced for skeletons that have other entities attached to their bones.
+     */
     @Override
     public void update(float delta) {
+        List<EntityRef> animatedEntities = Lists.newArrayList();
+        List<SkeletonPose> animatedPoses = Lists.newArrayList();
         for (EntityRef entity : entityManager.getEntitiesWith(SkeletalMeshComponent.class, LocationComponent.class)) {
-            updateSkeletalMeshOfEntity(entity, delta);
+            SkeletonPose pose = updateSkeletalMeshOfEntity(entity, delta);
+            if (pose != null && pose.hasPendingFrames()) {
+                animatedEntities.add(entity);
+                animatedPoses.add(pose);
+            }
+        }
+
+        applyPendingFrames(animatedPoses);
+
+        for (int i = 0; i < animatedEntities.size(); ++i) {
+            SkeletalMeshComponent skeletalMeshComp = animatedEntities.get(i).getComponent(SkeletalMeshComponent.class);
+            SkeletonPose pose = animatedPoses.get(i);
+            if (skeletalMeshComp != null && hasAttachedEntities(skeletalMeshComp, pose)) {
+                pose.syncBoneEntities(skeletalMeshComp.boneEntities);
+            }
+        }
+    }
+
+    private void applyPendingFrames(List<SkeletonPose> pendingPoses) {
+        int threads = Math.min(poseThreads, pendingPoses.size() / MIN_POSES_PER_THREAD);
+        if (poseExecutor != null && threads > 1) {
+            List<Callable<Void>> tasks = Lists.newArrayListWithCapacity(threads);
+            int batchSize = (pendingPoses.size() + threads - 1) / threads;
+            for (int start = 0; start < pendingPoses.size(); start += batchSize) {
+                final List<SkeletonPose> batch = pendingPoses.subList(start, Math.min(start + batchSize, pendingPoses.size()));
+                tasks.add(new Callable<Void>() {
+                    @Override
+                    public Void call() {
+                        for (SkeletonPose pose : batch) {
+                            pose.applyPendingFrames();
+                        }
+                        return null;
+                    }
+                });
+            }
+            try {
+                for (Future<Void> result : poseExecutor.invokeAll(tasks)) {
+                    result.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                logger.error("Failed to interpolate skeleton poses", e.getCause());
+            }
+        }
+        // Picks up any pose that was not interpolated in parallel
+        for (SkeletonPose pose : pendingPoses) {
+            pose.applyPendingFrames();
+        }
+    }
+
+    /**
+     * @return Whether any bone entity has children other than its child bones, whose location depends on the bone
+     */
+    private boolean hasAttachedEntities(SkeletalMeshComponent skeletalMeshComp, SkeletonPose pose) {
+        if (skeletalMeshComp.boneEntities == null) {
+            return false;
+        }
+        for (int i = 0; i < pose.getBoneCount(); ++i) {
+            EntityRef boneEntity = skeletalMeshComp.boneEntities.get(pose.getBoneName(i));
+            if (boneEntity == null) {
+                continue;
+            }
+            LocationComponent boneLoc = boneEntity.getComponent(LocationComponent.class);
+            if (boneLoc != null && boneLoc.getChildren().size() > pose.getChildBoneCount(i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private SkeletonPose getPose(EntityRef entity, SkeletalMeshComponent skeletalMeshComp) {
+        if (skeletalMeshComp.mesh == null) {
+            return null;
         }
+        SkeletonPose pose = poses.get(entity);
+        if (pose == null || pose.getMesh() != skeletalMeshComp.mesh) {
+            pose = new SkeletonPose(skeletalMeshComp.mesh);
+            poses.put(entity, pose);
+        }
+        return pose;
     }
 
-    private void updateSkeletalMeshOfEntity(EntityRef entity, float delta) {
+    /**
+     * @return The pose of the entity's skeleton, with the frames to interpolate pending if it is animated
+     */
+    private SkeletonPose updateSkeletalMeshOfEntity(EntityRef entity, float delta) {
         SkeletalMeshComponent skeletalMeshComp = entity.getComponent(SkeletalMeshComponent.class);
+        SkeletonPose pose = getPose(entity, skeletalMeshComp);
+        if (pose == null) {
+            return null;
+        }
 
         if (skeletalMeshComp.animation == null && skeletalMeshComp.animationPool != null) {
             skeletalMeshComp.animation = randomAnimationData(skeletalMeshComp, random);
         }
 
         if (skeletalMeshComp.animation == null) {
-            return;
+            return pose;
         }
 
         if (skeletalMeshComp.animation.getFrameCount() < 1) {
-            return;
+            return pose;
         }
         skeletalMeshComp.animationTime += delta * skeletalMeshComp.animationRate;
         float animationDuration = getDurationOfAnimation(skeletalMeshComp);
@@ -145,12 +272,15 @@ private void updateSkeletalMeshOfEntity(EntityRef entity, float delta) {
                 MeshAnimation finishedAnimation = skeletalMeshComp.animation;
                 skeletalMeshComp.animationTime = animationDuration;
                 MeshAnimationFrame frame = skeletalMeshComp.animation.getFrame(skeletalMeshComp.animation.getFrameCount() - 1);
-                updateSkeleton(skeletalMeshComp, frame, frame, 1.0f);
+                // The final pose is applied and synced immediately, as the bone entities keep it once animation stops
+                pose.setPendingFrames(skeletalMeshComp.animation, frame, frame, 1.0f);
+                pose.applyPendingFrames();
+                pose.syncBoneEntities(skeletalMeshComp.boneEntities);
                 // Set animation to null so that AnimEndEvent fires only once
                 skeletalMeshComp.animation = null;
                 entity.saveComponent(skeletalMeshComp);
                 entity.send(new AnimEndEvent(finishedAnimation));
-                return;
+                return pose;
             }
             skeletalMeshComp.animationTime -= animationDuration;
             if (skeletalMeshComp.animationTime < 0) {
@@ -169,8 +299,9 @@ private void updateSkeletalMeshOfEntity(EntityRef entity, float delta) {
         }
         MeshAnimationFrame frameA = skeletalMeshComp.animation.getFrame(frameAId);
         MeshAnimationFrame frameB = skeletalMeshComp.animation.getFrame(frameBId);
-        updateSkeleton(skeletalMeshComp, frameA, frameB, framePos - frameAId);
+        pose.setPendingFrames(skeletalMeshComp.animation, frameA, frameB, framePos - frameAId);
         entity.saveComponent(skeletalMeshComp);
+        return pose;
     }
 
 
@@ -190,26 +321,6 @@ private static MeshAnimation randomAnimationData(SkeletalMeshComponent skeletalM
         return animationPool.get(random.nextInt(animationPool.size()));
     }
 
-    private void updateSkeleton(SkeletalMeshComponent skeletalMeshComp, MeshAnimationFrame frameA, MeshAnimationFrame frameB, float interpolationVal) {
-
-        for (int i = 0; i < skeletalMeshComp.animation.getBoneCount(); ++i) {
-            EntityRef boneEntity = skeletalMeshComp.boneEntities.get(skeletalMeshComp.animation.getBoneName(i));
-            if (boneEntity == null) {
-                continue;
-            }
-            LocationComponent boneLoc = boneEntity.getComponent(LocationComponent.class);
-            if (boneLoc != null) {
-
-                Vector3f newPos = BaseVector3f.lerp(frameA.getPosition(i), frameB.getPosition(i), interpolationVal);
-                boneLoc.setLocalPosition(newPos);
-                Quat4f newRot = BaseQuat4f.interpolate(frameA.getRotation(i), frameB.getRotation(i), interpolationVal);
-                newRot.normalize();
-                boneLoc.setLocalRotation(newRot);
-                boneEntity.saveComponent(boneLoc);
-            }
-        }
-    }
-
     @Override
     public void renderOpaque() {
         Vector3f cameraPosition = worldRenderer.getActiveCamera().getPosition();
@@ -217,6 +328,7 @@ public void renderOpaque() {
         Quat4f worldRot = new Quat4f();
         Vector3f worldPos = new Vector3f();
         Quat4f inverseWorldRot = new Quat4f();
+        Vector3f heightOffset = new Vector3f();
 
         FloatBuffer tempMatrixBuffer44 = BufferUtils.createFloatBuffer(16);
         FloatBuffer tempMatrixBuffer33 = BufferUtils.createFloatBuffer(12);
@@ -259,30 +371,13 @@ public void renderOpaque() {
             skeletalMesh.material.setFloat("blockLight", worldRenderer.getBlockLightValueAt(worldPos), true);
 
             // TODO: Add frustum culling here
-            List<Vector3f> bonePositions = Lists.newArrayListWithCapacity(skeletalMesh.mesh.getVertexCount());
-            List<Quat4f> boneRotations = Lists.newArrayListWithCapacity(skeletalMesh.mesh.getVertexCount());
-            for (Bone bone : skeletalMesh.mesh.getBones()) {
-                EntityRef boneEntity = skeletalMesh.boneEntities.get(bone.getName());
-                if (boneEntity == null) {
-                    boneEntity = EntityRef.NULL;
-                }
-                LocationComponent boneLocation = boneEntity.getComponent(LocationComponent.class);
-                if (boneLocation != null) {
-                    Vector3f pos = boneLocation.getWorldPosition();
-                    pos.sub(worldPos);
-                    QuaternionUtil.quatRotate(inverseWorldRot, pos, pos);
-                    bonePositions.add(pos);
-                    Quat4f rot = new Quat4f(inverseWorldRot);
-                    rot.mul(boneLocation.getWorldRotation());
-                    boneRotations.add(rot);
-                } else {
-                    logger.warn("Unable to resolve bone \"{}\"", bone.getName());
-                    bonePositions.add(new Vector3f());
-                    boneRotations.add(new Quat4f());
-                }
-            }
+            // Bone transforms relative to the lowered entity position, in the entity's rotated frame
+            SkeletonPose pose = getPose(entity, skeletalMesh);
+            heightOffset.set(0, skeletalMesh.heightOffset, 0);
+            QuaternionUtil.quatRotate(inverseWorldRot, heightOffset, heightOffset);
+            pose.fillRenderTransforms(worldScale, heightOffset);
             ((OpenGLSkeletalMesh) skeletalMesh.mesh).setScaleTranslate(skeletalMesh.scale, skeletalMesh.translate);
-            ((OpenGLSkeletalMesh) skeletalMesh.mesh).render(bonePositions, boneRotations);
+            ((OpenGLSkeletalMesh) skeletalMesh.mesh).render(pose.getRenderPositions(), pose.getRenderRotations());
         }
     }
 
@@ -326,6 +421,10 @@ public void renderOverlay() {
                 material.setMatrix3("normalMatrix", tempMatrixBuffer33, true);
 
                 SkeletalMeshComponent skeletalMesh = entity.getComponent(SkeletalMeshComponent.class);
+                SkeletonPose pose = poses.get(entity);
+                if (pose != null) {
+                    pose.syncBoneEntities(skeletalMesh.boneEntities);
+                }
                 renderBone(skeletalMesh.rootBone, worldPos);
             }
             glEnable(GL_DEPTH_TEST);
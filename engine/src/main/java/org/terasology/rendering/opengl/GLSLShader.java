@@ -37,6 +37,7 @@
 import org.terasology.rendering.assets.shader.ShaderData;
 import org.terasology.rendering.assets.shader.ShaderParameterMetadata;
 import org.terasology.rendering.assets.shader.ShaderProgramFeature;
+import org.terasology.rendering.primitives.ChunkMesh;
 import org.terasology.rendering.primitives.ChunkVertexFlag;
 import org.terasology.rendering.shader.ShaderParametersSSAO;
 import org.terasology.rendering.world.WorldRenderer;
@@ -186,6 +187,8 @@ private static StringBuilder createShaderBuilder() {
         preProcessorPreamble += "#define SSAO_NOISE_SIZE " + ShaderParametersSSAO.SSAO_NOISE_SIZE + "\n";
         // TODO: This shouldn't be hardcoded
         preProcessorPreamble += "#define TEXTURE_OFFSET_EFFECTS " + 0.0625f + "\n";
+        preProcessorPreamble += "#define TILED_TEXCOORD_RANGE " + ChunkMesh.TILED_TEXCOORD_RANGE + "\n";
+        preProcessorPreamble += "#define TILED_TEXCOORD_BORDER " + ChunkMesh.TILED_TEXCOORD_BORDER + "\n";
 
         Config config = CoreRegistry.get(Config.class);
         StringBuilder builder = new StringBuilder().append(preProcessorPreamble);
@@ -84,6 +84,17 @@ public enum RenderPhase {
     public static final int SIZE_COLOR = 1;
     public static final int SIZE_NORMAL = 3;
 
+    /**
+     * Texture coordinates of {@link ChunkVertexFlag#TILED} vertices address a repeating texture tile: the integral part
+     * of a coordinate divided by this range selects the tile in the atlas, the remainder (offset by half the range)
+     * is the position within the repeated tile.
+     */
+    public static final float TILED_TEXCOORD_RANGE = 256f;
+    /**
+     * The fraction of a tile left out on each side when sampling a tiled face, matching the inset of block mesh parts.
+     */
+    public static final float TILED_TEXCOORD_BORDER = 1f / 128f;
+
     private static final int OFFSET_VERTEX = 0;
     private static final int OFFSET_TEX_0 = OFFSET_VERTEX + SIZE_VERTEX * 4;
     private static final int OFFSET_TEX_1 = OFFSET_TEX_0 + SIZE_TEX0 * 4;
@@ -21,6 +21,8 @@
 import gnu.trove.iterator.TIntIterator;
 
 import org.lwjgl.BufferUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.terasology.engine.subsystem.lwjgl.GLBufferPool;
 import org.terasology.math.Direction;
 import org.terasology.math.Side;
@@ -29,12 +31,15 @@
 import org.terasology.math.geom.Vector3f;
 import org.terasology.math.geom.Vector4f;
 import org.terasology.monitoring.PerformanceMonitor;
+import org.terasology.registry.CoreRegistry;
 import org.terasology.rendering.RenderMath;
 import org.terasology.world.ChunkView;
 import org.terasology.world.biomes.Biome;
 import org.terasology.world.block.Block;
 import org.terasology.world.block.BlockAppearance;
 import org.terasology.world.block.BlockPart;
+import org.terasology.world.block.loader.WorldAtlas;
+import org.terasology.world.block.shapes.BlockMeshPart;
 import org.terasology.world.chunks.ChunkConstants;
 
 import java.util.Map;
@@ -47,38 +52,75 @@
  */
 public final class ChunkTessellator {
 
+    private static final Logger logger = LoggerFactory.getLogger(ChunkTessellator.class);
+
+    private static final Side[] SIDES = Side.values();
+
     private static int statVertexArrayUpdateCount;
 
     private GLBufferPool bufferPool;
+    private float greedyTileSize;
 
     public ChunkTessellator(GLBufferPool bufferPool) {
+        this(bufferPool, false);
+    }
+
+    /**
+     * @param greedyMeshing Whether coplanar faces of cube shaped blocks with the same texture and lighting are merged
+     *                      into larger quads, see {@link GreedyFaceMerger}
+     */
+    public ChunkTessellator(GLBufferPool bufferPool, boolean greedyMeshing) {
         this.bufferPool = bufferPool;
+        if (greedyMeshing) {
+            WorldAtlas atlas = CoreRegistry.get(WorldAtlas.class);
+            if (atlas != null && atlas.getRelativeTileSize() > 0) {
+                greedyTileSize = atlas.getRelativeTileSize();
+            } else {
+                logger.warn("Greedy meshing requires a block atlas with a known tile size - falling back to per face meshes");
+            }
+        }
     }
 
     public ChunkMesh generateMesh(ChunkView chunkView, int meshHeight, int verticalOffset) {
         PerformanceMonitor.startActivity("GenerateMesh");
         ChunkMesh mesh = new ChunkMesh(bufferPool);
+        TessellationBuffers buffers = new TessellationBuffers();
+        GreedyFaceMerger merger = (greedyTileSize > 0) ? new GreedyFaceMerger(greedyTileSize, verticalOffset, meshHeight) : null;
 
         final Stopwatch watch = Stopwatch.createStarted();
 
+        LayerVisibility[] layers = new LayerVisibility[meshHeight];
+        for (int i = 0; i < meshHeight; i++) {
+            layers[i] = classifyLayer(chunkView, verticalOffset + i, buffers);
+        }
+
         for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
             for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
+                boolean chunkEdge = x == 0 || z == 0 || x == ChunkConstants.SIZE_X - 1 || z == ChunkConstants.SIZE_Z - 1;
                 for (int y = verticalOffset; y < verticalOffset + meshHeight; y++) {
-                    Biome biome = chunkView.getBiome(x, y, z);
+                    LayerVisibility layer = layers[y - verticalOffset];
+                    if (layer == LayerVisibility.EMPTY || layer == LayerVisibility.OCCLUDED
+                            || (layer == LayerVisibility.OCCLUDED_INSIDE && !chunkEdge)) {
+                        continue;
+                    }
 
                     Block block = chunkView.getBlock(x, y, z);
                     if (block != null && !block.isInvisible()) {
-                        generateBlockVertices(chunkView, mesh, x, y, z, biome);
+                        Biome biome = chunkView.getBiome(x, y, z);
+                        generateBlockVertices(chunkView, mesh, x, y, z, biome, buffers, merger);
                     }
                 }
             }
         }
+        if (merger != null) {
+            merger.appendTo(mesh);
+        }
         watch.stop();
 
         mesh.setTimeToGenerateBlockVertices((int) watch.elapsed(TimeUnit.MILLISECONDS));
 
         watch.reset().start();
-        generateOptimizedBuffers(chunkView, mesh);
+        generateOptimizedBuffers(chunkView, mesh, buffers);
         watch.stop();
         mesh.setTimeToGenerateOptimizedBuffers((int) watch.elapsed(TimeUnit.MILLISECONDS));
         statVertexArrayUpdateCount++;
@@ -87,9 +129,54 @@ public ChunkMesh generateMesh(ChunkView chunkView, int meshHeight, int verticalO
         return mesh;
     }
 
-    private void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh) {
+    /**
+     * Determines from the chunk's block storage, without examining single blocks, whether a layer of the chunk
+     * contributes any faces.
+     */
+    private LayerVisibility classifyLayer(ChunkView view, int y, TessellationBuffers buffers) {
+        if (!view.isUniformBlockLayer(0, y, 0)) {
+            return LayerVisibility.MIXED;
+        }
+        Block block = view.getBlock(0, y, 0);
+        if (block.isInvisible()) {
+            return LayerVisibility.EMPTY;
+        }
+        if (!isOccludedBySameBlocks(block, buffers)
+                || !isUniformLayerOf(view, 0, y - 1, 0, block) || !isUniformLayerOf(view, 0, y + 1, 0, block)) {
+            return LayerVisibility.MIXED;
+        }
+        if (isUniformLayerOf(view, -1, y, 0, block) && isUniformLayerOf(view, ChunkConstants.SIZE_X, y, 0, block)
+                && isUniformLayerOf(view, 0, y, -1, block) && isUniformLayerOf(view, 0, y, ChunkConstants.SIZE_Z, block)) {
+            return LayerVisibility.OCCLUDED;
+        }
+        return LayerVisibility.OCCLUDED_INSIDE;
+    }
+
+    private boolean isUniformLayerOf(ChunkView view, int x, int y, int z, Block block) {
+        return view.isUniformBlockLayer(x, y, z) && view.getBlock(x, y, z) == block;
+    }
+
+    /**
+     * @return Whether a block surrounded by blocks of the same type has no visible parts
+     */
+    private boolean isOccludedBySameBlocks(Block block, TessellationBuffers buffers) {
+        if (block.isLiquid()) {
+            return false;
+        }
+        for (Side side : SIDES) {
+            if (!block.isFullSide(side)) {
+                return false;
+            }
+            buffers.adjacentBlocks.put(side, block);
+        }
+        // Full sides are never visible next to the same block, but parts in the center are
+        return block.getAppearance(buffers.adjacentBlocks).getPart(BlockPart.CENTER) == null;
+    }
+
+    private void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh, TessellationBuffers buffers) {
         PerformanceMonitor.startActivity("OptimizeBuffers");
 
+        float[] result = buffers.lightingResult;
         for (ChunkMesh.RenderType type : ChunkMesh.RenderType.values()) {
             ChunkMesh.VertexElements elements = mesh.getVertexElements(type);
             // Vertices double to account for light info
@@ -106,15 +193,14 @@ private void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh) {
             int cColor = 0;
             int cFlags = 0;
             for (int i = 0; i < elements.vertices.size(); i += 3, cTex += 2, cColor += 4, cFlags++) {
-                Vector3f vertexPos = new Vector3f(
-                        elements.vertices.get(i),
-                        elements.vertices.get(i + 1),
-                        elements.vertices.get(i + 2));
+                float vertexX = elements.vertices.get(i);
+                float vertexY = elements.vertices.get(i + 1);
+                float vertexZ = elements.vertices.get(i + 2);
 
                 /* POSITION */
-                elements.finalVertices.put(Float.floatToIntBits(vertexPos.x));
-                elements.finalVertices.put(Float.floatToIntBits(vertexPos.y));
-                elements.finalVertices.put(Float.floatToIntBits(vertexPos.z));
+                elements.finalVertices.put(Float.floatToIntBits(vertexX));
+                elements.finalVertices.put(Float.floatToIntBits(vertexY));
+                elements.finalVertices.put(Float.floatToIntBits(vertexZ));
 
                 /* UV0 - TEX DATA 0 */
                 elements.finalVertices.put(Float.floatToIntBits(elements.tex.get(cTex)));
@@ -123,9 +209,10 @@ private void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh) {
                 /* FLAGS */
                 elements.finalVertices.put(Float.floatToIntBits(elements.flags.get(cFlags)));
 
-                float[] result = new float[3];
-                Vector3f normal = new Vector3f(elements.normals.get(i), elements.normals.get(i + 1), elements.normals.get(i + 2));
-                calcLightingValuesForVertexPos(chunkView, vertexPos, result, normal);
+                float normalX = elements.normals.get(i);
+                float normalY = elements.normals.get(i + 1);
+                float normalZ = elements.normals.get(i + 2);
+                calcLightingValuesForVertexPos(chunkView, vertexX, vertexY, vertexZ, normalX, normalY, normalZ, buffers);
 
                 /* LIGHTING DATA / TEX DATA 1 */
                 elements.finalVertices.put(Float.floatToIntBits(result[0]));
@@ -141,9 +228,9 @@ private void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh) {
                 elements.finalVertices.put(packedColor);
 
                 /* NORMALS */
-                elements.finalVertices.put(Float.floatToIntBits(normal.x));
-                elements.finalVertices.put(Float.floatToIntBits(normal.y));
-                elements.finalVertices.put(Float.floatToIntBits(normal.z));
+                elements.finalVertices.put(Float.floatToIntBits(normalX));
+                elements.finalVertices.put(Float.floatToIntBits(normalY));
+                elements.finalVertices.put(Float.floatToIntBits(normalZ));
             }
 
             elements.finalIndices = BufferUtils.createIntBuffer(elements.indices.size());
@@ -158,55 +245,60 @@ private void generateOptimizedBuffers(ChunkView chunkView, ChunkMesh mesh) {
         PerformanceMonitor.endActivity();
     }
 
-    private void calcLightingValuesForVertexPos(ChunkView chunkView, Vector3f vertexPos, float[] output, Vector3f normal) {
+    /**
+     * Computes the sunlight, block light and ambient occlusion of a vertex into {@code buffers.lightingResult}.
+     */
+    private void calcLightingValuesForVertexPos(ChunkView chunkView, float vertexX, float vertexY, float vertexZ,
+                                                float normalX, float normalY, float normalZ, TessellationBuffers buffers) {
         PerformanceMonitor.startActivity("calcLighting");
-        float[] lights = new float[8];
-        float[] blockLights = new float[8];
-        Block[] blocks = new Block[4];
+        float[] lights = buffers.sunlight;
+        float[] blockLights = buffers.blockLight;
+        Block[] blocks = buffers.occluders;
+        float[] output = buffers.lightingResult;
 
         PerformanceMonitor.startActivity("gatherLightInfo");
-        Direction dir = Direction.inDirection(normal);
+        Direction dir = Direction.inDirection(normalX, normalY, normalZ);
         switch (dir) {
             case LEFT:
             case RIGHT:
-                blocks[0] = chunkView.getBlock((vertexPos.x + 0.8f * normal.x), (vertexPos.y + 0.1f), (vertexPos.z + 0.1f));
-                blocks[1] = chunkView.getBlock((vertexPos.x + 0.8f * normal.x), (vertexPos.y + 0.1f), (vertexPos.z - 0.1f));
-                blocks[2] = chunkView.getBlock((vertexPos.x + 0.8f * normal.x), (vertexPos.y - 0.1f), (vertexPos.z - 0.1f));
-                blocks[3] = chunkView.getBlock((vertexPos.x + 0.8f * normal.x), (vertexPos.y - 0.1f), (vertexPos.z + 0.1f));
+                blocks[0] = chunkView.getBlock((vertexX + 0.8f * normalX), (vertexY + 0.1f), (vertexZ + 0.1f));
+                blocks[1] = chunkView.getBlock((vertexX + 0.8f * normalX), (vertexY + 0.1f), (vertexZ - 0.1f));
+                blocks[2] = chunkView.getBlock((vertexX + 0.8f * normalX), (vertexY - 0.1f), (vertexZ - 0.1f));
+                blocks[3] = chunkView.getBlock((vertexX + 0.8f * normalX), (vertexY - 0.1f), (vertexZ + 0.1f));
                 break;
             case FORWARD:
             case BACKWARD:
-                blocks[0] = chunkView.getBlock((vertexPos.x + 0.1f), (vertexPos.y + 0.1f), (vertexPos.z + 0.8f * normal.z));
-                blocks[1] = chunkView.getBlock((vertexPos.x + 0.1f), (vertexPos.y - 0.1f), (vertexPos.z + 0.8f * normal.z));
-                blocks[2] = chunkView.getBlock((vertexPos.x - 0.1f), (vertexPos.y - 0.1f), (vertexPos.z + 0.8f * normal.z));
-                blocks[3] = chunkView.getBlock((vertexPos.x - 0.1f), (vertexPos.y + 0.1f), (vertexPos.z + 0.8f * normal.z));
+                blocks[0] = chunkView.getBlock((vertexX + 0.1f), (vertexY + 0.1f), (vertexZ + 0.8f * normalZ));
+                blocks[1] = chunkView.getBlock((vertexX + 0.1f), (vertexY - 0.1f), (vertexZ + 0.8f * normalZ));
+                blocks[2] = chunkView.getBlock((vertexX - 0.1f), (vertexY - 0.1f), (vertexZ + 0.8f * normalZ));
+                blocks[3] = chunkView.getBlock((vertexX - 0.1f), (vertexY + 0.1f), (vertexZ + 0.8f * normalZ));
                 break;
             default:
-                blocks[0] = chunkView.getBlock((vertexPos.x + 0.1f), (vertexPos.y + 0.8f * normal.y), (vertexPos.z + 0.1f));
-                blocks[1] = chunkView.getBlock((vertexPos.x + 0.1f), (vertexPos.y + 0.8f * normal.y), (vertexPos.z - 0.1f));
-                blocks[2] = chunkView.getBlock((vertexPos.x - 0.1f), (vertexPos.y + 0.8f * normal.y), (vertexPos.z - 0.1f));
-                blocks[3] = chunkView.getBlock((vertexPos.x - 0.1f), (vertexPos.y + 0.8f * normal.y), (vertexPos.z + 0.1f));
+                blocks[0] = chunkView.getBlock((vertexX + 0.1f), (vertexY + 0.8f * normalY), (vertexZ + 0.1f));
+                blocks[1] = chunkView.getBlock((vertexX + 0.1f), (vertexY + 0.8f * normalY), (vertexZ - 0.1f));
+                blocks[2] = chunkView.getBlock((vertexX - 0.1f), (vertexY + 0.8f * normalY), (vertexZ - 0.1f));
+                blocks[3] = chunkView.getBlock((vertexX - 0.1f), (vertexY + 0.8f * normalY), (vertexZ + 0.1f));
         }
 
-        lights[0] = chunkView.getSunlight((vertexPos.x + 0.1f), (vertexPos.y + 0.8f), (vertexPos.z + 0.1f));
-        lights[1] = chunkView.getSunlight((vertexPos.x + 0.1f), (vertexPos.y + 0.8f), (vertexPos.z - 0.1f));
-        lights[2] = chunkView.getSunlight((vertexPos.x - 0.1f), (vertexPos.y + 0.8f), (vertexPos.z - 0.1f));
-        lights[3] = chunkView.getSunlight((vertexPos.x - 0.1f), (vertexPos.y + 0.8f), (vertexPos.z + 0.1f));
-
-        lights[4] = chunkView.getSunlight((vertexPos.x + 0.1f), (vertexPos.y - 0.1f), (vertexPos.z + 0.1f));
-        lights[5] = chunkView.getSunlight((vertexPos.x + 0.1f), (vertexPos.y - 0.1f), (vertexPos.z - 0.1f));
-        lights[6] = chunkView.getSunlight((vertexPos.x - 0.1f), (vertexPos.y - 0.1f), (vertexPos.z - 0.1f));
-        lights[7] = chunkView.getSunlight((vertexPos.x - 0.1f), (vertexPos.y - 0.1f), (vertexPos.z + 0.1f));
-
-        blockLights[0] = chunkView.getLight((vertexPos.x + 0.1f), (vertexPos.y + 0.8f), (vertexPos.z + 0.1f));
-        blockLights[1] = chunkView.getLight((vertexPos.x + 0.1f), (vertexPos.y + 0.8f), (vertexPos.z - 0.1f));
-        blockLights[2] = chunkView.getLight((vertexPos.x - 0.1f), (vertexPos.y + 0.8f), (vertexPos.z - 0.1f));
-        blockLights[3] = chunkView.getLight((vertexPos.x - 0.1f), (vertexPos.y + 0.8f), (vertexPos.z + 0.1f));
-
-        blockLights[4] = chunkView.getLight((vertexPos.x + 0.1f), (vertexPos.y - 0.1f), (vertexPos.z + 0.1f));
-        blockLights[5] = chunkView.getLight((vertexPos.x + 0.1f), (vertexPos.y - 0.1f), (vertexPos.z - 0.1f));
-        blockLights[6] = chunkView.getLight((vertexPos.x - 0.1f), (vertexPos.y - 0.1f), (vertexPos.z - 0.1f));
-        blockLights[7] = chunkView.getLight((vertexPos.x - 0.1f), (vertexPos.y - 0.1f), (vertexPos.z + 0.1f));
+        lights[0] = chunkView.getSunlight((vertexX + 0.1f), (vertexY + 0.8f), (vertexZ + 0.1f));
+        lights[1] = chunkView.getSunlight((vertexX + 0.1f), (vertexY + 0.8f), (vertexZ - 0.1f));
+        lights[2] = chunkView.getSunlight((vertexX - 0.1f), (vertexY + 0.8f), (vertexZ - 0.1f));
+        lights[3] = chunkView.getSunlight((vertexX - 0.1f), (vertexY + 0.8f), (vertexZ + 0.1f));
+
+        lights[4] = chunkView.getSunlight((vertexX + 0.1f), (vertexY - 0.1f), (vertexZ + 0.1f));
+        lights[5] = chunkView.getSunlight((vertexX + 0.1f), (vertexY - 0.1f), (vertexZ - 0.1f));
+        lights[6] = chunkView.getSunlight((vertexX - 0.1f), (vertexY - 0.1f), (vertexZ - 0.1f));
+        lights[7] = chunkView.getSunlight((vertexX - 0.1f), (vertexY - 0.1f), (vertexZ + 0.1f));
+
+        blockLights[0] = chunkView.getLight((vertexX + 0.1f), (vertexY + 0.8f), (vertexZ + 0.1f));
+        blockLights[1] = chunkView.getLight((vertexX + 0.1f), (vertexY + 0.8f), (vertexZ - 0.1f));
+        blockLights[2] = chunkView.getLight((vertexX - 0.1f), (vertexY + 0.8f), (vertexZ - 0.1f));
+        blockLights[3] = chunkView.getLight((vertexX - 0.1f), (vertexY + 0.8f), (vertexZ + 0.1f));
+
+        blockLights[4] = chunkView.getLight((vertexX + 0.1f), (vertexY - 0.1f), (vertexZ + 0.1f));
+        blockLights[5] = chunkView.getLight((vertexX + 0.1f), (vertexY - 0.1f), (vertexZ - 0.1f));
+        blockLights[6] = chunkView.getLight((vertexX - 0.1f), (vertexY - 0.1f), (vertexZ - 0.1f));
+        blockLights[7] = chunkView.getLight((vertexX - 0.1f), (vertexY - 0.1f), (vertexZ + 0.1f));
         PerformanceMonitor.endActivity();
 
         float resultLight = 0;
@@ -255,7 +347,8 @@ private void calcLightingValuesForVertexPos(ChunkView chunkView, Vector3f vertex
         PerformanceMonitor.endActivity();
     }
 
-    private void generateBlockVertices(ChunkView view, ChunkMesh mesh, int x, int y, int z, Biome biome) {
+    private void generateBlockVertices(ChunkView view, ChunkMesh mesh, int x, int y, int z, Biome biome, TessellationBuffers buffers,
+                                       GreedyFaceMerger merger) {
         Block block = view.getBlock(x, y, z);
 
         // TODO: Needs review - too much hardcoded special cases and corner cases resulting from this.
@@ -275,8 +368,8 @@ private void generateBlockVertices(ChunkView view, ChunkMesh mesh, int x, int y,
         }
 
         // Gather adjacent blocks
-        Map<Side, Block> adjacentBlocks = Maps.newEnumMap(Side.class);
-        for (Side side : Side.values()) {
+        Map<Side, Block> adjacentBlocks = buffers.adjacentBlocks;
+        for (Side side : SIDES) {
             Vector3i offset = side.getVector3i();
             Block blockToCheck = view.getBlock(x + offset.x, y + offset.y, z + offset.z);
             adjacentBlocks.put(side, blockToCheck);
@@ -305,9 +398,9 @@ private void generateBlockVertices(ChunkView view, ChunkMesh mesh, int x, int y,
             blockAppearance.getPart(BlockPart.CENTER).appendTo(mesh, x, y, z, colorOffset, renderType, vertexFlag);
         }
 
-        boolean[] drawDir = new boolean[6];
+        boolean[] drawDir = buffers.drawDir;
 
-        for (Side side : Side.values()) {
+        for (Side side : SIDES) {
             drawDir[side.ordinal()] = blockAppearance.getPart(BlockPart.fromSide(side)) != null && isSideVisibleForBlockTypes(adjacentBlocks.get(side), block, side);
         }
 
@@ -331,7 +424,7 @@ private void generateBlockVertices(ChunkView view, ChunkMesh mesh, int x, int y,
             drawDir[Side.TOP.ordinal()] |= !blockToCheck.isLiquid();
 
             if (bottomBlock.isLiquid() || bottomBlock.isInvisible()) {
-                for (Side dir : Side.values()) {
+                for (Side dir : SIDES) {
                     if (drawDir[dir.ordinal()]) {
                         Vector4f colorOffset = block.calcColorOffsetFor(BlockPart.fromSide(dir), biome);
                         block.getLoweredLiquidMesh(dir).appendTo(mesh, x, y, z, colorOffset, renderType, vertexFlag);
@@ -341,19 +434,46 @@ private void generateBlockVertices(ChunkView view, ChunkMesh mesh, int x, int y,
             }
         }
 
-        for (Side dir : Side.values()) {
+        for (Side dir : SIDES) {
             if (drawDir[dir.ordinal()]) {
                 Vector4f colorOffset = block.calcColorOffsetFor(BlockPart.fromSide(dir), biome);
+                BlockMeshPart part = blockAppearance.getPart(BlockPart.fromSide(dir));
                 // TODO: Needs review since the new per-vertex flags introduce a lot of special scenarios - probably a per-side setting?
+                ChunkVertexFlag sideFlag = vertexFlag;
                 if (block.isGrass() && dir != Side.TOP && dir != Side.BOTTOM) {
-                    blockAppearance.getPart(BlockPart.fromSide(dir)).appendTo(mesh, x, y, z, colorOffset, renderType, ChunkVertexFlag.COLOR_MASK);
+                    sideFlag = ChunkVertexFlag.COLOR_MASK;
+                }
+
+                if (merger != null && renderType == ChunkMesh.RenderType.OPAQUE && sideFlag == ChunkVertexFlag.NORMAL
+                        && block.isFullSide(dir) && merger.isMergeable(part, dir) && isUniformlyLit(view, part, x, y, z, buffers)) {
+                    merger.addFace(x, y, z, dir, part, colorOffset, buffers.faceLighting);
                 } else {
-                    blockAppearance.getPart(BlockPart.fromSide(dir)).appendTo(mesh, x, y, z, colorOffset, renderType, vertexFlag);
+                    part.appendTo(mesh, x, y, z, colorOffset, renderType, sideFlag);
                 }
             }
         }
     }
 
+    /**
+     * Determines whether all vertices of a face receive the same lighting, which is then left in
+     * {@code buffers.faceLighting}. Only such faces can be merged without changing their appearance.
+     */
+    private boolean isUniformlyLit(ChunkView view, BlockMeshPart part, int x, int y, int z, TessellationBuffers buffers) {
+        float[] result = buffers.lightingResult;
+        float[] lighting = buffers.faceLighting;
+        for (int i = 0; i < part.size(); i++) {
+            Vector3f vertex = part.getVertex(i);
+            Vector3f normal = part.getNormal(i);
+            calcLightingValuesForVertexPos(view, vertex.x + x, vertex.y + y, vertex.z + z, normal.x, normal.y, normal.z, buffers);
+            if (i == 0) {
+                System.arraycopy(result, 0, lighting, 0, result.length);
+            } else if (result[0] != lighting[0] || result[1] != lighting[1] || result[2] != lighting[2]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     /**
      * Returns true if the side should be rendered adjacent to the second side provided.
      *
@@ -375,4 +495,41 @@ private boolean isSideVisibleForBlockTypes(Block blockToCheck, Block currentBloc
     public static int getVertexArrayUpdateCount() {
         return statVertexArrayUpdateCount;
     }
+
+    /**
+     * Describes which blocks of a horizontal layer of a chunk can contribute faces to the mesh.
+     */
+    private enum LayerVisibility {
+        /**
+         * The blocks of the layer have to be examined one by one
+         */
+        MIXED,
+        /**
+         * The layer consists of invisible blocks only
+         */
+        EMPTY,
+        /**
+         * The layer consists of one block type that hides itself, just as the layers above and below it, so that only
+         * blocks at the edge of the chunk may have visible faces
+         */
+        OCCLUDED_INSIDE,
+        /**
+         * Like {@link #OCCLUDED_INSIDE}, but the adjacent layers of the neighbouring chunks consist of the same block, so
+         * that the whole layer is hidden
+         */
+        OCCLUDED
+    }
+
+    /**
+     * Working memory of a single mesh generation, reused for every block and vertex.
+     */
+    private static final class TessellationBuffers {
+        private final Map<Side, Block> adjacentBlocks = Maps.newEnumMap(Side.class);
+        private final boolean[] drawDir = new boolean[SIDES.length];
+        private final float[] sunlight = new float[8];
+        private final float[] blockLight = new float[8];
+        private final Block[] occluders = new Block[4];
+        private final float[] lightingResult = new float[3];
+        private final float[] faceLighting = new float[3];
+    }
 }
@@ -25,7 +25,11 @@ public enum ChunkVertexFlag {
     LAVA(3, "BLOCK_HINT_LAVA"),
     COLOR_MASK(4, "BLOCK_HINT_GRASS"),
     WAVING(5, "BLOCK_HINT_WAVING"),
-    WAVING_BLOCK(6, "BLOCK_HINT_WAVING_BLOCK");
+    WAVING_BLOCK(6, "BLOCK_HINT_WAVING_BLOCK"),
+    /**
+     * A face merged from the faces of several blocks, which repeats its texture tile. See {@link ChunkMesh#TILED_TEXCOORD_RANGE}.
+     */
+    TILED(7, "BLOCK_HINT_TILED");
 
     private int value;
     private String defineName;
@@ -0,0 +1,356 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.primitives;
+
+import com.google.common.collect.Maps;
+import org.terasology.math.Side;
+import org.terasology.math.Vector3i;
+import org.terasology.math.geom.Vector2f;
+import org.terasology.math.geom.Vector3f;
+import org.terasology.math.geom.Vector4f;
+import org.terasology.world.block.shapes.BlockMeshPart;
+import org.terasology.world.chunks.ChunkConstants;
+
+import java.util.Map;
+
+/**
+ * Collects the full, uniformly lit faces of cube shaped blocks of a chunk mesh and merges coplanar neighbouring faces
+ * with the same mesh part, color and lighting into larger quads.
+ * <p>
+ * The merged quads repeat the texture tile of the original faces. Their texture coordinates are encoded as described by
+ * {@link ChunkMesh#TILED_TEXCOORD_RANGE}, and are decoded in the chunk shader for vertices flagged
+ * {@link ChunkVertexFlag#TILED}.
+ */
+final class GreedyFaceMerger {
+
+    /**
+     * The largest number of faces merged along one axis, keeping the tile local texture coordinates within the range
+     * reserved for them.
+     */
+    private static final int MAX_QUAD_EXTENT = (int) (ChunkMesh.TILED_TEXCOORD_RANGE / 4);
+    private static final float EPSILON = 0.001f;
+
+    private static final Side[] SIDES = Side.values();
+    private static final FaceShape INELIGIBLE = new FaceShape();
+
+    private final float tileSize;
+    private final int verticalOffset;
+    private final int meshHeight;
+    private final int[] dimensions;
+    private final FaceKey[][] faces = new FaceKey[SIDES.length][];
+    private final Map<BlockMeshPart, FaceShape> shapes = Maps.newIdentityHashMap();
+
+    /**
+     * @param tileSize       The relative size of a texture tile in the block atlas
+     * @param verticalOffset The lowest layer of the chunk included in the mesh
+     * @param meshHeight     The number of layers included in the mesh
+     */
+    public GreedyFaceMerger(float tileSize, int verticalOffset, int meshHeight) {
+        this.tileSize = tileSize;
+        this.verticalOffset = verticalOffset;
+        this.meshHeight = meshHeight;
+        this.dimensions = new int[]{ChunkConstants.SIZE_X, meshHeight, ChunkConstants.SIZE_Z};
+    }
+
+    /**
+     * @return Whether the given part is a single quad covering the given side of the block, with a texture from a
+     * single tile of the atlas
+     */
+    public boolean isMergeable(BlockMeshPart part, Side side) {
+        return getShape(part, side) != INELIGIBLE;
+    }
+
+    /**
+     * Adds a face to be merged. The part must be {@link #isMergeable(BlockMeshPart, Side) mergeable}.
+     *
+     * @param lighting The sunlight, block light and ambient occlusion shared by all vertices of the face
+     */
+    public void addFace(int x, int y, int z, Side side, BlockMeshPart part, Vector4f color, float[] lighting) {
+        FaceKey[] sideFaces = faces[side.ordinal()];
+        if (sideFaces == null) {
+            sideFaces = new FaceKey[ChunkConstants.SIZE_X * meshHeight * ChunkConstants.SIZE_Z];
+            faces[side.ordinal()] = sideFaces;
+        }
+        sideFaces[index(x, y - verticalOffset, z)] = new FaceKey(part, color, lighting[0], lighting[1], lighting[2]);
+    }
+
+    /**
+     * Merges the collected faces and appends the resulting quads to the opaque elements of the mesh.
+     */
+    public void appendTo(ChunkMesh mesh) {
+        ChunkMesh.VertexElements elements = mesh.getVertexElements(ChunkMesh.RenderType.OPAQUE);
+        int[] pos = new int[3];
+        for (Side side : SIDES) {
+            FaceKey[] sideFaces = faces[side.ordinal()];
+            if (sideFaces == null) {
+                continue;
+            }
+            int normalAxis = getNormalAxis(side);
+            int axisA = getAxisA(normalAxis);
+            int axisB = getAxisB(normalAxis);
+            for (int n = 0; n < dimensions[normalAxis]; n++) {
+                pos[normalAxis] = n;
+                for (int b = 0; b < dimensions[axisB]; b++) {
+                    for (int a = 0; a < dimensions[axisA]; a++) {
+                        pos[axisA] = a;
+                        pos[axisB] = b;
+                        FaceKey key = sideFaces[index(pos[0], pos[1], pos[2])];
+                        if (key == null) {
+                            continue;
+                        }
+
+                        int width = 1;
+                        while (a + width < dimensions[axisA] && width < MAX_QUAD_EXTENT) {
+                            pos[axisA] = a + width;
+                            if (!key.equals(sideFaces[index(pos[0], pos[1], pos[2])])) {
+                                break;
+                            }
+                            width++;
+                        }
+
+                        int height = 1;
+                        while (b + height < dimensions[axisB] && height < MAX_QUAD_EXTENT
+                                && isRowOf(key, sideFaces, pos, axisA, a, width, axisB, b + height)) {
+                            height++;
+                        }
+
+                        for (int j = 0; j < height; j++) {
+                            for (int i = 0; i < width; i++) {
+                                pos[axisA] = a + i;
+                                pos[axisB] = b + j;
+                                sideFaces[index(pos[0], pos[1], pos[2])] = null;
+                            }
+                        }
+                        pos[axisA] = a;
+                        pos[axisB] = b;
+                        appendQuad(elements, key, getShape(key.part, side), pos, axisA, width, axisB, height);
+                    }
+                }
+            }
+        }
+    }
+
+    private boolean isRowOf(FaceKey key, FaceKey[] sideFaces, int[] pos, int axisA, int a, int width, int axisB, int b) {
+        pos[axisB] = b;
+        for (int i = 0; i < width; i++) {
+            pos[axisA] = a + i;
+            if (!key.equals(sideFaces[index(pos[0], pos[1], pos[2])])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void appendQuad(ChunkMesh.VertexElements elements, FaceKey key, FaceShape shape, int[] pos,
+                            int axisA, int width, int axisB, int height) {
+        BlockMeshPart part = key.part;
+        float[] stretch = new float[3];
+        int nextIndex = elements.vertexCount;
+        for (int i = 0; i < part.size(); i++) {
+            Vector3f vertex = part.getVertex(i);
+            Vector3f normal = part.getNormal(i);
+            float[] coords = {vertex.x, vertex.y, vertex.z};
+            boolean farA = coords[axisA] > 0;
+            boolean farB = coords[axisB] > 0;
+            stretch[0] = 0;
+            stretch[1] = 0;
+            stretch[2] = 0;
+            stretch[axisA] = farA ? width - 1 : 0;
+            stretch[axisB] = farB ? height - 1 : 0;
+
+            float lu = shape.u0 + (farA ? shape.uPerA * width : 0) + (farB ? shape.uPerB * height : 0);
+            float lv = shape.v0 + (farA ? shape.vPerA * width : 0) + (farB ? shape.vPerB * height : 0);
+            elements.tex.add(shape.tileU * ChunkMesh.TILED_TEXCOORD_RANGE + ChunkMesh.TILED_TEXCOORD_RANGE / 2 + lu);
+            elements.tex.add(shape.tileV * ChunkMesh.TILED_TEXCOORD_RANGE + ChunkMesh.TILED_TEXCOORD_RANGE / 2 + lv);
+
+            elements.color.add(key.color.x);
+            elements.color.add(key.color.y);
+            elements.color.add(key.color.z);
+            elements.color.add(key.color.w);
+            elements.vertices.add(vertex.x + pos[0] + stretch[0]);
+            elements.vertices.add(vertex.y + pos[1] + verticalOffset + stretch[1]);
+            elements.vertices.add(vertex.z + pos[2] + stretch[2]);
+            elements.normals.add(normal.x);
+            elements.normals.add(normal.y);
+            elements.normals.add(normal.z);
+            elements.flags.add(ChunkVertexFlag.TILED.getValue());
+        }
+        elements.vertexCount += part.size();
+
+        for (int i = 0; i < part.indicesSize(); i++) {
+            elements.indices.add(part.getIndex(i) + nextIndex);
+        }
+    }
+
+    private FaceShape getShape(BlockMeshPart part, Side side) {
+        FaceShape shape = shapes.get(part);
+        if (shape == null) {
+            shape = calcShape(part, side);
+            shapes.put(part, shape);
+        }
+        return shape;
+    }
+
+    /**
+     * Determines how the texture tile is laid out over the face, if the part is a quad on the given side of the block.
+     * The tile local texture coordinates are described as an affine function of the position within the face.
+     */
+    private FaceShape calcShape(BlockMeshPart part, Side side) {
+        if (part.size() != 4 || part.indicesSize() != 6) {
+            return INELIGIBLE;
+        }
+        Vector3i sideVector = side.getVector3i();
+        int normalAxis = getNormalAxis(side);
+        int axisA = getAxisA(normalAxis);
+        int axisB = getAxisB(normalAxis);
+        float[] sideNormal = {sideVector.x, sideVector.y, sideVector.z};
+
+        Vector2f center = new Vector2f();
+        for (int i = 0; i < 4; i++) {
+            center.x += part.getTexCoord(i).x / 4;
+            center.y += part.getTexCoord(i).y / 4;
+        }
+        FaceShape shape = new FaceShape();
+        shape.tileU = (float) Math.floor(center.x / tileSize);
+        shape.tileV = (float) Math.floor(center.y / tileSize);
+
+        float[][] localU = new float[2][2];
+        float[][] localV = new float[2][2];
+        boolean[][] present = new boolean[2][2];
+        for (int i = 0; i < 4; i++) {
+            Vector3f vertex = part.getVertex(i);
+            Vector3f normal = part.getNormal(i);
+            float[] coords = {vertex.x, vertex.y, vertex.z};
+            float[] normalCoords = {normal.x, normal.y, normal.z};
+            for (int axis = 0; axis < 3; axis++) {
+                if (Math.abs(normalCoords[axis] - sideNormal[axis]) > EPSILON) {
+                    return INELIGIBLE;
+                }
+            }
+            if (Math.abs(coords[normalAxis] - 0.5f * sideNormal[normalAxis]) > EPSILON
+                    || Math.abs(Math.abs(coords[axisA]) - 0.5f) > EPSILON || Math.abs(Math.abs(coords[axisB]) - 0.5f) > EPSILON) {
+                return INELIGIBLE;
+            }
+            int cornerA = (coords[axisA] > 0) ? 1 : 0;
+            int cornerB = (coords[axisB] > 0) ? 1 : 0;
+            Float u = toTileLocal(part.getTexCoord(i).x, shape.tileU);
+            Float v = toTileLocal(part.getTexCoord(i).y, shape.tileV);
+            if (present[cornerA][cornerB] || u == null || v == null) {
+                return INELIGIBLE;
+            }
+            present[cornerA][cornerB] = true;
+            localU[cornerA][cornerB] = u;
+            localV[cornerA][cornerB] = v;
+        }
+
+        shape.u0 = localU[0][0];
+        shape.v0 = localV[0][0];
+        shape.uPerA = localU[1][0] - localU[0][0];
+        shape.vPerA = localV[1][0] - localV[0][0];
+        shape.uPerB = localU[0][1] - localU[0][0];
+        shape.vPerB = localV[0][1] - localV[0][0];
+        boolean affine = localU[1][1] == shape.u0 + shape.uPerA + shape.uPerB && localV[1][1] == shape.v0 + shape.vPerA + shape.vPerB;
+        boolean covering = Math.abs(shape.uPerA * shape.vPerB - shape.uPerB * shape.vPerA) == 1;
+        return (affine && covering) ? shape : INELIGIBLE;
+    }
+
+    /**
+     * @return The atlas texture coordinate as either edge of the given tile (0 or 1), or null if it lies elsewhere
+     */
+    private Float toTileLocal(float coord, float tile) {
+        float border = ChunkMesh.TILED_TEXCOORD_BORDER;
+        float local = ((coord / tileSize - tile) - border) / (1 - 2 * border);
+        if (Math.abs(local) < EPSILON) {
+            return 0f;
+        }
+        if (Math.abs(local - 1) < EPSILON) {
+            return 1f;
+        }
+        return null;
+    }
+
+    private int index(int x, int y, int z) {
+        return (x * meshHeight + y) * ChunkConstants.SIZE_Z + z;
+    }
+
+    private static int getNormalAxis(Side side) {
+        Vector3i sideVector = side.getVector3i();
+        if (sideVector.x != 0) {
+            return 0;
+        }
+        return (sideVector.y != 0) ? 1 : 2;
+    }
+
+    private static int getAxisA(int normalAxis) {
+        return (normalAxis == 0) ? 2 : 0;
+    }
+
+    private static int getAxisB(int normalAxis) {
+        return (normalAxis == 1) ? 2 : 1;
+    }
+
+    /**
+     * The texture tile of a mergeable part, and the tile local texture coordinates over the face: at the corner with
+     * the lowest in-plane coordinates, and their change along both in-plane axes of the face.
+     */
+    private static final class FaceShape {
+        private float tileU;
+        private float tileV;
+        private float u0;
+        private float v0;
+        private float uPerA;
+        private float vPerA;
+        private float uPerB;
+        private float vPerB;
+    }
+
+    /**
+     * Identifies faces that can be merged with each other.
+     */
+    private static final class FaceKey {
+        private final BlockMeshPart part;
+        private final Vector4f color;
+        private final float sunlight;
+        private final float blockLight;
+        private final float occlusion;
+
+        private FaceKey(BlockMeshPart part, Vector4f color, float sunlight, float blockLight, float occlusion) {
+            this.part = part;
+            this.color = color;
+            this.sunlight = sunlight;
+            this.blockLight = blockLight;
+            this.occlusion = occlusion;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (obj == this) {
+                return true;
+            }
+            if (obj instanceof FaceKey) {
+                FaceKey other = (FaceKey) obj;
+                return part == other.part && sunlight == other.sunlight && blockLight == other.blockLight
+                        && occlusion == other.occlusion && color.equals(other.color);
+            }
+            return false;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(part);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.world;
+
+import org.terasology.math.Side;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.CoreChunk;
+
+/**
+ * Records which faces of a chunk are connected by paths through the blocks of the chunk that do not block the view,
+ * so that a chunk entered through one face can only be seen through faces connected to it.
+ * <p>
+ * This is computed by flood filling the non-occluding blocks of the chunk, starting from its boundary.
+ */
+public final class ChunkConnectivity {
+
+    /**
+     * The connectivity of a chunk in which every face can be seen from every other face, used for chunks whose
+     * connectivity is not known yet.
+     */
+    public static final ChunkConnectivity FULL = new ChunkConnectivity(-1L);
+    public static final ChunkConnectivity NONE = new ChunkConnectivity(0L);
+
+    private static final Side[] SIDES = Side.values();
+    private static final int SIZE_X = ChunkConstants.SIZE_X;
+    private static final int SIZE_Y = ChunkConstants.SIZE_Y;
+    private static final int SIZE_Z = ChunkConstants.SIZE_Z;
+    private static final int VOLUME = SIZE_X * SIZE_Y * SIZE_Z;
+    private static final int STEP_Z = SIZE_X;
+    private static final int STEP_Y = SIZE_X * SIZE_Z;
+
+    private final long connections;
+
+    private ChunkConnectivity(long connections) {
+        this.connections = connections;
+    }
+
+    /**
+     * @return Whether a line of sight may enter the chunk through one of the faces and leave through the other
+     */
+    public boolean isConnected(Side from, Side to) {
+        return (connections & bit(from, to)) != 0;
+    }
+
+    public static ChunkConnectivity compute(CoreChunk chunk) {
+        boolean[] closed = new boolean[VOLUME];
+        int openBlocks = 0;
+        Block lastBlock = null;
+        boolean lastOccluding = false;
+        for (int y = 0; y < SIZE_Y; ++y) {
+            for (int z = 0; z < SIZE_Z; ++z) {
+                for (int x = 0; x < SIZE_X; ++x) {
+                    Block block = chunk.getBlock(x, y, z);
+                    if (block != lastBlock) {
+                        lastBlock = block;
+                        lastOccluding = isOccluding(block);
+                    }
+                    if (lastOccluding) {
+                        closed[index(x, y, z)] = true;
+                    } else {
+                        openBlocks++;
+                    }
+                }
+            }
+        }
+        if (openBlocks == 0) {
+            return NONE;
+        }
+        if (openBlocks == VOLUME) {
+            return FULL;
+        }
+
+        // Only regions touching the boundary of the chunk can connect faces, so flood fills start from there
+        long connections = 0;
+        int[] queue = new int[VOLUME];
+        for (int y = 0; y < SIZE_Y; ++y) {
+            for (int z = 0; z < SIZE_Z; ++z) {
+                for (int x = 0; x < SIZE_X; ++x) {
+                    boolean boundary = x == 0 || x == SIZE_X - 1 || y == 0 || y == SIZE_Y - 1 || z == 0 || z == SIZE_Z - 1;
+                    if (boundary && !closed[index(x, y, z)]) {
+                        connections |= connectFaces(fill(index(x, y, z), closed, queue));
+                    }
+                }
+            }
+        }
+        return new ChunkConnectivity(connections);
+    }
+
+    /**
+     * Flood fills the open region containing the given block, closing it in the process.
+     *
+     * @return The faces touched by the region, as a bit set of side ordinals
+     */
+    private static int fill(int start, boolean[] closed, int[] queue) {
+        int faces = 0;
+        int head = 0;
+        int tail = 0;
+        closed[start] = true;
+        queue[tail++] = start;
+        while (head < tail) {
+            int index = queue[head++];
+            int x = index % SIZE_X;
+            int z = (index / STEP_Z) % SIZE_Z;
+            int y = index / STEP_Y;
+
+            if (x == 0) {
+                faces |= 1 << Side.LEFT.ordinal();
+            } else if (!closed[index - 1]) {
+                closed[index - 1] = true;
+                queue[tail++] = index - 1;
+            }
+            if (x == SIZE_X - 1) {
+                faces |= 1 << Side.RIGHT.ordinal();
+            } else if (!closed[index + 1]) {
+                closed[index + 1] = true;
+                queue[tail++] = index + 1;
+            }
+            if (y == 0) {
+                faces |= 1 << Side.BOTTOM.ordinal();
+            } else if (!closed[index - STEP_Y]) {
+                closed[index - STEP_Y] = true;
+                queue[tail++] = index - STEP_Y;
+            }
+            if (y == SIZE_Y - 1) {
+                faces |= 1 << Side.TOP.ordinal();
+            } else if (!closed[index + STEP_Y]) {
+                closed[index + STEP_Y] = true;
+                queue[tail++] = index + STEP_Y;
+            }
+            if (z == 0) {
+                faces |= 1 << Side.FRONT.ordinal();
+            } else if (!closed[index - STEP_Z]) {
+                closed[index - STEP_Z] = true;
+                queue[tail++] = index - STEP_Z;
+            }
+            if (z == SIZE_Z - 1) {
+                faces |= 1 << Side.BACK.ordinal();
+            } else if (!closed[index + STEP_Z]) {
+                closed[index + STEP_Z] = true;
+                queue[tail++] = index + STEP_Z;
+            }
+        }
+        return faces;
+    }
+
+    private static long connectFaces(int faces) {
+        long connections = 0;
+        for (Side from : SIDES) {
+            if ((faces & (1 << from.ordinal())) != 0) {
+                for (Side to : SIDES) {
+                    if ((faces & (1 << to.ordinal())) != 0) {
+                        connections |= bit(from, to);
+                    }
+                }
+            }
+        }
+        return connections;
+    }
+
+    private static boolean isOccluding(Block block) {
+        if (block.isTranslucent() || block.isInvisible()) {
+            return false;
+        }
+        for (Side side : SIDES) {
+            if (!block.isFullSide(side)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int index(int x, int y, int z) {
+        return x + z * STEP_Z + y * STEP_Y;
+    }
+
+    private static long bit(Side from, Side to) {
+        return 1L << (from.ordinal() * SIDES.length + to.ordinal());
+    }
+}
@@ -178,6 +178,7 @@ public void run() {
                 }
 
                 c.setPendingMesh(newMeshes);
+                c.setConnectivity(ChunkConnectivity.compute(c));
                 ChunkMonitor.fireChunkTessellated(c.getPosition(), newMeshes);
 
             }
@@ -0,0 +1,170 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.rendering.world;
+
+import org.terasology.math.Region3i;
+import org.terasology.math.Side;
+import org.terasology.math.Vector3i;
+
+import java.util.Arrays;
+
+/**
+ * Determines the chunks that are potentially visible from the chunk containing the camera, by a breadth first search
+ * from the camera chunk through the faces connected according to each chunk's {@link ChunkConnectivity}.
+ * <p>
+ * The search never moves against a direction it has already moved in, as a line of sight from the camera cannot turn
+ * back. Each chunk is only visited once, through the first face it is reached by. The search state is kept between
+ * updates, so that the per frame update does not allocate once the region stays the same size.
+ */
+public class ChunkOcclusionCuller {
+
+    private static final Side[] SIDES = Side.values();
+    private static final int[] OFFSET_X = new int[SIDES.length];
+    private static final int[] OFFSET_Y = new int[SIDES.length];
+    private static final int[] OFFSET_Z = new int[SIDES.length];
+    private static final byte VISITED = (byte) (1 << SIDES.length);
+
+    static {
+        for (Side side : SIDES) {
+            Vector3i offset = side.getVector3i();
+            OFFSET_X[side.ordinal()] = offset.x;
+            OFFSET_Y[side.ordinal()] = offset.y;
+            OFFSET_Z[side.ordinal()] = offset.z;
+        }
+    }
+
+    private Region3i region = Region3i.EMPTY;
+    private boolean allVisible = true;
+    private int visibleChunks;
+
+    // Per chunk of the region: whether it was visited, and the directions moved in to reach it
+    private byte[] travelledDirections = new byte[0];
+    private byte[] entrySides = new byte[0];
+    private ChunkConnectivity[] connectivities = new ChunkConnectivity[0];
+    private int[] queue = new int[0];
+
+    /**
+     * Provides the chunks to search through.
+     */
+    public interface ChunkConnectivityProvider {
+
+        /**
+         * @return The connectivity of the chunk, or null if the chunk cannot be seen and should not be searched
+         * through, for instance because it lies outside of the view frustum
+         */
+        ChunkConnectivity getConnectivity(int x, int y, int z);
+    }
+
+    /**
+     * Searches the chunks of the region that are visible from the camera chunk. If the camera chunk is outside of the
+     * region, every chunk is considered visible.
+     */
+    public void update(Region3i searchRegion, Vector3i cameraChunk, ChunkConnectivityProvider provider) {
+        setRegion(searchRegion);
+        visibleChunks = 0;
+        Arrays.fill(travelledDirections, (byte) 0);
+        Arrays.fill(connectivities, null);
+        allVisible = !region.encompasses(cameraChunk);
+        if (allVisible) {
+            return;
+        }
+
+        int head = 0;
+        int tail = 0;
+        int start = index(cameraChunk.x, cameraChunk.y, cameraChunk.z);
+        travelledDirections[start] = VISITED;
+        visibleChunks++;
+        // The camera can look out of its own chunk in any direction, whatever the chunk's connectivity
+        for (Side side : SIDES) {
+            tail = visit(cameraChunk.x, cameraChunk.y, cameraChunk.z, side, 0, provider, tail);
+        }
+
+        while (head < tail) {
+            int index = queue[head++];
+            int x = region.minX() + index % region.sizeX();
+            int z = region.minZ() + (index / region.sizeX()) % region.sizeZ();
+            int y = region.minY() + index / (region.sizeX() * region.sizeZ());
+            int directions = travelledDirections[index] & ~VISITED;
+            Side entrySide = SIDES[entrySides[index]];
+            ChunkConnectivity connectivity = connectivities[index];
+            for (Side side : SIDES) {
+                if ((directions & (1 << side.reverse().ordinal())) == 0 && connectivity.isConnected(entrySide, side)) {
+                    tail = visit(x, y, z, side, directions, provider, tail);
+                }
+            }
+        }
+    }
+
+    /**
+     * Visits the chunk adjacent to the given chunk in the given direction, queueing it if it can be seen.
+     *
+     * @return The new tail of the queue
+     */
+    private int visit(int x, int y, int z, Side direction, int directions, ChunkConnectivityProvider provider, int tail) {
+        int adjacentX = x + OFFSET_X[direction.ordinal()];
+        int adjacentY = y + OFFSET_Y[direction.ordinal()];
+        int adjacentZ = z + OFFSET_Z[direction.ordinal()];
+        if (!region.encompasses(adjacentX, adjacentY, adjacentZ)) {
+            return tail;
+        }
+        int index = index(adjacentX, adjacentY, adjacentZ);
+        if (travelledDirections[index] != 0) {
+            return tail;
+        }
+        ChunkConnectivity connectivity = provider.getConnectivity(adjacentX, adjacentY, adjacentZ);
+        if (connectivity == null) {
+            return tail;
+        }
+        travelledDirections[index] = (byte) (VISITED | directions | (1 << direction.ordinal()));
+        entrySides[index] = (byte) direction.reverse().ordinal();
+        connectivities[index] = connectivity;
+        queue[tail] = index;
+        visibleChunks++;
+        return tail + 1;
+    }
+
+    /**
+     * @return Whether the chunk was reached from the camera chunk during the last update
+     */
+    public boolean isVisible(Vector3i chunkPos) {
+        if (allVisible) {
+            return true;
+        }
+        return region.encompasses(chunkPos) && travelledDirections[index(chunkPos.x, chunkPos.y, chunkPos.z)] != 0;
+    }
+
+    /**
+     * @return The number of chunks reached during the last update, or 0 if every chunk was considered visible
+     */
+    public int getVisibleChunkCount() {
+        return visibleChunks;
+    }
+
+    private void setRegion(Region3i newRegion) {
+        int volume = newRegion.sizeX() * newRegion.sizeY() * newRegion.sizeZ();
+        if (travelledDirections.length < volume) {
+            travelledDirections = new byte[volume];
+            entrySides = new byte[volume];
+            connectivities = new ChunkConnectivity[volume];
+            queue = new int[volume];
+        }
+        region = newRegion;
+    }
+
+    private int index(int x, int y, int z) {
+        return (x - region.minX()) + region.sizeX() * ((z - region.minZ()) + region.sizeZ() * (y - region.minY()));
+    }
+}
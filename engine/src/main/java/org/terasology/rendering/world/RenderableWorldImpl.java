@@ -23,6 +23,8 @@
 import org.terasology.config.Config;
 import org.terasology.config.RenderingConfig;
 import org.terasology.engine.subsystem.lwjgl.GLBufferPool;
+import org.terasology.math.AABB;
+import org.terasology.math.ChunkMath;
 import org.terasology.math.Region3i;
 import org.terasology.math.TeraMath;
 import org.terasology.math.Vector3i;
@@ -69,6 +71,8 @@ public class RenderableWorldImpl implements RenderableWorld {
     private final List<RenderableChunk> chunksInProximityOfCamera = Lists.newArrayListWithCapacity(MAX_LOADABLE_CHUNKS);
     private Region3i renderableRegion = Region3i.EMPTY;
     private RenderQueuesHelper renderQueues;
+    private final ChunkOcclusionCuller occlusionCuller = new ChunkOcclusionCuller();
+    private final ChunkOcclusionCuller.ChunkConnectivityProvider visibleChunkConnectivity = new VisibleChunkConnectivity();
 
     private Camera playerCamera;
     private Camera shadowMapCamera;
@@ -78,12 +82,13 @@ public class RenderableWorldImpl implements RenderableWorld {
 
     private int statDirtyChunks;
     private int statVisibleChunks;
+    private int statOccludedChunks;
     private int statIgnoredPhases;
 
     public RenderableWorldImpl(WorldProvider worldProvider, ChunkProvider chunkProvider, GLBufferPool bufferPool, Camera playerCamera, Camera shadowMapCamera) {
         this.worldProvider = worldProvider;
         this.chunkProvider = chunkProvider;
-        chunkTessellator = new ChunkTessellator(bufferPool);
+        chunkTessellator = new ChunkTessellator(bufferPool, renderingConfig.isGreedyMeshing());
         chunkMeshUpdateManager = new ChunkMeshUpdateManager(chunkTessellator, worldProvider);
 
         this.playerCamera = playerCamera;
@@ -155,6 +160,7 @@ public boolean pregenerateChunks() {
                     }
                 }
                 chunk.setMesh(newMesh);
+                chunk.setConnectivity(ChunkConnectivity.compute(chunk));
 
                 pregenerationIsComplete = false;
                 break;
@@ -289,6 +295,14 @@ public int queueVisibleChunks(boolean isFirstRenderingStageForCurrentFrame) {
         statDirtyChunks = 0;
         statVisibleChunks = 0;
         statIgnoredPhases = 0;
+        statOccludedChunks = 0;
+
+        boolean isOcclusionCulling = renderingConfig.isOcclusionCulling();
+        if (isOcclusionCulling) {
+            PerformanceMonitor.startActivity("Occlusion Culling");
+            occlusionCuller.update(renderableRegion, ChunkMath.calcChunkPos(playerCamera.getPosition()), visibleChunkConnectivity);
+            PerformanceMonitor.endActivity();
+        }
 
         int processedChunks = 0;
         int chunkCounter = 0;
@@ -310,7 +324,13 @@ public int queueVisibleChunks(boolean isFirstRenderingStageForCurrentFrame) {
                     }
                 }
 
-                if (isChunkVisible(chunk)) {
+                boolean isVisible = isChunkVisible(chunk);
+                if (isVisible && isOcclusionCulling && !occlusionCuller.isVisible(chunk.getPosition())) {
+                    isVisible = false;
+                    statOccludedChunks++;
+                }
+
+                if (isVisible) {
                     if (triangleCount(mesh, ChunkMesh.RenderPhase.OPAQUE) > 0) {
                         renderQueues.chunksOpaque.add(chunk);
                     } else {
@@ -415,6 +435,9 @@ public String getMetrics() {
         builder.append("Visible Chunks: ");
         builder.append(statVisibleChunks);
         builder.append("\n");
+        builder.append("Occluded Chunks: ");
+        builder.append(statOccludedChunks);
+        builder.append("\n");
         return builder.toString();
     }
 
@@ -433,6 +456,29 @@ private static float squaredDistanceToCamera(RenderableChunk chunk, Vector3f cam
         return result.lengthSquared();
     }
 
+    /**
+     * Lets the occlusion culling search through the chunks in the player camera's view frustum, including chunks that
+     * are not loaded or tessellated yet, as they must not hide the chunks behind them.
+     */
+    private class VisibleChunkConnectivity implements ChunkOcclusionCuller.ChunkConnectivityProvider {
+
+        @Override
+        public ChunkConnectivity getConnectivity(int x, int y, int z) {
+            RenderableChunk chunk = chunkProvider.getChunk(x, y, z);
+            if (chunk == null) {
+                Vector3f min = new Vector3f(x * ChunkConstants.SIZE_X, y * ChunkConstants.SIZE_Y, z * ChunkConstants.SIZE_Z);
+                Vector3f max = new Vector3f(min);
+                max.add(ChunkConstants.CHUNK_SIZE.toVector3f());
+                return playerCamera.hasInSight(AABB.createMinMax(min, max)) ? ChunkConnectivity.FULL : null;
+            }
+            if (!isChunkVisible(chunk)) {
+                return null;
+            }
+            ChunkConnectivity connectivity = chunk.getConnectivity();
+            return (connectivity != null) ? connectivity : ChunkConnectivity.FULL;
+        }
+    }
+
     // TODO: find the right place to check if the activeCamera has changed,
     // TODO: so that the comparators can hold an up-to-date reference to it
     // TODO: and avoid having to find it on a per-comparison basis.
@@ -16,13 +16,15 @@
 
 package org.terasology.utilities.procedural;
 
+import java.util.Arrays;
+
 /**
  * Computes Brownian noise based on some noise generator.
  * Originally, Brown integrates white noise, but using other noises can be sometimes useful, too.
  *
  * @author Martin Steiger
  */
-public class BrownianNoise2D extends BrownianNoise implements Noise2D {
+public class BrownianNoise2D extends BrownianNoise implements BulkNoise2D {
 
     private final Noise2D other;
 
@@ -66,4 +68,32 @@ public float noise(float x, float y) {
         return result;
     }
 
+    /**
+     * Evaluates the octaves one after another over the whole grid, so that the underlying noise can be evaluated in bulk.
+     */
+    @Override
+    public void noise(float[] xs, float[] ys, float[] target) {
+        int size = xs.length * ys.length;
+        float[] octave = new float[size];
+        float[] workingX = xs.clone();
+        float[] workingY = ys.clone();
+        Arrays.fill(target, 0, size, 0.0f);
+        for (int i = 0; i < getOctaves(); i++) {
+            BulkNoise.noise(other, workingX, workingY, octave);
+            double weight = getSpectralWeight(i);
+            for (int index = 0; index < size; index++) {
+                target[index] += octave[index] * weight;
+            }
+
+            scale(workingX, getLacunarity());
+            scale(workingY, getLacunarity());
+        }
+    }
+
+    private static void scale(float[] positions, double factor) {
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] *= factor;
+        }
+    }
+
 }
@@ -16,12 +16,14 @@
 
 package org.terasology.utilities.procedural;
 
+import java.util.Arrays;
+
 /**
  * Computes Brownian noise based on some noise generator.
  * Originally, Brown integrates white noise, but using other noises can be sometimes useful, too.
  * @author Martin Steiger
  */
-public class BrownianNoise3D extends BrownianNoise implements Noise3D {
+public class BrownianNoise3D extends BrownianNoise implements BulkNoise3D {
 
     private final Noise3D other;
     
@@ -66,5 +68,35 @@ public float noise(float x, float y, float z) {
 
         return result;
     }
-    
+
+    /**
+     * Evaluates the octaves one after another over the whole grid, so that the underlying noise can be evaluated in bulk.
+     */
+    @Override
+    public void noise(float[] xs, float[] ys, float[] zs, float[] target) {
+        int size = xs.length * ys.length * zs.length;
+        float[] octave = new float[size];
+        float[] workingX = xs.clone();
+        float[] workingY = ys.clone();
+        float[] workingZ = zs.clone();
+        Arrays.fill(target, 0, size, 0.0f);
+        for (int i = 0; i < getOctaves(); i++) {
+            BulkNoise.noise(other, workingX, workingY, workingZ, octave);
+            double weight = getSpectralWeight(i);
+            for (int index = 0; index < size; index++) {
+                target[index] += octave[index] * weight;
+            }
+
+            scale(workingX, getLacunarity());
+            scale(workingY, getLacunarity());
+            scale(workingZ, getLacunarity());
+        }
+    }
+
+    private static void scale(float[] positions, double factor) {
+        for (int i = 0; i < positions.length; i++) {
+            positions[i] *= factor;
+        }
+    }
+
 }
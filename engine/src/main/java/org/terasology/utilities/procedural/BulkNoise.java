@@ -0,0 +1,89 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.procedural;
+
+import com.google.common.base.Preconditions;
+
+/**
+ * Helpers for evaluating noise over grids of positions, using {@link BulkNoise2D} and {@link BulkNoise3D}
+ * where the noise supports it and falling back to per-point evaluation otherwise.
+ */
+public final class BulkNoise {
+
+    private BulkNoise() {
+    }
+
+    /**
+     * @return the coordinates origin, origin + step, ... origin + (size - 1) * step, computed as origin + i * step
+     */
+    public static float[] axis(float origin, float step, int size) {
+        float[] result = new float[size];
+        for (int i = 0; i < size; i++) {
+            result[i] = origin + i * step;
+        }
+        return result;
+    }
+
+    /**
+     * Fills target with noise(xs[i], ys[j]) at index i + xs.length * j.
+     */
+    public static void noise(Noise2D noise, float[] xs, float[] ys, float[] target) {
+        Preconditions.checkArgument(target.length >= xs.length * ys.length, "Target array is too small");
+        if (noise instanceof BulkNoise2D) {
+            ((BulkNoise2D) noise).noise(xs, ys, target);
+        } else {
+            perPoint(noise, xs, ys, target);
+        }
+    }
+
+    /**
+     * Fills target with noise(xs[i], ys[j], zs[k]) at index i + xs.length * (j + ys.length * k).
+     */
+    public static void noise(Noise3D noise, float[] xs, float[] ys, float[] zs, float[] target) {
+        Preconditions.checkArgument(target.length >= xs.length * ys.length * zs.length, "Target array is too small");
+        if (noise instanceof BulkNoise3D) {
+            ((BulkNoise3D) noise).noise(xs, ys, zs, target);
+        } else {
+            perPoint(noise, xs, ys, zs, target);
+        }
+    }
+
+    /**
+     * Evaluates the grid one point at a time. Bulk implementations without a faster strategy delegate here.
+     */
+    public static void perPoint(Noise2D noise, float[] xs, float[] ys, float[] target) {
+        int index = 0;
+        for (float y : ys) {
+            for (float x : xs) {
+                target[index++] = noise.noise(x, y);
+            }
+        }
+    }
+
+    /**
+     * Evaluates the grid one point at a time. Bulk implementations without a faster strategy delegate here.
+     */
+    public static void perPoint(Noise3D noise, float[] xs, float[] ys, float[] zs, float[] target) {
+        int index = 0;
+        for (float z : zs) {
+            for (float y : ys) {
+                for (float x : xs) {
+                    target[index++] = noise.noise(x, y, z);
+                }
+            }
+        }
+    }
+}
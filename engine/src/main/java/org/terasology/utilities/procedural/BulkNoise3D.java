@@ -0,0 +1,34 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.utilities.procedural;
+
+/**
+ * 3D noise that can evaluate a whole grid of positions in one call. Implementations hoist everything that only
+ * depends on one axis out of the inner loop and return exactly the values that per-point evaluation would return.
+ */
+public interface BulkNoise3D extends Noise3D {
+
+    /**
+     * Evaluates the noise at every combination of the given coordinates.
+     *
+     * @param xs     Positions on the x-axis
+     * @param ys     Positions on the y-axis
+     * @param zs     Positions on the z-axis
+     * @param target Receives noise(xs[i], ys[j], zs[k]) at index i + xs.length * (j + ys.length * k).
+     *               Must hold at least xs.length * ys.length * zs.length values
+     */
+    void noise(float[] xs, float[] ys, float[] zs, float[] target);
+}
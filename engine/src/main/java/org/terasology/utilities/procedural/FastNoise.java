@@ -25,7 +25,7 @@
  * Noise is created at discrete intervals only, i.e. noise(3.4) == noise(2.6) == noise(2).
  * @author Martin Steiger
  */
-public class FastNoise implements Noise2D, Noise3D {
+public class FastNoise implements BulkNoise2D, BulkNoise3D {
 
     private final NoiseTable table1;
     private final NoiseTable table2;
@@ -68,4 +68,13 @@ public float noise(float x, float y) {
         return in / 65535.0f;
     }
 
+    @Override
+    public void noise(float[] xs, float[] ys, float[] target) {
+        BulkNoise.perPoint(this, xs, ys, target);
+    }
+
+    @Override
+    public void noise(float[] xs, float[] ys, float[] zs, float[] target) {
+        BulkNoise.perPoint(this, xs, ys, zs, target);
+    }
 }
@@ -18,7 +18,7 @@
 /**
  * @author Immortius
  */
-public class Noise3DTo2DAdapter implements Noise2D {
+public class Noise3DTo2DAdapter implements BulkNoise2D {
 
     private Noise3D noise;
     private float yVal;
@@ -36,4 +36,12 @@ public Noise3DTo2DAdapter(Noise3D noise, float fixedYVal) {
     public float noise(float x, float y) {
         return noise.noise(x, yVal, y);
     }
+
+    /**
+     * Evaluates the grid as a single layer of the 3D noise, which has the same memory layout as the 2D grid.
+     */
+    @Override
+    public void noise(float[] xs, float[] ys, float[] target) {
+        BulkNoise.noise(noise, xs, new float[]{yVal}, ys, target);
+    }
 }
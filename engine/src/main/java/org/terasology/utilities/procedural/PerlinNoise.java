@@ -23,7 +23,7 @@
  *
  * @author Benjamin Glatzel <benjamin.glatzel@me.com>
  */
-public class PerlinNoise implements Noise3D {
+public class PerlinNoise implements BulkNoise3D {
 
     private final int[] noisePermutations;
 
@@ -98,6 +98,72 @@ public float noise(float posX, float posY, float posZ) {
         );
     }
 
+    /**
+     * Evaluates the noise over a grid. The lattice cell, offset and fade value of every coordinate, as well as the
+     * first permutation lookup along the x-axis, are computed once per axis instead of once per point.
+     */
+    @Override
+    public void noise(float[] xs, float[] ys, float[] zs, float[] target) {
+        int[] xInts = new int[xs.length];
+        float[] xFracs = new float[xs.length];
+        float[] xFades = new float[xs.length];
+        prepareAxis(xs, xInts, xFracs, xFades);
+        int[] xHashes0 = new int[xs.length];
+        int[] xHashes1 = new int[xs.length];
+        for (int i = 0; i < xs.length; i++) {
+            xHashes0[i] = noisePermutations[xInts[i]];
+            xHashes1[i] = noisePermutations[xInts[i] + 1];
+        }
+        int[] yInts = new int[ys.length];
+        float[] yFracs = new float[ys.length];
+        float[] yFades = new float[ys.length];
+        prepareAxis(ys, yInts, yFracs, yFades);
+        int[] zInts = new int[zs.length];
+        float[] zFracs = new float[zs.length];
+        float[] zFades = new float[zs.length];
+        prepareAxis(zs, zInts, zFracs, zFades);
+
+        int index = 0;
+        for (int k = 0; k < zs.length; k++) {
+            int zInt = zInts[k];
+            float z = zFracs[k];
+            float w = zFades[k];
+            for (int j = 0; j < ys.length; j++) {
+                int yInt = yInts[j];
+                float y = yFracs[j];
+                float v = yFades[j];
+                for (int i = 0; i < xs.length; i++) {
+                    float x = xFracs[i];
+                    float u = xFades[i];
+                    int a = xHashes0[i] + yInt;
+                    int aa = noisePermutations[a] + zInt;
+                    int ab = noisePermutations[(a + 1)] + zInt;
+                    int b = xHashes1[i] + yInt;
+                    int ba = noisePermutations[b] + zInt;
+                    int bb = noisePermutations[(b + 1)] + zInt;
+
+                    target[index++] = TeraMath.lerp(TeraMath.lerp(TeraMath.lerp(grad(noisePermutations[aa], x, y, z), grad(noisePermutations[ba], x - 1, y, z), u
+                                    ), TeraMath.lerp(grad(noisePermutations[ab], x, y - 1, z), grad(noisePermutations[bb], x - 1, y - 1, z), u
+                                    ), v
+                            ), TeraMath.lerp(TeraMath.lerp(grad(noisePermutations[(aa + 1)], x, y, z - 1), grad(noisePermutations[(ba + 1)], x - 1, y, z - 1), u
+                                    ), TeraMath.lerp(grad(noisePermutations[(ab + 1)], x, y - 1, z - 1), grad(noisePermutations[(bb + 1)], x - 1, y - 1, z - 1), u
+                                    ), v
+                            ), w
+                    );
+                }
+            }
+        }
+    }
+
+    private static void prepareAxis(float[] positions, int[] ints, float[] fracs, float[] fades) {
+        for (int i = 0; i < positions.length; i++) {
+            float floor = TeraMath.fastFloor(positions[i]);
+            ints[i] = (int) floor & 255;
+            fracs[i] = positions[i] - floor;
+            fades[i] = TeraMath.fadePerlin(fracs[i]);
+        }
+    }
+
     private static float grad(int hash, float x, float y, float z) {
         int h = hash & 15;
         float u = h < 8 ? x : y;
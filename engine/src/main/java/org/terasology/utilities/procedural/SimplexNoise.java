@@ -37,7 +37,7 @@
  * <p/>
  * msteiger: Introduced seed value
  */
-public class SimplexNoise implements Noise2D, Noise3D {
+public class SimplexNoise implements BulkNoise2D, BulkNoise3D {
 
     private static Grad[] grad3 = {
             new Grad(1, 1, 0), new Grad(-1, 1, 0), new Grad(1, -1, 0), new Grad(-1, -1, 0),
@@ -529,4 +529,14 @@ private static class Grad {
             this.w = w;
         }
     }
+
+    @Override
+    public void noise(float[] xs, float[] ys, float[] target) {
+        BulkNoise.perPoint(this, xs, ys, target);
+    }
+
+    @Override
+    public void noise(float[] xs, float[] ys, float[] zs, float[] target) {
+        BulkNoise.perPoint(this, xs, ys, zs, target);
+    }
 }
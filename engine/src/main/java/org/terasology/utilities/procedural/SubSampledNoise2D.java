@@ -25,7 +25,7 @@
 /**
  * @author Immortius
  */
-public class SubSampledNoise2D implements Noise2D {
+public class SubSampledNoise2D implements BulkNoise2D {
 
     private Noise2D source;
     private Vector2f zoom = new Vector2f(1, 1);
@@ -55,6 +55,11 @@ public float noise(float x, float y) {
         return TeraMath.biLerp(q00, q10, q01, q11, xMod / sampleRate, yMod / sampleRate);
     }
 
+    @Override
+    public void noise(float[] xs, float[] ys, float[] target) {
+        BulkNoise.perPoint(this, xs, ys, target);
+    }
+
     public float[] noise(Rect2i region) {
         Rect2i fullRegion = determineRequiredRegion(region);
         float[] keyData = getKeyValues(fullRegion);
@@ -99,14 +104,18 @@ private float[] mapExpand(float[] keyData, Rect2i fullRegion) {
     private float[] getKeyValues(Rect2i fullRegion) {
         int xDim = fullRegion.size().x / sampleRate + 1;
         int yDim = fullRegion.size().y / sampleRate + 1;
-        float[] fullData = new float[xDim * yDim];
+        float[] xs = new float[xDim];
+        for (int x = 0; x < xDim; x++) {
+            int actualX = x * sampleRate + fullRegion.minX();
+            xs[x] = zoom.x * actualX;
+        }
+        float[] ys = new float[yDim];
         for (int y = 0; y < yDim; y++) {
-            for (int x = 0; x < xDim; x++) {
-                int actualX = x * sampleRate + fullRegion.minX();
-                int actualY = y * sampleRate + fullRegion.minY();
-                fullData[x + y * xDim] = source.noise(zoom.x * actualX, zoom.y * actualY);
-            }
+            int actualY = y * sampleRate + fullRegion.minY();
+            ys[y] = zoom.y * actualY;
         }
+        float[] fullData = new float[xDim * yDim];
+        BulkNoise.noise(source, xs, ys, fullData);
         return fullData;
     }
 
@@ -25,7 +25,7 @@
 /**
  * @author Immortius
  */
-public class SubSampledNoise3D implements Noise3D {
+public class SubSampledNoise3D implements BulkNoise3D {
 
     private Noise3D source;
     private Vector3f zoom = new Vector3f(1, 1, 1);
@@ -62,6 +62,11 @@ public float noise(float x, float y, float z) {
         return TeraMath.triLerp(q000, q100, q010, q110, q001, q101, q011, q111, xMod / sampleRate, yMod / sampleRate, zMod / sampleRate);
     }
 
+    @Override
+    public void noise(float[] xs, float[] ys, float[] zs, float[] target) {
+        BulkNoise.perPoint(this, xs, ys, zs, target);
+    }
+
     public float[] noise(Region3i region) {
         Region3i fullRegion = determineRequiredRegion(region);
         float[] keyData = getKeyValues(fullRegion);
@@ -120,17 +125,23 @@ private float[] getKeyValues(Region3i fullRegion) {
         int xDim = fullRegion.size().x / sampleRate + 1;
         int yDim = fullRegion.size().y / sampleRate + 1;
         int zDim = fullRegion.size().z / sampleRate + 1;
-        float[] fullData = new float[xDim * yDim * zDim];
+        float[] xs = new float[xDim];
+        for (int x = 0; x < xDim; x++) {
+            int actualX = x * sampleRate + fullRegion.minX();
+            xs[x] = zoom.x * actualX;
+        }
+        float[] ys = new float[yDim];
+        for (int y = 0; y < yDim; y++) {
+            int actualY = y * sampleRate + fullRegion.minY();
+            ys[y] = zoom.y * actualY;
+        }
+        float[] zs = new float[zDim];
         for (int z = 0; z < zDim; z++) {
-            for (int y = 0; y < yDim; y++) {
-                for (int x = 0; x < xDim; x++) {
-                    int actualX = x * sampleRate + fullRegion.minX();
-                    int actualY = y * sampleRate + fullRegion.minY();
-                    int actualZ = z * sampleRate + fullRegion.minZ();
-                    fullData[x + xDim * (y + yDim * z)] = source.noise(zoom.x * actualX, zoom.y * actualY, zoom.z * actualZ);
-                }
-            }
+            int actualZ = z * sampleRate + fullRegion.minZ();
+            zs[z] = zoom.z * actualZ;
         }
+        float[] fullData = new float[xDim * yDim * zDim];
+        BulkNoise.noise(source, xs, ys, zs, fullData);
         return fullData;
     }
 
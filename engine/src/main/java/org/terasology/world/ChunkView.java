@@ -53,6 +53,15 @@ public interface ChunkView {
      */
     Block getBlock(int x, int y, int z);
 
+    /**
+     * @param x
+     * @param y
+     * @param z
+     * @return Whether all blocks of the horizontal chunk layer containing the given coordinates are known to be the same,
+     * without examining them one by one. False if the coordinates are outside of the view.
+     */
+    boolean isUniformBlockLayer(int x, int y, int z);
+
     /**
      * @param x
      * @param y
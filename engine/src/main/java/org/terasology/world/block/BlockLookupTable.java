@@ -0,0 +1,97 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.block;
+
+import java.util.Arrays;
+
+/**
+ * An immutable snapshot of the registered blocks, indexed directly by block id, along with the luminance of each block
+ * for the lighting code, which works on block ids.
+ * <p/>
+ * Ids without a registered block resolve to air. The luminance is copied from the blocks when the table is built, so
+ * changes made to a block after its registration are not reflected.
+ */
+public final class BlockLookupTable {
+    private final Block[] blocks;
+    private final byte[] luminance;
+
+    /**
+     * @param registeredBlocks The blocks to index by their ids
+     */
+    public BlockLookupTable(Iterable<Block> registeredBlocks) {
+        this(new Block[0], new byte[0], registeredBlocks);
+    }
+
+    private BlockLookupTable(Block[] baseBlocks, byte[] baseLuminance, Iterable<Block> addedBlocks) {
+        int baseSize = baseBlocks.length;
+        int size = Math.max(1, baseSize);
+        for (Block block : addedBlocks) {
+            size = Math.max(size, index(block.getId()) + 1);
+        }
+        blocks = Arrays.copyOf(baseBlocks, size);
+        luminance = Arrays.copyOf(baseLuminance, size);
+
+        for (int i = baseSize; i < size; ++i) {
+            store(i, BlockManager.getAir());
+        }
+        for (Block block : addedBlocks) {
+            store(index(block.getId()), block);
+        }
+    }
+
+    /**
+     * Creates a table with additional blocks, copying this table's arrays rather than rebuilding them from every
+     * registered block. This table is not modified.
+     *
+     * @param addedBlocks The blocks to add, replacing any blocks with the same ids
+     * @return The extended table
+     */
+    public BlockLookupTable withBlocks(Iterable<Block> addedBlocks) {
+        return new BlockLookupTable(blocks, luminance, addedBlocks);
+    }
+
+    private void store(int index, Block block) {
+        blocks[index] = block;
+        luminance[index] = block.getLuminance();
+    }
+
+    private static int index(short id) {
+        return id & 0xFFFF;
+    }
+
+    /**
+     * @return The number of ids covered by this table
+     */
+    public int size() {
+        return blocks.length;
+    }
+
+    public Block getBlock(short id) {
+        int index = index(id);
+        if (index >= blocks.length) {
+            return BlockManager.getAir();
+        }
+        return blocks[index];
+    }
+
+    public byte getLuminance(short id) {
+        int index = index(id);
+        if (index >= luminance.length) {
+            return 0;
+        }
+        return luminance[index];
+    }
+}
@@ -115,6 +115,12 @@ public static BlockFamily getAirFamily() {
      */
     public abstract Block getBlock(short id);
 
+    /**
+     * @return A snapshot of the currently registered blocks indexed by id, with their luminance. A new table
+     * is published whenever block families are registered.
+     */
+    public abstract BlockLookupTable getLookupTable();
+
     /**
      * @return An iterable over the list of registered (in use) block uris
      */
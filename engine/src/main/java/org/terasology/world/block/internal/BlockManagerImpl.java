@@ -40,6 +40,7 @@
 import org.terasology.persistence.ModuleContext;
 import org.terasology.registry.CoreRegistry;
 import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockLookupTable;
 import org.terasology.world.block.BlockManager;
 import org.terasology.world.block.BlockSounds;
 import org.terasology.world.block.BlockUri;
@@ -51,6 +52,7 @@
 import org.terasology.world.block.loader.FreeformFamily;
 import org.terasology.world.block.loader.WorldAtlas;
 
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Locale;
@@ -128,6 +130,7 @@ public BlockManagerImpl(WorldAtlas atlas,
             nextId = (short) knownBlockMappings.size();
         }
 
+        List<BlockFamily> familiesToRegister = Lists.newArrayListWithCapacity(registeredBlockFamilies.size());
         for (String rawFamilyUri : registeredBlockFamilies) {
             BlockUri familyUri = new BlockUri(rawFamilyUri);
             BlockFamily family;
@@ -150,11 +153,12 @@ public BlockManagerImpl(WorldAtlas atlas,
                         }
                     }
                 }
-                registerFamily(family);
+                familiesToRegister.add(family);
             } else {
                 logger.error("Family not available: {}", rawFamilyUri);
             }
         }
+        registerFamilies(familiesToRegister);
     }
 
     public void dispose() {
@@ -224,32 +228,54 @@ public void addFreeformBlockFamily(BlockUri family, Iterable<String> categories)
 
     @VisibleForTesting
     protected void registerFamily(BlockFamily family) {
-        logger.info("Registered {}", family);
+        registerFamilies(Collections.singletonList(family));
+    }
+
+    /**
+     * Registers several families at once, so that the registered state and the lookup table are only copied once.
+     */
+    private void registerFamilies(List<BlockFamily> families) {
+        if (families.isEmpty()) {
+            return;
+        }
         lock.lock();
         try {
             RegisteredState newState = new RegisteredState(registeredBlockInfo.get());
-            newState.registeredFamilyByUri.put(family.getURI(), family);
-            for (Block block : family.getBlocks()) {
-                registerBlock(block, newState);
+            List<Block> blocksWithIds = Lists.newArrayList();
+            for (BlockFamily family : families) {
+                logger.info("Registered {}", family);
+                newState.registeredFamilyByUri.put(family.getURI(), family);
+                for (Block block : family.getBlocks()) {
+                    if (registerBlock(block, newState)) {
+                        blocksWithIds.add(block);
+                    }
+                }
             }
+            newState.lookupTable = newState.lookupTable.withBlocks(blocksWithIds);
             registeredBlockInfo.set(newState);
         } finally {
             lock.unlock();
         }
-        for (BlockRegistrationListener listener : listeners) {
-            listener.onBlockFamilyRegistered(family);
+        for (BlockFamily family : families) {
+            for (BlockRegistrationListener listener : listeners) {
+                listener.onBlockFamilyRegistered(family);
+            }
         }
     }
 
-    private void registerBlock(Block block, RegisteredState newState) {
+    /**
+     * @return Whether the block was registered with an id
+     */
+    private boolean registerBlock(Block block, RegisteredState newState) {
+        newState.blocksByUri.put(block.getURI(), block);
         if (block.getId() != UNKNOWN_ID) {
             logger.info("Registered Block {} with id {}", block, block.getId());
             newState.blocksById.put(block.getId(), block);
             newState.idByUri.put(block.getURI(), block.getId());
-        } else {
-            logger.info("Failed to register block {} - no id", block, block.getId());
+            return true;
         }
-        newState.blocksByUri.put(block.getURI(), block);
+        logger.info("Failed to register block {} - no id", block, block.getId());
+        return false;
     }
 
     /**
@@ -405,11 +431,12 @@ public Block getBlock(BlockUri uri) {
 
     @Override
     public Block getBlock(short id) {
-        Block result = registeredBlockInfo.get().blocksById.get(id);
-        if (result == null) {
-            return getAir();
-        }
-        return result;
+        return registeredBlockInfo.get().lookupTable.getBlock(id);
+    }
+
+    @Override
+    public BlockLookupTable getLookupTable() {
+        return registeredBlockInfo.get().lookupTable;
     }
 
     @Override
@@ -472,12 +499,14 @@ private static class RegisteredState {
         private final Map<BlockUri, Block> blocksByUri;
         private final TShortObjectMap<Block> blocksById;
         private final TObjectShortMap<BlockUri> idByUri;
+        private BlockLookupTable lookupTable;
 
         public RegisteredState() {
             this.registeredFamilyByUri = Maps.newHashMap();
             this.blocksByUri = Maps.newHashMap();
             this.blocksById = new TShortObjectHashMap<>();
             this.idByUri = new TObjectShortHashMap<>();
+            this.lookupTable = new BlockLookupTable(Collections.<Block>emptyList());
         }
 
         public RegisteredState(RegisteredState oldState) {
@@ -485,6 +514,7 @@ public RegisteredState(RegisteredState oldState) {
             this.blocksByUri = Maps.newHashMap(oldState.blocksByUri);
             this.blocksById = new TShortObjectHashMap<>(oldState.blocksById);
             this.idByUri = new TObjectShortHashMap<>(oldState.idByUri);
+            this.lookupTable = oldState.lookupTable;
         }
     }
 
@@ -0,0 +1,258 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.block.loader;
+
+import com.google.common.base.Charsets;
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+import gnu.trove.procedure.TObjectIntProcedure;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.asset.AssetUri;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Persists a fully built world atlas (the tile index mapping plus the mipmap chains of the color, normal and height
+ * atlases) to a local binary file, so that subsequent starts with the same set of tiles can skip decoding and
+ * compositing every tile image.
+ * <p>
+ * The file is keyed by an opaque byte array that the caller derives from the tile uris and their content. A cache file
+ * with a different key, format version or a corrupt layout is ignored. Loaded mipmaps are slices of a read-only
+ * memory-mapped view of the file, which is only mapped once its header matched the key.
+ */
+public class WorldAtlasCache {
+    private static final Logger logger = LoggerFactory.getLogger(WorldAtlasCache.class);
+
+    private static final int MAGIC = 0x54415443;
+    private static final int FORMAT_VERSION = 1;
+    private static final int NUM_CHAINS = 3;
+    private static final int HEADER_SIZE = 12;
+
+    private final Path cacheFile;
+
+    public WorldAtlasCache(Path cacheFile) {
+        this.cacheFile = cacheFile;
+    }
+
+    public Path getCacheFile() {
+        return cacheFile;
+    }
+
+    /**
+     * @param key The key the cache must have been stored with
+     * @return The cached atlas, or null if there is no valid cache entry for the given key
+     */
+    public Entry load(byte[] key) {
+        if (!Files.isRegularFile(cacheFile)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(cacheFile, StandardOpenOption.READ)) {
+            // The header is validated with plain reads, so that no mapping of an outdated file is left behind to block
+            // replacing it in store()
+            ByteBuffer header = readFully(channel, HEADER_SIZE);
+            if (header == null || header.getInt() != MAGIC || header.getInt() != FORMAT_VERSION) {
+                logger.info("Ignoring world atlas cache {} with unknown format", cacheFile);
+                return null;
+            }
+            int keyLength = header.getInt();
+            if (keyLength != key.length) {
+                logger.info("World atlas cache {} is out of date", cacheFile);
+                return null;
+            }
+            ByteBuffer storedKey = readFully(channel, keyLength);
+            if (storedKey == null || !storedKey.equals(ByteBuffer.wrap(key))) {
+                logger.info("World atlas cache {} is out of date", cacheFile);
+                return null;
+            }
+
+            long dataStart = channel.position();
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, dataStart, channel.size() - dataStart);
+            int tileSize = buffer.getInt();
+            int atlasSize = buffer.getInt();
+            int numMipmaps = buffer.getInt();
+
+            int numTiles = buffer.getInt();
+            TObjectIntMap<AssetUri> tileIndexes = new TObjectIntHashMap<>(numTiles);
+            for (int i = 0; i < numTiles; ++i) {
+                byte[] uriBytes = new byte[buffer.getInt()];
+                buffer.get(uriBytes);
+                tileIndexes.put(new AssetUri(new String(uriBytes, Charsets.UTF_8)), buffer.getInt());
+            }
+
+            ByteBuffer[][] chains = new ByteBuffer[NUM_CHAINS][numMipmaps];
+            for (int chain = 0; chain < NUM_CHAINS; ++chain) {
+                for (int level = 0; level < numMipmaps; ++level) {
+                    int length = buffer.getInt();
+                    ByteBuffer slice = buffer.slice();
+                    slice.limit(length);
+                    buffer.position(buffer.position() + length);
+                    chains[chain][level] = slice;
+                }
+            }
+            return new Entry(tileSize, atlasSize, tileIndexes, chains[0], chains[1], chains[2]);
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            logger.warn("Failed to read world atlas cache {}", cacheFile, e);
+            return null;
+        }
+    }
+
+    /**
+     * @return A buffer holding the next length bytes of the channel, flipped for reading, or null if the channel ends
+     * before that
+     */
+    private static ByteBuffer readFully(FileChannel channel, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer) < 0) {
+                return null;
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Writes the given atlas to the cache file, replacing any previous entry.
+     *
+     * @param key   The key to store the atlas with
+     * @param entry The atlas to store
+     */
+    public void store(byte[] key, Entry entry) {
+        for (ByteBuffer[] chain : Arrays.asList(entry.getColor(), entry.getNormal(), entry.getHeight())) {
+            if (Arrays.asList(chain).contains(null)) {
+                logger.warn("Not caching incomplete world atlas");
+                return;
+            }
+        }
+        Path tempFile = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(cacheFile.toAbsolutePath().getParent());
+            try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(tempFile)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeInt(key.length);
+                out.write(key);
+                out.writeInt(entry.getTileSize());
+                out.writeInt(entry.getAtlasSize());
+                out.writeInt(entry.getNumMipmaps());
+
+                out.writeInt(entry.getTileIndexes().size());
+                final IOException[] failure = new IOException[1];
+                entry.getTileIndexes().forEachEntry(new TObjectIntProcedure<AssetUri>() {
+                    @Override
+                    public boolean execute(AssetUri uri, int index) {
+                        try {
+                            byte[] uriBytes = uri.toString().getBytes(Charsets.UTF_8);
+                            out.writeInt(uriBytes.length);
+                            out.write(uriBytes);
+                            out.writeInt(index);
+                            return true;
+                        } catch (IOException e) {
+                            failure[0] = e;
+                            return false;
+                        }
+                    }
+                });
+                if (failure[0] != null) {
+                    throw failure[0];
+                }
+
+                for (ByteBuffer[] chain : Arrays.asList(entry.getColor(), entry.getNormal(), entry.getHeight())) {
+                    for (ByteBuffer level : chain) {
+                        ByteBuffer source = level.duplicate();
+                        source.rewind();
+                        byte[] bytes = new byte[source.remaining()];
+                        source.get(bytes);
+                        out.writeInt(bytes.length);
+                        out.write(bytes);
+                    }
+                }
+            }
+            Files.move(tempFile, cacheFile, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            logger.warn("Failed to write world atlas cache {}", cacheFile, e);
+            try {
+                Files.deleteIfExists(tempFile);
+            } catch (IOException ignored) {
+                logger.debug("Failed to remove temporary atlas cache file {}", tempFile);
+            }
+        }
+    }
+
+    /**
+     * A fully built world atlas.
+     */
+    public static final class Entry {
+        private final int tileSize;
+        private final int atlasSize;
+        private final TObjectIntMap<AssetUri> tileIndexes;
+        private final ByteBuffer[] color;
+        private final ByteBuffer[] normal;
+        private final ByteBuffer[] height;
+
+        public Entry(int tileSize, int atlasSize, TObjectIntMap<AssetUri> tileIndexes, ByteBuffer[] color, ByteBuffer[] normal, ByteBuffer[] height) {
+            if (color.length != normal.length || color.length != height.length) {
+                throw new IllegalArgumentException("All mipmap chains must have the same number of levels");
+            }
+            this.tileSize = tileSize;
+            this.atlasSize = atlasSize;
+            this.tileIndexes = tileIndexes;
+            this.color = color;
+            this.normal = normal;
+            this.height = height;
+        }
+
+        public int getTileSize() {
+            return tileSize;
+        }
+
+        public int getAtlasSize() {
+            return atlasSize;
+        }
+
+        public int getNumMipmaps() {
+            return color.length;
+        }
+
+        public TObjectIntMap<AssetUri> getTileIndexes() {
+            return tileIndexes;
+        }
+
+        public ByteBuffer[] getColor() {
+            return color;
+        }
+
+        public ByteBuffer[] getNormal() {
+            return normal;
+        }
+
+        public ByteBuffer[] getHeight() {
+            return height;
+        }
+    }
+}
@@ -15,8 +15,12 @@
  */
 package org.terasology.world.block.loader;
 
+import com.google.common.base.Charsets;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.hash.Hasher;
+import com.google.common.hash.Hashing;
+import com.google.common.io.Resources;
 import com.google.common.math.IntMath;
 
 import gnu.trove.map.TObjectIntMap;
@@ -53,6 +57,7 @@
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
+import java.net.URL;
 import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.util.List;
@@ -68,6 +73,7 @@ public class WorldAtlasImpl implements WorldAtlas {
     private static final Color UNIT_Z_COLOR = new Color(0.5f, 0.5f, 1.0f, 1.0f);
     private static final Color TRANSPARENT_COLOR = new Color(0.0f, 0.0f, 0.0f, 0.0f);
     private static final Color BLACK_COLOR = new Color(0.0f, 0.0f, 0.0f, 1.0f);
+    private static final String CACHE_FILE_NAME = "worldAtlas.bin";
 
     private int maxAtlasSize = 4096;
     private int atlasSize = 256;
@@ -85,11 +91,44 @@ public class WorldAtlasImpl implements WorldAtlas {
      * @param maxAtlasSize The maximum dimensions of the atlas (both width and height, in pixels)
      */
     public WorldAtlasImpl(int maxAtlasSize) {
+        this(maxAtlasSize, null);
+    }
+
+    /**
+     * @param maxAtlasSize The maximum dimensions of the atlas (both width and height, in pixels)
+     * @param cache        The cache to load a previously built atlas from and to store a newly built one into, or null to always build the atlas
+     */
+    public WorldAtlasImpl(int maxAtlasSize, WorldAtlasCache cache) {
         this.maxAtlasSize = maxAtlasSize;
-        for (AssetUri tile : Assets.list(AssetType.BLOCK_TILE)) {
+        List<AssetUri> tileUris = Lists.newArrayList(Assets.list(AssetType.BLOCK_TILE));
+        byte[] cacheKey = null;
+        if (cache != null) {
+            cacheKey = calculateCacheKey(tileUris);
+            WorldAtlasCache.Entry entry = (cacheKey != null) ? cache.load(cacheKey) : null;
+            if (entry != null) {
+                logger.info("Loaded world atlas from cache {}", cache.getCacheFile());
+                tileSize = entry.getTileSize();
+                atlasSize = entry.getAtlasSize();
+                tileIndexes = entry.getTileIndexes();
+                createAtlasAssets(entry.getColor(), entry.getNormal(), entry.getHeight());
+                return;
+            }
+        }
+
+        for (AssetUri tile : tileUris) {
             indexTile(tile);
         }
-        buildAtlas();
+        WorldAtlasCache.Entry entry = buildAtlas();
+        if (cacheKey != null) {
+            cache.store(cacheKey, entry);
+        }
+    }
+
+    /**
+     * @return The default cache location for the world atlas, in the user's cache directory
+     */
+    public static WorldAtlasCache createDefaultCache() {
+        return new WorldAtlasCache(PathManager.getInstance().getCachePath().resolve(CACHE_FILE_NAME));
     }
 
     @Override
@@ -186,7 +225,39 @@ private void addHeightMap(AssetUri uri) {
         }
     }
 
-    private void buildAtlas() {
+    /**
+     * The cache key covers everything the built atlas depends on: the maximum atlas size, the ordered list of tiles and the
+     * content of every tile, normal and height map file.
+     *
+     * @return The key of the atlas for the given tiles, or null if the tile content could not be read
+     */
+    private byte[] calculateCacheKey(List<AssetUri> tileUris) {
+        AssetManager assetManager = CoreRegistry.get(AssetManager.class);
+        Hasher hasher = Hashing.sha1().newHasher();
+        hasher.putInt(maxAtlasSize);
+        try {
+            for (AssetUri tileUri : tileUris) {
+                hasher.putString(tileUri.toString(), Charsets.UTF_8);
+                hashTileContent(assetManager, tileUri, hasher);
+                hashTileContent(assetManager, new AssetUri(AssetType.BLOCK_TILE, tileUri.getModuleName(), tileUri.getAssetName() + "Normal"), hasher);
+                hashTileContent(assetManager, new AssetUri(AssetType.BLOCK_TILE, tileUri.getModuleName(), tileUri.getAssetName() + "Height"), hasher);
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to read block tiles for the atlas cache key", e);
+            return null;
+        }
+        return hasher.hash().asBytes();
+    }
+
+    private void hashTileContent(AssetManager assetManager, AssetUri uri, Hasher hasher) throws IOException {
+        List<URL> urls = assetManager.getAssetURLs(uri);
+        hasher.putInt(urls.size());
+        for (URL url : urls) {
+            hasher.putBytes(Resources.asByteSource(url).hash(Hashing.sha1()).asBytes());
+        }
+    }
+
+    private WorldAtlasCache.Entry buildAtlas() {
         calculateAtlasSizes();
 
         int numMipMaps = getNumMipmaps();
@@ -194,6 +265,11 @@ private void buildAtlas() {
         ByteBuffer[] dataNormal = createAtlasMipmaps(numMipMaps, UNIT_Z_COLOR, tilesNormal, "tilesNormal.png");
         ByteBuffer[] dataHeight = createAtlasMipmaps(numMipMaps, BLACK_COLOR, tilesHeight, "tilesHeight.png");
 
+        createAtlasAssets(data, dataNormal, dataHeight);
+        return new WorldAtlasCache.Entry(tileSize, atlasSize, tileIndexes, data, dataNormal, dataHeight);
+    }
+
+    private void createAtlasAssets(ByteBuffer[] data, ByteBuffer[] dataNormal, ByteBuffer[] dataHeight) {
         TextureData terrainTexData = new TextureData(atlasSize, atlasSize, data, Texture.WrapMode.CLAMP, Texture.FilterMode.NEAREST);
         Texture terrainTex = Assets.generateAsset(new AssetUri(AssetType.TEXTURE, "engine:terrain"), terrainTexData, Texture.class);
 
@@ -42,6 +42,16 @@ public interface CoreChunk {
 
     Block getBlock(int x, int y, int z);
 
+    /**
+     * @return The id of the block at the given position, for lookups in a {@link org.terasology.world.block.BlockLookupTable}
+     */
+    short getBlockId(int x, int y, int z);
+
+    /**
+     * @return Whether all blocks of the horizontal layer at the given y coordinate are known to be the same, without examining them one by one
+     */
+    boolean isUniformBlockLayer(int y);
+
     Block setBlock(int x, int y, int z, Block block);
 
     Block setBlock(Vector3i pos, Block block);
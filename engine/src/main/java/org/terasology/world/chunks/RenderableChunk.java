@@ -18,6 +18,7 @@
 import org.terasology.math.AABB;
 import org.terasology.module.sandbox.API;
 import org.terasology.rendering.primitives.ChunkMesh;
+import org.terasology.rendering.world.ChunkConnectivity;
 
 /**
  * @author Immortius
@@ -47,6 +48,14 @@ public interface RenderableChunk extends LitChunk {
 
     ChunkMesh[] getPendingMesh();
 
+    /**
+     * @return Which faces of the chunk can be seen through from each other, as of the last tessellation of the chunk,
+     * or null if the chunk has not been tessellated yet
+     */
+    ChunkConnectivity getConnectivity();
+
+    void setConnectivity(ChunkConnectivity connectivity);
+
     AABB getSubMeshAABB(int subMesh);
 
     void disposeMesh();
@@ -144,6 +144,16 @@ public String toString() {
 
     public abstract boolean set(int x, int y, int z, int value, int expected);
 
+    /**
+     * Checks whether all entries of the layer at the given y coordinate are known to share a single value, without
+     * examining the entries one by one. Sparse arrays know this for the layers they store as a single value.
+     *
+     * @return True if the layer is known to be uniform. False does not imply that the layer contains different values.
+     */
+    public boolean isUniformLayer(int y) {
+        return false;
+    }
+
     /**
      * This is the interface for tera array factories. Every tera array is required to implement a factory.
      * It should be implemented as a static subclass of the corresponding tera array class and it should be called Factory.
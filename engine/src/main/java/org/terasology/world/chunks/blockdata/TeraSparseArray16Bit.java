@@ -102,6 +102,11 @@ public int getElementSizeInBits() {
         return 16;
     }
 
+    @Override
+    public boolean isUniformLayer(int y) {
+        return inflated == null || inflated[y] == null;
+    }
+
     @Override
     public int get(int x, int y, int z) {
         if (inflated == null) {
@@ -112,6 +112,16 @@ public int getElementSizeInBits() {
         return 4;
     }
 
+    @Override
+    public boolean isUniformLayer(int y) {
+        if (!super.isUniformLayer(y)) {
+            return false;
+        }
+        // A single byte stores the values of both halves of the layer
+        byte value = (inflated == null) ? fill : deflated[y];
+        return TeraArrayUtils.getHi(value) == TeraArrayUtils.getLo(value);
+    }
+
     @Override
     public int get(int x, int y, int z) {
         int pos = pos(x, z);
@@ -94,6 +94,11 @@ public final TeraArray copy() {
         return createSparse(inf, def);
     }
 
+    @Override
+    public boolean isUniformLayer(int y) {
+        return inflated == null || inflated[y] == null;
+    }
+
     protected abstract static class SerializationHandler<T extends TeraSparseArrayByte> extends TeraArray.BasicSerializationHandler<T> {
 
         protected abstract T createArray(int sizeX, int sizeY, int sizeZ);
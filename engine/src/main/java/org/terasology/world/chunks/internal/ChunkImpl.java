@@ -29,6 +29,7 @@
 import org.terasology.protobuf.EntityData;
 import org.terasology.registry.CoreRegistry;
 import org.terasology.rendering.primitives.ChunkMesh;
+import org.terasology.rendering.world.ChunkConnectivity;
 import org.terasology.world.biomes.Biome;
 import org.terasology.world.biomes.BiomeManager;
 import org.terasology.world.block.Block;
@@ -97,6 +98,7 @@ public class ChunkImpl implements Chunk {
     // Rendering
     private ChunkMesh[] activeMesh;
     private ChunkMesh[] pendingMesh;
+    private volatile ChunkConnectivity connectivity;
     private AABB[] subMeshAABB;
     private boolean adjacentChunksReady;
 
@@ -183,6 +185,16 @@ public final Block getBlock(int x, int y, int z) {
         return blockManager.getBlock(id);
     }
 
+    @Override
+    public final short getBlockId(int x, int y, int z) {
+        return (short) blockData.get(x, y, z);
+    }
+
+    @Override
+    public boolean isUniformBlockLayer(int y) {
+        return blockData.isUniformLayer(y);
+    }
+
     @Override
     public Block setBlock(int x, int y, int z, Block block) {
         if (blockData == blockDataSnapshot) {
@@ -510,6 +522,16 @@ public ChunkMesh[] getPendingMesh() {
         return pendingMesh;
     }
 
+    @Override
+    public ChunkConnectivity getConnectivity() {
+        return connectivity;
+    }
+
+    @Override
+    public void setConnectivity(ChunkConnectivity connectivity) {
+        this.connectivity = connectivity;
+    }
+
     @Override
     public AABB getSubMeshAABB(int subMesh) {
         if (subMeshAABB == null) {
@@ -617,6 +639,25 @@ public EntityData.ChunkStore.Builder encode() {
         return ChunkSerializer.encode(chunkPos, blockData, extraData, biomeData);
     }
 
+    /**
+     * Creates a new chunk from copies of this chunk's block, liquid and biome data, without its lighting. Can be used
+     * on a disposed chunk, to reactivate it without decoding it again.
+     *
+     * @return A new, not yet ready chunk at the same position
+     */
+    public ChunkImpl copyBlockData() {
+        return new ChunkImpl(chunkPos, blockData.copy(), extraData.copy(), biomeData.copy());
+    }
+
+    /**
+     * @return The estimated memory used by the block, liquid and biome data, which is all a disposed chunk retains
+     */
+    public int getEstimatedBlockDataMemoryConsumptionInBytes() {
+        return blockData.getEstimatedMemoryConsumptionInBytes()
+                + extraData.getEstimatedMemoryConsumptionInBytes()
+                + biomeData.getEstimatedMemoryConsumptionInBytes();
+    }
+
     /**
      * Calling this method results in a (cheap) snapshot to be taken of the current state of the chunk.
      * This snapshot can then be obtained and rleased by calling {@link #encodeAndReleaseSnapshot()}.
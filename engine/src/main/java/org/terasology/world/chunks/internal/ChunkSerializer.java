@@ -17,8 +17,6 @@
 
 import com.google.common.base.Preconditions;
 import com.google.protobuf.ByteString;
-import gnu.trove.list.TByteList;
-import gnu.trove.list.array.TByteArrayList;
 import org.terasology.math.Vector3i;
 import org.terasology.protobuf.EntityData;
 import org.terasology.world.chunks.Chunk;
@@ -27,11 +25,20 @@
 import org.terasology.world.chunks.blockdata.TeraDenseArray16Bit;
 import org.terasology.world.chunks.blockdata.TeraDenseArray8Bit;
 
+import java.util.Arrays;
+
 /**
  * @author Immortius
  */
 public final class ChunkSerializer {
 
+    private static final ThreadLocal<RunLengthEncoder> ENCODER = new ThreadLocal<RunLengthEncoder>() {
+        @Override
+        protected RunLengthEncoder initialValue() {
+            return new RunLengthEncoder();
+        }
+    };
+
     private ChunkSerializer() {
     }
 
@@ -65,57 +72,11 @@ public static Chunk decode(EntityData.ChunkStore message) {
     }
 
     private static EntityData.RunLengthEncoding16 runLengthEncode16(TeraArray array) {
-        EntityData.RunLengthEncoding16.Builder builder = EntityData.RunLengthEncoding16.newBuilder();
-        short lastItem = (short) array.get(0, 0, 0);
-        int counter = 0;
-        for (int y = 0; y < array.getSizeY(); ++y) {
-            for (int z = 0; z < array.getSizeZ(); ++z) {
-                for (int x = 0; x < array.getSizeX(); ++x) {
-                    short item = (short) array.get(x, y, z);
-                    if (lastItem != item) {
-                        builder.addRunLengths(counter);
-                        builder.addValues(lastItem & 0xFFFF);
-                        lastItem = item;
-                        counter = 1;
-                    } else {
-                        counter++;
-                    }
-                }
-            }
-        }
-        if (lastItem != 0) {
-            builder.addRunLengths(counter);
-            builder.addValues(lastItem & 0xFFFF);
-        }
-        return builder.build();
+        return ENCODER.get().encode16(array);
     }
 
     private static EntityData.RunLengthEncoding8 runLengthEncode8(TeraArray array) {
-        EntityData.RunLengthEncoding8.Builder builder = EntityData.RunLengthEncoding8.newBuilder();
-        TByteList values = new TByteArrayList(16384);
-        byte lastItem = (byte) array.get(0, 0, 0);
-        int counter = 0;
-        for (int y = 0; y < array.getSizeY(); ++y) {
-            for (int z = 0; z < array.getSizeZ(); ++z) {
-                for (int x = 0; x < array.getSizeX(); ++x) {
-                    byte item = (byte) array.get(x, y, z);
-                    if (lastItem != item) {
-                        builder.addRunLengths(counter);
-                        values.add(lastItem);
-                        lastItem = item;
-                        counter = 1;
-                    } else {
-                        counter++;
-                    }
-                }
-            }
-        }
-        if (lastItem != 0) {
-            builder.addRunLengths(counter);
-            values.add(lastItem);
-        }
-        builder.setValues(ByteString.copyFrom(values.toArray()));
-        return builder.build();
+        return ENCODER.get().encode8(array);
     }
 
     private static TeraArray runLengthDecode(EntityData.RunLengthEncoding16 data) {
@@ -123,11 +84,9 @@ private static TeraArray runLengthDecode(EntityData.RunLengthEncoding16 data) {
         short[] decodedData = new short[ChunkConstants.SIZE_X * ChunkConstants.SIZE_Y * ChunkConstants.SIZE_Z];
         int index = 0;
         for (int pos = 0; pos < data.getValuesCount(); ++pos) {
-            int length = data.getRunLengths(pos);
-            short value = (short) data.getValues(pos);
-            for (int i = 0; i < length; ++i) {
-                decodedData[index++] = value;
-            }
+            int end = checkedRunEnd(index, data.getRunLengths(pos), decodedData.length);
+            Arrays.fill(decodedData, index, end, (short) data.getValues(pos));
+            index = end;
         }
         return new TeraDenseArray16Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z, decodedData);
     }
@@ -138,12 +97,17 @@ private static TeraArray runLengthDecode(EntityData.RunLengthEncoding8 data) {
         int index = 0;
         ByteString.ByteIterator valueSource = data.getValues().iterator();
         for (int pos = 0; pos < data.getRunLengthsCount(); ++pos) {
-            int length = data.getRunLengths(pos);
-            byte value = valueSource.nextByte();
-            for (int i = 0; i < length; ++i) {
-                decodedData[index++] = value;
-            }
+            int end = checkedRunEnd(index, data.getRunLengths(pos), decodedData.length);
+            Arrays.fill(decodedData, index, end, valueSource.nextByte());
+            index = end;
         }
         return new TeraDenseArray8Bit(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z, decodedData);
     }
+
+    private static int checkedRunEnd(int index, int length, int size) {
+        if (length < 0 || length > size - index) {
+            throw new IllegalArgumentException("Ill-formed protobuf message. Run length encoding exceeds chunk size.");
+        }
+        return index + length;
+    }
 }
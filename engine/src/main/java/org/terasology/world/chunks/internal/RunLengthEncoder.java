@@ -0,0 +1,220 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.internal;
+
+import com.google.protobuf.ByteString;
+import org.terasology.protobuf.EntityData;
+import org.terasology.world.chunks.blockdata.TeraArray;
+import org.terasology.world.chunks.blockdata.TeraArrayUtils;
+import org.terasology.world.chunks.deflate.TeraVisitingDeflator;
+
+import java.util.Arrays;
+
+/**
+ * Run-length encodes TeraArrays in y, z, x order by visiting their backing arrays directly, rather than reading every
+ * element through {@link TeraArray#get(int, int, int)}.
+ * <p/>
+ * This is a TeraVisitingDeflator that never deflates: it only uses the visitor hooks to reach the backing storage.
+ * The run buffers are reused between arrays, so an encoder must not be shared between threads.
+ */
+final class RunLengthEncoder extends TeraVisitingDeflator {
+
+    private int[] runLengths = new int[256];
+    private int[] values = new int[256];
+    private byte[] byteValues = new byte[256];
+    private int runCount;
+
+    public EntityData.RunLengthEncoding16 encode16(TeraArray array) {
+        collectRuns(array);
+        EntityData.RunLengthEncoding16.Builder builder = EntityData.RunLengthEncoding16.newBuilder();
+        int count = narrowRuns(true);
+        for (int i = 0; i < count; ++i) {
+            builder.addRunLengths(runLengths[i]);
+            builder.addValues(values[i] & 0xFFFF);
+        }
+        return builder.build();
+    }
+
+    public EntityData.RunLengthEncoding8 encode8(TeraArray array) {
+        collectRuns(array);
+        EntityData.RunLengthEncoding8.Builder builder = EntityData.RunLengthEncoding8.newBuilder();
+        int count = narrowRuns(false);
+        if (byteValues.length < count) {
+            byteValues = new byte[runLengths.length];
+        }
+        for (int i = 0; i < count; ++i) {
+            builder.addRunLengths(runLengths[i]);
+            byteValues[i] = (byte) values[i];
+        }
+        builder.setValues(ByteString.copyFrom(byteValues, 0, count));
+        return builder.build();
+    }
+
+    private void collectRuns(TeraArray array) {
+        runCount = 0;
+        array.deflate(this);
+    }
+
+    /**
+     * Narrows the collected values to the width of the encoding, merging runs that become equal. A trailing run of
+     * zeros is left out of the encoding, as decoding starts from a zeroed array.
+     *
+     * @return The number of runs to encode
+     */
+    private int narrowRuns(boolean sixteenBit) {
+        int count = 0;
+        for (int i = 0; i < runCount; ++i) {
+            int value = sixteenBit ? (short) values[i] : (byte) values[i];
+            if (count > 0 && values[count - 1] == value) {
+                runLengths[count - 1] += runLengths[i];
+            } else {
+                runLengths[count] = runLengths[i];
+                values[count] = value;
+                count++;
+            }
+        }
+        runCount = count;
+        if (count > 0 && values[count - 1] == 0) {
+            return count - 1;
+        }
+        return count;
+    }
+
+    private void addRun(int value, int length) {
+        if (runCount > 0 && values[runCount - 1] == value) {
+            runLengths[runCount - 1] += length;
+            return;
+        }
+        if (runCount == runLengths.length) {
+            runLengths = Arrays.copyOf(runLengths, runCount * 2);
+            values = Arrays.copyOf(values, runCount * 2);
+        }
+        runLengths[runCount] = length;
+        values[runCount] = value;
+        runCount++;
+    }
+
+    private void addRow(short[] data, int start, int length) {
+        int end = start + length;
+        int runStart = start;
+        short current = data[start];
+        for (int i = start + 1; i < end; ++i) {
+            if (data[i] != current) {
+                addRun(current, i - runStart);
+                current = data[i];
+                runStart = i;
+            }
+        }
+        addRun(current, end - runStart);
+    }
+
+    private void addRow(byte[] data, int start, int length) {
+        int end = start + length;
+        int runStart = start;
+        byte current = data[start];
+        for (int i = start + 1; i < end; ++i) {
+            if (data[i] != current) {
+                addRun(current, i - runStart);
+                current = data[i];
+                runStart = i;
+            }
+        }
+        addRun(current, end - runStart);
+    }
+
+    /**
+     * A 4 bit row stores the first half of its elements in the high nibbles and the second half in the low nibbles.
+     */
+    private void addRow4Bit(byte[] data, int start, int halfRowSize) {
+        for (int i = start; i < start + halfRowSize; ++i) {
+            addRun(TeraArrayUtils.getHi(data[i]), 1);
+        }
+        for (int i = start; i < start + halfRowSize; ++i) {
+            addRun(TeraArrayUtils.getLo(data[i]), 1);
+        }
+    }
+
+    private void addFilledRow4Bit(byte value, int halfRowSize) {
+        addRun(TeraArrayUtils.getHi(value), halfRowSize);
+        addRun(TeraArrayUtils.getLo(value), halfRowSize);
+    }
+
+    @Override
+    public TeraArray deflateDenseArray16Bit(short[] data, int rowSize, int sizeX, int sizeY, int sizeZ) {
+        addRow(data, 0, data.length);
+        return null;
+    }
+
+    @Override
+    public TeraArray deflateDenseArray8Bit(byte[] data, int rowSize, int sizeX, int sizeY, int sizeZ) {
+        addRow(data, 0, data.length);
+        return null;
+    }
+
+    @Override
+    public TeraArray deflateDenseArray4Bit(byte[] data, int rowSize, int sizeX, int sizeY, int sizeZ) {
+        for (int y = 0; y < sizeY; ++y) {
+            addRow4Bit(data, y * rowSize, rowSize);
+        }
+        return null;
+    }
+
+    @Override
+    public TeraArray deflateSparseArray16Bit(short[][] inflated, short[] deflated, short fill, int rowSize, int sizeX, int sizeY, int sizeZ) {
+        if (inflated == null) {
+            addRun(fill, rowSize * sizeY);
+            return null;
+        }
+        for (int y = 0; y < sizeY; ++y) {
+            if (inflated[y] != null) {
+                addRow(inflated[y], 0, rowSize);
+            } else {
+                addRun(deflated[y], rowSize);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public TeraArray deflateSparseArray8Bit(byte[][] inflated, byte[] deflated, byte fill, int rowSize, int sizeX, int sizeY, int sizeZ) {
+        if (inflated == null) {
+            addRun(fill, rowSize * sizeY);
+            return null;
+        }
+        for (int y = 0; y < sizeY; ++y) {
+            if (inflated[y] != null) {
+                addRow(inflated[y], 0, rowSize);
+            } else {
+                addRun(deflated[y], rowSize);
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public TeraArray deflateSparseArray4Bit(byte[][] inflated, byte[] deflated, byte fill, int rowSize, int sizeX, int sizeY, int sizeZ) {
+        for (int y = 0; y < sizeY; ++y) {
+            if (inflated == null) {
+                addFilledRow4Bit(fill, rowSize);
+            } else if (inflated[y] != null) {
+                addRow4Bit(inflated[y], 0, rowSize);
+            } else {
+                addFilledRow4Bit(deflated[y], rowSize);
+            }
+        }
+        return null;
+    }
+}
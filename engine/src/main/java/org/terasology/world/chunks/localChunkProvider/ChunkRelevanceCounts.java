@@ -0,0 +1,130 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.localChunkProvider;
+
+import com.google.common.collect.Sets;
+import gnu.trove.map.TObjectIntMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
+import org.terasology.math.Region3i;
+import org.terasology.math.Vector3i;
+
+import java.util.Iterator;
+import java.util.Set;
+
+/**
+ * Tracks for each chunk position how many relevance regions currently retain it, so that irrelevant chunks can be
+ * found without testing every cached chunk against every region.
+ * <p/>
+ * Counts are updated from region deltas: moving a region only touches the positions it gained or lost. A position whose
+ * count drops to zero becomes an unload candidate, and stops being one if a region covers it again.
+ * <p/>
+ * Not thread safe; the chunk provider only uses it from the main thread.
+ */
+public class ChunkRelevanceCounts {
+
+    private final TObjectIntMap<Vector3i> counts = new TObjectIntHashMap<>();
+    private final Set<Vector3i> unloadCandidates = Sets.newLinkedHashSet();
+
+    /**
+     * Adds a reference to every position in the region.
+     */
+    public void add(Region3i region) {
+        for (Vector3i pos : region) {
+            increment(pos);
+        }
+    }
+
+    /**
+     * Removes a reference from every position in the region.
+     */
+    public void remove(Region3i region) {
+        for (Vector3i pos : region) {
+            decrement(pos);
+        }
+    }
+
+    /**
+     * Moves a reference from one region to another, only touching positions that are not in both.
+     */
+    public void move(Region3i from, Region3i to) {
+        Iterator<Vector3i> gained = to.subtract(from);
+        while (gained.hasNext()) {
+            increment(gained.next());
+        }
+        Iterator<Vector3i> lost = from.subtract(to);
+        while (lost.hasNext()) {
+            decrement(lost.next());
+        }
+    }
+
+    private void increment(Vector3i pos) {
+        if (counts.adjustOrPutValue(pos, 1, 1) == 1) {
+            unloadCandidates.remove(pos);
+        }
+    }
+
+    private void decrement(Vector3i pos) {
+        int count = counts.get(pos);
+        if (count <= 1) {
+            counts.remove(pos);
+            unloadCandidates.add(pos);
+        } else {
+            counts.put(pos, count - 1);
+        }
+    }
+
+    /**
+     * @return Whether any region retains the given position
+     */
+    public boolean isRelevant(Vector3i pos) {
+        return counts.containsKey(pos);
+    }
+
+    public int getCount(Vector3i pos) {
+        return counts.get(pos);
+    }
+
+    /**
+     * Queues a position for unloading if no region retains it, e.g. because a chunk finished loading after every region
+     * requesting it moved away.
+     */
+    public void offerUnloadCandidate(Vector3i pos) {
+        if (!isRelevant(pos)) {
+            unloadCandidates.add(pos);
+        }
+    }
+
+    /**
+     * @return The oldest position that became irrelevant, removed from the queue, or null if there is none
+     */
+    public Vector3i pollUnloadCandidate() {
+        Iterator<Vector3i> iterator = unloadCandidates.iterator();
+        if (iterator.hasNext()) {
+            Vector3i result = iterator.next();
+            iterator.remove();
+            return result;
+        }
+        return null;
+    }
+
+    public int getUnloadCandidateCount() {
+        return unloadCandidates.size();
+    }
+
+    public void clearUnloadCandidates() {
+        unloadCandidates.clear();
+    }
+}
@@ -23,7 +23,9 @@
 
 import gnu.trove.list.TIntList;
 import gnu.trove.list.array.TIntArrayList;
+import gnu.trove.map.TObjectIntMap;
 import gnu.trove.map.TShortObjectMap;
+import gnu.trove.map.hash.TObjectIntHashMap;
 import gnu.trove.map.hash.TShortObjectHashMap;
 import gnu.trove.procedure.TShortObjectProcedure;
 
@@ -78,6 +80,7 @@
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
@@ -99,6 +102,8 @@ public class LocalChunkProvider implements ChunkProvider, GeneratingChunkProvide
     private WorldGenerator generator;
 
     private Map<EntityRef, ChunkRelevanceRegion> regions = Maps.newHashMap();
+    private final Map<ChunkRelevanceRegion, Region3i> retainedRegions = Maps.newHashMap();
+    private final ChunkRelevanceCounts relevanceCounts = new ChunkRelevanceCounts();
 
     private Map<Vector3i, Chunk> nearCache = Maps.newConcurrentMap();
 
@@ -115,6 +120,7 @@ public class LocalChunkProvider implements ChunkProvider, GeneratingChunkProvide
     private BlockEntityRegistry registry;
 
     private LightMerger<ReadyChunkInfo> lightMerger = new LightMerger<>(this);
+    private long activationBudgetNanos;
 
     public LocalChunkProvider(StorageManager storageManager, EntityManager entityManager, WorldGenerator generator) {
         this.blockManager = CoreRegistry.get(BlockManager.class);
@@ -130,6 +136,18 @@ public void setBlockEntityRegistry(BlockEntityRegistry value) {
         this.registry = value;
     }
 
+    /**
+     * Sets how long completeUpdate may spend merging the lighting of ready chunks and activating them. Within the
+     * budget, completeUpdate waits for each merge to finish and activates its chunk; once the budget is used up, the
+     * merge in flight is left for the next frame. A budget of 0 only activates a chunk whose merge has already
+     * finished.
+     *
+     * @param milliseconds The activation time budget per frame
+     */
+    public void setChunkActivationBudget(int milliseconds) {
+        this.activationBudgetNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, milliseconds));
+    }
+
     @Override
     public ChunkViewCore getLocalView(Vector3i centerChunkPos) {
         Region3i region = Region3i.createFromCenterExtents(centerChunkPos, ChunkConstants.LOCAL_REGION_EXTENTS);
@@ -230,7 +248,13 @@ public void updateRelevanceEntity(EntityRef entity, Vector3i distance) {
     public void removeRelevanceEntity(EntityRef entity) {
         regionLock.writeLock().lock();
         try {
-            regions.remove(entity);
+            ChunkRelevanceRegion region = regions.remove(entity);
+            if (region != null) {
+                Region3i retained = retainedRegions.remove(region);
+                if (retained != null) {
+                    relevanceCounts.remove(retained);
+                }
+            }
         } finally {
             regionLock.writeLock().unlock();
         }
@@ -238,60 +262,78 @@ public void removeRelevanceEntity(EntityRef entity) {
 
     @Override
     public void completeUpdate() {
-        ReadyChunkInfo readyChunkInfo = lightMerger.completeMerge();
-        if (readyChunkInfo != null) {
-            Chunk chunk = readyChunkInfo.getChunk();
-            chunk.lock();
-            try {
-                chunk.markReady();
-                updateAdjacentChunksReadyFieldOf(chunk);
-                updateAdjacentChunksReadyFieldOfAdjChunks(chunk);
-
-                if (!readyChunkInfo.isNewChunk()) {
-                    PerformanceMonitor.startActivity("Generating Block Entities");
-                    generateBlockEntities(chunk);
-                    PerformanceMonitor.endActivity();
-                }
-                if (readyChunkInfo.getChunkStore() != null) {
-                    readyChunkInfo.getChunkStore().restoreEntities();
-                }
+        long deadline = System.nanoTime() + activationBudgetNanos;
+        ReadyChunkInfo readyChunkInfo = lightMerger.pollMerge(activationBudgetNanos, TimeUnit.NANOSECONDS);
+        while (readyChunkInfo != null) {
+            // The chunk may have been unloaded while its merge was in flight
+            if (nearCache.get(readyChunkInfo.getPos()) == readyChunkInfo.getChunk()) {
+                activateChunk(readyChunkInfo);
+            }
+            // Always start the next merge before stopping, so the merger keeps working while the frame renders
+            if (!beginNextMerge()) {
+                break;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            readyChunkInfo = lightMerger.pollMerge(remaining, TimeUnit.NANOSECONDS);
+        }
+        beginNextMerge();
+    }
 
-                if (!readyChunkInfo.isNewChunk()) {
-                    PerformanceMonitor.startActivity("Sending OnAddedBlocks");
-                    readyChunkInfo.getBlockPositionMapppings().forEachEntry(new TShortObjectProcedure<TIntList>() {
-                        @Override
-                        public boolean execute(short id, TIntList positions) {
-                            if (positions.size() > 0) {
-                                blockManager.getBlock(id).getEntity().send(new OnAddedBlocks(positions, registry));
-                            }
-                            return true;
-                        }
-                    });
-                    PerformanceMonitor.endActivity();
-                }
+    private void activateChunk(ReadyChunkInfo readyChunkInfo) {
+        Chunk chunk = readyChunkInfo.getChunk();
+        chunk.lock();
+        try {
+            chunk.markReady();
+            updateAdjacentChunksReadyFieldOf(chunk);
+            updateAdjacentChunksReadyFieldOfAdjChunks(chunk);
+
+            if (!readyChunkInfo.isNewChunk()) {
+                PerformanceMonitor.startActivity("Generating Block Entities");
+                generateBlockEntities(chunk);
+                PerformanceMonitor.endActivity();
+            }
+            if (readyChunkInfo.getChunkStore() != null) {
+                readyChunkInfo.getChunkStore().restoreEntities();
+            }
 
-                PerformanceMonitor.startActivity("Sending OnActivateBlocks");
+            if (!readyChunkInfo.isNewChunk()) {
+                PerformanceMonitor.startActivity("Sending OnAddedBlocks");
                 readyChunkInfo.getBlockPositionMapppings().forEachEntry(new TShortObjectProcedure<TIntList>() {
                     @Override
                     public boolean execute(short id, TIntList positions) {
                         if (positions.size() > 0) {
-                            blockManager.getBlock(id).getEntity().send(new OnActivatedBlocks(positions, registry));
+                            blockManager.getBlock(id).getEntity().send(new OnAddedBlocks(positions, registry));
                         }
                         return true;
                     }
                 });
                 PerformanceMonitor.endActivity();
+            }
 
-                if (!readyChunkInfo.isNewChunk()) {
-                    worldEntity.send(new OnChunkGenerated(readyChunkInfo.getPos()));
-                }
-                worldEntity.send(new OnChunkLoaded(readyChunkInfo.getPos()));
-                for (ChunkRelevanceRegion region : regions.values()) {
-                    region.chunkReady(chunk);
+            PerformanceMonitor.startActivity("Sending OnActivateBlocks");
+            readyChunkInfo.getBlockPositionMapppings().forEachEntry(new TShortObjectProcedure<TIntList>() {
+                @Override
+                public boolean execute(short id, TIntList positions) {
+                    if (positions.size() > 0) {
+                        blockManager.getBlock(id).getEntity().send(new OnActivatedBlocks(positions, registry));
+                    }
+                    return true;
                 }
-            } finally {
-                chunk.unlock();
+            });
+            PerformanceMonitor.endActivity();
+
+            if (!readyChunkInfo.isNewChunk()) {
+                worldEntity.send(new OnChunkGenerated(readyChunkInfo.getPos()));
+            }
+            worldEntity.send(new OnChunkLoaded(readyChunkInfo.getPos()));
+            for (ChunkRelevanceRegion region : regions.values()) {
+                region.chunkReady(chunk);
             }
+        } finally {
+            chunk.unlock();
         }
     }
 
@@ -314,23 +356,39 @@ private void makeChunksAvailable() {
         for (ReadyChunkInfo readyChunkInfo : newReadyChunks) {
             nearCache.put(readyChunkInfo.getPos(), readyChunkInfo.getChunk());
             preparingChunks.remove(readyChunkInfo.getPos());
+            // Every region requesting this chunk may have moved away while it was being prepared
+            relevanceCounts.offerUnloadCandidate(readyChunkInfo.getPos());
         }
         if (!newReadyChunks.isEmpty()) {
             sortedReadyChunks.addAll(newReadyChunks);
             Collections.sort(sortedReadyChunks, new ReadyChunkRelevanceComparator());
         }
-        if (!sortedReadyChunks.isEmpty()) {
-            boolean loaded = false;
-            for (int i = sortedReadyChunks.size() - 1; i >= 0 && !loaded; i--) {
-                ReadyChunkInfo chunkInfo = sortedReadyChunks.get(i);
-                PerformanceMonitor.startActivity("Make Chunk Available");
+        beginNextMerge();
+    }
+
+    /**
+     * Begins merging the lighting of the most relevant ready chunk whose neighbours are all loaded, unless a merge is
+     * already in flight.
+     *
+     * @return Whether a merge was begun
+     */
+    private boolean beginNextMerge() {
+        if (lightMerger.isMerging()) {
+            return false;
+        }
+        for (int i = sortedReadyChunks.size() - 1; i >= 0; i--) {
+            ReadyChunkInfo chunkInfo = sortedReadyChunks.get(i);
+            PerformanceMonitor.startActivity("Make Chunk Available");
+            try {
                 if (makeChunkAvailable(chunkInfo)) {
                     sortedReadyChunks.remove(i);
-                    loaded = true;
+                    return true;
                 }
+            } finally {
                 PerformanceMonitor.endActivity();
             }
         }
+        return false;
     }
 
     private void deactivateBlocks() {
@@ -352,26 +410,20 @@ public boolean execute(short id, TIntList positions) {
     private void checkForUnload() {
         PerformanceMonitor.startActivity("Unloading irrelevant chunks");
         int unloaded = 0;
-        logger.debug("Compacting cache");
-        Iterator<Vector3i> iterator = nearCache.keySet().iterator();
-        while (iterator.hasNext()) {
-            Vector3i pos = iterator.next();
-            boolean keep = false;
-            for (ChunkRelevanceRegion region : regions.values()) {
-                if (region.getCurrentRegion().expand(UNLOAD_LEEWAY).encompasses(pos)) {
-                    keep = true;
-                    break;
-                }
+        // Bounded by the initial queue size, so that locked chunks put back in the queue are only retried next frame
+        int candidates = relevanceCounts.getUnloadCandidateCount();
+        for (int i = 0; i < candidates && unloaded < UNLOAD_PER_FRAME; ++i) {
+            Vector3i pos = relevanceCounts.pollUnloadCandidate();
+            if (!nearCache.containsKey(pos)) {
+                continue;
             }
-            if (!keep) {
-                // TODO: need some way to not dispose chunks being edited or processed (or do so safely)
-                // Note: Above won't matter if all changes are on the main thread
-                if (unloadChunkInternal(pos)) {
-                    iterator.remove();
-                    if (++unloaded >= UNLOAD_PER_FRAME) {
-                        break;
-                    }
-                }
+            // TODO: need some way to not dispose chunks being edited or processed (or do so safely)
+            // Note: Above won't matter if all changes are on the main thread
+            if (unloadChunkInternal(pos)) {
+                nearCache.remove(pos);
+                unloaded++;
+            } else {
+                relevanceCounts.offerUnloadCandidate(pos);
             }
         }
         PerformanceMonitor.endActivity();
@@ -449,6 +501,7 @@ private void updateAdjacentChunksReadyFieldOfAdjChunks(Chunk chunkInCenter) {
     private void updateRelevance() {
         for (ChunkRelevanceRegion chunkRelevanceRegion : regions.values()) {
             chunkRelevanceRegion.update();
+            updateRelevanceCounts(chunkRelevanceRegion);
             if (chunkRelevanceRegion.isDirty()) {
                 for (Vector3i pos : chunkRelevanceRegion.getNeededChunks()) {
                     Chunk chunk = nearCache.get(pos);
@@ -463,6 +516,23 @@ private void updateRelevance() {
         }
     }
 
+    /**
+     * Moves the region's references in the relevance counts to the chunks it currently retains: its current region plus
+     * the unload leeway. Only the chunks that entered or left the retained region are touched.
+     */
+    private void updateRelevanceCounts(ChunkRelevanceRegion region) {
+        Region3i current = region.getCurrentRegion();
+        Region3i retained = current.isEmpty() ? Region3i.EMPTY : current.expand(UNLOAD_LEEWAY);
+        Region3i previous = retainedRegions.get(region);
+        if (previous == null) {
+            relevanceCounts.add(retained);
+            retainedRegions.put(region, retained);
+        } else if (!previous.equals(retained)) {
+            relevanceCounts.move(previous, retained);
+            retainedRegions.put(region, retained);
+        }
+    }
+
     private boolean makeChunkAvailable(final ReadyChunkInfo readyChunkInfo) {
         final Chunk chunk = nearCache.get(readyChunkInfo.getPos());
         if (chunk == null) {
@@ -595,6 +665,7 @@ public void purgeWorld() {
         nearCache.clear();
         readyChunks.clear();
         sortedReadyChunks.clear();
+        relevanceCounts.clearUnloadCandidates();
         storageManager.deleteWorld();
         preparingChunks.clear();
         worldEntity.send(new PurgeWorldEvent());
@@ -634,7 +705,7 @@ public void run() {
                         chunk = chunkStore.getChunk();
                     }
 
-                    InternalLightProcessor.generateInternalLighting(chunk);
+                    InternalLightProcessor.generateInternalLighting(chunk, blockManager.getLookupTable());
                     chunk.deflate();
                     readyChunks.offer(new ReadyChunkInfo(chunk, createBatchBlockEventMappings(chunk), chunkStore));
                 }
@@ -698,11 +769,25 @@ private int distFromRegion(Vector3i pos, Vector3i regionCenter) {
         }
     }
 
+    /**
+     * Scores are cached for the lifetime of the comparator, so a new comparator should be created for each sort.
+     */
     private class ReadyChunkRelevanceComparator implements Comparator<ReadyChunkInfo> {
 
+        private final TObjectIntMap<Vector3i> scores = new TObjectIntHashMap<>();
+
         @Override
         public int compare(ReadyChunkInfo o1, ReadyChunkInfo o2) {
-            return score(o2.getPos()) - score(o1.getPos());
+            return cachedScore(o2.getPos()) - cachedScore(o1.getPos());
+        }
+
+        private int cachedScore(Vector3i chunk) {
+            if (scores.containsKey(chunk)) {
+                return scores.get(chunk);
+            }
+            int score = score(chunk);
+            scores.put(chunk, score);
+            return score;
         }
 
         private int score(Vector3i chunk) {
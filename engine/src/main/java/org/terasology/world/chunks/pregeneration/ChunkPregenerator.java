@@ -0,0 +1,236 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.pregeneration;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Queues;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.math.Region3i;
+import org.terasology.math.Vector3i;
+import org.terasology.persistence.StorageManager;
+import org.terasology.utilities.concurrency.AbstractTask;
+import org.terasology.utilities.concurrency.ShutdownTask;
+import org.terasology.utilities.concurrency.Task;
+import org.terasology.utilities.concurrency.TaskMaster;
+import org.terasology.world.chunks.Chunk;
+import org.terasology.world.chunks.ChunkProvider;
+import org.terasology.world.chunks.internal.ChunkImpl;
+import org.terasology.world.generator.WorldGenerator;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Generates all chunks of a region and hands them directly to the storage manager, without activating them or their
+ * entities. Chunks that are already stored are skipped, so an interrupted pregeneration can be resumed by running it
+ * again over the same region.
+ * <p>
+ * Lighting is not computed, as it is not stored and gets recomputed when a chunk is loaded.
+ * <p>
+ * Chunks are generated by worker threads. {@link #update()} has to be called regularly from the main thread to store
+ * the generated chunks and to schedule further ones.
+ */
+public class ChunkPregenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChunkPregenerator.class);
+
+    /**
+     * The number of stored chunks after which a save is requested.
+     */
+    private static final int SAVE_BATCH_SIZE = 256;
+
+    /**
+     * The number of chunks per worker thread that may be generated but not yet stored.
+     */
+    private static final int CHUNKS_IN_FLIGHT_PER_THREAD = 8;
+
+    private final Region3i region;
+    private final Iterator<Vector3i> remainingPositions;
+    private final WorldGenerator generator;
+    private final StorageManager storageManager;
+    private final ChunkProvider chunkProvider;
+    private final TaskMaster<Task> workers;
+    private final int maxChunksInFlight;
+
+    private final BlockingQueue<Chunk> generatedChunks = Queues.newLinkedBlockingQueue();
+    private final AtomicInteger finishedChunks = new AtomicInteger();
+    private final AtomicInteger alreadyStoredChunks = new AtomicInteger();
+
+    private int scheduledChunks;
+    private int storedChunks;
+    private int chunksSinceSaveRequest;
+    private long startTime;
+    private long endTime;
+    private boolean running;
+
+    public ChunkPregenerator(Region3i region, WorldGenerator generator, StorageManager storageManager, ChunkProvider chunkProvider,
+                             int threads) {
+        this.region = region;
+        this.remainingPositions = region.iterator();
+        this.generator = generator;
+        this.storageManager = storageManager;
+        this.chunkProvider = chunkProvider;
+        this.workers = TaskMaster.createFIFOTaskMaster("Chunk-Pregenerator", threads);
+        this.maxChunksInFlight = threads * CHUNKS_IN_FLIGHT_PER_THREAD;
+    }
+
+    public void start() {
+        logger.info("Pregenerating {} chunks in {}", getTotalChunks(), region);
+        startTime = System.nanoTime();
+        running = true;
+    }
+
+    /**
+     * Stores the chunks generated since the last call and schedules further chunks, unless too many stored chunks
+     * are waiting for a save.
+     */
+    public void update() {
+        if (!running) {
+            return;
+        }
+
+        List<Chunk> chunks = Lists.newArrayListWithCapacity(generatedChunks.size());
+        generatedChunks.drainTo(chunks);
+        for (Chunk chunk : chunks) {
+            // A loaded chunk gets stored with its modifications once it unloads
+            if (!chunkProvider.isChunkReady(chunk.getPosition()) && storageManager.storeGeneratedChunk(chunk)) {
+                storedChunks++;
+                chunksSinceSaveRequest++;
+            } else {
+                alreadyStoredChunks.incrementAndGet();
+            }
+        }
+
+        if (chunksSinceSaveRequest >= SAVE_BATCH_SIZE && !storageManager.isSaving()) {
+            storageManager.requestSaving();
+            chunksSinceSaveRequest = 0;
+        }
+
+        if (chunksSinceSaveRequest < 2 * SAVE_BATCH_SIZE) {
+            int chunksInFlight = scheduledChunks - finishedChunks.get();
+            while (chunksInFlight < maxChunksInFlight && remainingPositions.hasNext()) {
+                if (!workers.offer(new PregenerateChunkTask(new Vector3i(remainingPositions.next())))) {
+                    logger.error("Failed to schedule chunk pregeneration");
+                    cancel();
+                    return;
+                }
+                scheduledChunks++;
+                chunksInFlight++;
+            }
+        }
+
+        if (!remainingPositions.hasNext() && finishedChunks.get() == scheduledChunks && generatedChunks.isEmpty()) {
+            finish();
+            logger.info("Pregeneration finished: {}", getStatus());
+        }
+    }
+
+    /**
+     * Stops scheduling chunks. Chunks that were already stored are kept and skipped when pregenerating again.
+     */
+    public void cancel() {
+        if (running) {
+            finish();
+            logger.info("Pregeneration cancelled: {}", getStatus());
+        }
+    }
+
+    private void finish() {
+        running = false;
+        endTime = System.nanoTime();
+        workers.shutdown(new ShutdownTask(), false);
+        generatedChunks.clear();
+        if (chunksSinceSaveRequest > 0) {
+            storageManager.requestSaving();
+            chunksSinceSaveRequest = 0;
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public Region3i getRegion() {
+        return region;
+    }
+
+    public int getTotalChunks() {
+        return region.sizeX() * region.sizeY() * region.sizeZ();
+    }
+
+    /**
+     * @return The number of chunks that were generated and stored, or skipped because they already existed
+     */
+    public int getProcessedChunks() {
+        return storedChunks + alreadyStoredChunks.get();
+    }
+
+    public int getStoredChunks() {
+        return storedChunks;
+    }
+
+    /**
+     * @return The number of generated and stored chunks per second, since the start
+     */
+    public float getChunksPerSecond() {
+        long duration = ((running) ? System.nanoTime() : endTime) - startTime;
+        if (duration <= 0) {
+            return 0;
+        }
+        return storedChunks / (duration / (float) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    public String getStatus() {
+        int total = getTotalChunks();
+        int processed = getProcessedChunks();
+        return String.format("%d/%d chunks (%.1f%%), %d generated, %d skipped, %.1f chunks/s",
+                processed, total, 100f * processed / total, storedChunks, alreadyStoredChunks.get(), getChunksPerSecond());
+    }
+
+    private class PregenerateChunkTask extends AbstractTask {
+
+        private final Vector3i position;
+
+        public PregenerateChunkTask(Vector3i position) {
+            this.position = position;
+        }
+
+        @Override
+        public String getName() {
+            return "Pregenerate Chunk";
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (storageManager.isChunkStored(position)) {
+                    alreadyStoredChunks.incrementAndGet();
+                } else {
+                    Chunk chunk = new ChunkImpl(position);
+                    generator.createChunk(chunk);
+                    chunk.deflate();
+                    generatedChunks.offer(chunk);
+                }
+            } finally {
+                finishedChunks.incrementAndGet();
+            }
+        }
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.chunks.pregeneration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.terasology.config.Config;
+import org.terasology.entitySystem.entity.EntityRef;
+import org.terasology.entitySystem.systems.BaseComponentSystem;
+import org.terasology.entitySystem.systems.RegisterMode;
+import org.terasology.entitySystem.systems.RegisterSystem;
+import org.terasology.entitySystem.systems.UpdateSubscriberSystem;
+import org.terasology.logic.console.commandSystem.annotations.Command;
+import org.terasology.logic.console.commandSystem.annotations.CommandParam;
+import org.terasology.logic.console.commandSystem.annotations.Sender;
+import org.terasology.logic.location.LocationComponent;
+import org.terasology.math.ChunkMath;
+import org.terasology.math.Region3i;
+import org.terasology.math.Vector3i;
+import org.terasology.network.ClientComponent;
+import org.terasology.persistence.StorageManager;
+import org.terasology.registry.In;
+import org.terasology.world.chunks.ChunkProvider;
+import org.terasology.world.generator.WorldGenerator;
+
+/**
+ * Pregenerates the chunks of a region on request, either through console commands or at startup through
+ * {@link org.terasology.config.TransientConfig#getPregenerationRadius()}.
+ */
+@RegisterSystem(RegisterMode.AUTHORITY)
+public class PregenerationSystem extends BaseComponentSystem implements UpdateSubscriberSystem {
+
+    private static final Logger logger = LoggerFactory.getLogger(PregenerationSystem.class);
+
+    private static final int DEFAULT_VERTICAL_RADIUS = 1;
+    private static final long STATUS_LOG_INTERVAL_MS = 10000;
+
+    @In
+    private Config config;
+
+    @In
+    private WorldGenerator worldGenerator;
+
+    @In
+    private StorageManager storageManager;
+
+    @In
+    private ChunkProvider chunkProvider;
+
+    private ChunkPregenerator pregenerator;
+    private long lastStatusLogTime;
+
+    @Override
+    public void postBegin() {
+        int radius = config.getTransients().getPregenerationRadius();
+        if (radius > 0) {
+            start(Region3i.createFromCenterExtents(Vector3i.zero(), new Vector3i(radius, DEFAULT_VERTICAL_RADIUS, radius)));
+        }
+    }
+
+    @Override
+    public void update(float delta) {
+        if (pregenerator != null && pregenerator.isRunning()) {
+            pregenerator.update();
+            long time = System.currentTimeMillis();
+            if (pregenerator.isRunning() && time - lastStatusLogTime >= STATUS_LOG_INTERVAL_MS) {
+                logger.info("Pregenerating: {}", pregenerator.getStatus());
+                lastStatusLogTime = time;
+            }
+        }
+    }
+
+    @Override
+    public void shutdown() {
+        if (pregenerator != null) {
+            pregenerator.cancel();
+        }
+    }
+
+    @Command(shortDescription = "Generates and stores all chunks within a radius around you, or around the origin",
+            helpText = "Generates and stores all chunks within the given horizontal and vertical radius, in chunks. "
+                    + "Chunks that are already stored are skipped, so an interrupted pregeneration can be resumed "
+                    + "by repeating the command.",
+            runOnServer = true)
+    public String pregenerate(@Sender EntityRef sender, @CommandParam("radius") int radius,
+                              @CommandParam(value = "verticalRadius", required = false) Integer verticalRadius) {
+        if (pregenerator != null && pregenerator.isRunning()) {
+            return "Pregeneration is already running: " + pregenerator.getStatus();
+        }
+        if (radius < 0 || (verticalRadius != null && verticalRadius < 0)) {
+            throw new IllegalArgumentException("The radius must not be negative");
+        }
+
+        Vector3i center = Vector3i.zero();
+        ClientComponent client = sender.getComponent(ClientComponent.class);
+        if (client != null) {
+            LocationComponent location = client.character.getComponent(LocationComponent.class);
+            if (location != null) {
+                center = ChunkMath.calcChunkPos(location.getWorldPosition());
+            }
+        }
+        int vertical = (verticalRadius != null) ? verticalRadius : DEFAULT_VERTICAL_RADIUS;
+        start(Region3i.createFromCenterExtents(center, new Vector3i(radius, vertical, radius)));
+        return "Pregenerating " + pregenerator.getTotalChunks() + " chunks in " + pregenerator.getRegion();
+    }
+
+    @Command(shortDescription = "Shows the progress of the chunk pregeneration", runOnServer = true)
+    public String pregenerationStatus() {
+        if (pregenerator == null) {
+            return "No pregeneration was started";
+        }
+        return ((pregenerator.isRunning()) ? "Running: " : "Stopped: ") + pregenerator.getStatus();
+    }
+
+    @Command(shortDescription = "Stops the chunk pregeneration", runOnServer = true)
+    public String cancelPregeneration() {
+        if (pregenerator == null || !pregenerator.isRunning()) {
+            return "No pregeneration is running";
+        }
+        pregenerator.cancel();
+        return "Pregeneration cancelled: " + pregenerator.getStatus();
+    }
+
+    private void start(Region3i region) {
+        int threads = Math.max(1, config.getSystem().getMaxThreads());
+        pregenerator = new ChunkPregenerator(region, worldGenerator, storageManager, chunkProvider, threads);
+        pregenerator.start();
+        lastStatusLogTime = System.currentTimeMillis();
+    }
+}
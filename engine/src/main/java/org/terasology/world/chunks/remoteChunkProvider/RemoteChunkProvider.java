@@ -33,6 +33,7 @@
 import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.monitoring.chunk.ChunkMonitor;
 import org.terasology.registry.CoreRegistry;
+import org.terasology.world.block.BlockManager;
 import org.terasology.world.chunks.Chunk;
 import org.terasology.world.chunks.ChunkConstants;
 import org.terasology.world.chunks.ChunkProvider;
@@ -72,7 +73,10 @@ public class RemoteChunkProvider implements ChunkProvider, GeneratingChunkProvid
 
     private LightMerger<Chunk> lightMerger = new LightMerger<>(this);
 
+    private BlockManager blockManager;
+
     public RemoteChunkProvider() {
+        blockManager = CoreRegistry.get(BlockManager.class);
         pipeline = new ChunkGenerationPipeline(new ChunkTaskRelevanceComparator());
         ChunkMonitor.fireChunkProviderInitialized(this);
     }
@@ -90,7 +94,7 @@ public String getName() {
 
             @Override
             public void run() {
-                InternalLightProcessor.generateInternalLighting(chunk);
+                InternalLightProcessor.generateInternalLighting(chunk, blockManager.getLookupTable());
                 chunk.deflate();
                 onChunkIsReady(chunk);
             }
@@ -15,42 +15,69 @@
  */
 package org.terasology.world.generation;
 
+import com.google.common.base.Throwables;
 import com.google.common.collect.ListMultimap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
 import org.terasology.math.Region3i;
+import org.terasology.monitoring.PerformanceMonitor;
 import org.terasology.utilities.collection.TypeMap;
 
+import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 
 /**
+ * Generates facets on demand. The providers needed for a facet are processed in dependency order; providers that do
+ * not depend on each other are processed concurrently when an executor is available.
+ *
  * @author Immortius
  */
 public class RegionImpl implements Region, GeneratingRegion {
 
     private final Region3i region;
     private final ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains;
+    private final SetMultimap<FacetProvider, FacetProvider> providerDependencies;
+    private final ExecutorService providerExecutor;
     private final Map<Class<? extends WorldFacet>, Border3D> borders;
 
-    private final TypeMap<WorldFacet> generatingFacets = TypeMap.create();
+    // written by providers, possibly on several threads at once
+    private final TypeMap<WorldFacet> generatingFacets = TypeMap.create(Maps.<Class<? extends WorldFacet>, WorldFacet>newConcurrentMap());
     private final Set<FacetProvider> processedProviders = Sets.newHashSet();
     private final TypeMap<WorldFacet> generatedFacets = TypeMap.create();
 
-    public RegionImpl(Region3i region, ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains, Map<Class<? extends WorldFacet>, Border3D> borders) {
+    public RegionImpl(Region3i region, ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains,
+                      SetMultimap<FacetProvider, FacetProvider> providerDependencies, ExecutorService providerExecutor,
+                      Map<Class<? extends WorldFacet>, Border3D> borders) {
         this.region = region;
         this.facetProviderChains = facetProviderChains;
+        this.providerDependencies = providerDependencies;
+        this.providerExecutor = providerExecutor;
         this.borders = borders;
     }
 
     @Override
-    public <T extends WorldFacet> T getFacet(Class<T> dataType) {
+    public synchronized <T extends WorldFacet> T getFacet(Class<T> dataType) {
         T facet = generatedFacets.get(dataType);
         if (facet == null) {
-            for (FacetProvider provider : facetProviderChains.get(dataType)) {
-                if (!processedProviders.contains(provider)) {
-                    provider.process(this);
+            Set<FacetProvider> pending = Sets.newLinkedHashSet(facetProviderChains.get(dataType));
+            pending.removeAll(processedProviders);
+            if (providerExecutor == null || pending.size() < 2) {
+                for (FacetProvider provider : pending) {
+                    process(provider);
                     processedProviders.add(provider);
                 }
+            } else {
+                processConcurrently(pending);
             }
             facet = generatingFacets.get(dataType);
             generatedFacets.put(dataType, facet);
@@ -58,6 +85,83 @@ public <T extends WorldFacet> T getFacet(Class<T> dataType) {
         return facet;
     }
 
+    /**
+     * Processes the given providers, each once those of its dependencies that are among them are processed. This
+     * thread processes one of the providers that are ready and hands the others to the executor, so that it never
+     * waits while there is work.
+     */
+    private void processConcurrently(Set<FacetProvider> pending) {
+        Set<FacetProvider> scheduled = Sets.newHashSet(pending);
+        CompletionService<FacetProvider> completionService = new ExecutorCompletionService<>(providerExecutor);
+        int running = 0;
+        while (!pending.isEmpty() || running > 0) {
+            List<FacetProvider> ready = takeReadyProviders(pending, scheduled);
+            if (!ready.isEmpty()) {
+                for (int i = 1; i < ready.size(); i++) {
+                    completionService.submit(new ProviderTask(ready.get(i)));
+                    running++;
+                }
+                process(ready.get(0));
+                processedProviders.add(ready.get(0));
+                Future<FacetProvider> completed = completionService.poll();
+                while (completed != null) {
+                    processedProviders.add(getResult(completed));
+                    running--;
+                    completed = completionService.poll();
+                }
+            } else if (running > 0) {
+                try {
+                    processedProviders.add(getResult(completionService.take()));
+                    running--;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted while generating facets for " + region, e);
+                }
+            } else {
+                throw new IllegalStateException("Unsatisfiable facet provider dependencies: " + pending);
+            }
+        }
+    }
+
+    private List<FacetProvider> takeReadyProviders(Set<FacetProvider> pending, Set<FacetProvider> scheduled) {
+        List<FacetProvider> ready = Lists.newArrayList();
+        Iterator<FacetProvider> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            FacetProvider provider = iterator.next();
+            if (isReady(provider, scheduled)) {
+                ready.add(provider);
+                iterator.remove();
+            }
+        }
+        return ready;
+    }
+
+    private boolean isReady(FacetProvider provider, Set<FacetProvider> scheduled) {
+        for (FacetProvider dependency : providerDependencies.get(provider)) {
+            if (scheduled.contains(dependency) && !processedProviders.contains(dependency)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static FacetProvider getResult(Future<FacetProvider> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while generating facets", e);
+        } catch (ExecutionException e) {
+            throw Throwables.propagate(e.getCause());
+        }
+    }
+
+    private void process(FacetProvider provider) {
+        long start = System.nanoTime();
+        provider.process(this);
+        PerformanceMonitor.recordActivityTime("Facet provider " + provider.getClass().getSimpleName(), System.nanoTime() - start);
+    }
+
     @Override
     public Region3i getRegion() {
         return region;
@@ -82,4 +186,18 @@ public Border3D getBorderForFacet(Class<? extends WorldFacet> type) {
             return new Border3D(0, 0, 0);
         }
     }
+
+    private class ProviderTask implements Callable<FacetProvider> {
+        private final FacetProvider provider;
+
+        ProviderTask(FacetProvider provider) {
+            this.provider = provider;
+        }
+
+        @Override
+        public FacetProvider call() {
+            process(provider);
+            return provider;
+        }
+    }
 }
@@ -16,21 +16,25 @@
 package org.terasology.world.generation;
 
 import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.LinkedHashMultimap;
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.entitySystem.Component;
 import org.terasology.registry.CoreRegistry;
+import org.terasology.world.generator.internal.WorldGeneratorManager;
 import org.terasology.world.generator.plugin.WorldGeneratorPluginLibrary;
 
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 /**
  * @author Immortius
@@ -44,9 +48,14 @@ public class WorldBuilder {
     private final Set<Class<? extends WorldFacet>> facetCalculationInProgress = Sets.newHashSet();
     private final List<WorldRasterizer> rasterizers = Lists.newArrayList();
     private int seaLevel = 32;
+    private ExecutorService providerExecutor;
 
     public WorldBuilder(long seed) {
         this.seed = seed;
+        WorldGeneratorManager worldGeneratorManager = CoreRegistry.get(WorldGeneratorManager.class);
+        if (worldGeneratorManager != null) {
+            this.providerExecutor = worldGeneratorManager.getFacetProviderExecutor();
+        }
     }
 
     public WorldBuilder addProvider(FacetProvider provider) {
@@ -82,11 +91,70 @@ public WorldBuilder setSeaLevel(int level) {
         return this;
     }
 
+    /**
+     * Facet providers that do not depend on each other are processed concurrently on the given executor. By default,
+     * the engine's facet provider executor is used (see {@link WorldGeneratorManager#getFacetProviderExecutor()}),
+     * which is shut down with the engine.
+     *
+     * @param executor the executor to process facet providers on, or null to process them one after another
+     *                 on the thread that requests the facets
+     * @return this
+     */
+    public WorldBuilder setProviderExecutor(ExecutorService executor) {
+        this.providerExecutor = executor;
+        return this;
+    }
+
     public World build() {
         // TODO: ensure the required providers are present
 
         ListMultimap<Class<? extends WorldFacet>, FacetProvider> providerChains = determineProviderChains();
-        return new WorldImpl(providerChains, rasterizers, determineBorders(providerChains), seaLevel);
+        return new WorldImpl(providerChains, determineProviderDependencies(), providerExecutor, rasterizers, determineBorders(providerChains), seaLevel);
+    }
+
+    /**
+     * A provider depends on all providers of the facets it requires, and on the providers of the facets it produces
+     * or updates that come before it, so that updates are applied in the order the providers were added.
+     */
+    private SetMultimap<FacetProvider, FacetProvider> determineProviderDependencies() {
+        SetMultimap<FacetProvider, FacetProvider> result = LinkedHashMultimap.create();
+        for (int i = 0; i < providersList.size(); i++) {
+            FacetProvider provider = providersList.get(i);
+            Requires requirements = provider.getClass().getAnnotation(Requires.class);
+            if (requirements != null) {
+                for (Facet requirement : requirements.value()) {
+                    for (FacetProvider other : providersList) {
+                        if (other != provider && producesFacet(other, requirement.value())) {
+                            result.put(provider, other);
+                        }
+                    }
+                }
+            }
+            for (int j = 0; j < i; j++) {
+                FacetProvider earlier = providersList.get(j);
+                for (Class<? extends WorldFacet> facet : getWrittenFacets(provider)) {
+                    if (producesFacet(earlier, facet)) {
+                        result.put(provider, earlier);
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    private Set<Class<? extends WorldFacet>> getWrittenFacets(FacetProvider provider) {
+        Set<Class<? extends WorldFacet>> result = Sets.newHashSet();
+        Produces produces = provider.getClass().getAnnotation(Produces.class);
+        if (produces != null) {
+            result.addAll(Arrays.asList(produces.value()));
+        }
+        Updates updates = provider.getClass().getAnnotation(Updates.class);
+        if (updates != null) {
+            for (Facet facet : updates.value()) {
+                result.add(facet.value());
+            }
+        }
+        return result;
     }
 
     private Map<Class<? extends WorldFacet>, Border3D> determineBorders(ListMultimap<Class<? extends WorldFacet>, FacetProvider> providerChains) {
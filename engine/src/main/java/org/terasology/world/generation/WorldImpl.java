@@ -18,12 +18,14 @@
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 
 import org.terasology.math.Region3i;
 import org.terasology.world.chunks.CoreChunk;
 
 import com.google.common.collect.ListMultimap;
 import com.google.common.collect.Maps;
+import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
 
 /**
@@ -31,15 +33,21 @@
  */
 public class WorldImpl implements World {
     private final ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains;
+    private final SetMultimap<FacetProvider, FacetProvider> providerDependencies;
+    private final ExecutorService providerExecutor;
     private final List<WorldRasterizer> worldRasterizers;
     private final Map<Class<? extends WorldFacet>, Border3D> borders;
     private final int seaLevel;
 
     public WorldImpl(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetProviderChains,
+                     SetMultimap<FacetProvider, FacetProvider> providerDependencies,
+                     ExecutorService providerExecutor,
                      List<WorldRasterizer> worldRasterizers,
                      Map<Class<? extends WorldFacet>, Border3D> borders,
                      int seaLevel) {
         this.facetProviderChains = facetProviderChains;
+        this.providerDependencies = providerDependencies;
+        this.providerExecutor = providerExecutor;
         this.worldRasterizers = worldRasterizers;
         this.borders = borders;
         this.seaLevel = seaLevel;
@@ -47,7 +55,7 @@ public WorldImpl(ListMultimap<Class<? extends WorldFacet>, FacetProvider> facetP
 
     @Override
     public Region getWorldData(Region3i region) {
-        return new RegionImpl(region, facetProviderChains, borders);
+        return new RegionImpl(region, facetProviderChains, providerDependencies, providerExecutor, borders);
     }
 
     @Override
@@ -0,0 +1,172 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.world.generation.facets.base;
+
+import com.google.common.base.Preconditions;
+import com.google.common.math.IntMath;
+import org.terasology.math.Region3i;
+import org.terasology.math.TeraMath;
+
+/**
+ * Fills 3D field facets from a smooth field that is only evaluated on a coarse lattice, interpolating trilinearly
+ * between the lattice points. The lattice is aligned to multiples of the sample rate in world coordinates, so
+ * neighbouring regions share their lattice points and interpolate to the same values along their borders.
+ * <p>
+ * With a sample rate of n along every axis, the field is evaluated roughly n<sup>3</sup> times less often than once
+ * per block. A sample rate of 1 along every axis evaluates the field at every block.
+ * </p>
+ */
+public final class FieldSampler3D {
+
+    private final int sampleRateX;
+    private final int sampleRateY;
+    private final int sampleRateZ;
+
+    /**
+     * @param sampleRate the distance between lattice points along every axis
+     */
+    public FieldSampler3D(int sampleRate) {
+        this(sampleRate, sampleRate, sampleRate);
+    }
+
+    /**
+     * @param sampleRateX the distance between lattice points along the x-axis
+     * @param sampleRateY the distance between lattice points along the y-axis
+     * @param sampleRateZ the distance between lattice points along the z-axis
+     */
+    public FieldSampler3D(int sampleRateX, int sampleRateY, int sampleRateZ) {
+        Preconditions.checkArgument(sampleRateX > 0 && sampleRateY > 0 && sampleRateZ > 0, "Sample rates must be positive");
+        this.sampleRateX = sampleRateX;
+        this.sampleRateY = sampleRateY;
+        this.sampleRateZ = sampleRateZ;
+    }
+
+    public int getSampleRateX() {
+        return sampleRateX;
+    }
+
+    public int getSampleRateY() {
+        return sampleRateY;
+    }
+
+    public int getSampleRateZ() {
+        return sampleRateZ;
+    }
+
+    /**
+     * Sets every value of the facet, including its border, from the given field.
+     *
+     * @param facet the facet to fill
+     * @param field the field to sample. It may be evaluated at lattice points up to one sample rate
+     *              outside of the facet's world region.
+     */
+    public void fill(BaseFieldFacet3D facet, Field field) {
+        Region3i region = facet.getWorldRegion();
+        float[] data = facet.getInternal();
+        if (sampleRateX == 1 && sampleRateY == 1 && sampleRateZ == 1) {
+            int index = 0;
+            for (int z = region.minZ(); z <= region.maxZ(); ++z) {
+                for (int y = region.minY(); y <= region.maxY(); ++y) {
+                    for (int x = region.minX(); x <= region.maxX(); ++x) {
+                        data[index++] = field.get(x, y, z);
+                    }
+                }
+            }
+            return;
+        }
+
+        Axis xAxis = new Axis(region.minX(), region.maxX(), sampleRateX);
+        Axis yAxis = new Axis(region.minY(), region.maxY(), sampleRateY);
+        Axis zAxis = new Axis(region.minZ(), region.maxZ(), sampleRateZ);
+
+        float[] keys = new float[xAxis.keyCount * yAxis.keyCount * zAxis.keyCount];
+        int keyIndex = 0;
+        for (int k = 0; k < zAxis.keyCount; ++k) {
+            for (int j = 0; j < yAxis.keyCount; ++j) {
+                for (int i = 0; i < xAxis.keyCount; ++i) {
+                    keys[keyIndex++] = field.get(xAxis.keyPosition(i), yAxis.keyPosition(j), zAxis.keyPosition(k));
+                }
+            }
+        }
+
+        int strideY = xAxis.keyCount;
+        int strideZ = xAxis.keyCount * yAxis.keyCount;
+        int index = 0;
+        for (int z = 0; z < zAxis.size; ++z) {
+            int z0 = zAxis.lower[z] * strideZ;
+            int z1 = zAxis.upper[z] * strideZ;
+            float tz = zAxis.fraction[z];
+            for (int y = 0; y < yAxis.size; ++y) {
+                int y0 = yAxis.lower[y] * strideY;
+                int y1 = yAxis.upper[y] * strideY;
+                float ty = yAxis.fraction[y];
+                for (int x = 0; x < xAxis.size; ++x) {
+                    int x0 = xAxis.lower[x];
+                    int x1 = xAxis.upper[x];
+                    data[index++] = TeraMath.triLerp(
+                            keys[x0 + y0 + z0], keys[x1 + y0 + z0], keys[x0 + y1 + z0], keys[x1 + y1 + z0],
+                            keys[x0 + y0 + z1], keys[x1 + y0 + z1], keys[x0 + y1 + z1], keys[x1 + y1 + z1],
+                            xAxis.fraction[x], ty, tz);
+                }
+            }
+        }
+    }
+
+    /**
+     * A scalar field in world coordinates.
+     */
+    public interface Field {
+
+        /**
+         * @return the value of the field at the given world position
+         */
+        float get(int x, int y, int z);
+    }
+
+    /**
+     * The lattice points along one axis of a region, and for every position of the region the
+     * surrounding pair of lattice points and the position between them.
+     */
+    private static final class Axis {
+        private final int size;
+        private final int origin;
+        private final int sampleRate;
+        private final int keyCount;
+        private final int[] lower;
+        private final int[] upper;
+        private final float[] fraction;
+
+        private Axis(int min, int max, int sampleRate) {
+            this.size = max - min + 1;
+            this.sampleRate = sampleRate;
+            this.origin = min - IntMath.mod(min, sampleRate);
+            this.keyCount = (max - origin + sampleRate - 1) / sampleRate + 1;
+            this.lower = new int[size];
+            this.upper = new int[size];
+            this.fraction = new float[size];
+            for (int i = 0; i < size; ++i) {
+                int offset = min + i - origin;
+                lower[i] = offset / sampleRate;
+                upper[i] = Math.min(lower[i] + 1, keyCount - 1);
+                fraction[i] = (float) (offset % sampleRate) / sampleRate;
+            }
+        }
+
+        private int keyPosition(int key) {
+            return origin + key * sampleRate;
+        }
+    }
+}
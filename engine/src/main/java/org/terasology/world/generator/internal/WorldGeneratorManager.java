@@ -17,6 +17,7 @@
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.engine.SimpleUri;
@@ -34,6 +35,8 @@
 import java.lang.reflect.InvocationTargetException;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * @author Immortius
@@ -43,6 +46,9 @@ public class WorldGeneratorManager {
 
     private ImmutableList<WorldGeneratorInfo> generatorInfo;
 
+    private ExecutorService facetProviderExecutor;
+    private boolean shutdown;
+
     public WorldGeneratorManager() {
         refresh();
     }
@@ -140,6 +146,33 @@ private WorldGenerator loadGenerator(Class<?> generatorClass, SimpleUri uri) thr
         }
     }
 
+    /**
+     * The executor is shared by all worlds built while the engine runs, and is created on first use. It is shut down
+     * together with the engine.
+     *
+     * @return The executor facet providers are processed on, or null if they should be processed on the requesting
+     * thread (single processor machines, or after shutdown)
+     */
+    public synchronized ExecutorService getFacetProviderExecutor() {
+        int threads = Runtime.getRuntime().availableProcessors() - 1;
+        if (facetProviderExecutor == null && !shutdown && threads > 0) {
+            facetProviderExecutor = Executors.newFixedThreadPool(threads,
+                    new ThreadFactoryBuilder().setNameFormat("Facet-Provider-%d").setDaemon(true).build());
+        }
+        return facetProviderExecutor;
+    }
+
+    /**
+     * Stops the facet provider threads once their current work is done.
+     */
+    public synchronized void shutdown() {
+        shutdown = true;
+        if (facetProviderExecutor != null) {
+            facetProviderExecutor.shutdown();
+            facetProviderExecutor = null;
+        }
+    }
+
     private boolean isValidWorldGenerator(Class<?> generatorClass) {
         try {
             if (WorldGenerator.class.isAssignableFrom(generatorClass)) {
@@ -40,6 +40,7 @@ public class ChunkViewCoreImpl implements ChunkViewCore {
 
     private Vector3i offset;
     private Region3i chunkRegion;
+    private Vector3i chunkRegionSize;
     private Region3i blockRegion;
     private Chunk[] chunks;
 
@@ -51,6 +52,7 @@ public class ChunkViewCoreImpl implements ChunkViewCore {
     public ChunkViewCoreImpl(Chunk[] chunks, Region3i chunkRegion, Vector3i offset) {
         locked.set(false);
         this.chunkRegion = chunkRegion;
+        this.chunkRegionSize = chunkRegion.size();
         this.chunks = chunks;
         this.offset = offset;
         setChunkSize(new Vector3i(ChunkConstants.SIZE_X, ChunkConstants.SIZE_Y, ChunkConstants.SIZE_Z));
@@ -84,7 +86,18 @@ public Block getBlock(int blockX, int blockY, int blockZ) {
         }
 
         int chunkIndex = relChunkIndex(blockX, blockY, blockZ);
-        return chunks[chunkIndex].getBlock(ChunkMath.calcBlockPos(blockX, blockY, blockZ, chunkFilterSize));
+        return chunks[chunkIndex].getBlock(ChunkMath.calcBlockPosX(blockX, chunkFilterSize.x),
+                ChunkMath.calcBlockPosY(blockY, chunkFilterSize.y), ChunkMath.calcBlockPosZ(blockZ, chunkFilterSize.z));
+    }
+
+    @Override
+    public boolean isUniformBlockLayer(int blockX, int blockY, int blockZ) {
+        if (!blockRegion.encompasses(blockX, blockY, blockZ)) {
+            return false;
+        }
+
+        int chunkIndex = relChunkIndex(blockX, blockY, blockZ);
+        return chunks[chunkIndex].isUniformBlockLayer(ChunkMath.calcBlockPosY(blockY, chunkFilterSize.y));
     }
 
     @Override
@@ -104,8 +117,8 @@ public Biome getBiome(int blockX, int blockY, int blockZ) {
         }
 
         int chunkIndex = relChunkIndex(blockX, blockY, blockZ);
-        Vector3i blockPos = ChunkMath.calcBlockPos(blockX, blockY, blockZ, chunkFilterSize);
-        return chunks[chunkIndex].getBiome(blockPos.x, blockPos.y, blockPos.z);
+        return chunks[chunkIndex].getBiome(ChunkMath.calcBlockPosX(blockX, chunkFilterSize.x),
+                ChunkMath.calcBlockPosY(blockY, chunkFilterSize.y), ChunkMath.calcBlockPosZ(blockZ, chunkFilterSize.z));
     }
 
     @Override
@@ -135,7 +148,8 @@ public byte getSunlight(int blockX, int blockY, int blockZ) {
         }
 
         int chunkIndex = relChunkIndex(blockX, blockY, blockZ);
-        return chunks[chunkIndex].getSunlight(ChunkMath.calcBlockPos(blockX, blockY, blockZ, chunkFilterSize));
+        return chunks[chunkIndex].getSunlight(ChunkMath.calcBlockPosX(blockX, chunkFilterSize.x),
+                ChunkMath.calcBlockPosY(blockY, chunkFilterSize.y), ChunkMath.calcBlockPosZ(blockZ, chunkFilterSize.z));
     }
 
     @Override
@@ -145,7 +159,8 @@ public byte getLight(int blockX, int blockY, int blockZ) {
         }
 
         int chunkIndex = relChunkIndex(blockX, blockY, blockZ);
-        return chunks[chunkIndex].getLight(ChunkMath.calcBlockPos(blockX, blockY, blockZ, chunkFilterSize));
+        return chunks[chunkIndex].getLight(ChunkMath.calcBlockPosX(blockX, chunkFilterSize.x),
+                ChunkMath.calcBlockPosY(blockY, chunkFilterSize.y), ChunkMath.calcBlockPosZ(blockZ, chunkFilterSize.z));
     }
 
     @Override
@@ -305,7 +320,7 @@ public boolean isValidView() {
     protected int relChunkIndex(int x, int y, int z) {
         return TeraMath.calculate3DArrayIndex(ChunkMath.calcChunkPosX(x, chunkPower.x) + offset.x,
                 ChunkMath.calcChunkPosY(y, chunkPower.y) + offset.y,
-                ChunkMath.calcChunkPosZ(z, chunkPower.z) + offset.z, chunkRegion.size());
+                ChunkMath.calcChunkPosZ(z, chunkPower.z) + offset.z, chunkRegionSize);
     }
 
     public void setChunkSize(Vector3i chunkSize) {
@@ -18,7 +18,10 @@
 
 import org.terasology.math.Side;
 import org.terasology.math.Vector3i;
+import org.terasology.registry.CoreRegistry;
 import org.terasology.world.block.Block;
+import org.terasology.world.block.BlockLookupTable;
+import org.terasology.world.block.BlockManager;
 import org.terasology.world.chunks.ChunkConstants;
 import org.terasology.world.chunks.LitChunk;
 import org.terasology.world.propagation.BatchPropagator;
@@ -40,20 +43,28 @@ private InternalLightProcessor() {
     }
 
     public static void generateInternalLighting(LitChunk chunk) {
+        generateInternalLighting(chunk, CoreRegistry.get(BlockManager.class).getLookupTable());
+    }
+
+    /**
+     * @param chunk  The chunk to light
+     * @param blocks The current lookup table of the block manager, used to find light emitting blocks
+     */
+    public static void generateInternalLighting(LitChunk chunk, BlockLookupTable blocks) {
         populateSunlightRegen(chunk);
         populateSunlight(chunk);
-        populateLight(chunk);
+        populateLight(chunk, blocks);
     }
 
-    private static void populateLight(LitChunk chunk) {
+    private static void populateLight(LitChunk chunk, BlockLookupTable blocks) {
         BatchPropagator lightPropagator = new StandardBatchPropagator(LIGHT_RULES, new SingleChunkView(LIGHT_RULES, chunk));
         for (int x = 0; x < ChunkConstants.SIZE_X; x++) {
             for (int z = 0; z < ChunkConstants.SIZE_Z; z++) {
                 for (int y = 0; y < ChunkConstants.SIZE_Y; y++) {
-                    Block block = chunk.getBlock(x, y, z);
-                    if (block.getLuminance() > 0) {
-                        chunk.setLight(x, y, z, block.getLuminance());
-                        lightPropagator.propagateFrom(new Vector3i(x, y, z), block.getLuminance());
+                    byte luminance = blocks.getLuminance(chunk.getBlockId(x, y, z));
+                    if (luminance > 0) {
+                        chunk.setLight(x, y, z, luminance);
+                        lightPropagator.propagateFrom(new Vector3i(x, y, z), luminance);
                     }
                 }
             }
@@ -37,6 +37,7 @@
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * @author Immortius
@@ -82,6 +83,45 @@ public T completeMerge() {
         return null;
     }
 
+    /**
+     * @return Whether a merge has been begun and its result not yet collected
+     */
+    public boolean isMerging() {
+        return resultFuture != null;
+    }
+
+    /**
+     * Collects the result of the current merge if it has finished, without waiting for it.
+     *
+     * @return The data passed to beginMerge for the finished merge, or null if no merge has finished
+     */
+    public T pollMerge() {
+        if (resultFuture != null && resultFuture.isDone()) {
+            return completeMerge();
+        }
+        return null;
+    }
+
+    /**
+     * Collects the result of the current merge, waiting up to the given time for it to finish.
+     *
+     * @return The data passed to beginMerge for the finished merge, or null if no merge finished in time
+     */
+    public T pollMerge(long timeout, TimeUnit unit) {
+        if (resultFuture == null) {
+            return null;
+        }
+        try {
+            T result = resultFuture.get(timeout, unit);
+            resultFuture = null;
+            return result;
+        } catch (TimeoutException e) {
+            return null;
+        } catch (InterruptedException | ExecutionException e) {
+            throw new RuntimeException("Error completing lighting merge");
+        }
+    }
+
     private void merge(Chunk chunk) {
         Chunk[] localChunks = assembleLocalChunks(chunk);
         localChunks[CENTER_INDEX] = chunk;
@@ -91,6 +91,12 @@ void main() {
 
     vec2 texCoord = gl_TexCoord[0].xy;
 
+    // Merged faces repeat their texture tile, see ChunkMesh.TILED_TEXCOORD_RANGE
+    if (checkFlag(BLOCK_HINT_TILED, blockHint)) {
+        vec2 tile = floor(texCoord / TILED_TEXCOORD_RANGE);
+        texCoord = (tile + TILED_TEXCOORD_BORDER + fract(texCoord) * (1.0 - 2.0 * TILED_TEXCOORD_BORDER)) * TEXTURE_OFFSET;
+    }
+
     vec3 normalizedVPos = -normalize(vertexViewPos.xyz);
     vec2 projectedPos = projectVertexToTexCoord(vertexProjPos);
     vec3 normalOpaque = normal;
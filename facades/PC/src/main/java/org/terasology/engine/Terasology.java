@@ -68,6 +68,7 @@
  * <tr><td>-loadlastgame</td><td>Load the latest game on startup.</td></tr>
  * <tr><td>-noSaveGames</td><td>Disable writing of save games.</td></tr>
  * <tr><td>-noCrashReport</td><td>Disable crash reporting</td></tr>
+ * <tr><td>-pregenerate=radius</td><td>Generate and store all chunks within the radius (in chunks) around the origin once a game is started.</td></tr>
  * </tbody>
  * </table>
  * <p/>
@@ -91,12 +92,14 @@ public final class Terasology {
     private static final String NO_CRASH_REPORT = "-noCrashReport";
     private static final String NO_SAVE_GAMES = "-noSaveGames";
     private static final String NO_SOUND = "-noSound";
+    private static final String PREGENERATE = "-pregenerate=";
 
     private static boolean isHeadless;
     private static boolean crashReportEnabled = true;
     private static boolean writeSaveGamesEnabled = true;
     private static boolean soundEnabled = true;
     private static boolean loadLastGame;
+    private static int pregenerationRadius;
 
     private Terasology() {
     }
@@ -119,6 +122,9 @@ public static void main(String[] args) throws InterruptedException {
             if (!writeSaveGamesEnabled) {
                 CoreRegistry.get(Config.class).getTransients().setWriteSaveGamesEnabled(writeSaveGamesEnabled);
             }
+            if (pregenerationRadius > 0) {
+                CoreRegistry.get(Config.class).getTransients().setPregenerationRadius(pregenerationRadius);
+            }
             if (isHeadless) {
                 engine.subscribeToStateChange(new HeadlessStateChangeListener());
                 engine.run(new StateHeadlessSetup());
@@ -168,7 +174,8 @@ private static void printUsageAndExit() {
                 LOAD_LAST_GAME,
                 NO_CRASH_REPORT,
                 NO_SAVE_GAMES,
-                NO_SOUND);
+                NO_SOUND,
+                PREGENERATE + "<radius>");
 
         StringBuilder optText = new StringBuilder();
 
@@ -198,6 +205,9 @@ private static void printUsageAndExit() {
         System.out.println();
         System.out.println("To disable sound use the " + NO_SOUND + " launch argument (default in headless mode).");
         System.out.println();
+        System.out.println("To generate and store all chunks within a radius (in chunks) around the origin once a game is started,");
+        System.out.println("use the " + PREGENERATE + "<radius> launch argument. Chunks that are already stored are skipped.");
+        System.out.println();
         System.out.println("Examples:");
         System.out.println();
         System.out.println("    Use the current directory as the home directory:");
@@ -209,6 +219,9 @@ private static void printUsageAndExit() {
         System.out.println("    Start terasology in headless mode (no graphics):");
         System.out.println("    terasology " + START_HEADLESS);
         System.out.println();
+        System.out.println("    Start a headless server and pregenerate the chunks within 32 chunks of the origin:");
+        System.out.println("    terasology " + START_HEADLESS + " " + PREGENERATE + "32");
+        System.out.println();
         System.out.println("    Load the latest game on startup and disable crash reporting");
         System.out.println("    terasology " + LOAD_LAST_GAME + " " + NO_CRASH_REPORT);
         System.out.println();
@@ -241,6 +254,13 @@ private static void handleLaunchArguments(String[] args) {
                 soundEnabled = false;
             } else if (arg.equals(LOAD_LAST_GAME)) {
                 loadLastGame = true;
+            } else if (arg.startsWith(PREGENERATE)) {
+                try {
+                    pregenerationRadius = Integer.parseInt(arg.substring(PREGENERATE.length()));
+                    recognized = pregenerationRadius > 0;
+                } catch (NumberFormatException e) {
+                    recognized = false;
+                }
             } else {
                 recognized = false;
             }
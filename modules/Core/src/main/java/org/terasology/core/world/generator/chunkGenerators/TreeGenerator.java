@@ -19,6 +19,7 @@
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.terasology.registry.CoreRegistry;
+import org.terasology.utilities.random.FastRandom;
 import org.terasology.utilities.random.Random;
 import org.terasology.world.block.Block;
 import org.terasology.world.block.BlockManager;
@@ -57,6 +58,20 @@ public TreeGenerator() {
      */
     public abstract void generate(CoreChunk view, Random rand, int posX, int posY, int posZ);
 
+    /**
+     * Generates a tree at the given position, using a random number generator seeded with the given seed. The same seed
+     * always results in the same tree, which allows generators to reuse trees they generated before.
+     *
+     * @param view Chunk view
+     * @param seed The seed of the random number generator
+     * @param posX Position on the x-axis
+     * @param posY Position on the y-axis
+     * @param posZ Position on the z-axis
+     */
+    public void generate(CoreChunk view, long seed, int posX, int posY, int posZ) {
+        generate(view, new FastRandom(seed), posX, posY, posZ);
+    }
+
     public double getGenerationProbability() {
         return generationProbability;
     }
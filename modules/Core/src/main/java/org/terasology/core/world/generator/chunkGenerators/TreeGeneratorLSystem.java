@@ -21,11 +21,14 @@
 import org.terasology.math.geom.Quat4f;
 import org.terasology.math.geom.Vector3f;
 import org.terasology.utilities.collection.CharSequenceIterator;
+import org.terasology.utilities.random.FastRandom;
 import org.terasology.utilities.random.Random;
 import org.terasology.world.block.Block;
 import org.terasology.world.chunks.CoreChunk;
 
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * Allows the generation of complex trees based on L-Systems.
@@ -36,6 +39,8 @@ public class TreeGeneratorLSystem extends TreeGenerator {
 
     public static final float MAX_ANGLE_OFFSET = (float) Math.toRadians(5);
 
+    private static final int MAX_CACHED_VARIANTS = 256;
+
     /* SETTINGS */
     private int maxDepth;
     private float angle;
@@ -46,6 +51,8 @@ public class TreeGeneratorLSystem extends TreeGenerator {
     private final String initialAxiom;
     private final Map<Character, LSystemRule> ruleSet;
 
+    private final ConcurrentMap<Long, TreeStamp> stamps = new ConcurrentHashMap<>();
+
     /**
      * Init. a new L-System based tree generator.
      *
@@ -64,15 +71,36 @@ public TreeGeneratorLSystem(String initialAxiom, Map<Character, LSystemRule> rul
 
     @Override
     public void generate(CoreChunk view, Random rand, int posX, int posY, int posZ) {
+        createStamp(rand).stamp(view, posX, posY, posZ);
+    }
+
+    /**
+     * Stamps the tree grown from the given seed, expanding the rules only the first time the seed is used.
+     */
+    @Override
+    public void generate(CoreChunk view, long seed, int posX, int posY, int posZ) {
+        TreeStamp stamp = stamps.get(seed);
+        if (stamp == null) {
+            stamp = createStamp(new FastRandom(seed));
+            if (stamps.size() < MAX_CACHED_VARIANTS) {
+                stamps.putIfAbsent(seed, stamp);
+            }
+        }
+        stamp.stamp(view, posX, posY, posZ);
+    }
+
+    private TreeStamp createStamp(Random rand) {
         Vector3f position = new Vector3f(0f, 0f, 0f);
 
         Matrix4f rotation = new Matrix4f(new Quat4f(new Vector3f(0f, 0f, 1f), (float) Math.PI / 2f), Vector3f.ZERO, 1.0f);
 
         float angleOffset = rand.nextFloat(-MAX_ANGLE_OFFSET, MAX_ANGLE_OFFSET);
-        recurse(view, rand, posX, posY, posZ, angleOffset, new CharSequenceIterator(initialAxiom), position, rotation, 0);
+        TreeStamp.Builder stamp = new TreeStamp.Builder();
+        recurse(stamp, rand, angleOffset, new CharSequenceIterator(initialAxiom), position, rotation, 0);
+        return stamp.build();
     }
 
-    private void recurse(CoreChunk view, Random rand, int posX, int posY, int posZ, float angleOffset,
+    private void recurse(TreeStamp.Builder stamp, Random rand, float angleOffset,
                          CharSequenceIterator axiomIterator, Vector3f position, Matrix4f rotation, int depth) {
         Matrix4f tempRotation = new Matrix4f();
         while (axiomIterator.hasNext()) {
@@ -82,10 +110,10 @@ private void recurse(CoreChunk view, Random rand, int posX, int posY, int posZ,
                 case 'F':
                     // Tree trunk
 
-                    safelySetBlock(view, posX + (int) position.x + 1, posY + (int) position.y, posZ + (int) position.z, barkType);
-                    safelySetBlock(view, posX + (int) position.x - 1, posY + (int) position.y, posZ + (int) position.z, barkType);
-                    safelySetBlock(view, posX + (int) position.x, posY + (int) position.y, posZ + (int) position.z + 1, barkType);
-                    safelySetBlock(view, posX + (int) position.x, posY + (int) position.y, posZ + (int) position.z - 1, barkType);
+                    stamp.set((int) position.x + 1, (int) position.y, (int) position.z, barkType);
+                    stamp.set((int) position.x - 1, (int) position.y, (int) position.z, barkType);
+                    stamp.set((int) position.x, (int) position.y, (int) position.z + 1, barkType);
+                    stamp.set((int) position.x, (int) position.y, (int) position.z - 1, barkType);
 
                     // Generate leaves
                     if (depth > 1) {
@@ -98,10 +126,10 @@ private void recurse(CoreChunk view, Random rand, int posX, int posY, int posZ,
                                         continue;
                                     }
 
-                                    safelySetBlock(view, posX + (int) position.x + x + 1, posY + (int) position.y + y, posZ + z + (int) position.z, leafType);
-                                    safelySetBlock(view, posX + (int) position.x + x - 1, posY + (int) position.y + y, posZ + z + (int) position.z, leafType);
-                                    safelySetBlock(view, posX + (int) position.x + x, posY + (int) position.y + y, posZ + z + (int) position.z + 1, leafType);
-                                    safelySetBlock(view, posX + (int) position.x + x, posY + (int) position.y + y, posZ + z + (int) position.z - 1, leafType);
+                                    stamp.set((int) position.x + x + 1, (int) position.y + y, z + (int) position.z, leafType);
+                                    stamp.set((int) position.x + x - 1, (int) position.y + y, z + (int) position.z, leafType);
+                                    stamp.set((int) position.x + x, (int) position.y + y, z + (int) position.z + 1, leafType);
+                                    stamp.set((int) position.x + x, (int) position.y + y, z + (int) position.z - 1, leafType);
                                 }
                             }
                         }
@@ -113,7 +141,7 @@ private void recurse(CoreChunk view, Random rand, int posX, int posY, int posZ,
                     position.add(dir);
                     break;
                 case '[':
-                    recurse(view, rand, posX, posY, posZ, angleOffset, axiomIterator, new Vector3f(position), new Matrix4f(rotation), depth);
+                    recurse(stamp, rand, angleOffset, axiomIterator, new Vector3f(position), new Matrix4f(rotation), depth);
                     break;
                 case ']':
                     return;
@@ -156,7 +184,7 @@ private void recurse(CoreChunk view, Random rand, int posX, int posY, int posZ,
                         break;
                     }
 
-                    recurse(view, rand, posX, posY, posZ, angleOffset, new CharSequenceIterator(rule.getAxiom()), position, rotation, depth + 1);
+                    recurse(stamp, rand, angleOffset, new CharSequenceIterator(rule.getAxiom()), position, rotation, depth + 1);
             }
         }
     }
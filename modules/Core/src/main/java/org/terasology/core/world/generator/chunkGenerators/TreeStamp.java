@@ -0,0 +1,134 @@
+/*
+ * Copyright 2015 MovingBlocks
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.terasology.core.world.generator.chunkGenerators;
+
+import com.google.common.collect.Maps;
+import org.terasology.math.Vector3i;
+import org.terasology.world.block.Block;
+import org.terasology.world.chunks.ChunkConstants;
+import org.terasology.world.chunks.CoreChunk;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+
+/**
+ * The blocks of a fully expanded tree, as offsets from the position the tree grows from. A stamp is created once per
+ * tree variant and then copied into every chunk the tree overlaps, clipped to the chunk.
+ */
+public final class TreeStamp {
+
+    private final int[] offsets;
+    private final Block[] blocks;
+    private final int minX;
+    private final int minY;
+    private final int minZ;
+    private final int maxX;
+    private final int maxY;
+    private final int maxZ;
+
+    private TreeStamp(int[] offsets, Block[] blocks) {
+        this.offsets = offsets;
+        this.blocks = blocks;
+        int lowX = 0;
+        int lowY = 0;
+        int lowZ = 0;
+        int highX = 0;
+        int highY = 0;
+        int highZ = 0;
+        for (int i = 0; i < blocks.length; ++i) {
+            lowX = Math.min(lowX, offsets[3 * i]);
+            lowY = Math.min(lowY, offsets[3 * i + 1]);
+            lowZ = Math.min(lowZ, offsets[3 * i + 2]);
+            highX = Math.max(highX, offsets[3 * i]);
+            highY = Math.max(highY, offsets[3 * i + 1]);
+            highZ = Math.max(highZ, offsets[3 * i + 2]);
+        }
+        this.minX = lowX;
+        this.minY = lowY;
+        this.minZ = lowZ;
+        this.maxX = highX;
+        this.maxY = highY;
+        this.maxZ = highZ;
+    }
+
+    /**
+     * Copies the blocks of the tree that fall inside the chunk into it.
+     *
+     * @param posX Position of the tree in the chunk on the x-axis
+     * @param posY Position of the tree in the chunk on the y-axis
+     * @param posZ Position of the tree in the chunk on the z-axis
+     */
+    public void stamp(CoreChunk chunk, int posX, int posY, int posZ) {
+        if (posX + maxX < 0 || posX + minX >= ChunkConstants.SIZE_X
+                || posY + maxY < 0 || posY + minY >= ChunkConstants.SIZE_Y
+                || posZ + maxZ < 0 || posZ + minZ >= ChunkConstants.SIZE_Z) {
+            return;
+        }
+        for (int i = 0; i < blocks.length; ++i) {
+            int x = posX + offsets[3 * i];
+            int y = posY + offsets[3 * i + 1];
+            int z = posZ + offsets[3 * i + 2];
+            if (ChunkConstants.CHUNK_REGION.encompasses(x, y, z)) {
+                chunk.setBlock(x, y, z, blocks[i]);
+            }
+        }
+    }
+
+    public int size() {
+        return blocks.length;
+    }
+
+    /**
+     * Collects the blocks of a tree. Like setting blocks in a chunk, a block placed at an offset replaces the block
+     * placed there before.
+     */
+    public static class Builder {
+
+        private final Map<Vector3i, Block> blocks = Maps.newHashMap();
+
+        public Builder set(int x, int y, int z, Block block) {
+            blocks.put(new Vector3i(x, y, z), block);
+            return this;
+        }
+
+        public TreeStamp build() {
+            Vector3i[] positions = blocks.keySet().toArray(new Vector3i[blocks.size()]);
+            // Ordered the way chunks store their blocks, so that stamping walks through the chunk's arrays in order
+            Arrays.sort(positions, new Comparator<Vector3i>() {
+                @Override
+                public int compare(Vector3i a, Vector3i b) {
+                    if (a.y != b.y) {
+                        return Integer.compare(a.y, b.y);
+                    }
+                    if (a.z != b.z) {
+                        return Integer.compare(a.z, b.z);
+                    }
+                    return Integer.compare(a.x, b.x);
+                }
+            });
+            int[] offsets = new int[3 * positions.length];
+            Block[] stampBlocks = new Block[positions.length];
+            for (int i = 0; i < positions.length; ++i) {
+                offsets[3 * i] = positions[i].x;
+                offsets[3 * i + 1] = positions[i].y;
+                offsets[3 * i + 2] = positions[i].z;
+                stampBlocks[i] = blocks.get(positions[i]);
+            }
+            return new TreeStamp(offsets, stampBlocks);
+        }
+    }
+}
@@ -16,8 +16,7 @@
 package org.terasology.core.world.generator.facetProviders;
 
 import org.terasology.math.Rect2i;
-import org.terasology.math.Region3i;
-import org.terasology.math.Vector2i;
+import org.terasology.math.TeraMath;
 import org.terasology.world.generation.Facet;
 import org.terasology.world.generation.FacetProvider;
 import org.terasology.world.generation.GeneratingRegion;
@@ -25,6 +24,7 @@
 import org.terasology.world.generation.Requires;
 import org.terasology.world.generation.facets.DensityFacet;
 import org.terasology.world.generation.facets.SurfaceHeightFacet;
+import org.terasology.world.generation.facets.base.FieldSampler3D;
 
 /**
  * Sets density based on its distance from the surface
@@ -33,6 +33,23 @@
 @Produces(DensityFacet.class)
 public class SurfaceToDensityProvider implements FacetProvider {
 
+    private final FieldSampler3D sampler;
+
+    /**
+     * Computes the density of every block from the surface height below or above it.
+     */
+    public SurfaceToDensityProvider() {
+        this(1);
+    }
+
+    /**
+     * @param sampleRate the distance between the blocks whose density is computed from the surface height.
+     *                   The density of the blocks in between is interpolated, which smooths the terrain.
+     */
+    public SurfaceToDensityProvider(int sampleRate) {
+        this.sampler = new FieldSampler3D(sampleRate);
+    }
+
     @Override
     public void setSeed(long seed) {
 
@@ -40,18 +57,19 @@ public void setSeed(long seed) {
 
     @Override
     public void process(GeneratingRegion region) {
-        SurfaceHeightFacet surfaceHeight = region.getRegionFacet(SurfaceHeightFacet.class);
+        final SurfaceHeightFacet surfaceHeight = region.getRegionFacet(SurfaceHeightFacet.class);
         DensityFacet facet = new DensityFacet(region.getRegion(), region.getBorderForFacet(DensityFacet.class));
 
-        Region3i area = region.getRegion();
-        Rect2i rect = Rect2i.createFromMinAndMax(facet.getRelativeRegion().minX(), facet.getRelativeRegion().minZ(),
-                facet.getRelativeRegion().maxX(), facet.getRelativeRegion().maxZ());
-        for (Vector2i pos : rect) {
-            float height = surfaceHeight.get(pos);
-            for (int y = facet.getRelativeRegion().minY(); y <= facet.getRelativeRegion().maxY(); ++y) {
-                facet.set(pos.x, y, pos.y, height - area.minY() - y);
+        final Rect2i surfaceArea = surfaceHeight.getWorldRegion();
+        sampler.fill(facet, new FieldSampler3D.Field() {
+            @Override
+            public float get(int x, int y, int z) {
+                // lattice points may lie beyond the surface facet, where the closest known height is used
+                float height = surfaceHeight.getWorld(TeraMath.clamp(x, surfaceArea.minX(), surfaceArea.maxX()),
+                        TeraMath.clamp(z, surfaceArea.minY(), surfaceArea.maxY()));
+                return height - y;
             }
-        }
+        });
         region.setRegionFacet(DensityFacet.class, facet);
     }
 }
@@ -27,7 +27,6 @@
 import org.terasology.math.LSystemRule;
 import org.terasology.math.Vector3i;
 import org.terasology.registry.CoreRegistry;
-import org.terasology.utilities.random.FastRandom;
 import org.terasology.world.block.Block;
 import org.terasology.world.block.BlockManager;
 import org.terasology.world.chunks.CoreChunk;
@@ -112,7 +111,8 @@ public void generateChunk(CoreChunk chunk, Region chunkRegion) {
                 CoreBiome biome = biomeFacet.get(pos.x, pos.z);
                 for (TreeGenerator generator : treeGeneratorLookup.get(biome)) {
                     if (generator.getGenerationProbability() > (facetValue / 256f)) {
-                        generator.generate(chunk, new FastRandom((long) facetValue), pos.x, pos.y, pos.z);
+                        // Trees are grown from the facet value, so the same few variants of each tree recur and can be reused
+                        generator.generate(chunk, (long) facetValue, pos.x, pos.y, pos.z);
                         break;
                     }
                 }